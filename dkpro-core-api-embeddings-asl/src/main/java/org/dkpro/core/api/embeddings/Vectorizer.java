@@ -18,6 +18,7 @@
 package org.dkpro.core.api.embeddings;
 
 import java.io.IOException;
+import java.nio.FloatBuffer;
 
 /**
  * An interface for vectorizers mapping tokens to embedding vectors.
@@ -40,6 +41,49 @@ public interface Vectorizer
     float[] vectorize(String token)
             throws IOException;
 
+    /**
+     * Get the vector for a token and write it into the given array. If the token is unknown, the
+     * {@link #unknownVector()} is written instead.
+     * <p>
+     * Use this method to avoid allocating a new array for every lookup.
+     *
+     * @param token
+     *            a token String
+     * @param target
+     *            a float array of at least {@link #dimensions()} elements
+     * @return true if the token is known
+     * @throws IOException
+     *             if there was an error accessing the vector file.
+     */
+    default boolean vectorize(String token, float[] target)
+            throws IOException
+    {
+        boolean known = contains(token);
+        float[] vector = known ? vectorize(token) : unknownVector();
+        System.arraycopy(vector, 0, target, 0, vector.length);
+        return known;
+    }
+
+    /**
+     * Get the vector for a token and put it into the given buffer, starting at the buffer's
+     * current position. If the token is unknown, the {@link #unknownVector()} is written instead.
+     *
+     * @param token
+     *            a token String
+     * @param target
+     *            a buffer with at least {@link #dimensions()} elements remaining
+     * @return true if the token is known
+     * @throws IOException
+     *             if there was an error accessing the vector file.
+     */
+    default boolean vectorizeInto(String token, FloatBuffer target)
+            throws IOException
+    {
+        boolean known = contains(token);
+        target.put(known ? vectorize(token) : unknownVector());
+        return known;
+    }
+
     /**
      * True if the token is known by the vectorizer.
      *
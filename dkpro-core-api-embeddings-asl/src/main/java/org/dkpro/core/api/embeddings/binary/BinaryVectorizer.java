@@ -29,6 +29,10 @@ import java.util.Locale;
 
 /**
  * A {@link Vectorizer} for a binary file. Initialize with {@link #load(File)}.
+ * <p>
+ * Lookups do not modify any state of the vectorizer, so a single instance can be shared between
+ * multiple threads. Use {@link #vectorize(String, float[])} or
+ * {@link #vectorizeInto(String, FloatBuffer)} to avoid allocating a new array per lookup.
  *
  * @see BinaryWordVectorUtils
  */
@@ -36,48 +40,57 @@ public class BinaryVectorizer
         implements Vectorizer
 {
     private static final Logger LOG = LoggerFactory.getLogger(BinaryVectorizer.class);
-    private final String[] words;
+    private final Vocabulary vocabulary;
     private final Header header;
-    private final FloatBuffer[] parts;
+    private final ByteBuffer[] parts;
+    private final VectorEncoding encoding;
+    private final int recordSize;
     private final int maxVectorsPerPartition;
     private Locale locale;
     private float[] unknownVector;
 
-    private BinaryVectorizer(Header aHeader, RandomAccessFile file, String[] aWords,
+    private BinaryVectorizer(Header aHeader, RandomAccessFile file, Vocabulary aVocabulary,
             long vectorStartOffset, float[] aUnk)
             throws IOException
     {
         header = aHeader;
-        words = aWords;
+        vocabulary = aVocabulary;
 
         unknownVector = aUnk;
 
         locale = Locale.forLanguageTag(header.getLocale());
 
+        encoding = header.getEncoding();
+        recordSize = encoding.recordSize(header.getVectorLength());
+
         // Integers can address up to 2 GB (Integer.MAX_VALUE) - to handle large embeddings
         // files, we partition the file into parts of up to 2 GB each.
-        maxVectorsPerPartition = Integer.MAX_VALUE / (header.getVectorLength() * Float.BYTES);
-        int maxPartitionSizeBytes = maxVectorsPerPartition * header.getVectorLength() * Float.BYTES;
-        int neededPartitions = aWords.length / maxVectorsPerPartition;
-        if (aWords.length % maxPartitionSizeBytes > 0) {
+        int wordCount = header.getWordCount();
+        maxVectorsPerPartition = Integer.MAX_VALUE / recordSize;
+        int maxPartitionSizeBytes = maxVectorsPerPartition * recordSize;
+        int neededPartitions = wordCount / maxVectorsPerPartition;
+        if (wordCount % maxVectorsPerPartition > 0) {
             neededPartitions += 1;
         }
 
-        parts = new FloatBuffer[neededPartitions];
+        parts = new ByteBuffer[neededPartitions];
         FileChannel channel = file.getChannel();
         for (int i = 0; i < neededPartitions; i++) {
             long start = vectorStartOffset + ((long) i * maxPartitionSizeBytes);
             long length = maxPartitionSizeBytes;
             if (i == neededPartitions - 1) {
-                length = (aWords.length % maxVectorsPerPartition) * header.getVectorLength()
-                        * Float.BYTES;
+                length = ((long) wordCount - (long) i * maxVectorsPerPartition) * recordSize;
             }
-            parts[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, length).asFloatBuffer();
+            parts[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
         }
     }
 
     /**
      * Load a binary embeddings file and return a new {@link BinaryVectorizer} object.
+     * <p>
+     * Files in format version 1 store a sorted list of words which is read into memory. Files in
+     * format version 2 store a hash table of words which is memory-mapped and therefore loads
+     * almost instantly.
      *
      * @param f a {@link File}
      * @return a new {@link BinaryVectorizer}
@@ -86,17 +99,33 @@ public class BinaryVectorizer
     public static BinaryVectorizer load(File f)
             throws IOException
     {
-        RandomAccessFile file = new RandomAccessFile(f, "rw");
+        RandomAccessFile file = new RandomAccessFile(f, "r");
 
         // Load header
         Header header = Header.read(file);
 
         // Load words
-        String[] words = new String[header.getWordCount()];
-        for (int i = 0; i < header.getWordCount(); i++) {
-            words[i] = file.readUTF();
+        Vocabulary vocabulary;
+        switch (header.getVersion()) {
+        case Header.VERSION_SORTED_WORDS: {
+            String[] words = new String[header.getWordCount()];
+            for (int i = 0; i < header.getWordCount(); i++) {
+                words[i] = file.readUTF();
+            }
+            vocabulary = word -> Arrays.binarySearch(words, word);
+            break;
+        }
+        case Header.VERSION_HASHED_WORDS: {
+            HashedVocabulary hashed = HashedVocabulary.map(file.getChannel(),
+                    file.getFilePointer(), header.getWordCount());
+            file.seek(file.getFilePointer() + hashed.length());
+            vocabulary = hashed;
+            break;
+        }
+        default:
+            throw new IOException("Not supported file format version.");
         }
-        LOG.info("Loaded " + words.length + " word embeddings.");
+        LOG.info("Loaded " + header.getWordCount() + " word embeddings.");
 
         // Load UNK vector
         byte[] buffer = new byte[header.getVectorLength() * Float.BYTES];
@@ -109,47 +138,88 @@ public class BinaryVectorizer
 
         // Rest of the file is mmapped
         long offset = file.getFilePointer();
-        return new BinaryVectorizer(header, file, words, offset, unk);
+        return new BinaryVectorizer(header, file, vocabulary, offset, unk);
     }
 
     @Override public float[] vectorize(String aWord)
             throws IOException
     {
-        String word = aWord;
-        if (header.isCaseless()) {
-            word = word.toLowerCase(locale);
+        int vectorIdx = indexOf(aWord);
+
+        // Word not found
+        if (vectorIdx < 0) {
+            return unknownVector;
         }
 
-        int vectorIdx = Arrays.binarySearch(words, word);
+        float[] vector = new float[header.getVectorLength()];
+        readVector(vectorIdx, vector);
+        return vector;
+    }
+
+    @Override public boolean vectorize(String aWord, float[] aTarget)
+            throws IOException
+    {
+        int vectorIdx = indexOf(aWord);
 
         // Word not found
         if (vectorIdx < 0) {
-            return unknownVector;
+            System.arraycopy(unknownVector, 0, aTarget, 0, unknownVector.length);
+            return false;
         }
 
-        // Locate the buffer from which to read the vevtor
-        int partitionIdx = vectorIdx / maxVectorsPerPartition;
-        FloatBuffer part = this.parts[partitionIdx];
+        readVector(vectorIdx, aTarget);
+        return true;
+    }
 
-        // Locate the position within the buffer from which to read the vector
-        int relativeVectorIdx = vectorIdx % maxVectorsPerPartition;
-        int offset = relativeVectorIdx * header.getVectorLength();
-        part.position(offset);
+    @Override public boolean vectorizeInto(String aWord, FloatBuffer aTarget)
+            throws IOException
+    {
+        int vectorIdx = indexOf(aWord);
 
-        // Read the vector
-        float[] vector = new float[header.getVectorLength()];
-        part.get(vector);
-        return vector;
+        // Word not found
+        if (vectorIdx < 0) {
+            aTarget.put(unknownVector);
+            return false;
+        }
+
+        // Locate the buffer and the position within the buffer from which to read the vector
+        ByteBuffer part = parts[vectorIdx / maxVectorsPerPartition];
+        int offset = (vectorIdx % maxVectorsPerPartition) * recordSize;
+        for (int i = 0; i < header.getVectorLength(); i++) {
+            aTarget.put(encoding.get(part, offset, i));
+        }
+        return true;
     }
 
     @Override public boolean contains(String aWord)
+    {
+        return indexOf(aWord) >= 0;
+    }
+
+    private int indexOf(String aWord)
     {
         String word = aWord;
         if (header.isCaseless()) {
             word = word.toLowerCase(locale);
         }
 
-        return Arrays.binarySearch(words, word) >= 0;
+        return vocabulary.indexOf(word);
+    }
+
+    /**
+     * Read a vector into the given array. Only absolute reads are used on the shared mapped
+     * buffers, i.e. their position is never changed. Thus, multiple threads can read from the same
+     * {@link BinaryVectorizer} concurrently. Quantized vectors are dequantized while reading.
+     */
+    private void readVector(int aVectorIdx, float[] aTarget)
+    {
+        // Locate the buffer from which to read the vector
+        ByteBuffer part = parts[aVectorIdx / maxVectorsPerPartition];
+
+        // Locate the position within the buffer from which to read the vector
+        int offset = (aVectorIdx % maxVectorsPerPartition) * recordSize;
+
+        encoding.read(part, offset, aTarget, header.getVectorLength());
     }
 
     @Override public float[] unknownVector()
@@ -175,11 +245,24 @@ public class BinaryVectorizer
     static class Header
     {
         private static final String MAGIC = "dl4jw2v";
-        private int version = 1;
+
+        /**
+         * Words are stored as a sorted list of modified UTF-8 strings.
+         */
+        static final int VERSION_SORTED_WORDS = 1;
+
+        /**
+         * Words are stored in a hash table, see {@link HashedVocabulary}. The header additionally
+         * declares the {@link VectorEncoding}.
+         */
+        static final int VERSION_HASHED_WORDS = 2;
+
+        private int version = VERSION_HASHED_WORDS;
         private int wordCount;
         private int vectorLength;
         private boolean caseless;
         private String locale;
+        private VectorEncoding encoding = VectorEncoding.FLOAT32;
 
         public static Header read(DataInput aInput)
                 throws IOException
@@ -195,7 +278,8 @@ public class BinaryVectorizer
             Header header = new Header();
 
             header.version = aInput.readByte();
-            if (1 != header.version) {
+            if (VERSION_SORTED_WORDS != header.version
+                    && VERSION_HASHED_WORDS != header.version) {
                 throw new IOException("Not supported file format version.");
             }
 
@@ -206,6 +290,10 @@ public class BinaryVectorizer
 
             header.locale = aInput.readUTF();
 
+            if (header.version >= VERSION_HASHED_WORDS) {
+                header.encoding = VectorEncoding.forId(aInput.readByte());
+            }
+
             return header;
         }
 
@@ -259,6 +347,16 @@ public class BinaryVectorizer
             this.vectorLength = vectorLength;
         }
 
+        public VectorEncoding getEncoding()
+        {
+            return encoding;
+        }
+
+        public void setEncoding(VectorEncoding encoding)
+        {
+            this.encoding = encoding;
+        }
+
         public void write(OutputStream aOutput)
                 throws IOException
         {
@@ -275,6 +373,10 @@ public class BinaryVectorizer
 
             out.writeUTF(locale);
 
+            if (version >= VERSION_HASHED_WORDS) {
+                out.writeByte(encoding.getId());
+            }
+
             out.flush();
         }
     }
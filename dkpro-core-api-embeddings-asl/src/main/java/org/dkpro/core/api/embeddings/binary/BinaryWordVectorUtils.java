@@ -71,6 +71,26 @@ public class BinaryWordVectorUtils
     public static void convertWordVectorsToBinary(Map<String, float[]> vectors, boolean aCaseless,
             Locale aLocale, File binaryTarget)
             throws IOException
+    {
+        convertWordVectorsToBinary(vectors, aCaseless, aLocale, VectorEncoding.FLOAT32,
+                binaryTarget);
+    }
+
+    /**
+     * Write a map of token embeddings into binary format using the given vector encoding. Use
+     * {@link VectorEncoding#FLOAT16} or {@link VectorEncoding#INT8} to obtain a smaller file at the
+     * cost of precision.
+     *
+     * @param vectors      a {@code Map<String, float[]>} holding all tokens with embeddings
+     * @param aCaseless    if true, tokens are expected to be caseless
+     * @param aLocale      the {@link Locale}
+     * @param aEncoding    the {@link VectorEncoding} used to store the vectors
+     * @param binaryTarget the target file {@link File}
+     * @throws IOException if an I/O error occurs
+     */
+    public static void convertWordVectorsToBinary(Map<String, float[]> vectors, boolean aCaseless,
+            Locale aLocale, VectorEncoding aEncoding, File binaryTarget)
+            throws IOException
     {
         if (vectors.isEmpty()) {
             throw new IllegalArgumentException("Word embeddings map must not be empty.");
@@ -80,6 +100,7 @@ public class BinaryWordVectorUtils
         assert vectors.values().stream().allMatch(v -> v.length == vectorLength);
 
         Header header = prepareHeader(aCaseless, aLocale, vectors.size(), vectorLength);
+        header.setEncoding(aEncoding);
         DataOutputStream output = new DataOutputStream(
                 new BufferedOutputStream(new FileOutputStream(binaryTarget)));
         header.write(output);
@@ -90,9 +111,7 @@ public class BinaryWordVectorUtils
                 .toArray(String[]::new);
 
         LOG.info("Writing strings...");
-        for (String word : words) {
-            output.writeUTF(word);
-        }
+        HashedVocabulary.write(output, words);
 
         LOG.info("Writing UNK vector...");
         {
@@ -103,7 +122,7 @@ public class BinaryWordVectorUtils
         LOG.info("Writing vectors...");
         for (String word : words) {
             float[] vector = vectors.get(word);
-            writeVector(output, vector);
+            aEncoding.write(output, vector);
         }
         output.close();
     }
@@ -121,7 +140,7 @@ public class BinaryWordVectorUtils
             Locale aLocale, int wordCount, int vectorLength)
     {
         Header header = new Header();
-        header.setVersion(1);
+        header.setVersion(Header.VERSION_HASHED_WORDS);
         header.setWordCount(wordCount);
         header.setVectorLength(vectorLength);
         header.setCaseless(aCaseless);
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2017
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dkpro.core.api.embeddings.binary;
+
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import org.dkpro.core.api.embeddings.VectorizerUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+
+import static org.dkpro.core.api.embeddings.binary.BinaryVectorizer.Header;
+
+/**
+ * Incrementally writes word embeddings in the binary format read by {@link BinaryVectorizer}.
+ * <p>
+ * Vectors are encoded immediately and spooled to a temporary file next to the target file, so
+ * only the words are kept in memory. The target file is only written by {@link #commit()}: the
+ * binary file is first written to a temporary file which is then moved onto the target. Closing
+ * the writer without committing, e.g. because the conversion failed, discards all output and
+ * leaves the target untouched. If a word is added more than once, only its first vector is kept.
+ *
+ * <pre>
+ * try (BinaryWordVectorWriter writer = new BinaryWordVectorWriter(target, locale, encoding)) {
+ *     writer.add(word, vector);
+ *     ...
+ *     writer.commit();
+ * }
+ * </pre>
+ *
+ * @see org.dkpro.core.api.embeddings.text.TextFormatVectorizerUtils
+ */
+public class BinaryWordVectorWriter
+        implements Closeable
+{
+    private static final Logger LOG = LoggerFactory.getLogger(BinaryWordVectorWriter.class);
+
+    private final File target;
+    private final Locale locale;
+    private final VectorEncoding encoding;
+    private final File vectorFile;
+    private final DataOutputStream vectorOutput;
+    /**
+     * Maps each word to its position, i.e. the position of its vector in the vector file.
+     */
+    private final Object2IntOpenHashMap<String> wordIndex = new Object2IntOpenHashMap<>();
+    private Boolean caseless;
+    private boolean allLowercase = true;
+    private int dimensions = -1;
+    private boolean closed = false;
+
+    /**
+     * Create a new writer.
+     *
+     * @param aTarget   the target file {@link File}
+     * @param aLocale   the {@link Locale}
+     * @param aEncoding the {@link VectorEncoding} used to store the vectors
+     * @throws IOException if the temporary vector file cannot be created
+     */
+    public BinaryWordVectorWriter(File aTarget, Locale aLocale, VectorEncoding aEncoding)
+            throws IOException
+    {
+        target = aTarget;
+        locale = aLocale;
+        encoding = aEncoding;
+        vectorFile = File.createTempFile(aTarget.getName(), ".vectors",
+                aTarget.getAbsoluteFile().getParentFile());
+        vectorOutput = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(vectorFile), 1024 * 1024));
+    }
+
+    /**
+     * Declare whether the tokens are caseless. If this is not set, the tokens are assumed to be
+     * caseless iff none of them contains an uppercase letter.
+     *
+     * @param aCaseless if true, tokens are expected to be caseless
+     */
+    public void setCaseless(boolean aCaseless)
+    {
+        caseless = aCaseless;
+    }
+
+    /**
+     * Add the vector for a word.
+     *
+     * @param aWord   the word
+     * @param aVector the vector; all vectors must have the same length
+     * @return false if the word has already been added before and the vector was ignored
+     * @throws IOException if an I/O error occurs
+     */
+    public boolean add(String aWord, float[] aVector)
+            throws IOException
+    {
+        if (dimensions == -1) {
+            dimensions = aVector.length;
+        }
+        else if (dimensions != aVector.length) {
+            throw new IllegalArgumentException("Vector for [" + aWord + "] has " + aVector.length
+                    + " dimensions but expected " + dimensions);
+        }
+
+        if (wordIndex.containsKey(aWord)) {
+            LOG.warn("Ignoring duplicate vector for [" + aWord + "]");
+            return false;
+        }
+
+        wordIndex.put(aWord, wordIndex.size());
+        allLowercase = allLowercase && aWord.equals(aWord.toLowerCase());
+        encoding.write(vectorOutput, aVector);
+        return true;
+    }
+
+    /**
+     * @return the number of words added so far.
+     */
+    public int size()
+    {
+        return wordIndex.size();
+    }
+
+    /**
+     * Write the binary file and move it onto the target file. The writer is closed afterwards.
+     *
+     * @throws IOException if an I/O error occurs
+     * @throws IllegalStateException if no vectors have been added or the writer is already closed
+     */
+    public void commit()
+            throws IOException
+    {
+        if (closed) {
+            throw new IllegalStateException("Writer has already been closed.");
+        }
+        if (wordIndex.isEmpty()) {
+            throw new IllegalStateException("Word embeddings must not be empty.");
+        }
+
+        File tempFile = File.createTempFile(target.getName(), ".tmp",
+                target.getAbsoluteFile().getParentFile());
+        try {
+            vectorOutput.close();
+
+            Header header = new Header();
+            header.setVersion(Header.VERSION_HASHED_WORDS);
+            header.setWordCount(wordIndex.size());
+            header.setVectorLength(dimensions);
+            header.setCaseless(caseless != null ? caseless : allLowercase);
+            header.setLocale(locale.toString());
+            header.setEncoding(encoding);
+
+            try (DataOutputStream output = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+                header.write(output);
+
+                LOG.info("Writing strings...");
+                String[] words = words();
+                // Free the index before the vocabulary builds its hash table
+                wordIndex.clear();
+                wordIndex.trim();
+                HashedVocabulary.write(output, words);
+
+                LOG.info("Writing UNK vector...");
+                VectorEncoding.FLOAT32.write(output,
+                        VectorizerUtils.randomVector(header.getVectorLength()));
+
+                LOG.info("Writing vectors...");
+                Files.copy(vectorFile.toPath(), output);
+            }
+
+            try {
+                Files.move(tempFile.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE,
+                        StandardCopyOption.REPLACE_EXISTING);
+            }
+            catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile.toPath(), target.toPath(),
+                        StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        finally {
+            Files.deleteIfExists(tempFile.toPath());
+            close();
+        }
+    }
+
+    /**
+     * @return the words in the order in which they were added, i.e. the order of the vectors.
+     */
+    private String[] words()
+    {
+        String[] words = new String[wordIndex.size()];
+        for (Object2IntMap.Entry<String> e : wordIndex.object2IntEntrySet()) {
+            words[e.getIntValue()] = e.getKey();
+        }
+        return words;
+    }
+
+    /**
+     * Remove the temporary vector file. If {@link #commit()} has not been called, nothing is
+     * written to the target file.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void close()
+            throws IOException
+    {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        try {
+            vectorOutput.close();
+        }
+        finally {
+            Files.deleteIfExists(vectorFile.toPath());
+        }
+    }
+}
@@ -0,0 +1,265 @@
+/*
+ * Copyright 2017
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dkpro.core.api.embeddings.binary;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A vocabulary stored as a memory-mapped open-addressing hash table over the UTF-8 bytes of the
+ * words (file format version 2). No words are held on the heap and opening the vocabulary does not
+ * require reading it.
+ * <p>
+ * Layout (all values big-endian):
+ * <ol>
+ * <li>{@code int} number of slots in the hash table (a power of two)</li>
+ * <li>{@code int} total number of bytes of all words</li>
+ * <li>{@code int[slots]} the hash table; each slot holds a word index or {@code -1} if empty</li>
+ * <li>{@code int[wordCount + 1]} offset of each word within the word bytes</li>
+ * <li>{@code byte[]} the UTF-8 bytes of all words</li>
+ * </ol>
+ * Collisions are resolved by linear probing. The hash function is 32-bit FNV-1a.
+ */
+class HashedVocabulary
+        implements Vocabulary
+{
+    private static final int EMPTY = -1;
+    private static final int FNV_OFFSET_BASIS = 0x811c9dc5;
+    private static final int FNV_PRIME = 0x01000193;
+
+    private final IntBuffer slots;
+    private final IntBuffer offsets;
+    private final ByteBuffer wordBytes;
+    private final int mask;
+    private final long length;
+
+    private HashedVocabulary(IntBuffer aSlots, IntBuffer aOffsets, ByteBuffer aWordBytes,
+            long aLength)
+    {
+        slots = aSlots;
+        offsets = aOffsets;
+        wordBytes = aWordBytes;
+        mask = aSlots.capacity() - 1;
+        length = aLength;
+    }
+
+    /**
+     * Map the vocabulary starting at the given position of the file.
+     *
+     * @param aChannel the file channel
+     * @param aOffset the position of the vocabulary in the file
+     * @param aWordCount the number of words as declared in the header
+     * @return the mapped vocabulary
+     * @throws IOException if an I/O error occurs
+     */
+    public static HashedVocabulary map(FileChannel aChannel, long aOffset, int aWordCount)
+            throws IOException
+    {
+        ByteBuffer sizes = ByteBuffer.allocate(2 * Integer.BYTES);
+        aChannel.read(sizes, aOffset);
+        int slotCount = sizes.getInt(0);
+        int wordBytesLength = sizes.getInt(Integer.BYTES);
+
+        if (Integer.bitCount(slotCount) != 1 || slotCount < aWordCount) {
+            throw new IOException("Invalid hash table size: " + slotCount);
+        }
+
+        long pos = aOffset + sizes.capacity();
+        IntBuffer slots = aChannel
+                .map(FileChannel.MapMode.READ_ONLY, pos, (long) slotCount * Integer.BYTES)
+                .asIntBuffer();
+        pos += (long) slotCount * Integer.BYTES;
+
+        IntBuffer offsets = aChannel
+                .map(FileChannel.MapMode.READ_ONLY, pos, (aWordCount + 1L) * Integer.BYTES)
+                .asIntBuffer();
+        pos += (aWordCount + 1L) * Integer.BYTES;
+
+        ByteBuffer wordBytes = aChannel.map(FileChannel.MapMode.READ_ONLY, pos, wordBytesLength);
+        pos += wordBytesLength;
+
+        return new HashedVocabulary(slots, offsets, wordBytes, pos - aOffset);
+    }
+
+    /**
+     * Write the given words in the hashed vocabulary format. The index of a word in the vocabulary
+     * is its index in the given array.
+     *
+     * @param aOutput the output
+     * @param aWords the words
+     * @throws IOException if an I/O error occurs
+     */
+    public static void write(DataOutput aOutput, String[] aWords)
+            throws IOException
+    {
+        // Keep the load factor at or below 0.5 so that probe sequences stay short
+        int slotCount = Integer.highestOneBit(Math.max(1, aWords.length * 2 - 1)) << 1;
+        int[] slots = new int[slotCount];
+        Arrays.fill(slots, EMPTY);
+
+        byte[][] encoded = new byte[aWords.length][];
+        long wordBytesLength = 0;
+        for (int i = 0; i < aWords.length; i++) {
+            encoded[i] = aWords[i].getBytes(StandardCharsets.UTF_8);
+            wordBytesLength += encoded[i].length;
+
+            int slot = hash(encoded[i]) & (slotCount - 1);
+            while (slots[slot] != EMPTY) {
+                slot = (slot + 1) & (slotCount - 1);
+            }
+            slots[slot] = i;
+        }
+
+        if (wordBytesLength > Integer.MAX_VALUE) {
+            throw new IOException("Vocabulary too large: " + wordBytesLength + " bytes");
+        }
+
+        aOutput.writeInt(slotCount);
+        aOutput.writeInt((int) wordBytesLength);
+        for (int slot : slots) {
+            aOutput.writeInt(slot);
+        }
+        int offset = 0;
+        for (byte[] word : encoded) {
+            aOutput.writeInt(offset);
+            offset += word.length;
+        }
+        aOutput.writeInt(offset);
+        for (byte[] word : encoded) {
+            aOutput.write(word);
+        }
+    }
+
+    @Override
+    public int indexOf(String aWord)
+    {
+        // The word is encoded on the fly while hashing and comparing to avoid allocating its bytes
+        int slot = hash(aWord) & mask;
+        while (true) {
+            int idx = slots.get(slot);
+            if (idx == EMPTY) {
+                return -1;
+            }
+            if (matches(idx, aWord)) {
+                return idx;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * @return the number of bytes the vocabulary occupies in the file.
+     */
+    public long length()
+    {
+        return length;
+    }
+
+    private boolean matches(int aIndex, String aWord)
+    {
+        int pos = offsets.get(aIndex);
+        int end = offsets.get(aIndex + 1);
+        for (int i = 0; i < aWord.length(); i += Character.charCount(aWord.codePointAt(i))) {
+            int cp = codePointForEncoding(aWord, i);
+            int n = utf8Length(cp);
+            if (end - pos < n) {
+                return false;
+            }
+            for (int k = 0; k < n; k++) {
+                if (wordBytes.get(pos++) != (byte) utf8Byte(cp, n, k)) {
+                    return false;
+                }
+            }
+        }
+        return pos == end;
+    }
+
+    /**
+     * Same as {@code hash(aWord.getBytes(UTF_8))}, but without encoding the word into an array.
+     */
+    private static int hash(String aWord)
+    {
+        int hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < aWord.length(); i += Character.charCount(aWord.codePointAt(i))) {
+            int cp = codePointForEncoding(aWord, i);
+            int n = utf8Length(cp);
+            for (int k = 0; k < n; k++) {
+                hash ^= utf8Byte(cp, n, k);
+                hash *= FNV_PRIME;
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * @return the code point at the given index as it is encoded by
+     *         {@link String#getBytes(java.nio.charset.Charset)}, which replaces unpaired
+     *         surrogates with {@code ?}.
+     */
+    private static int codePointForEncoding(String aWord, int aIndex)
+    {
+        int cp = aWord.codePointAt(aIndex);
+        return cp < 0x10000 && Character.isSurrogate((char) cp) ? '?' : cp;
+    }
+
+    private static int utf8Length(int aCodePoint)
+    {
+        if (aCodePoint < 0x80) {
+            return 1;
+        }
+        else if (aCodePoint < 0x800) {
+            return 2;
+        }
+        else if (aCodePoint < 0x10000) {
+            return 3;
+        }
+        else {
+            return 4;
+        }
+    }
+
+    /**
+     * @return byte {@code aIndex} of the {@code aLength} bytes encoding the code point in UTF-8.
+     */
+    private static int utf8Byte(int aCodePoint, int aLength, int aIndex)
+    {
+        if (aLength == 1) {
+            return aCodePoint;
+        }
+        int shift = 6 * (aLength - 1 - aIndex);
+        if (aIndex == 0) {
+            return ((0xff00 >> aLength) & 0xff) | (aCodePoint >> shift);
+        }
+        return 0x80 | ((aCodePoint >> shift) & 0x3f);
+    }
+
+    private static int hash(byte[] aBytes)
+    {
+        int hash = FNV_OFFSET_BASIS;
+        for (byte b : aBytes) {
+            hash ^= b & 0xff;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+}
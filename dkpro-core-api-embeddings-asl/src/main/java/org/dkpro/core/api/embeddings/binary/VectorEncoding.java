@@ -0,0 +1,261 @@
+/*
+ * Copyright 2017
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dkpro.core.api.embeddings.binary;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * The encoding of the vectors in a binary embeddings file. Quantized encodings reduce the file
+ * size (and thus the memory mapped when reading) at the cost of precision. Vectors are
+ * dequantized transparently by {@link BinaryVectorizer}.
+ */
+public enum VectorEncoding
+{
+    /**
+     * 32-bit IEEE 754 floating point values.
+     */
+    FLOAT32(0)
+    {
+        @Override
+        public int recordSize(int aDimensions)
+        {
+            return aDimensions * Float.BYTES;
+        }
+
+        @Override
+        void write(DataOutput aOutput, float[] aVector)
+                throws IOException
+        {
+            for (float v : aVector) {
+                aOutput.writeFloat(v);
+            }
+        }
+
+        @Override
+        float get(ByteBuffer aBuffer, int aOffset, int aIndex)
+        {
+            return aBuffer.getFloat(aOffset + aIndex * Float.BYTES);
+        }
+    },
+
+    /**
+     * 16-bit IEEE 754 half-precision floating point values.
+     */
+    FLOAT16(1)
+    {
+        @Override
+        public int recordSize(int aDimensions)
+        {
+            return aDimensions * Short.BYTES;
+        }
+
+        @Override
+        void write(DataOutput aOutput, float[] aVector)
+                throws IOException
+        {
+            for (float v : aVector) {
+                aOutput.writeShort(floatToHalf(v));
+            }
+        }
+
+        @Override
+        float get(ByteBuffer aBuffer, int aOffset, int aIndex)
+        {
+            return halfToFloat(aBuffer.getShort(aOffset + aIndex * Short.BYTES));
+        }
+    },
+
+    /**
+     * 8-bit signed integers with a 32-bit floating point scale factor per vector. Each value is
+     * stored as {@code round(value / scale)} where {@code scale} is the maximum absolute value in
+     * the vector divided by 127.
+     */
+    INT8(2)
+    {
+        @Override
+        public int recordSize(int aDimensions)
+        {
+            return Float.BYTES + aDimensions;
+        }
+
+        @Override
+        void write(DataOutput aOutput, float[] aVector)
+                throws IOException
+        {
+            float max = 0;
+            for (float v : aVector) {
+                max = Math.max(max, Math.abs(v));
+            }
+            float scale = max / Byte.MAX_VALUE;
+
+            aOutput.writeFloat(scale);
+            for (float v : aVector) {
+                aOutput.writeByte(scale == 0 ? 0 : Math.round(v / scale));
+            }
+        }
+
+        @Override
+        float get(ByteBuffer aBuffer, int aOffset, int aIndex)
+        {
+            return aBuffer.getFloat(aOffset) * aBuffer.get(aOffset + Float.BYTES + aIndex);
+        }
+
+        @Override
+        void read(ByteBuffer aBuffer, int aOffset, float[] aTarget, int aDimensions)
+        {
+            float scale = aBuffer.getFloat(aOffset);
+            int valuesOffset = aOffset + Float.BYTES;
+            for (int i = 0; i < aDimensions; i++) {
+                aTarget[i] = scale * aBuffer.get(valuesOffset + i);
+            }
+        }
+    };
+
+    private final int id;
+
+    VectorEncoding(int aId)
+    {
+        id = aId;
+    }
+
+    /**
+     * @return the identifier of the encoding in the file header.
+     */
+    int getId()
+    {
+        return id;
+    }
+
+    /**
+     * @param aDimensions the dimensionality of the vectors
+     * @return the number of bytes occupied by one vector.
+     */
+    public abstract int recordSize(int aDimensions);
+
+    /**
+     * Encode a vector and write it to the given output.
+     */
+    abstract void write(DataOutput aOutput, float[] aVector)
+            throws IOException;
+
+    /**
+     * Decode a single value of a vector.
+     *
+     * @param aBuffer the buffer holding the vectors
+     * @param aOffset the offset of the vector record in the buffer
+     * @param aIndex the index of the value within the vector
+     * @return the decoded value
+     */
+    abstract float get(ByteBuffer aBuffer, int aOffset, int aIndex);
+
+    /**
+     * Decode a vector into the given array.
+     *
+     * @param aBuffer the buffer holding the vectors
+     * @param aOffset the offset of the vector record in the buffer
+     * @param aTarget the array to decode the vector into
+     * @param aDimensions the dimensionality of the vector
+     */
+    void read(ByteBuffer aBuffer, int aOffset, float[] aTarget, int aDimensions)
+    {
+        for (int i = 0; i < aDimensions; i++) {
+            aTarget[i] = get(aBuffer, aOffset, i);
+        }
+    }
+
+    static VectorEncoding forId(int aId)
+            throws IOException
+    {
+        for (VectorEncoding encoding : values()) {
+            if (encoding.id == aId) {
+                return encoding;
+            }
+        }
+        throw new IOException("Unsupported vector encoding: " + aId);
+    }
+
+    /**
+     * Convert a float into a half-precision value, rounding half up.
+     */
+    static short floatToHalf(float aValue)
+    {
+        int bits = Float.floatToIntBits(aValue);
+        int sign = (bits >>> 16) & 0x8000;
+        int floatExp = (bits >>> 23) & 0xff;
+        int mantissa = bits & 0x7fffff;
+
+        // NaN and infinity
+        if (floatExp == 0xff) {
+            return (short) (sign | 0x7c00 | (mantissa != 0 ? 0x200 : 0));
+        }
+
+        int exp = floatExp - 127 + 15;
+
+        // Too large - becomes infinity
+        if (exp >= 0x1f) {
+            return (short) (sign | 0x7c00);
+        }
+
+        // Too small for a normalized half - becomes subnormal or zero
+        if (exp <= 0) {
+            if (exp < -10) {
+                return (short) sign;
+            }
+            mantissa |= 0x800000;
+            int shift = 14 - exp;
+            int half = mantissa >> shift;
+            if (((mantissa >> (shift - 1)) & 1) != 0) {
+                half++;
+            }
+            return (short) (sign | half);
+        }
+
+        // A carry from rounding correctly propagates into the exponent
+        int half = sign | (exp << 10) | (mantissa >> 13);
+        if ((mantissa & 0x1000) != 0) {
+            half++;
+        }
+        return (short) half;
+    }
+
+    /**
+     * Convert a half-precision value into a float.
+     */
+    static float halfToFloat(short aValue)
+    {
+        int bits = aValue & 0xffff;
+        int sign = (bits & 0x8000) << 16;
+        int exp = (bits >>> 10) & 0x1f;
+        int mantissa = bits & 0x3ff;
+
+        // NaN and infinity
+        if (exp == 0x1f) {
+            return Float.intBitsToFloat(sign | 0x7f800000 | (mantissa << 13));
+        }
+
+        // Zero and subnormal
+        if (exp == 0) {
+            float value = mantissa / (float) (1 << 24);
+            return sign != 0 ? -value : value;
+        }
+
+        return Float.intBitsToFloat(sign | ((exp - 15 + 127) << 23) | (mantissa << 13));
+    }
+}
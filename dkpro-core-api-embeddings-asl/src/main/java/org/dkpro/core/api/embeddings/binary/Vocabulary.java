@@ -0,0 +1,30 @@
+/*
+ * Copyright 2017
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dkpro.core.api.embeddings.binary;
+
+/**
+ * Maps the words of a binary embeddings file to the index of their vector.
+ */
+interface Vocabulary
+{
+    /**
+     * @param aWord a word
+     * @return the index of the vector for the word or a negative value if the word is unknown.
+     */
+    int indexOf(String aWord);
+}
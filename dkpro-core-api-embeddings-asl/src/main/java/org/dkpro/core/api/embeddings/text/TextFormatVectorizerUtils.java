@@ -20,13 +20,24 @@ package org.dkpro.core.api.embeddings.text;
 import de.tudarmstadt.ukp.dkpro.core.api.resources.CompressionUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.dkpro.core.api.embeddings.binary.BinaryWordVectorUtils;
+import org.dkpro.core.api.embeddings.binary.BinaryWordVectorWriter;
+import org.dkpro.core.api.embeddings.binary.VectorEncoding;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 /**
@@ -36,6 +47,24 @@ public class TextFormatVectorizerUtils
 {
     private static final Logger LOG = LoggerFactory.getLogger(TextFormatVectorizerUtils.class);
 
+    /**
+     * Number of lines parsed as one unit by a worker thread.
+     */
+    private static final int CHUNK_SIZE = 10000;
+
+    /**
+     * Largest integer such that it and all smaller integers are exactly representable as float.
+     */
+    private static final long MAX_EXACT_MANTISSA = 1 << 24;
+
+    /**
+     * Largest power of ten which is exactly representable as float.
+     */
+    private static final int MAX_EXACT_POWER = 10;
+
+    private static final float[] POWERS_OF_TEN = { 1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f,
+            1e7f, 1e8f, 1e9f, 1e10f };
+
     /**
      * Read an embeddings file in text format.
      * <p>
@@ -164,13 +193,288 @@ public class TextFormatVectorizerUtils
      * @param aLocale          the {@link Locale} to use
      * @param targetFile       the output {@link File}
      * @throws IOException if an I/O error occurs.
+     * @see #convertTextEmbeddingsToBinary(File, boolean, Locale, VectorEncoding, int, File)
      */
     public static void convertMalletEmbeddingsToBinary(File malletEmbeddings, boolean aCaseless,
             Locale aLocale, File targetFile)
             throws IOException
     {
-        Map<String, float[]> embeddings = readEmbeddingFileTxt(malletEmbeddings, false);
-        BinaryWordVectorUtils
-                .convertWordVectorsToBinary(embeddings, aCaseless, aLocale, targetFile);
+        try (BinaryWordVectorWriter writer = new BinaryWordVectorWriter(targetFile, aLocale,
+                VectorEncoding.FLOAT32)) {
+            writer.setCaseless(aCaseless);
+            convertTextEmbeddingsToBinary(malletEmbeddings, false,
+                    Runtime.getRuntime().availableProcessors(), writer);
+            writer.commit();
+        }
+    }
+
+    /**
+     * Convert a (compressed) embeddings file in text format into the binary format. Uses the
+     * default locale {@link Locale#US}, stores the vectors as {@link VectorEncoding#FLOAT32} and
+     * uses all available processors.
+     *
+     * @param embeddingsFile the {@link File} containing the embeddings in text format
+     * @param hasHeader      if true, the first line is expected to contain the size and
+     *                       dimensionality of the vectors
+     * @param targetFile     the output {@link File}
+     * @throws IOException if an I/O error occurs.
+     * @see #convertTextEmbeddingsToBinary(File, boolean, Locale, VectorEncoding, int, File)
+     */
+    public static void convertTextEmbeddingsToBinary(File embeddingsFile, boolean hasHeader,
+            File targetFile)
+            throws IOException
+    {
+        convertTextEmbeddingsToBinary(embeddingsFile, hasHeader, Locale.US,
+                VectorEncoding.FLOAT32, Runtime.getRuntime().availableProcessors(), targetFile);
+    }
+
+    /**
+     * Convert a (compressed) embeddings file in text format into the binary format.
+     * <p>
+     * Unlike {@link #readEmbeddingFileTxt(File, boolean)}, this does not build a map of all
+     * embeddings. The file is read in chunks of lines which are parsed in parallel and the vectors
+     * are streamed into a {@link BinaryWordVectorWriter}, so memory use is bounded by the
+     * vocabulary size rather than by the size of the embeddings. The file is expected to be UTF-8
+     * encoded. Tokens are assumed to be caseless iff none of them contains an uppercase letter.
+     *
+     * @param embeddingsFile the {@link File} containing the embeddings in text format
+     * @param hasHeader      if true, the first line is expected to contain the size and
+     *                       dimensionality of the vectors
+     * @param aLocale        the {@link Locale} to use
+     * @param aEncoding      the {@link VectorEncoding} used to store the vectors
+     * @param aThreads       the number of threads used for parsing
+     * @param targetFile     the output {@link File}
+     * @throws IOException if an I/O error occurs.
+     */
+    public static void convertTextEmbeddingsToBinary(File embeddingsFile, boolean hasHeader,
+            Locale aLocale, VectorEncoding aEncoding, int aThreads, File targetFile)
+            throws IOException
+    {
+        try (BinaryWordVectorWriter writer = new BinaryWordVectorWriter(targetFile, aLocale,
+                aEncoding)) {
+            convertTextEmbeddingsToBinary(embeddingsFile, hasHeader, aThreads, writer);
+            writer.commit();
+        }
+    }
+
+    private static void convertTextEmbeddingsToBinary(File embeddingsFile, boolean hasHeader,
+            int aThreads, BinaryWordVectorWriter aWriter)
+            throws IOException
+    {
+        LOG.info("Converting embeddings from file " + embeddingsFile);
+
+        ExecutorService executor = Executors.newFixedThreadPool(aThreads);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                CompressionUtils.getInputStream(embeddingsFile.getAbsolutePath(),
+                        new FileInputStream(embeddingsFile)), StandardCharsets.UTF_8))) {
+            if (hasHeader) {
+                reader.readLine();
+            }
+
+            // Limit the number of chunks in flight to keep the memory use bounded
+            Deque<Future<Chunk>> pending = new ArrayDeque<>();
+            List<String> lines = new ArrayList<>(CHUNK_SIZE);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+                if (lines.size() == CHUNK_SIZE) {
+                    pending.add(submit(executor, lines));
+                    lines = new ArrayList<>(CHUNK_SIZE);
+                    if (pending.size() >= 2 * aThreads) {
+                        writeChunk(pending.poll(), aWriter);
+                    }
+                }
+            }
+            if (!lines.isEmpty()) {
+                pending.add(submit(executor, lines));
+            }
+            while (!pending.isEmpty()) {
+                writeChunk(pending.poll(), aWriter);
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+
+        LOG.info("Converted " + aWriter.size() + " word embeddings.");
+    }
+
+    private static Future<Chunk> submit(ExecutorService aExecutor, List<String> aLines)
+    {
+        return aExecutor.submit(() -> {
+            Chunk chunk = new Chunk(aLines.size());
+            for (String line : aLines) {
+                chunk.add(line);
+            }
+            return chunk;
+        });
+    }
+
+    private static void writeChunk(Future<Chunk> aChunk, BinaryWordVectorWriter aWriter)
+            throws IOException
+    {
+        Chunk chunk;
+        try {
+            chunk = aChunk.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        }
+        catch (ExecutionException e) {
+            throw new IOException(e.getCause());
+        }
+
+        for (int i = 0; i < chunk.size; i++) {
+            aWriter.add(chunk.words[i], chunk.vectors[i]);
+        }
+    }
+
+    /**
+     * A block of parsed lines.
+     */
+    private static class Chunk
+    {
+        private final String[] words;
+        private final float[][] vectors;
+        private int size;
+
+        Chunk(int aCapacity)
+        {
+            words = new String[aCapacity];
+            vectors = new float[aCapacity][];
+        }
+
+        /**
+         * Parse a line in the format {@code <token> <value1> ... <valueN>}. Blank lines are
+         * skipped.
+         */
+        void add(String aLine)
+        {
+            int wordEnd = aLine.indexOf(' ');
+            if (wordEnd <= 0) {
+                if (!aLine.trim().isEmpty()) {
+                    throw new IllegalArgumentException("Invalid line: [" + aLine + "]");
+                }
+                return;
+            }
+
+            // Count the values first so the vector can be allocated with the right size
+            int count = 0;
+            boolean inValue = false;
+            for (int i = wordEnd; i < aLine.length(); i++) {
+                boolean space = aLine.charAt(i) == ' ';
+                if (!space && !inValue) {
+                    count++;
+                }
+                inValue = !space;
+            }
+
+            float[] vector = new float[count];
+            int pos = wordEnd;
+            for (int n = 0; n < count; n++) {
+                while (aLine.charAt(pos) == ' ') {
+                    pos++;
+                }
+                int end = aLine.indexOf(' ', pos);
+                if (end == -1) {
+                    end = aLine.length();
+                }
+                vector[n] = parseFloat(aLine, pos, end);
+                pos = end;
+            }
+
+            words[size] = aLine.substring(0, wordEnd);
+            vectors[size] = vector;
+            size++;
+        }
+    }
+
+    /**
+     * Parse a decimal floating point number from a region of a string without creating
+     * intermediate objects.
+     * <p>
+     * Numbers with at most 7 significant digits and a decimal exponent of at most 10 (which covers
+     * the values commonly found in embedding files) are computed with a single float
+     * multiplication or division of exactly representable values, which yields the same result as
+     * {@link Float#parseFloat(String)}. All other numbers are passed on to
+     * {@link Float#parseFloat(String)}.
+     *
+     * @param aText  the text
+     * @param aBegin the start of the number (inclusive)
+     * @param aEnd   the end of the number (exclusive)
+     * @return the parsed value
+     * @throws NumberFormatException if the region does not contain a valid number
+     */
+    static float parseFloat(String aText, int aBegin, int aEnd)
+    {
+        int i = aBegin;
+        boolean negative = false;
+        if (i < aEnd && (aText.charAt(i) == '-' || aText.charAt(i) == '+')) {
+            negative = aText.charAt(i) == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int exponent = 0;
+        boolean hasDigits = false;
+        while (i < aEnd && isDigit(aText.charAt(i))) {
+            mantissa = mantissa * 10 + (aText.charAt(i) - '0');
+            hasDigits = true;
+            if (mantissa > MAX_EXACT_MANTISSA) {
+                return Float.parseFloat(aText.substring(aBegin, aEnd));
+            }
+            i++;
+        }
+        if (i < aEnd && aText.charAt(i) == '.') {
+            i++;
+            while (i < aEnd && isDigit(aText.charAt(i))) {
+                mantissa = mantissa * 10 + (aText.charAt(i) - '0');
+                exponent--;
+                hasDigits = true;
+                if (mantissa > MAX_EXACT_MANTISSA) {
+                    return Float.parseFloat(aText.substring(aBegin, aEnd));
+                }
+                i++;
+            }
+        }
+        if (i < aEnd && (aText.charAt(i) == 'e' || aText.charAt(i) == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < aEnd && (aText.charAt(i) == '-' || aText.charAt(i) == '+')) {
+                negativeExponent = aText.charAt(i) == '-';
+                i++;
+            }
+            int explicitExponent = 0;
+            boolean hasExponentDigits = false;
+            while (i < aEnd && isDigit(aText.charAt(i)) && explicitExponent < 1000) {
+                explicitExponent = explicitExponent * 10 + (aText.charAt(i) - '0');
+                hasExponentDigits = true;
+                i++;
+            }
+            if (!hasExponentDigits) {
+                return Float.parseFloat(aText.substring(aBegin, aEnd));
+            }
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+
+        if (!hasDigits || i != aEnd || exponent < -MAX_EXACT_POWER
+                || exponent > MAX_EXACT_POWER) {
+            return Float.parseFloat(aText.substring(aBegin, aEnd));
+        }
+
+        float value = mantissa;
+        if (exponent < 0) {
+            value /= POWERS_OF_TEN[-exponent];
+        }
+        else {
+            value *= POWERS_OF_TEN[exponent];
+        }
+        return negative ? -value : value;
+    }
+
+    private static boolean isDigit(char aChar)
+    {
+        return aChar >= '0' && aChar <= '9';
     }
 }
@@ -20,14 +20,18 @@ package org.dkpro.core.api.embeddings.binary;
 import de.tudarmstadt.ukp.dkpro.core.testing.DkproTestContext;
 import org.dkpro.core.api.embeddings.VectorizerUtils;
 import org.junit.Before;
+import org.junit.Ignore;
 import org.junit.Rule;
 import org.junit.Test;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.FloatBuffer;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Random;
 
 import static org.dkpro.core.api.embeddings.binary.BinaryWordVectorUtils.convertWordVectorsToBinary;
 import static org.junit.Assert.assertEquals;
@@ -113,6 +117,128 @@ public class BinaryWordVectorUtilsTest
                 Arrays.equals(unk1, unk2));
     }
 
+    @Test
+    public void testVectorizeIntoTarget()
+            throws IOException
+    {
+        File binaryTarget = writeBinaryFile(vectors);
+
+        BinaryVectorizer vec = BinaryVectorizer.load(binaryTarget);
+
+        float[] target = new float[vec.dimensions()];
+        FloatBuffer buffer = FloatBuffer.allocate(vec.dimensions() * 2);
+        for (String word : vectors.keySet()) {
+            assertTrue(vec.vectorize(word, target));
+            assertTrue("Vectors differ for " + word, Arrays.equals(vectors.get(word), target));
+
+            buffer.clear();
+            assertTrue(vec.vectorizeInto(word, buffer));
+            assertEquals(vec.dimensions(), buffer.position());
+            buffer.flip();
+            float[] read = new float[vec.dimensions()];
+            buffer.get(read);
+            assertTrue("Vectors differ for " + word, Arrays.equals(vectors.get(word), read));
+        }
+
+        assertFalse(vec.vectorize("unk1", target));
+        assertTrue(Arrays.equals(vec.unknownVector(), target));
+    }
+
+    @Test
+    public void testLoadVersion1()
+            throws Exception
+    {
+        File binaryFile = new File(getClass().getResource("/dummy.binary").toURI());
+
+        BinaryVectorizer vec = BinaryVectorizer.load(binaryFile);
+
+        assertEquals(699, vec.size());
+        assertEquals(50, vec.dimensions());
+        assertFalse(vec.isCaseless());
+        assertTrue(vec.contains("Abilities"));
+        assertFalse(vec.contains("abilities"));
+    }
+
+    @Test
+    public void testQuantizedEncodingFidelity()
+            throws IOException
+    {
+        Map<String, float[]> data = randomVectors(1000, 300);
+
+        assertMinCosineSimilarity(data, VectorEncoding.FLOAT32, 1.0);
+        assertMinCosineSimilarity(data, VectorEncoding.FLOAT16, 0.9999);
+        assertMinCosineSimilarity(data, VectorEncoding.INT8, 0.999);
+    }
+
+    @Ignore("Benchmark - run manually")
+    @Test
+    public void benchmarkLookupLatency()
+            throws IOException
+    {
+        Map<String, float[]> data = randomVectors(100000, 300);
+        String[] words = data.keySet().toArray(new String[data.size()]);
+
+        for (VectorEncoding encoding : VectorEncoding.values()) {
+            File binaryTarget = new File(testContext.getTestOutputFolder(),
+                    "binaryTarget-" + encoding);
+            convertWordVectorsToBinary(data, true, Locale.US, encoding, binaryTarget);
+            BinaryVectorizer vec = BinaryVectorizer.load(binaryTarget);
+
+            float[] target = new float[vec.dimensions()];
+            for (int round = 0; round < 10; round++) {
+                long begin = System.nanoTime();
+                for (String word : words) {
+                    vec.vectorize(word, target);
+                }
+                long duration = System.nanoTime() - begin;
+                System.out.printf("%-8s size: %10d bytes  lookup: %6d ns%n", encoding,
+                        binaryTarget.length(), duration / words.length);
+            }
+        }
+    }
+
+    private void assertMinCosineSimilarity(Map<String, float[]> aVectors,
+            VectorEncoding aEncoding, double aMinSimilarity)
+            throws IOException
+    {
+        File binaryTarget = new File(testContext.getTestOutputFolder(),
+                "binaryTarget-" + aEncoding);
+        convertWordVectorsToBinary(aVectors, true, Locale.US, aEncoding, binaryTarget);
+        BinaryVectorizer vec = BinaryVectorizer.load(binaryTarget);
+
+        for (String word : aVectors.keySet()) {
+            float[] orig = aVectors.get(word);
+            float[] conv = vec.vectorize(word);
+
+            double dot = 0;
+            double normOrig = 0;
+            double normConv = 0;
+            for (int i = 0; i < orig.length; i++) {
+                dot += orig[i] * conv[i];
+                normOrig += orig[i] * orig[i];
+                normConv += conv[i] * conv[i];
+            }
+            double similarity = dot / Math.sqrt(normOrig * normConv);
+
+            assertTrue(aEncoding + ": similarity for " + word + " is " + similarity,
+                    similarity >= aMinSimilarity - 1e-6);
+        }
+    }
+
+    private static Map<String, float[]> randomVectors(int aCount, int aDimensions)
+    {
+        Random rnd = new Random(42);
+        Map<String, float[]> data = new HashMap<>();
+        for (int n = 0; n < aCount; n++) {
+            float[] vector = new float[aDimensions];
+            for (int i = 0; i < aDimensions; i++) {
+                vector[i] = (float) rnd.nextGaussian();
+            }
+            data.put("w" + n, vector);
+        }
+        return data;
+    }
+
     /**
      * Write a binary vectors file to a testContext-dependent location.
      *
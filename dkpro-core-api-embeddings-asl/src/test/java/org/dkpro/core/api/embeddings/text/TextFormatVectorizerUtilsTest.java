@@ -19,17 +19,23 @@ package org.dkpro.core.api.embeddings.text;
 
 import de.tudarmstadt.ukp.dkpro.core.testing.DkproTestContext;
 import org.dkpro.core.api.embeddings.binary.BinaryVectorizer;
+import org.dkpro.core.api.embeddings.binary.VectorEncoding;
 import org.junit.Rule;
 import org.junit.Test;
 
 import java.io.File;
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.Arrays;
+import java.util.Locale;
 import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class TextFormatVectorizerUtilsTest
 {
@@ -102,5 +108,63 @@ public class TextFormatVectorizerUtilsTest
         }
     }
 
+    @Test
+    public void testConvertTextEmbeddingsToBinary()
+            throws IOException
+    {
+        File modelFile = new File("src/test/resources/embeddings.gz");
+        File targetFile = new File(testContext.getTestOutputFolder(), "binary");
+
+        Map<String, float[]> embeddings = TextFormatVectorizerUtils
+                .readEmbeddingFileTxt(modelFile, false);
+        TextFormatVectorizerUtils.convertTextEmbeddingsToBinary(modelFile, false, Locale.US,
+                VectorEncoding.FLOAT32, 4, targetFile);
+        BinaryVectorizer vec = BinaryVectorizer.load(targetFile);
+
+        assertEquals(embeddings.size(), vec.size());
+        assertFalse(vec.isCaseless());
+        for (String token : embeddings.keySet()) {
+            assertTrue("Arrays to not match for token " + token,
+                    Arrays.equals(embeddings.get(token), vec.vectorize(token)));
+        }
+    }
+
+    @Test
+    public void testConvertTextEmbeddingsToBinaryFailure()
+            throws IOException
+    {
+        File folder = testContext.getTestOutputFolder();
+        File modelFile = new File(folder, "broken.vec");
+        Files.write(modelFile.toPath(), "a 0.1 0.2\nb 0.3\n".getBytes(StandardCharsets.UTF_8));
+        File targetFile = new File(folder, "binary");
+
+        try {
+            TextFormatVectorizerUtils.convertTextEmbeddingsToBinary(modelFile, false, Locale.US,
+                    VectorEncoding.FLOAT32, 1, targetFile);
+            fail("Expected the conversion to fail");
+        }
+        catch (IllegalArgumentException e) {
+            // The second vector has the wrong number of dimensions
+        }
+
+        // Neither a truncated target file nor temporary files are left behind
+        assertFalse(targetFile.exists());
+        assertEquals(Arrays.asList(modelFile.getName()), Arrays.asList(folder.list()));
+    }
+
+    @Test
+    public void testParseFloat()
+    {
+        String[] values = { "0", "-0", "1", "-0.003060", "0.000151", "3.4028235E38", "1e-45",
+                "1.5E-3", "+12.5", "123456789.123", "0.12345678901234567", "NaN", "-Infinity" };
+
+        for (String value : values) {
+            String text = "x " + value + " ";
+            assertEquals(value, Float.floatToIntBits(Float.parseFloat(value)),
+                    Float.floatToIntBits(TextFormatVectorizerUtils.parseFloat(text, 2,
+                            2 + value.length())));
+        }
+    }
+
     // TODO add tests for caseless
 }
\ No newline at end of file
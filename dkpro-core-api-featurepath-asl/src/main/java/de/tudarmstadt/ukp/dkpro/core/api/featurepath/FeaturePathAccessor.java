@@ -0,0 +1,346 @@
+/*
+ * Copyright 2017
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.dkpro.core.api.featurepath;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.StringTokenizer;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.uima.cas.Feature;
+import org.apache.uima.cas.FeatureStructure;
+import org.apache.uima.cas.Type;
+import org.apache.uima.cas.TypeSystem;
+import org.apache.uima.cas.impl.LowLevelCAS;
+import org.apache.uima.cas.impl.LowLevelTypeSystem;
+import org.apache.uima.cas.impl.TypeSystemUtils;
+import org.apache.uima.cas.impl.TypeSystemUtils.PathValid;
+import org.apache.uima.cas.text.AnnotationFS;
+
+/**
+ * Feature path which has been resolved against a type system. Resolving looks up the anchor type
+ * and the features of the path once, so reading a value only follows the feature codes through
+ * the CAS, like the generated JCas getters do. The values are the same as those returned by
+ * {@link FeaturePathInfo#getValue(AnnotationFS)}.
+ * <p>
+ * Accessors are obtained using {@link #get(TypeSystem, String)}, which caches them per type
+ * system. They are immutable and thread-safe. Paths which are not valid for every instance of
+ * the anchor type, e.g. because a feature is only declared in a subtype, are evaluated per
+ * annotation using a {@link FeaturePathInfo}.
+ */
+public final class FeaturePathAccessor
+{
+    // Accessors only hold feature codes and names, so they do not keep the type system alive
+    private static final Map<TypeSystem, ConcurrentMap<String, FeaturePathAccessor>> REGISTRY =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final String anchorTypeName;
+    private final String featurePath;
+
+    // An empty path yields the covered text of the anchor annotation
+    private final boolean emptyPath;
+
+    // Codes of the features leading to the feature structure holding the value
+    private final int[] refFeatureCodes;
+
+    // Code and type class of the last feature
+    private final int valueFeatureCode;
+    private final int valueTypeClass;
+
+    // Used instead of the feature codes if the path could not be resolved statically
+    private final FeaturePathInfo interpreter;
+
+    private FeaturePathAccessor(String aAnchorTypeName, String aFeaturePath,
+            int[] aRefFeatureCodes, int aValueFeatureCode, int aValueTypeClass,
+            FeaturePathInfo aInterpreter)
+    {
+        anchorTypeName = aAnchorTypeName;
+        featurePath = aFeaturePath;
+        emptyPath = aRefFeatureCodes == null && aInterpreter == null;
+        refFeatureCodes = aRefFeatureCodes;
+        valueFeatureCode = aValueFeatureCode;
+        valueTypeClass = aValueTypeClass;
+        interpreter = aInterpreter;
+    }
+
+    /**
+     * Get the accessor for the given path, resolving it if it has not been used with the type
+     * system yet. The path has to start with a fully qualified type name - the anchor type -
+     * optionally followed by a feature path, e.g. {@code my.Token/lemma/value}.
+     *
+     * @param aTypeSystem
+     *            the type system.
+     * @param aPath
+     *            the full feature path.
+     * @return the accessor.
+     * @throws FeaturePathException
+     *             if the feature path is syntactically invalid.
+     * @throws IllegalStateException
+     *             if the anchor type is not part of the type system.
+     */
+    public static FeaturePathAccessor get(TypeSystem aTypeSystem, String aPath)
+        throws FeaturePathException
+    {
+        ConcurrentMap<String, FeaturePathAccessor> accessors;
+        synchronized (REGISTRY) {
+            accessors = REGISTRY.computeIfAbsent(aTypeSystem, k -> new ConcurrentHashMap<>());
+        }
+
+        FeaturePathAccessor accessor = accessors.get(aPath);
+        if (accessor == null) {
+            accessor = compile(aTypeSystem, aPath);
+            FeaturePathAccessor existing = accessors.putIfAbsent(aPath, accessor);
+            if (existing != null) {
+                accessor = existing;
+            }
+        }
+        return accessor;
+    }
+
+    /**
+     * Get the accessor for a feature path relative to the given anchor type.
+     *
+     * @param aTypeSystem
+     *            the type system.
+     * @param aAnchor
+     *            the anchor type.
+     * @param aPath
+     *            the feature path relative to the anchor type, may be empty.
+     * @return the accessor.
+     * @throws FeaturePathException
+     *             if the feature path is syntactically invalid.
+     * @see #get(TypeSystem, String)
+     */
+    public static FeaturePathAccessor get(TypeSystem aTypeSystem, Type aAnchor, String aPath)
+        throws FeaturePathException
+    {
+        return get(aTypeSystem, aPath.isEmpty() ? aAnchor.getName() : aAnchor.getName() + "/"
+                + aPath);
+    }
+
+    private static FeaturePathAccessor compile(TypeSystem aTypeSystem, String aPath)
+        throws FeaturePathException
+    {
+        String[] segments = aPath.split("/", 2);
+        String typeName = segments[0];
+        String path = segments.length > 1 ? segments[1] : "";
+
+        Type type = aTypeSystem.getType(typeName);
+        if (type == null) {
+            throw new IllegalStateException("Type [" + typeName + "] not found in type system");
+        }
+
+        if (path.indexOf("//") > -1) {
+            throw new FeaturePathException();
+        }
+
+        List<String> names = new ArrayList<>();
+        StringTokenizer tokenizer = new StringTokenizer(path, "/");
+        while (tokenizer.hasMoreTokens()) {
+            names.add(tokenizer.nextToken());
+        }
+
+        if (names.isEmpty()) {
+            return new FeaturePathAccessor(typeName, path, null, 0,
+                    LowLevelCAS.TYPE_CLASS_INVALID, null);
+        }
+
+        if (TypeSystemUtils.isPathValid(type, names) != PathValid.ALWAYS) {
+            FeaturePathInfo interpreter = new FeaturePathInfo();
+            interpreter.initialize(path);
+            return new FeaturePathAccessor(typeName, path, null, 0,
+                    LowLevelCAS.TYPE_CLASS_INVALID, interpreter);
+        }
+
+        // The type system implementation is also the low-level type system
+        LowLevelTypeSystem llts = (LowLevelTypeSystem) aTypeSystem;
+        int[] refFeatureCodes = new int[names.size() - 1];
+        Type currentType = type;
+        Feature feature = null;
+        for (int i = 0; i < names.size(); i++) {
+            feature = currentType.getFeatureByBaseName(names.get(i));
+            if (i < refFeatureCodes.length) {
+                if (TypeSystemUtils.classifyType(feature.getRange())
+                        != LowLevelCAS.TYPE_CLASS_FS) {
+                    // Primitive values have no features
+                    throw new FeaturePathException();
+                }
+                refFeatureCodes[i] = llts.ll_getCodeForFeature(feature);
+            }
+            currentType = feature.getRange();
+        }
+
+        int valueTypeClass = TypeSystemUtils.classifyType(feature.getRange());
+        switch (valueTypeClass) {
+        case LowLevelCAS.TYPE_CLASS_STRING:
+        case LowLevelCAS.TYPE_CLASS_INT:
+        case LowLevelCAS.TYPE_CLASS_BOOLEAN:
+        case LowLevelCAS.TYPE_CLASS_BYTE:
+        case LowLevelCAS.TYPE_CLASS_SHORT:
+        case LowLevelCAS.TYPE_CLASS_LONG:
+        case LowLevelCAS.TYPE_CLASS_FLOAT:
+        case LowLevelCAS.TYPE_CLASS_DOUBLE:
+        case LowLevelCAS.TYPE_CLASS_FS:
+        case LowLevelCAS.TYPE_CLASS_INVALID:
+            break;
+        default:
+            throw new FeaturePathException();
+        }
+
+        return new FeaturePathAccessor(typeName, path, refFeatureCodes,
+                llts.ll_getCodeForFeature(feature), valueTypeClass, null);
+    }
+
+    /**
+     * @return the name of the anchor type.
+     */
+    public String getAnchorTypeName()
+    {
+        return anchorTypeName;
+    }
+
+    /**
+     * @return the feature path relative to the anchor type.
+     */
+    public String getFeaturePath()
+    {
+        return featurePath;
+    }
+
+    /**
+     * Get the value of the feature path as a string. If the path is empty or ends in an
+     * annotation, the covered text of the annotation is returned. Primitive values are converted
+     * to strings.
+     *
+     * @param aFS
+     *            an annotation of the anchor type.
+     * @return the value or {@code null} if the path cannot be followed to a value.
+     */
+    public String getString(AnnotationFS aFS)
+    {
+        if (interpreter != null) {
+            return interpreter.getValue(aFS);
+        }
+
+        if (emptyPath) {
+            return aFS.getCoveredText();
+        }
+
+        LowLevelCAS cas = aFS.getCAS().getLowLevelCAS();
+        int ref = resolve(cas, cas.ll_getFSRef(aFS));
+        if (ref == LowLevelCAS.NULL_FS_REF) {
+            return null;
+        }
+
+        switch (valueTypeClass) {
+        case LowLevelCAS.TYPE_CLASS_STRING:
+            return cas.ll_getStringValue(ref, valueFeatureCode);
+        case LowLevelCAS.TYPE_CLASS_INT:
+            return Integer.toString(cas.ll_getIntValue(ref, valueFeatureCode));
+        case LowLevelCAS.TYPE_CLASS_BOOLEAN:
+            return Boolean.toString(cas.ll_getBooleanValue(ref, valueFeatureCode));
+        case LowLevelCAS.TYPE_CLASS_BYTE:
+            return Byte.toString(cas.ll_getByteValue(ref, valueFeatureCode));
+        case LowLevelCAS.TYPE_CLASS_SHORT:
+            return Short.toString(cas.ll_getShortValue(ref, valueFeatureCode));
+        case LowLevelCAS.TYPE_CLASS_LONG:
+            return Long.toString(cas.ll_getLongValue(ref, valueFeatureCode));
+        case LowLevelCAS.TYPE_CLASS_FLOAT:
+            return Float.toString(cas.ll_getFloatValue(ref, valueFeatureCode));
+        case LowLevelCAS.TYPE_CLASS_DOUBLE:
+            return Double.toString(cas.ll_getDoubleValue(ref, valueFeatureCode));
+        case LowLevelCAS.TYPE_CLASS_FS: {
+            int value = cas.ll_getRefValue(ref, valueFeatureCode);
+            if (value == LowLevelCAS.NULL_FS_REF) {
+                return null;
+            }
+            FeatureStructure fs = cas.ll_getFSForRef(value);
+            return fs instanceof AnnotationFS ? ((AnnotationFS) fs).getCoveredText() : null;
+        }
+        default:
+            return null;
+        }
+    }
+
+    /**
+     * Get the value of a feature path ending in an integer, short or byte feature without
+     * converting it to a string.
+     *
+     * @param aFS
+     *            an annotation of the anchor type.
+     * @param aDefault
+     *            the value returned if the path cannot be followed to a value.
+     * @return the value.
+     * @throws IllegalStateException
+     *             if the path does not end in an integer, short or byte feature.
+     */
+    public int getInt(AnnotationFS aFS, int aDefault)
+    {
+        if (interpreter != null) {
+            String value = interpreter.getValue(aFS);
+            return value != null ? Integer.parseInt(value) : aDefault;
+        }
+
+        LowLevelCAS cas = aFS.getCAS().getLowLevelCAS();
+        switch (valueTypeClass) {
+        case LowLevelCAS.TYPE_CLASS_INT: {
+            int ref = resolve(cas, cas.ll_getFSRef(aFS));
+            return ref != LowLevelCAS.NULL_FS_REF ? cas.ll_getIntValue(ref, valueFeatureCode)
+                    : aDefault;
+        }
+        case LowLevelCAS.TYPE_CLASS_SHORT: {
+            int ref = resolve(cas, cas.ll_getFSRef(aFS));
+            return ref != LowLevelCAS.NULL_FS_REF ? cas.ll_getShortValue(ref, valueFeatureCode)
+                    : aDefault;
+        }
+        case LowLevelCAS.TYPE_CLASS_BYTE: {
+            int ref = resolve(cas, cas.ll_getFSRef(aFS));
+            return ref != LowLevelCAS.NULL_FS_REF ? cas.ll_getByteValue(ref, valueFeatureCode)
+                    : aDefault;
+        }
+        default:
+            throw new IllegalStateException("Feature path [" + anchorTypeName + "/"
+                    + featurePath + "] does not end in an integer feature");
+        }
+    }
+
+    /**
+     * Follow the reference features.
+     *
+     * @return the feature structure holding the value or {@link LowLevelCAS#NULL_FS_REF} if a
+     *         reference on the way is not set.
+     */
+    private int resolve(LowLevelCAS aCas, int aRef)
+    {
+        int ref = aRef;
+        for (int i = 0; i < refFeatureCodes.length && ref != LowLevelCAS.NULL_FS_REF; i++) {
+            ref = aCas.ll_getRefValue(ref, refFeatureCodes[i]);
+        }
+        return ref;
+    }
+
+    @Override
+    public String toString()
+    {
+        return featurePath.isEmpty() ? anchorTypeName : anchorTypeName + "/" + featurePath;
+    }
+}
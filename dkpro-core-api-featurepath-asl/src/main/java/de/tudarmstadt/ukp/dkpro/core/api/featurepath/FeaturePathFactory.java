@@ -45,17 +45,9 @@ public class FeaturePathFactory
 	public static Iterable<Entry<AnnotationFS, String>> select(CAS aCas, String aPath)
 		throws FeaturePathException
 	{
-		// Separate Typename and featurepath
-		String[] segments = aPath.split("/", 2);
-		String typeName = segments[0];
-
-		Type t = aCas.getTypeSystem().getType(typeName);
-		if (t == null) {
-			throw new IllegalStateException("Type [" + typeName + "] not found in type system");
-		}
-
-		String path = segments.length > 1 ? segments[1] : "";
-		return iterable(FeaturePathIterator.create(aCas, t, path));
+		FeaturePathAccessor accessor = FeaturePathAccessor.get(aCas.getTypeSystem(), aPath);
+		Type t = aCas.getTypeSystem().getType(accessor.getAnchorTypeName());
+		return iterable(FeaturePathIterator.<AnnotationFS> create(aCas, t, accessor));
 	}
 
 	/**
@@ -94,11 +86,20 @@ public class FeaturePathFactory
 	implements Iterator<Entry<T, String>>
 	{
 		private final FeaturePathInfo fp;
+		private final FeaturePathAccessor accessor;
 		private final Iterator<T> iterator;
 
 		public FeaturePathIterator(Iterator<T> aIterator, FeaturePathInfo aFp)
 		{
 			fp = aFp;
+			accessor = null;
+			iterator = aIterator;
+		}
+
+		public FeaturePathIterator(Iterator<T> aIterator, FeaturePathAccessor aAccessor)
+		{
+			fp = null;
+			accessor = aAccessor;
 			iterator = aIterator;
 		}
 
@@ -123,7 +124,7 @@ public class FeaturePathFactory
 				@Override
 				public String getValue()
 				{
-					return fp.getValue(anno);
+					return accessor != null ? accessor.getString(anno) : fp.getValue(anno);
 				}
 
 				@Override
@@ -147,20 +148,23 @@ public class FeaturePathFactory
 		{
 			Type t = JCasUtil.getType(aJCas, aAnchor);
 			FSIterator<T> iterator = ((AnnotationIndex<T>) aJCas.getAnnotationIndex(t)).iterator();
-			final FeaturePathInfo fp = new FeaturePathInfo();
-			fp.initialize(aPath);
-			return new FeaturePathIterator<T>(iterator, fp);
+			FeaturePathAccessor accessor = FeaturePathAccessor.get(aJCas.getTypeSystem(), t, aPath);
+			return new FeaturePathIterator<T>(iterator, accessor);
 		}
 
-		@SuppressWarnings("unchecked")
 		public static <T extends AnnotationFS> FeaturePathIterator<T> create(CAS aCas,
 				Type aType, String aPath)
 			throws FeaturePathException
+		{
+			return create(aCas, aType, FeaturePathAccessor.get(aCas.getTypeSystem(), aType, aPath));
+		}
+
+		@SuppressWarnings("unchecked")
+		private static <T extends AnnotationFS> FeaturePathIterator<T> create(CAS aCas,
+				Type aType, FeaturePathAccessor aAccessor)
 		{
 			FSIterator<T> iterator = ((AnnotationIndex<T>) aCas.getAnnotationIndex(aType)).iterator();
-			final FeaturePathInfo fp = new FeaturePathInfo();
-			fp.initialize(aPath);
-			return new FeaturePathIterator<T>(iterator, fp);
+			return new FeaturePathIterator<T>(iterator, aAccessor);
 		}
 }
 }
@@ -49,21 +49,13 @@ public class FeaturePathUtils
             JCas aJCas, String featurePath, Optional<AnnotationFS> coveringAnnotation)
             throws FeaturePathException
     {
-        String[] segments = featurePath.split("/", 2);
-        String typeName = segments[0];
-
-        Type type = aJCas.getTypeSystem().getType(typeName);
-        if (type == null) {
-            throw new IllegalStateException("Type [" + typeName + "] not found in type system");
-        }
-
-        FeaturePathInfo fpInfo = new FeaturePathInfo();
-        fpInfo.initialize(segments.length > 1 ? segments[1] : "");
+        FeaturePathAccessor accessor = FeaturePathAccessor.get(aJCas.getTypeSystem(), featurePath);
+        Type type = aJCas.getTypeSystem().getType(accessor.getAnchorTypeName());
 
         Collection<AnnotationFS> features = coveringAnnotation.isPresent()
                 ? CasUtil.selectCovered(type, coveringAnnotation.get())
                 : CasUtil.select(aJCas.getCas(), type);
-        return new FeaturePathFactory.FeaturePathIterator<>(features.iterator(), fpInfo);
+        return new FeaturePathFactory.FeaturePathIterator<>(features.iterator(), accessor);
     }
 
     /**
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2017
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.dkpro.core.api.featurepath;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
+
+import org.apache.uima.cas.CAS;
+import org.apache.uima.cas.Type;
+import org.apache.uima.cas.text.AnnotationFS;
+import org.apache.uima.fit.factory.JCasFactory;
+import org.apache.uima.fit.util.CasUtil;
+import org.apache.uima.fit.util.JCasUtil;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.jcas.tcas.Annotation;
+import org.junit.Ignore;
+import org.junit.Test;
+
+public class FeaturePathAccessorTest
+{
+    private static final String[] PATHS = {
+            CAS.TYPE_NAME_ANNOTATION,
+            CAS.TYPE_NAME_ANNOTATION + "/begin",
+            CAS.TYPE_NAME_ANNOTATION + "/sofa",
+            CAS.TYPE_NAME_ANNOTATION + "/sofa/sofaID",
+            CAS.TYPE_NAME_ANNOTATION + "/sofa/mimeType",
+            CAS.TYPE_NAME_ANNOTATION + "/language",
+            CAS.TYPE_NAME_ANNOTATION + "/undefined",
+            CAS.TYPE_NAME_DOCUMENT_ANNOTATION + "/language" };
+
+    @Test
+    public void testSameValuesAsFeaturePathInfo()
+        throws Exception
+    {
+        JCas jcas = createJCas(10);
+
+        for (String path : PATHS) {
+            String[] segments = path.split("/", 2);
+            Type type = jcas.getTypeSystem().getType(segments[0]);
+            FeaturePathInfo fp = new FeaturePathInfo();
+            fp.initialize(segments.length > 1 ? segments[1] : "");
+            FeaturePathAccessor accessor = FeaturePathAccessor.get(jcas.getTypeSystem(), path);
+
+            for (AnnotationFS anno : CasUtil.select(jcas.getCas(), type)) {
+                assertEquals(path, fp.getValue(anno), accessor.getString(anno));
+            }
+        }
+    }
+
+    @Test
+    public void testGetInt()
+        throws Exception
+    {
+        JCas jcas = createJCas(10);
+
+        FeaturePathAccessor accessor = FeaturePathAccessor.get(jcas.getTypeSystem(),
+                CAS.TYPE_NAME_ANNOTATION + "/end");
+        for (Annotation anno : JCasUtil.select(jcas, Annotation.class)) {
+            assertEquals(anno.getEnd(), accessor.getInt(anno, -1));
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testGetIntFromString()
+        throws Exception
+    {
+        JCas jcas = createJCas(1);
+
+        FeaturePathAccessor accessor = FeaturePathAccessor.get(jcas.getTypeSystem(),
+                CAS.TYPE_NAME_DOCUMENT_ANNOTATION + "/language");
+        accessor.getInt((AnnotationFS) jcas.getDocumentAnnotationFs(), -1);
+    }
+
+    @Test
+    public void testCachedPerTypeSystem()
+        throws Exception
+    {
+        JCas jcas1 = createJCas(1);
+        JCas jcas2 = createJCas(1);
+        String path = CAS.TYPE_NAME_ANNOTATION + "/begin";
+
+        assertSame(FeaturePathAccessor.get(jcas1.getTypeSystem(), path),
+                FeaturePathAccessor.get(jcas1.getTypeSystem(), path));
+        assertNotSame(FeaturePathAccessor.get(jcas1.getTypeSystem(), path),
+                FeaturePathAccessor.get(jcas2.getTypeSystem(), path));
+    }
+
+    @Test(expected = FeaturePathException.class)
+    public void testInvalidSyntax()
+        throws Exception
+    {
+        JCas jcas = createJCas(1);
+
+        FeaturePathAccessor.get(jcas.getTypeSystem(), CAS.TYPE_NAME_ANNOTATION + "/sofa//sofaID");
+    }
+
+    @Test
+    public void testSelect()
+        throws Exception
+    {
+        JCas jcas = createJCas(3);
+
+        List<String> values = new ArrayList<>();
+        for (Entry<AnnotationFS, String> e : FeaturePathFactory.select(jcas.getCas(),
+                CAS.TYPE_NAME_ANNOTATION + "/begin")) {
+            values.add(e.getValue());
+        }
+
+        // The document annotation and the three annotations
+        assertEquals("[0, 0, 2, 4]", values.toString());
+    }
+
+    @Ignore("Benchmark comparing the compiled accessor with FeaturePathInfo")
+    @Test
+    public void benchmark()
+        throws Exception
+    {
+        JCas jcas = createJCas(100000);
+        String path = CAS.TYPE_NAME_ANNOTATION + "/sofa/sofaID";
+        FeaturePathInfo fp = new FeaturePathInfo();
+        fp.initialize("sofa/sofaID");
+        Type type = jcas.getTypeSystem().getType(CAS.TYPE_NAME_ANNOTATION);
+        List<AnnotationFS> annotations = new ArrayList<>(CasUtil.select(jcas.getCas(), type));
+
+        for (int round = 0; round < 10; round++) {
+            long start = System.nanoTime();
+            int length = 0;
+            for (AnnotationFS anno : annotations) {
+                length += fp.getValue(anno).length();
+            }
+            long interpreted = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            FeaturePathAccessor accessor = FeaturePathAccessor.get(jcas.getTypeSystem(), path);
+            for (AnnotationFS anno : annotations) {
+                length -= accessor.getString(anno).length();
+            }
+            long compiled = System.nanoTime() - start;
+
+            assertEquals(0, length);
+            System.out.printf("interpreted: %6.1f ns/op  compiled: %6.1f ns/op%n",
+                    (double) interpreted / annotations.size(),
+                    (double) compiled / annotations.size());
+        }
+    }
+
+    private static JCas createJCas(int aAnnotations)
+        throws Exception
+    {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < aAnnotations; i++) {
+            text.append("a ");
+        }
+
+        JCas jcas = JCasFactory.createJCas();
+        jcas.setDocumentText(text.toString());
+        jcas.setDocumentLanguage("en");
+        for (int i = 0; i < aAnnotations; i++) {
+            new Annotation(jcas, i * 2, i * 2 + 1).addToIndexes();
+        }
+        return jcas;
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2017
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.dkpro.core.api.io;
+
+import java.io.File;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.util.AntPathMatcher;
+
+import de.tudarmstadt.ukp.dkpro.core.api.io.ResourceCollectionReaderBase.Resource;
+
+/**
+ * Walks a directory tree depth-first and returns the files matching the include and exclude
+ * patterns one at a time. Only the entries of the directories on the current path are held in
+ * memory. The entries of each directory are visited in the order of their URIs, so the files are
+ * returned in the same order as the sorted result of
+ * {@link ResourceCollectionReaderBase#scan(String, Collection, Collection)}. Directories which
+ * cannot contain a match for any include pattern are not entered.
+ */
+class FileResourceIterator
+    implements Iterator<Resource>
+{
+    private final AntPathMatcher matcher = new AntPathMatcher();
+
+    private final String base;
+    private final String rootUri;
+    private final Collection<String> includes;
+    private final Collection<String> excludes;
+    private final boolean includeHidden;
+
+    private final Deque<Iterator<Entry>> stack = new ArrayDeque<>();
+    private Resource next;
+
+    /**
+     * @param aBase
+     *            the base location as given to the reader, ending in a slash.
+     * @param aRoot
+     *            the directory to which the base location resolves.
+     * @param aIncludes
+     *            the include patterns relative to the base.
+     * @param aExcludes
+     *            the exclude patterns relative to the base.
+     * @param aIncludeHidden
+     *            whether hidden files are returned.
+     */
+    public FileResourceIterator(String aBase, File aRoot, Collection<String> aIncludes,
+            Collection<String> aExcludes, boolean aIncludeHidden)
+    {
+        base = aBase;
+        rootUri = aRoot.toURI().toString();
+        includes = aIncludes;
+        excludes = aExcludes;
+        includeHidden = aIncludeHidden;
+
+        stack.push(list(aRoot));
+    }
+
+    @Override
+    public boolean hasNext()
+    {
+        if (next == null) {
+            next = advance();
+        }
+        return next != null;
+    }
+
+    @Override
+    public Resource next()
+    {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Resource r = next;
+        next = null;
+        return r;
+    }
+
+    private Resource advance()
+    {
+        while (!stack.isEmpty()) {
+            Iterator<Entry> entries = stack.peek();
+            if (!entries.hasNext()) {
+                stack.pop();
+                continue;
+            }
+
+            Entry entry = entries.next();
+            String path = entry.uri.substring(rootUri.length());
+            if (entry.directory) {
+                if (couldMatch(path)) {
+                    stack.push(list(entry.file));
+                }
+            }
+            else if (accept(entry.file, path)) {
+                return new Resource(base + path, base, entry.file.toURI(), rootUri, path,
+                        new FileSystemResource(entry.file));
+            }
+        }
+        return null;
+    }
+
+    private boolean couldMatch(String aDirectoryPath)
+    {
+        for (String include : includes) {
+            if (matcher.matchStart(include, aDirectoryPath)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean accept(File aFile, String aPath)
+    {
+        if (aFile.isHidden() && !includeHidden) {
+            return false;
+        }
+
+        boolean included = false;
+        for (String include : includes) {
+            if (matcher.match(include, aPath)) {
+                included = true;
+                break;
+            }
+        }
+        if (!included) {
+            return false;
+        }
+
+        for (String exclude : excludes) {
+            if (matcher.match(exclude, aPath)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Iterator<Entry> list(File aDirectory)
+    {
+        File[] files = aDirectory.listFiles();
+        if (files == null) {
+            // Not readable
+            return Arrays.<Entry> asList().iterator();
+        }
+
+        Entry[] entries = new Entry[files.length];
+        for (int i = 0; i < files.length; i++) {
+            entries[i] = new Entry(files[i]);
+        }
+        Arrays.sort(entries, (a, b) -> a.uri.compareTo(b.uri));
+        return Arrays.asList(entries).iterator();
+    }
+
+    private static class Entry
+    {
+        final File file;
+        final boolean directory;
+        // The URI of a directory ends in a slash, so sorting by URI yields the same order as
+        // sorting the complete paths of all files.
+        final String uri;
+
+        Entry(File aFile)
+        {
+            file = aFile;
+            directory = aFile.isDirectory();
+            uri = aFile.toURI().toString();
+        }
+    }
+}
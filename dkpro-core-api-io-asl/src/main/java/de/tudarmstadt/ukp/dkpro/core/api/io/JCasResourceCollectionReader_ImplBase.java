@@ -38,6 +38,7 @@ public abstract class JCasResourceCollectionReader_ImplBase
 		catch (CASException e) {
 			throw new CollectionException(e);
 		}
+		casCompleted();
 	}
 
     /**
@@ -17,12 +17,18 @@
  */
 package de.tudarmstadt.ukp.dkpro.core.api.io;
 
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.net.MalformedURLException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractCollection;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -31,8 +37,10 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.NoSuchElementException;
 import java.util.Set;
 
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang.StringUtils;
 import org.apache.uima.UimaContext;
 import org.apache.uima.cas.CAS;
@@ -68,6 +76,11 @@ import de.tudarmstadt.ukp.dkpro.core.api.parameter.ComponentParameters;
  * <p>
  * The list of resources returned is sorted, so for the same set of resources, they are always
  * returned in the same order.
+ * <p>
+ * For very large collections on the file system, {@link #PARAM_STREAMING streaming} avoids
+ * resolving and sorting all resources before the first one is read. The resources can be split
+ * into {@link #PARAM_SHARD_COUNT shards} to be read by several readers in parallel, and a
+ * {@link #PARAM_CHECKPOINT_FILE checkpoint file} allows resuming an interrupted run.
  * 
  * @see <a href="http://ant.apache.org/manual/dirtasks.html#patterns">Documentation of <b>ant</b>
  *      patterns</a>
@@ -145,12 +158,67 @@ public abstract class ResourceCollectionReaderBase
     @ConfigurationParameter(name = PARAM_LOG_FREQ, mandatory = true, defaultValue = "1")
     private int logFreq;
 
+    /**
+     * Walk the directory tree of the source location lazily instead of resolving all resources
+     * before reading the first one. The resources are returned in the same order and the patterns
+     * have the same meaning as without streaming, but the total number of resources is not known
+     * in advance. Streaming is only possible if the source location is a directory on the file
+     * system and patterns are used. Otherwise, the resources are resolved as usual.
+     * <p>
+     * Note that in streaming mode, {@link #scan(String, Collection, Collection)} is not called.
+     */
+    public static final String PARAM_STREAMING = "streaming";
+    @ConfigurationParameter(name = PARAM_STREAMING, mandatory = true, defaultValue = "false")
+    private boolean streaming;
+
+    /**
+     * The number of shards into which the resources are split. Each resource is assigned to a
+     * shard based on the hash of its path relative to the source location, so several readers
+     * using the same shard count and different {@link #PARAM_SHARD_INDEX shard indexes} read
+     * disjoint sets of resources without any coordination between them.
+     */
+    public static final String PARAM_SHARD_COUNT = "shardCount";
+    @ConfigurationParameter(name = PARAM_SHARD_COUNT, mandatory = true, defaultValue = "1")
+    private int shardCount;
+
+    /**
+     * The shard read by this reader, from {@code 0} to {@link #PARAM_SHARD_COUNT shardCount - 1}.
+     */
+    public static final String PARAM_SHARD_INDEX = "shardIndex";
+    @ConfigurationParameter(name = PARAM_SHARD_INDEX, mandatory = true, defaultValue = "0")
+    private int shardIndex;
+
+    /**
+     * A file to which the location of each resource is appended once the reader has completely
+     * read it, i.e. when a CAS has been returned successfully from it and the reader moves on to
+     * the next resource or reaches the end of the collection. The resource being read when the
+     * reader is destroyed is not recorded. When the reader is started again with the same
+     * checkpoint file, the resources listed in it are skipped. Documents which were still being
+     * processed by the pipeline when it was interrupted are not covered by this and may need to be
+     * handled by the writer.
+     */
+    public static final String PARAM_CHECKPOINT_FILE = "checkpointFile";
+    @ConfigurationParameter(name = PARAM_CHECKPOINT_FILE, mandatory = false)
+    private File checkpointFile;
+
     private int completed;
     private Collection<Resource> resources;
     private Iterator<Resource> resourceIterator;
     
     private ProgressMeter progress;
 
+    private Set<String> checkpoint;
+    private Writer checkpointWriter;
+    // Checkpoint state: the resource last obtained from nextFile(), the resource the CAS being
+    // filled was initialized from, the resource of the last CAS returned successfully and a
+    // resource the reader has moved past while a CAS from it was still being filled
+    private Resource current;
+    private Resource initialized;
+    private Resource returned;
+    private Resource pending;
+    private boolean casCompletedCalled;
+    private boolean casCompletedWarned;
+
     @Override
     public void initialize(UimaContext aContext)
         throws ResourceInitializationException
@@ -162,6 +230,12 @@ public abstract class ResourceCollectionReaderBase
                     "Either a source location, pattern, or both must be specified.");
         }
         
+        if (shardCount < 1 || shardIndex < 0 || shardIndex >= shardCount) {
+            throw new ResourceInitializationException(new IllegalArgumentException(
+                    "Shard index must be between 0 and " + (shardCount - 1) + " but was "
+                            + shardIndex + "."));
+        }
+        
         // if an ExternalResourceLocator providing a custom ResourcePatternResolver
         // has been specified, use it, by default use PathMatchingResourcePatternresolver
         
@@ -227,20 +301,202 @@ public abstract class ResourceCollectionReaderBase
                 sourceLocation = locationToUrl(sourceLocation);
             }
 
-            resources = scan(getSourceLocation(), includes, excludes);
-
-            progress = new ProgressMeter(resources.size());
+            checkpoint = readCheckpoint();
+            
+            File root = streaming ? getStreamingRoot() : null;
+            if (root != null) {
+                getLogger().info("Streaming [" + root + "]");
+                resources = new StreamingResources(root, includes, excludes);
+                progress = new ProgressMeter(0);
+            }
+            else {
+                if (streaming) {
+                    getLogger().warn("Streaming is only possible for a directory on the file "
+                            + "system using patterns - resolving all resources instead");
+                }
+                
+                resources = filter(scan(getSourceLocation(), includes, excludes));
+                progress = new ProgressMeter(resources.size());
+                getLogger().info("Found [" + resources.size() + "] resources to be read");
+            }
             
             // Get the iterator that will be used to actually traverse the FileSet.
             resourceIterator = resources.iterator();
 
-            getLogger().info("Found [" + resources.size() + "] resources to be read");
+            if (checkpointFile != null) {
+                checkpointWriter = new BufferedWriter(new OutputStreamWriter(
+                        new FileOutputStream(checkpointFile, true), StandardCharsets.UTF_8));
+            }
         }
         catch (IOException e) {
             throw new ResourceInitializationException(e);
         }
     }
     
+    private Set<String> readCheckpoint()
+        throws IOException
+    {
+        Set<String> locations = new HashSet<String>();
+        if (checkpointFile != null && checkpointFile.exists()) {
+            locations.addAll(FileUtils.readLines(checkpointFile, "UTF-8"));
+            getLogger().info("Skipping [" + locations.size()
+                    + "] resources listed in checkpoint [" + checkpointFile + "]");
+        }
+        return locations;
+    }
+    
+    /**
+     * @return the directory to walk in streaming mode or {@code null} if the source location is
+     *         not a single directory on the file system.
+     */
+    private File getStreamingRoot()
+        throws IOException
+    {
+        if (sourceLocation == null || isSingleLocation()) {
+            return null;
+        }
+        
+        org.springframework.core.io.Resource[] rBases = resolver.getResources(getBase());
+        if (rBases.length != 1) {
+            return null;
+        }
+        
+        try {
+            File root = rBases[0].getFile();
+            return root.isDirectory() ? root : null;
+        }
+        catch (IOException | UnsupportedOperationException e) {
+            // Not on the file system
+            return null;
+        }
+    }
+    
+    /**
+     * Check whether the given resource should be read by this reader. Resources which belong to
+     * another shard or which are listed in the checkpoint file are skipped.
+     * 
+     * @param aResource
+     *            the resource.
+     * @return if the resource should be read.
+     */
+    protected boolean accept(Resource aResource)
+    {
+        if (shardCount > 1) {
+            int hash = aResource.getPath() != null ? aResource.getPath().hashCode() : 0;
+            if (Math.floorMod(hash, shardCount) != shardIndex) {
+                return false;
+            }
+        }
+        
+        return !checkpoint.contains(aResource.getLocation());
+    }
+    
+    private Collection<Resource> filter(Collection<Resource> aResources)
+    {
+        if (shardCount == 1 && checkpoint.isEmpty()) {
+            return aResources;
+        }
+        
+        List<Resource> result = new ArrayList<Resource>();
+        for (Resource r : aResources) {
+            if (accept(r)) {
+                result.add(r);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Record that the CAS initialized by {@link #initCas} has been filled successfully. A resource
+     * is added to the {@link #PARAM_CHECKPOINT_FILE checkpoint file} once the last CAS read from
+     * it has been completed and the reader has moved on to the next resource or reached the end
+     * of the collection. Readers which implement {@code getNext(CAS)} themselves call this at the
+     * end of it, {@link JCasResourceCollectionReader_ImplBase} does so automatically. If a reader
+     * with a checkpoint file does not call this, a warning is logged.
+     * 
+     * @throws IOException
+     *             if the checkpoint file cannot be written.
+     */
+    protected void casCompleted()
+        throws IOException
+    {
+        casCompletedCalled = true;
+        if (initialized != null && initialized == pending) {
+            // The reader already looked ahead to the next resource while filling the CAS
+            markCompleted(pending);
+        }
+        else {
+            // Readers which deserialize a complete CAS do not call initCas()
+            returned = initialized != null ? initialized : current;
+        }
+        initialized = null;
+        pending = null;
+    }
+    
+    /**
+     * Record that the reader has read all resources, so the last resource is complete as well.
+     * This is done by {@link #hasNext()}. Readers which override it without calling it call this
+     * instead once they have no more documents.
+     * 
+     * @throws IOException
+     *             if the checkpoint file cannot be written.
+     */
+    protected void endOfCollection()
+        throws IOException
+    {
+        leaveCurrent();
+    }
+    
+    /**
+     * Called when the reader moves past the current resource.
+     */
+    private void leaveCurrent()
+        throws IOException
+    {
+        if (current == null) {
+            return;
+        }
+        
+        if (current == returned) {
+            markCompleted(current);
+        }
+        else if (current == initialized) {
+            // A CAS is still being filled from the resource, decide when it is completed
+            pending = current;
+        }
+        current = null;
+        returned = null;
+    }
+    
+    private void markCompleted(Resource aResource)
+        throws IOException
+    {
+        if (checkpointWriter != null) {
+            checkpointWriter.write(aResource.getLocation());
+            checkpointWriter.write('\n');
+            // Flush immediately so the checkpoint survives if the process is killed
+            checkpointWriter.flush();
+        }
+    }
+    
+    @Override
+    public void destroy()
+    {
+        if (checkpointWriter != null) {
+            try {
+                checkpointWriter.close();
+            }
+            catch (IOException e) {
+                getLogger().error("Unable to close checkpoint [" + checkpointFile + "]", e);
+            }
+            finally {
+                checkpointWriter = null;
+            }
+        }
+        
+        super.destroy();
+    }
+    
     protected List<String> getDefaultExcludes()
     {
         List<String> excludes = new ArrayList<String>();
@@ -331,17 +587,38 @@ public abstract class ResourceCollectionReaderBase
     {
         try {
             Resource res = resourceIterator.next();
+            leaveCurrent();
+            current = res;
             progress.setDone(completed);
             if (logFreq > 0 && completed % logFreq == 0) {
-                getLogger().info(String.format("%s: %s", progress, res.location));
+                if (isStreaming()) {
+                    getLogger().info(String.format("%d: %s", completed, res.location));
+                }
+                else {
+                    getLogger().info(String.format("%s: %s", progress, res.location));
+                }
             }
             return res;
         }
+        catch (IOException e) {
+            throw new IllegalStateException("Unable to update checkpoint [" + checkpointFile
+                    + "]", e);
+        }
         finally {
             completed++;
         }
     }
     
+    /**
+     * @return if the resources are walked lazily. In this case, the total number of resources is
+     *         not known in advance and calling {@code size()} on {@link #getResources()} walks
+     *         over all resources.
+     */
+    protected boolean isStreaming()
+    {
+        return resources instanceof StreamingResources;
+    }
+    
     protected String getSourceLocation()
     {
         return sourceLocation;
@@ -386,7 +663,9 @@ public abstract class ResourceCollectionReaderBase
     @Override
     public Progress[] getProgress()
     {
-        return new Progress[] { new ProgressImpl(completed, resources.size(), "file") };
+        // In streaming mode, the total is unknown
+        int total = isStreaming() ? -1 : resources.size();
+        return new Progress[] { new ProgressImpl(completed, total, "file") };
     }
 
     protected ResourcePatternResolver getResolver()
@@ -398,7 +677,12 @@ public abstract class ResourceCollectionReaderBase
     public boolean hasNext()
         throws IOException, CollectionException
     {
-        return resourceIterator.hasNext();
+        if (resourceIterator.hasNext()) {
+            return true;
+        }
+        
+        endOfCollection();
+        return false;
     }
 
     protected Collection<Resource> scan(String aBase, Collection<String> aIncludes,
@@ -604,6 +888,33 @@ public abstract class ResourceCollectionReaderBase
      */
     protected void initCas(CAS aCas, Resource aResource, String aQualifier)
     {
+        if (checkpointWriter != null && initialized != null && !casCompletedCalled
+                && !casCompletedWarned) {
+            getLogger().warn(getClass().getName() + " does not call casCompleted() - the "
+                    + "resources it reads are not recorded in the checkpoint [" + checkpointFile
+                    + "]");
+            casCompletedWarned = true;
+        }
+        
+        // Readers which do not use nextFile() move on to another resource by initializing a CAS
+        // from it
+        if (aResource != current) {
+            try {
+                leaveCurrent();
+            }
+            catch (IOException e) {
+                throw new IllegalStateException("Unable to update checkpoint [" + checkpointFile
+                        + "]", e);
+            }
+            current = aResource;
+        }
+        
+        // Only the last CAS initialized from a resource decides whether it has been completed
+        initialized = aResource;
+        if (aResource == returned) {
+            returned = null;
+        }
+        
         String qualifier = aQualifier != null ? "#" + aQualifier : "";
         try {
             // Set the document metadata
@@ -630,6 +941,77 @@ public abstract class ResourceCollectionReaderBase
         return language;
     }
 
+    /**
+     * Resources which are found by walking the source directory each time an iterator is
+     * requested.
+     */
+    private class StreamingResources
+        extends AbstractCollection<Resource>
+    {
+        private final File root;
+        private final Collection<String> includes;
+        private final Collection<String> excludes;
+        private int size = -1;
+
+        public StreamingResources(File aRoot, Collection<String> aIncludes,
+                Collection<String> aExcludes)
+        {
+            root = aRoot;
+            includes = aIncludes.isEmpty() ? Collections.singleton("**/*") : aIncludes;
+            excludes = aExcludes;
+        }
+
+        @Override
+        public Iterator<Resource> iterator()
+        {
+            final Iterator<Resource> files = new FileResourceIterator(getBase(), root, includes,
+                    excludes, includeHidden);
+
+            return new Iterator<Resource>()
+            {
+                private Resource next;
+
+                @Override
+                public boolean hasNext()
+                {
+                    while (next == null && files.hasNext()) {
+                        Resource r = files.next();
+                        if (accept(r)) {
+                            next = r;
+                        }
+                    }
+                    return next != null;
+                }
+
+                @Override
+                public Resource next()
+                {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    Resource r = next;
+                    next = null;
+                    return r;
+                }
+            };
+        }
+
+        @Override
+        public int size()
+        {
+            if (size == -1) {
+                int count = 0;
+                Iterator<Resource> i = iterator();
+                while (i.hasNext()) {
+                    i.next();
+                    count++;
+                }
+                size = count;
+            }
+            return size;
+        }
+    }
+
     /**
      */
     public static class Resource
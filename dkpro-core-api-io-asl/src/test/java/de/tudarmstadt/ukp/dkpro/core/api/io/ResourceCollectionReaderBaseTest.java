@@ -20,26 +20,38 @@ package de.tudarmstadt.ukp.dkpro.core.api.io;
 
 import static org.apache.uima.fit.factory.CollectionReaderFactory.createReader;
 import static org.apache.uima.fit.factory.ExternalResourceFactory.createExternalResourceDescription;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 import org.apache.uima.cas.CAS;
 import org.apache.uima.collection.CollectionException;
 import org.apache.uima.collection.CollectionReader;
+import org.apache.uima.fit.descriptor.ConfigurationParameter;
 import org.apache.uima.resource.ExternalResourceDescription;
 import org.apache.uima.resource.ResourceInitializationException;
 import org.apache.uima.util.CasCreationUtils;
 import org.junit.BeforeClass;
 import org.junit.Ignore;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import de.tudarmstadt.ukp.dkpro.core.api.metadata.type.DocumentMetaData;
 
 public class ResourceCollectionReaderBaseTest
 {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     @BeforeClass
     public static void before()
     {
@@ -255,6 +267,154 @@ public class ResourceCollectionReaderBaseTest
         searchForResourceCollectionReaderBase(reader);
     }
 
+    @Test
+    public void testStreaming()
+        throws Exception
+    {
+        CollectionReader reader = createReader(DummyReader.class,
+                ResourceCollectionReaderBase.PARAM_SOURCE_LOCATION, "src/main/java",
+                ResourceCollectionReaderBase.PARAM_PATTERNS, new String[] {
+                        "[+]**/*.java", "[-]**/sequencegenerator/**" });
+        List<String> expected = readAll(reader);
+
+        CollectionReader streamingReader = createReader(DummyReader.class,
+                ResourceCollectionReaderBase.PARAM_SOURCE_LOCATION, "src/main/java",
+                ResourceCollectionReaderBase.PARAM_PATTERNS, new String[] {
+                        "[+]**/*.java", "[-]**/sequencegenerator/**" },
+                ResourceCollectionReaderBase.PARAM_STREAMING, true);
+        List<String> actual = readAll(streamingReader);
+
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void testSharding()
+        throws Exception
+    {
+        List<String> all = readAll(createReader(DummyReader.class,
+                ResourceCollectionReaderBase.PARAM_SOURCE_LOCATION, "src/main/java",
+                ResourceCollectionReaderBase.PARAM_PATTERNS, "[+]**/*.java"));
+
+        List<String> sharded = new ArrayList<String>();
+        for (int shard = 0; shard < 3; shard++) {
+            List<String> documents = readAll(createReader(DummyReader.class,
+                    ResourceCollectionReaderBase.PARAM_SOURCE_LOCATION, "src/main/java",
+                    ResourceCollectionReaderBase.PARAM_PATTERNS, "[+]**/*.java",
+                    ResourceCollectionReaderBase.PARAM_STREAMING, true,
+                    ResourceCollectionReaderBase.PARAM_SHARD_COUNT, 3,
+                    ResourceCollectionReaderBase.PARAM_SHARD_INDEX, shard));
+            assertTrue(documents.size() < all.size());
+            sharded.addAll(documents);
+        }
+
+        Set<String> unique = new HashSet<String>(sharded);
+        assertEquals(sharded.size(), unique.size());
+        assertEquals(new HashSet<String>(all), unique);
+    }
+
+    @Test(expected = ResourceInitializationException.class)
+    public void testIllegalShardIndex()
+        throws Exception
+    {
+        createReader(DummyReader.class,
+                ResourceCollectionReaderBase.PARAM_SOURCE_LOCATION, "src/main/java",
+                ResourceCollectionReaderBase.PARAM_PATTERNS, "[+]**/*.java",
+                ResourceCollectionReaderBase.PARAM_SHARD_COUNT, 2,
+                ResourceCollectionReaderBase.PARAM_SHARD_INDEX, 2);
+    }
+
+    @Test
+    public void testCheckpoint()
+        throws Exception
+    {
+        File checkpoint = new File(folder.getRoot(), "checkpoint.txt");
+
+        List<String> all = readAll(createReader(DummyReader.class,
+                ResourceCollectionReaderBase.PARAM_SOURCE_LOCATION, "src/main/java",
+                ResourceCollectionReaderBase.PARAM_PATTERNS, "[+]**/*.java"));
+
+        // Read only the first three resources, then stop
+        CollectionReader reader = createReader(DummyReader.class,
+                ResourceCollectionReaderBase.PARAM_SOURCE_LOCATION, "src/main/java",
+                ResourceCollectionReaderBase.PARAM_PATTERNS, "[+]**/*.java",
+                ResourceCollectionReaderBase.PARAM_STREAMING, true,
+                ResourceCollectionReaderBase.PARAM_CHECKPOINT_FILE, checkpoint);
+        CAS cas = CasCreationUtils.createCas(reader.getProcessingResourceMetaData());
+        for (int i = 0; i < 3; i++) {
+            reader.getNext(cas);
+            cas.reset();
+        }
+        reader.destroy();
+
+        // The third resource is not recorded because the reader did not move past it, so the
+        // resumed reader reads it again along with the remaining resources
+        List<String> rest = readAll(createReader(DummyReader.class,
+                ResourceCollectionReaderBase.PARAM_SOURCE_LOCATION, "src/main/java",
+                ResourceCollectionReaderBase.PARAM_PATTERNS, "[+]**/*.java",
+                ResourceCollectionReaderBase.PARAM_STREAMING, true,
+                ResourceCollectionReaderBase.PARAM_CHECKPOINT_FILE, checkpoint));
+
+        assertEquals(all.subList(2, all.size()), rest);
+    }
+
+    @Test
+    public void testCheckpointSkipsFailedResource()
+        throws Exception
+    {
+        File checkpoint = new File(folder.getRoot(), "checkpoint.txt");
+
+        List<String> all = readAll(createReader(DummyReader.class,
+                ResourceCollectionReaderBase.PARAM_SOURCE_LOCATION, "src/main/java",
+                ResourceCollectionReaderBase.PARAM_PATTERNS, "[+]**/*.java"));
+
+        // Fail on the second resource, then read two more resources
+        CollectionReader reader = createReader(DummyReader.class,
+                ResourceCollectionReaderBase.PARAM_SOURCE_LOCATION, "src/main/java",
+                ResourceCollectionReaderBase.PARAM_PATTERNS, "[+]**/*.java",
+                ResourceCollectionReaderBase.PARAM_STREAMING, true,
+                ResourceCollectionReaderBase.PARAM_CHECKPOINT_FILE, checkpoint,
+                DummyReader.PARAM_FAIL_AT, 1);
+        CAS cas = CasCreationUtils.createCas(reader.getProcessingResourceMetaData());
+        for (int i = 0; i < 4; i++) {
+            try {
+                reader.getNext(cas);
+            }
+            catch (CollectionException e) {
+                assertEquals(1, i);
+            }
+            cas.reset();
+        }
+        reader.destroy();
+
+        // Only the first and third resources were completed before the reader moved past them
+        List<String> rest = readAll(createReader(DummyReader.class,
+                ResourceCollectionReaderBase.PARAM_SOURCE_LOCATION, "src/main/java",
+                ResourceCollectionReaderBase.PARAM_PATTERNS, "[+]**/*.java",
+                ResourceCollectionReaderBase.PARAM_STREAMING, true,
+                ResourceCollectionReaderBase.PARAM_CHECKPOINT_FILE, checkpoint));
+
+        List<String> expected = new ArrayList<String>(all);
+        expected.remove(2);
+        expected.remove(0);
+        assertEquals(expected, rest);
+    }
+
+    private List<String> readAll(CollectionReader aReader)
+        throws Exception
+    {
+        List<String> documents = new ArrayList<String>();
+        CAS cas = CasCreationUtils.createCas(aReader.getProcessingResourceMetaData());
+        while (aReader.hasNext()) {
+            aReader.getNext(cas);
+            documents.add(DocumentMetaData.get(cas).getDocumentUri());
+            cas.reset();
+        }
+        cas.release();
+        aReader.destroy();
+        return documents;
+    }
+
     public void searchForResourceCollectionReaderBase(CollectionReader aReader)
         throws Exception
     {
@@ -292,12 +452,24 @@ public class ResourceCollectionReaderBaseTest
     public static final class DummyReader
         extends ResourceCollectionReaderBase
     {
+        public static final String PARAM_FAIL_AT = "failAt";
+        @ConfigurationParameter(name = PARAM_FAIL_AT, mandatory = true, defaultValue = "-1")
+        private int failAt;
+        
+        private int count;
+        
         @Override
         public void getNext(CAS aCAS)
             throws IOException, CollectionException
         {
             Resource res = nextFile();
             initCas(aCAS, res);
+            
+            if (count++ == failAt) {
+                throw new CollectionException(new IllegalStateException("Failing on purpose"));
+            }
+
+            casCompleted();
         }
 
         @Override
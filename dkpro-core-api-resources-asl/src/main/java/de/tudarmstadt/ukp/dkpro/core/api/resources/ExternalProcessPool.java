@@ -0,0 +1,445 @@
+/*
+ * Copyright 2017
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.dkpro.core.api.resources;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.ProcessBuilder.Redirect;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Keeps a number of long-lived external processes, e.g. taggers provided via a
+ * {@link RuntimeProvider}, which read requests from their standard input and write responses to
+ * their standard output. This avoids starting a process and loading its model for every document.
+ * <p>
+ * A request is a list of lines, usually the tokens of one sentence. How requests are written and
+ * where a response ends is defined by a {@link Protocol}. Each request is handled by one process
+ * exclusively, so the pool can be used concurrently from several threads. Processes are started
+ * on demand. If a process dies, does not respond within the {@link #setTimeout(long) timeout} or
+ * violates the protocol, it is destroyed and replaced by a new one for the next request.
+ * <p>
+ * Example:
+ *
+ * <pre>
+ * ExternalProcessPool pool = new ExternalProcessPool(
+ *         asList(executable.getAbsolutePath(), model.getAbsolutePath()), "UTF-8",
+ *         ExternalProcessPool.BLANK_LINE_DELIMITED);
+ * pool.setSize(4);
+ * List&lt;List&lt;String&gt;&gt; tags = pool.processAll(sentences);
+ * ...
+ * pool.close();
+ * </pre>
+ */
+public class ExternalProcessPool
+    implements Closeable
+{
+    private final Log log = LogFactory.getLog(getClass());
+
+    private final List<String> command;
+    private final String encoding;
+    private final Protocol protocol;
+
+    private int size = 1;
+    private long timeout = 0;
+
+    private Semaphore permits;
+    private final ConcurrentLinkedQueue<Worker> idle = new ConcurrentLinkedQueue<>();
+    private ExecutorService dispatcher;
+    private ScheduledExecutorService watchdog;
+    private volatile boolean closed;
+
+    /**
+     * @param aCommand
+     *            the command line to start a process.
+     * @param aEncoding
+     *            the encoding used to communicate with the processes.
+     * @param aProtocol
+     *            how requests are written and responses are read.
+     */
+    public ExternalProcessPool(List<String> aCommand, String aEncoding, Protocol aProtocol)
+    {
+        command = new ArrayList<>(aCommand);
+        encoding = aEncoding;
+        protocol = aProtocol;
+    }
+
+    /**
+     * Set the maximum number of processes running at the same time. Must be called before the
+     * first request.
+     *
+     * @param aSize
+     *            the number of processes.
+     */
+    public void setSize(int aSize)
+    {
+        if (aSize < 1) {
+            throw new IllegalArgumentException("Size must be at least 1 but was " + aSize);
+        }
+        if (permits != null) {
+            throw new IllegalStateException("Pool is already in use");
+        }
+        size = aSize;
+    }
+
+    public int getSize()
+    {
+        return size;
+    }
+
+    /**
+     * Set the time a process may take to respond to a single request. If it takes longer, the
+     * process is destroyed and the request fails. Must be called before the first request.
+     *
+     * @param aTimeout
+     *            the timeout in milliseconds or {@code 0} to wait indefinitely.
+     */
+    public void setTimeout(long aTimeout)
+    {
+        if (permits != null) {
+            throw new IllegalStateException("Pool is already in use");
+        }
+        timeout = aTimeout;
+    }
+
+    public long getTimeout()
+    {
+        return timeout;
+    }
+
+    /**
+     * Send a single request to one of the processes and wait for its response.
+     *
+     * @param aRequest
+     *            the request lines.
+     * @return the response lines.
+     * @throws IOException
+     *             if the process cannot be started, fails or times out.
+     */
+    public List<String> process(List<String> aRequest)
+        throws IOException
+    {
+        init();
+
+        try {
+            permits.acquire();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a process");
+        }
+
+        Worker worker = null;
+        boolean success = false;
+        try {
+            worker = idle.poll();
+            if (worker == null) {
+                worker = new Worker();
+            }
+
+            ScheduledFuture<?> kill = null;
+            if (timeout > 0) {
+                kill = watchdog.schedule(worker::kill, timeout, TimeUnit.MILLISECONDS);
+            }
+
+            try {
+                protocol.writeRequest(worker.writer, aRequest);
+                worker.writer.flush();
+                List<String> response = protocol.readResponse(worker.reader, aRequest);
+                success = true;
+                return response;
+            }
+            catch (IOException e) {
+                if (worker.killed) {
+                    throw new IOException("Process did not respond within [" + timeout
+                            + "] ms to request " + aRequest, e);
+                }
+                throw e;
+            }
+            finally {
+                if (kill != null) {
+                    kill.cancel(false);
+                }
+            }
+        }
+        finally {
+            if (worker != null) {
+                if (success && !worker.killed && !closed) {
+                    idle.offer(worker);
+                }
+                else {
+                    if (!success) {
+                        log.warn("Discarding failed process " + command);
+                    }
+                    worker.dispose();
+                }
+            }
+            permits.release();
+        }
+    }
+
+    /**
+     * Send several requests to the processes and wait for all responses. If the pool has more
+     * than one process, the requests are processed in parallel.
+     *
+     * @param aRequests
+     *            the requests.
+     * @return the responses in the order of the requests.
+     * @throws IOException
+     *             if any of the requests fails.
+     */
+    public List<List<String>> processAll(List<List<String>> aRequests)
+        throws IOException
+    {
+        init();
+
+        List<List<String>> responses = new ArrayList<>(aRequests.size());
+        if (size == 1 || aRequests.size() < 2) {
+            for (List<String> request : aRequests) {
+                responses.add(process(request));
+            }
+            return responses;
+        }
+
+        List<Future<List<String>>> futures = new ArrayList<>(aRequests.size());
+        for (List<String> request : aRequests) {
+            futures.add(dispatcher.submit(() -> process(request)));
+        }
+
+        try {
+            for (Future<List<String>> future : futures) {
+                responses.add(future.get());
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for responses");
+        }
+        catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+        finally {
+            for (Future<List<String>> future : futures) {
+                future.cancel(false);
+            }
+        }
+
+        return responses;
+    }
+
+    private synchronized void init()
+        throws IOException
+    {
+        if (closed) {
+            throw new IOException("Pool has been closed");
+        }
+
+        if (permits == null) {
+            if (size > 1) {
+                dispatcher = Executors.newFixedThreadPool(size, daemonThreads("dispatcher"));
+            }
+            if (timeout > 0) {
+                ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1,
+                        daemonThreads("watchdog"));
+                executor.setRemoveOnCancelPolicy(true);
+                watchdog = executor;
+            }
+            permits = new Semaphore(size);
+        }
+    }
+
+    private ThreadFactory daemonThreads(String aName)
+    {
+        String name = "process-pool-" + aName + "-" + command.get(0);
+        return r -> {
+            Thread t = new Thread(r, name);
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    /**
+     * Destroy all processes. Processes which are currently handling a request are destroyed once
+     * the request is complete.
+     */
+    @Override
+    public synchronized void close()
+    {
+        closed = true;
+
+        Worker worker;
+        while ((worker = idle.poll()) != null) {
+            worker.dispose();
+        }
+
+        if (dispatcher != null) {
+            dispatcher.shutdownNow();
+            dispatcher = null;
+        }
+        if (watchdog != null) {
+            watchdog.shutdownNow();
+            watchdog = null;
+        }
+    }
+
+    private class Worker
+    {
+        final Process process;
+        final Writer writer;
+        final BufferedReader reader;
+        volatile boolean killed;
+
+        Worker()
+            throws IOException
+        {
+            ProcessBuilder pb = new ProcessBuilder(command);
+            pb.redirectError(Redirect.INHERIT);
+            process = pb.start();
+            writer = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(),
+                    encoding));
+            reader = new BufferedReader(new InputStreamReader(process.getInputStream(),
+                    encoding));
+            log.debug("Started process " + command);
+        }
+
+        /**
+         * Called by the watchdog while a request may still be waiting for the response. Closing
+         * the streams here could block, but once the process is gone, the pending read returns.
+         */
+        void kill()
+        {
+            killed = true;
+            process.destroy();
+        }
+
+        void dispose()
+        {
+            kill();
+            IOUtils.closeQuietly(writer);
+            IOUtils.closeQuietly(reader);
+        }
+    }
+
+    /**
+     * Defines how a request is sent to a process and how its response is read.
+     */
+    public interface Protocol
+    {
+        /**
+         * @param aOut
+         *            the standard input of the process. Flushed by the pool.
+         * @param aRequest
+         *            the request lines.
+         * @throws IOException
+         *             if the request cannot be written.
+         */
+        void writeRequest(Writer aOut, List<String> aRequest)
+            throws IOException;
+
+        /**
+         * Read the complete response to the given request and nothing more.
+         *
+         * @param aIn
+         *            the standard output of the process.
+         * @param aRequest
+         *            the request lines.
+         * @return the response lines.
+         * @throws IOException
+         *             if the response cannot be read or the process terminated.
+         */
+        List<String> readResponse(BufferedReader aIn, List<String> aRequest)
+            throws IOException;
+    }
+
+    /**
+     * Read a line from a process.
+     *
+     * @param aIn
+     *            the standard output of the process.
+     * @return the line.
+     * @throws EOFException
+     *             if the process has terminated.
+     * @throws IOException
+     *             if the line cannot be read.
+     */
+    public static String readLine(BufferedReader aIn)
+        throws IOException
+    {
+        String line = aIn.readLine();
+        if (line == null) {
+            throw new EOFException("Process terminated unexpectedly");
+        }
+        return line;
+    }
+
+    /**
+     * Writes one request line per line followed by an empty line. The response consists of all
+     * lines up to the next empty line. This is the format used by most taggers, e.g. HunPos and
+     * RFTagger, with one token per line.
+     */
+    public static final Protocol BLANK_LINE_DELIMITED = new Protocol()
+    {
+        @Override
+        public void writeRequest(Writer aOut, List<String> aRequest)
+            throws IOException
+        {
+            for (String line : aRequest) {
+                aOut.write(line);
+                aOut.write('\n');
+            }
+            aOut.write('\n');
+        }
+
+        @Override
+        public List<String> readResponse(BufferedReader aIn, List<String> aRequest)
+            throws IOException
+        {
+            List<String> response = new ArrayList<>(aRequest.size());
+            String line;
+            while (!(line = readLine(aIn)).isEmpty()) {
+                response.add(line);
+            }
+            return response;
+        }
+    };
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright 2017
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.dkpro.core.api.resources;
+
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Size-bounded, thread-safe cache which evicts the least recently used entries. The cache is split
+ * into segments which are locked independently, so concurrent access from several threads
+ * rarely blocks. Each segment evicts its own least recently used entry once it is full, so the
+ * eviction order is only approximately global LRU.
+ * <p>
+ * A cache with a maximum size of {@code 0} is disabled: it stores nothing and
+ * {@link #computeIfAbsent(Object, Function)} always computes the value.
+ *
+ * @param <K>
+ *            the key type.
+ * @param <V>
+ *            the value type.
+ */
+public class LruCache<K, V>
+{
+    private static final int MAX_SEGMENTS = 16;
+    private static final int MIN_SEGMENT_SIZE = 64;
+
+    private final int maxSize;
+    private final Segment<K, V>[] segments;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param aMaxSize
+     *            the maximum number of entries, {@code 0} to disable the cache.
+     */
+    @SuppressWarnings("unchecked")
+    public LruCache(int aMaxSize)
+    {
+        if (aMaxSize < 0) {
+            throw new IllegalArgumentException("Maximum size must be >= 0");
+        }
+
+        maxSize = aMaxSize;
+
+        // Use fewer segments for small caches to keep the bound reasonably precise
+        int segmentCount = 1;
+        while (segmentCount < MAX_SEGMENTS && aMaxSize / (segmentCount * 2) >= MIN_SEGMENT_SIZE) {
+            segmentCount *= 2;
+        }
+
+        segments = new Segment[segmentCount];
+        int segmentSize = (aMaxSize + segmentCount - 1) / segmentCount;
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment<>(segmentSize);
+        }
+    }
+
+    public V get(K aKey)
+    {
+        if (maxSize == 0) {
+            misses.increment();
+            return null;
+        }
+
+        V value = segmentFor(aKey).get(aKey);
+        if (value != null) {
+            hits.increment();
+        }
+        else {
+            misses.increment();
+        }
+        return value;
+    }
+
+    public void put(K aKey, V aValue)
+    {
+        if (maxSize == 0) {
+            return;
+        }
+
+        segmentFor(aKey).put(aKey, aValue);
+    }
+
+    /**
+     * Get the value for the given key, computing and caching it if it is not in the cache yet.
+     * The value is computed without holding a lock, so concurrent calls for the same key may
+     * compute it more than once. {@code null} values are not cached.
+     *
+     * @param aKey
+     *            the key.
+     * @param aFunction
+     *            the function computing the value.
+     * @return the cached or computed value.
+     */
+    public V computeIfAbsent(K aKey, Function<? super K, ? extends V> aFunction)
+    {
+        V value = get(aKey);
+        if (value == null) {
+            value = aFunction.apply(aKey);
+            if (value != null) {
+                put(aKey, value);
+            }
+        }
+        return value;
+    }
+
+    public void clear()
+    {
+        for (Segment<K, V> segment : segments) {
+            segment.clear();
+        }
+    }
+
+    /**
+     * Pass all entries currently in the cache to the consumer. The entries of each segment are
+     * copied while the segment is locked and passed to the consumer afterwards, so the consumer may
+     * access the cache. Iterating does not affect the eviction order.
+     *
+     * @param aConsumer
+     *            the consumer.
+     */
+    public void forEach(BiConsumer<? super K, ? super V> aConsumer)
+    {
+        for (Segment<K, V> segment : segments) {
+            for (Map.Entry<K, V> e : segment.entries()) {
+                aConsumer.accept(e.getKey(), e.getValue());
+            }
+        }
+    }
+
+    public int size()
+    {
+        int size = 0;
+        for (Segment<K, V> segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    public int getMaxSize()
+    {
+        return maxSize;
+    }
+
+    public long getHitCount()
+    {
+        return hits.sum();
+    }
+
+    public long getMissCount()
+    {
+        return misses.sum();
+    }
+
+    private Segment<K, V> segmentFor(Object aKey)
+    {
+        int h = aKey.hashCode();
+        h ^= (h >>> 16);
+        return segments[h & (segments.length - 1)];
+    }
+
+    private static class Segment<K, V>
+        extends LinkedHashMap<K, V>
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final int capacity;
+
+        Segment(int aCapacity)
+        {
+            super(16, 0.75f, true);
+            capacity = aCapacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> aEldest)
+        {
+            return size() > capacity;
+        }
+
+        @Override
+        public synchronized V get(Object aKey)
+        {
+            return super.get(aKey);
+        }
+
+        @Override
+        public synchronized V put(K aKey, V aValue)
+        {
+            return super.put(aKey, aValue);
+        }
+
+        @Override
+        public synchronized void clear()
+        {
+            super.clear();
+        }
+
+        @Override
+        public synchronized int size()
+        {
+            return super.size();
+        }
+
+        synchronized List<Map.Entry<K, V>> entries()
+        {
+            List<Map.Entry<K, V>> entries = new ArrayList<>(super.size());
+            for (Map.Entry<K, V> e : entrySet()) {
+                entries.add(new SimpleImmutableEntry<>(e.getKey(), e.getValue()));
+            }
+            return entries;
+        }
+    }
+}
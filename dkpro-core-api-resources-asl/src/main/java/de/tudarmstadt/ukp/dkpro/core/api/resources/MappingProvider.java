@@ -24,7 +24,9 @@ import static de.tudarmstadt.ukp.dkpro.core.api.resources.ResourceUtils.resolveL
 
 import java.io.IOException;
 import java.net.URL;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Properties;
@@ -50,6 +52,16 @@ public class MappingProvider extends CasConfigurableProviderBase<Map<String, Str
 
     private Map<String, HasResourceMetadata> tagMappingImports = new HashMap<>();
 
+    // Tag to type lookup table compiled for the current type system and mapping. Tags which are
+    // not in the table are mapped to the fallback type. Tags mapped to a type which does not exist
+    // in the type system have a null value.
+    private Map<String, Type> compiledTypes;
+    private Type compiledFallbackType;
+    private TypeSystem compiledTypeSystem;
+    private Map<String, String> compiledMapping;
+    private Map<String, String> compiledTagMappings;
+    private String compiledBaseType;
+
 	@Override
 	public void configure(CAS aCas) throws AnalysisEngineProcessException
 	{
@@ -81,8 +93,64 @@ public class MappingProvider extends CasConfigurableProviderBase<Map<String, Str
 		    }
 			notFound = true;
 		}
+
+        compile();
 	}
 
+    /**
+     * Resolve the types for all known tags, so {@link #getTagType(String)} only needs a single
+     * lookup per tag. The table is only rebuilt if the type system, the mapping or the tag
+     * mappings have changed since the last call.
+     */
+    private void compile()
+    {
+        Map<String, String> mapping = notFound ? null : getResource();
+        String baseType = notFound ? getDefault(BASE_TYPE) : null;
+        if (compiledTypes != null && typeSystem == compiledTypeSystem
+                && mapping == compiledMapping && tagMappings.equals(compiledTagMappings)
+                && (baseType == null ? compiledBaseType == null
+                        : baseType.equals(compiledBaseType))) {
+            return;
+        }
+
+        Map<String, Type> types = new HashMap<>();
+        Type fallbackType = null;
+        if (notFound) {
+            if (baseType != null) {
+                fallbackType = typeSystem.getType(baseType);
+            }
+        }
+        else if (mapping != null) {
+            Set<String> tags = new HashSet<>(MappingUtils.stripMetadata(mapping.keySet()));
+            tags.addAll(tagMappings.keySet());
+            for (String tag : tags) {
+                String type = mapping.get(getTag(tag));
+                if (type != null) {
+                    // Types missing from the type system are reported by the regular lookup
+                    types.put(tag, typeSystem.getType(withBasePackage(mapping, type)));
+                }
+            }
+
+            String fallback = mapping.get("*");
+            if (fallback != null) {
+                fallbackType = typeSystem.getType(withBasePackage(mapping, fallback));
+            }
+        }
+
+        compiledTypes = Collections.unmodifiableMap(types);
+        compiledFallbackType = fallbackType;
+        compiledTypeSystem = typeSystem;
+        compiledMapping = mapping;
+        compiledTagMappings = tagMappings;
+        compiledBaseType = baseType;
+    }
+
+    private static String withBasePackage(Map<String, String> aMapping, String aType)
+    {
+        String basePackage = aMapping.get(META_TYPE_BASE);
+        return basePackage != null ? basePackage + aType : aType;
+    }
+
 	public String getTag(String aTag)
 	{
         String tag = aTag;
@@ -107,6 +175,16 @@ public class MappingProvider extends CasConfigurableProviderBase<Map<String, Str
 	 */
 	public Type getTagType(String aTag)
 	{
+        if (compiledTypes != null) {
+            Type uimaType = compiledTypes.get(aTag);
+            if (uimaType != null) {
+                return uimaType;
+            }
+            if (compiledFallbackType != null && !compiledTypes.containsKey(aTag)) {
+                return compiledFallbackType;
+            }
+        }
+        
 		String type = getTagTypeName(aTag);
 
         Type uimaType = typeSystem.getType(type);
@@ -146,10 +224,7 @@ public class MappingProvider extends CasConfigurableProviderBase<Map<String, Str
                 throw new IllegalStateException("No fallback (*) mapping defined!");
             }
             
-            String basePackage = getResource().get(META_TYPE_BASE);
-            if (basePackage != null) {
-                type = basePackage + type;
-            }
+            type = withBasePackage(getResource(), type);
         }
 
         return type;
@@ -0,0 +1,388 @@
+/*
+ * Copyright 2017
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.dkpro.core.api.resources;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Process-wide cache for models shared between {@link ResourceObjectProviderBase resource
+ * providers}. The cache has a memory budget. Each model is accounted for with its estimated size,
+ * and the least recently used models are evicted once the budget is exceeded. A model that is
+ * larger than the whole budget is still cached until another model is added.
+ * <p>
+ * Models for which no size estimate is available (i.e. the estimate is negative) are accounted for
+ * with a default size, which can be set using the system property {@value #PROP_DEFAULT_SIZE} (in
+ * bytes) or using {@link #setDefaultSize(long)}.
+ * <p>
+ * If several threads request the same model at the same time, it is loaded only once and all
+ * threads receive the same instance.
+ * <p>
+ * The budget can be set using the system property {@value #PROP_MAX_SIZE} (in bytes) or using
+ * {@link #setMaxSize(long)}. By default, it is a quarter of the maximum heap size.
+ */
+public class ModelCache
+{
+    public static final String PROP_MAX_SIZE = "dkpro.core.resourceprovider.cache.maxSize";
+    public static final String PROP_DEFAULT_SIZE = "dkpro.core.resourceprovider.cache.defaultSize";
+
+    /**
+     * The size assumed for models of unknown size unless configured otherwise (64 MB).
+     */
+    public static final long DEFAULT_SIZE = 64L * 1024 * 1024;
+
+    private static final ModelCache INSTANCE = new ModelCache(Long.getLong(PROP_MAX_SIZE,
+            Runtime.getRuntime().maxMemory() / 4));
+
+    static {
+        INSTANCE.setDefaultSize(Long.getLong(PROP_DEFAULT_SIZE, DEFAULT_SIZE));
+    }
+
+    private final Log log = LogFactory.getLog(getClass());
+
+    private final Map<Object, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final ConcurrentHashMap<Object, CompletableFuture<Object>> loading =
+            new ConcurrentHashMap<>();
+    private long maxSize;
+    private long defaultSize = DEFAULT_SIZE;
+    private long size;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder loadTime = new LongAdder();
+
+    private volatile ExecutorService preloader;
+
+    /**
+     * @param aMaxSize
+     *            the memory budget in bytes.
+     */
+    public ModelCache(long aMaxSize)
+    {
+        setMaxSize(aMaxSize);
+    }
+
+    /**
+     * @return the cache shared by all resource providers.
+     */
+    public static ModelCache getInstance()
+    {
+        return INSTANCE;
+    }
+
+    /**
+     * Get the model for the given key. If it is not in the cache, it is loaded by the calling
+     * thread. Other threads requesting the same key in the meantime wait for the load to complete.
+     *
+     * @param aKey
+     *            the key.
+     * @param aLoader
+     *            loads the model.
+     * @param aSizeEstimator
+     *            estimates the memory used by the loaded model in bytes or returns a negative
+     *            value if the size is unknown. In this case, the default size is assumed.
+     * @return the model.
+     * @throws IOException
+     *             if the model cannot be loaded.
+     */
+    @SuppressWarnings("unchecked")
+    public <V> V get(Object aKey, Callable<V> aLoader, ToLongFunction<? super V> aSizeEstimator)
+        throws IOException
+    {
+        synchronized (entries) {
+            Entry entry = entries.get(aKey);
+            if (entry != null) {
+                hits.increment();
+                return (V) entry.value;
+            }
+        }
+
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> pending = loading.putIfAbsent(aKey, future);
+        if (pending != null) {
+            // Another thread is loading the model already
+            hits.increment();
+            return (V) await(pending);
+        }
+
+        try {
+            // Check again - the model may have been added just before we started loading
+            synchronized (entries) {
+                Entry entry = entries.get(aKey);
+                if (entry != null) {
+                    hits.increment();
+                    future.complete(entry.value);
+                    return (V) entry.value;
+                }
+            }
+
+            misses.increment();
+            long start = System.nanoTime();
+            V value;
+            try {
+                value = aLoader.call();
+            }
+            catch (IOException | RuntimeException e) {
+                future.completeExceptionally(e);
+                throw e;
+            }
+            catch (Exception e) {
+                future.completeExceptionally(e);
+                throw new IOException(e);
+            }
+            loadTime.add(System.nanoTime() - start);
+
+            put(aKey, value, aSizeEstimator.applyAsLong(value));
+            future.complete(value);
+            return value;
+        }
+        finally {
+            loading.remove(aKey, future);
+        }
+    }
+
+    private static Object await(Future<Object> aFuture)
+        throws IOException
+    {
+        try {
+            return aFuture.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the model to be loaded", e);
+        }
+        catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    private void put(Object aKey, Object aValue, long aSize)
+    {
+        synchronized (entries) {
+            Entry entry = new Entry(aValue, aSize < 0 ? defaultSize : aSize);
+            Entry previous = entries.put(aKey, entry);
+            if (previous != null) {
+                size -= previous.size;
+            }
+            size += entry.size;
+            evict(aKey);
+        }
+    }
+
+    /**
+     * Evict least recently used entries until the cache fits into the budget, but never the given
+     * entry.
+     */
+    private void evict(Object aKeep)
+    {
+        Iterator<Map.Entry<Object, Entry>> i = entries.entrySet().iterator();
+        while (size > maxSize && i.hasNext()) {
+            Map.Entry<Object, Entry> e = i.next();
+            if (e.getKey().equals(aKeep)) {
+                continue;
+            }
+            i.remove();
+            size -= e.getValue().size;
+            evictions.increment();
+            log.info("Evicted model " + e.getKey() + " (" + e.getValue().size
+                    + " bytes) from cache");
+        }
+    }
+
+    /**
+     * Run the given task in the background. Meant for loading models before they are needed.
+     *
+     * @param aTask
+     *            the task.
+     * @return the result of the task.
+     */
+    public <T> Future<T> submit(Callable<T> aTask)
+    {
+        if (preloader == null) {
+            synchronized (this) {
+                if (preloader == null) {
+                    preloader = Executors.newSingleThreadExecutor(r -> {
+                        Thread t = new Thread(r, "model-preloader");
+                        t.setDaemon(true);
+                        return t;
+                    });
+                }
+            }
+        }
+        return preloader.submit(aTask);
+    }
+
+    public void remove(Object aKey)
+    {
+        synchronized (entries) {
+            Entry entry = entries.remove(aKey);
+            if (entry != null) {
+                size -= entry.size;
+            }
+        }
+    }
+
+    public void clear()
+    {
+        synchronized (entries) {
+            entries.clear();
+            size = 0;
+        }
+    }
+
+    public boolean contains(Object aKey)
+    {
+        synchronized (entries) {
+            return entries.containsKey(aKey);
+        }
+    }
+
+    /**
+     * @param aMaxSize
+     *            the memory budget in bytes.
+     */
+    public void setMaxSize(long aMaxSize)
+    {
+        if (aMaxSize < 0) {
+            throw new IllegalArgumentException("Maximum size must be >= 0");
+        }
+
+        synchronized (entries) {
+            maxSize = aMaxSize;
+            evict(null);
+        }
+    }
+
+    public long getMaxSize()
+    {
+        synchronized (entries) {
+            return maxSize;
+        }
+    }
+
+    /**
+     * @param aDefaultSize
+     *            the size in bytes assumed for models of unknown size.
+     */
+    public void setDefaultSize(long aDefaultSize)
+    {
+        if (aDefaultSize < 0) {
+            throw new IllegalArgumentException("Default size must be >= 0");
+        }
+
+        synchronized (entries) {
+            defaultSize = aDefaultSize;
+        }
+    }
+
+    public long getDefaultSize()
+    {
+        synchronized (entries) {
+            return defaultSize;
+        }
+    }
+
+    /**
+     * @return the estimated size of all cached models in bytes.
+     */
+    public long getSize()
+    {
+        synchronized (entries) {
+            return size;
+        }
+    }
+
+    public int getEntryCount()
+    {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * @return how often a requested model was already in the cache or being loaded by another
+     *         thread.
+     */
+    public long getHitCount()
+    {
+        return hits.sum();
+    }
+
+    /**
+     * @return how often a requested model had to be loaded.
+     */
+    public long getMissCount()
+    {
+        return misses.sum();
+    }
+
+    public long getEvictionCount()
+    {
+        return evictions.sum();
+    }
+
+    /**
+     * @return the total time spent loading models in nanoseconds.
+     */
+    public long getTotalLoadTime()
+    {
+        return loadTime.sum();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "ModelCache [entries=" + getEntryCount() + ", size=" + getSize() + ", maxSize="
+                + getMaxSize() + ", hits=" + getHitCount() + ", misses=" + getMissCount()
+                + ", evictions=" + getEvictionCount() + ", loadTimeMs="
+                + getTotalLoadTime() / 1000000 + "]";
+    }
+
+    private static final class Entry
+    {
+        final Object value;
+        final long size;
+
+        Entry(Object aValue, long aSize)
+        {
+            value = aValue;
+            size = aSize;
+        }
+    }
+}
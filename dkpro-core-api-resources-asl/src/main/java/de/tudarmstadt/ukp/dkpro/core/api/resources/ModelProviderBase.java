@@ -44,6 +44,12 @@ public class ModelProviderBase<M>
     extends CasConfigurableStreamProviderBase<M>
     implements HasTagsets
 {
+    /**
+     * The ratio between the size of an uncompressed and a compressed model file assumed when
+     * estimating the memory used by a model.
+     */
+    public static final int COMPRESSION_RATIO = 4;
+
     private AggregateTagset tagsets = new AggregateTagset();
     private Set<String> inputTagsetDescriptions = new HashSet<String>();
 
@@ -100,6 +106,38 @@ public class ModelProviderBase<M>
         return null;
     }
 
+    /**
+     * Estimate the memory used by a model from the size of the model file. Models usually take up
+     * at least as much memory as their file. For compressed files, the
+     * {@link #COMPRESSION_RATIO typical compression ratio} is assumed.
+     */
+    @Override
+    protected long estimateSize(M aResource)
+    {
+        long fileSize = getResourceFileSize();
+        if (fileSize < 0) {
+            return -1;
+        }
+
+        String location = String.valueOf(getResourceUrl()).toLowerCase();
+        for (CompressionMethod method : CompressionMethod.values()) {
+            if (method != CompressionMethod.NONE && location.endsWith(method.getExtension())) {
+                return fileSize * COMPRESSION_RATIO;
+            }
+        }
+        return fileSize;
+    }
+
+    @Override
+    protected synchronized ModelProviderBase<M> clone()
+    {
+        // Tagsets are added while producing the resource, so the copy collects its own
+        ModelProviderBase<M> copy = (ModelProviderBase<M>) super.clone();
+        copy.tagsets = new AggregateTagset();
+        copy.inputTagsetDescriptions = new HashSet<String>();
+        return copy;
+    }
+
     @Override
     public Tagset getTagset()
     {
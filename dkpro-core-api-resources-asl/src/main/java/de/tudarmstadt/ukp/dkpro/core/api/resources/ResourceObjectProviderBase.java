@@ -26,6 +26,7 @@ import java.lang.reflect.Field;
 import java.net.URI;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.net.URLConnection;
 import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -37,7 +38,7 @@ import java.util.Map.Entry;
 import java.util.Properties;
 import java.util.Set;
 import java.util.UUID;
-import java.util.WeakHashMap;
+import java.util.concurrent.Future;
 
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang.StringUtils;
@@ -98,7 +99,7 @@ import de.tudarmstadt.ukp.dkpro.core.api.resources.internal.ApacheCommonsLogging
  *            the kind of resource produced
  */
 public abstract class ResourceObjectProviderBase<M>
-    implements HasResourceMetadata
+    implements HasResourceMetadata, Cloneable
 {
     private final Log log = LogFactory.getLog(ResourceObjectProviderBase.class);
 
@@ -156,7 +157,7 @@ public abstract class ResourceObjectProviderBase<M>
 
     /**
      * If this property is set to {@code true}, resources loaded through this provider are
-     * remembered by the provider using a weak reference. If the same resource is requested by
+     * remembered in the {@link ModelCache}. If the same resource is requested by
      * another instance of this provider class, the same resource is returned.
      */
     public static final String SHARABLE = "sharable";
@@ -184,17 +185,7 @@ public abstract class ResourceObjectProviderBase<M>
 
     private PropertyPlaceholderHelper pph = new PropertyPlaceholderHelper("${", "}", null, false);
 
-    private static Map<ResourceHandle, Object> cache = new WeakHashMap<ResourceHandle, Object>();
-
     private Map<String, String> autoOverrides = new HashMap<>();
-    
-    /**
-     * Maintain a reference to the handle for the currently loaded resource. This handle is used
-     * as a key in the resource cache and makes sure that the resource is not removed from the
-     * cache while it is still considered as "loaded" by this provider.
-     */
-    @SuppressWarnings("unused")
-    private ResourceHandle resourceHandle;
 
     {
         init();
@@ -510,7 +501,7 @@ public abstract class ResourceObjectProviderBase<M>
      * @throws IOException
      *             if the resource cannot be created.
      */
-    public void configure()
+    public synchronized void configure()
         throws IOException
     {
         boolean success = false;
@@ -680,43 +671,161 @@ public abstract class ResourceObjectProviderBase<M>
     }
 
 
-    @SuppressWarnings("unchecked")
     protected synchronized void loadResource(Properties aProperties) throws IOException
     {
         boolean sharable = "true".equals(aProperties.getProperty(SHARABLE, "false"));
 
-        ResourceHandle handle = null;
         resource = null;
 
-        // Check the cache
+        // Sharable resources are kept in the model cache. Resources which are not sharable are
+        // produced anew for each provider.
         if (sharable) {
-            // We need to scan the cache manually because in the end we need to keep a reference
-            // to exactly the same key object that was used to store the resource in the cache.
-            handle = new ResourceHandle(getClass(), resourceUrl != null ? resourceUrl.toString()
-                    : null);
-            for (Entry<ResourceHandle, Object> e : cache.entrySet()) {
-                if (handle.equals(e.getKey())) {
-                    resourceHandle = e.getKey();
-                    resource = (M) e.getValue();
-                    log.info("Used resource from cache");
-                }
+            ResourceHandle handle = new ResourceHandle(getClass(),
+                    resourceUrl != null ? resourceUrl.toString() : null,
+                    getSharingKey(aProperties));
+            ModelCache cache = ModelCache.getInstance();
+            if (cache.contains(handle)) {
+                log.info("Used resource from cache");
             }
+            resource = cache.get(handle, this::produceResourceTimed, this::estimateSize);
+        }
+        else {
+            resource = produceResourceTimed();
+        }
+    }
+
+    private M produceResourceTimed()
+        throws IOException
+    {
+        StopWatch sw = new StopWatch();
+        sw.start();
+        M res = produceResource(resourceUrl);
+        sw.stop();
+        log.info("Producing resource took " + sw.getTime() + "ms");
+        return res;
+    }
+
+    /**
+     * Get the settings besides the resource URL which affect the resource produced by this
+     * provider, e.g. the encoding used to read the resource. Sharable resources are only shared
+     * between providers for which the settings are equal. The default implementation returns
+     * {@code null}, i.e. all providers of the same class share the resources produced from the
+     * same URL.
+     *
+     * @param aProperties
+     *            the aggregated properties of this provider.
+     * @return the settings or {@code null}.
+     */
+    protected String getSharingKey(Properties aProperties)
+    {
+        return null;
+    }
+
+    /**
+     * Estimate the memory used by a resource produced by this provider. This is used to decide
+     * which resources to evict from the {@link ModelCache} when the memory budget is exceeded. The
+     * default implementation returns {@code -1}, so the {@link ModelCache#getDefaultSize() default
+     * size} of the cache is assumed. Providers which can estimate the memory used by their
+     * resources should override this.
+     *
+     * @param aResource
+     *            the resource.
+     * @return the estimated size in bytes or {@code -1} if the size is unknown.
+     */
+    protected long estimateSize(M aResource)
+    {
+        return -1;
+    }
+
+    /**
+     * @return the size in bytes of the file the current resource is produced from or {@code -1}
+     *         if it is unknown.
+     */
+    protected long getResourceFileSize()
+    {
+        if (resourceUrl == null) {
+            return -1;
+        }
+
+        try {
+            URLConnection connection = resourceUrl.openConnection();
+            connection.setUseCaches(false);
+            return connection.getContentLengthLong();
+        }
+        catch (IOException e) {
+            return -1;
         }
+    }
 
-        // If there was nothing in the cache or if the cache is disabled, produce new
-        if (resource == null) {
-            StopWatch sw = new StopWatch();
-            sw.start();
-            resource = produceResource(resourceUrl);
-            sw.stop();
-            log.info("Producing resource took " + sw.getTime() + "ms");
-
-            // If cache is enabled, update the cache
-            if (sharable) {
-                cache.put(handle, resource);
-                resourceHandle = handle;
+    /**
+     * @return the URL of the file the current resource is produced from or {@code null}.
+     */
+    protected URL getResourceUrl()
+    {
+        return resourceUrl;
+    }
+
+    /**
+     * Load the resources for the given languages into the {@link ModelCache} in the background,
+     * e.g. while the first documents are read. Only sharable resources are kept in the cache, so
+     * this has no effect for providers of resources which are not sharable. The resources are
+     * produced by a {@link #clone() copy} of this provider, so the configuration of this provider
+     * is not changed.
+     *
+     * @param aLanguages
+     *            the languages.
+     * @return a future which completes when all resources have been loaded.
+     */
+    public Future<Void> preload(String... aLanguages)
+    {
+        return ModelCache.getInstance().submit(() -> {
+            for (String language : aLanguages) {
+                preload(language);
             }
+            return null;
+        });
+    }
+
+    private void preload(String aLanguage)
+        throws IOException
+    {
+        // Configure a copy so the state of this provider and its subclasses is not touched
+        ResourceObjectProviderBase<M> copy = clone();
+        copy.setOverride(LANGUAGE, aLanguage);
+        if (!"true".equals(copy.getAggregatedProperties().getProperty(SHARABLE, "false"))) {
+            log.info("Not preloading resource for language [" + aLanguage
+                    + "] because it is not sharable");
+            return;
+        }
+        copy.configure();
+    }
+
+    /**
+     * Create an unconfigured copy of this provider with the same settings. The copy does not
+     * share any mutable settings with this provider. Subclasses which keep state that is changed
+     * when a resource is produced must reset it in the copy.
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    protected synchronized ResourceObjectProviderBase<M> clone()
+    {
+        ResourceObjectProviderBase<M> copy;
+        try {
+            copy = (ResourceObjectProviderBase<M>) super.clone();
+        }
+        catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
         }
+        copy.overrides = (Properties) overrides.clone();
+        copy.defaults = (Properties) defaults.clone();
+        copy.imports = new HashMap<String, HasResourceMetadata>(imports);
+        copy.autoOverrides = new HashMap<>(autoOverrides);
+        copy.resourceMetaData = null;
+        copy.resourceUrl = null;
+        copy.initialResourceUrl = null;
+        copy.lastModelLocation = null;
+        copy.resource = null;
+        return copy;
     }
 
     /**
@@ -1014,10 +1123,13 @@ public abstract class ResourceObjectProviderBase<M>
 
         private Class<?> owner;
 
-        public ResourceHandle(Class<?> aOwner, String aUrl)
+        private String sharingKey;
+
+        public ResourceHandle(Class<?> aOwner, String aUrl, String aSharingKey)
         {
             owner = aOwner;
             url = aUrl;
+            sharingKey = aSharingKey;
         }
 
         public String getUrl()
@@ -1037,6 +1149,7 @@ public abstract class ResourceObjectProviderBase<M>
             int result = 1;
             result = (prime * result) + ((owner == null) ? 0 : owner.hashCode());
             result = (prime * result) + ((url == null) ? 0 : url.hashCode());
+            result = (prime * result) + ((sharingKey == null) ? 0 : sharingKey.hashCode());
             return result;
         }
 
@@ -1069,8 +1182,23 @@ public abstract class ResourceObjectProviderBase<M>
             else if (!url.equals(other.url)) {
                 return false;
             }
+            if (sharingKey == null) {
+                if (other.sharingKey != null) {
+                    return false;
+                }
+            }
+            else if (!sharingKey.equals(other.sharingKey)) {
+                return false;
+            }
             return true;
         }
+
+        @Override
+        public String toString()
+        {
+            return "[" + owner.getSimpleName() + "] " + url
+                    + (sharingKey != null ? " (" + sharingKey + ")" : "");
+        }
     }
 
     private static final class ExtensibleURLClassLoader
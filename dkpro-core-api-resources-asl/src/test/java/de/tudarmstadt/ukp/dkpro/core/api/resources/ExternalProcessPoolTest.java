@@ -0,0 +1,129 @@
+/*
+ * Copyright 2017
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.dkpro.core.api.resources;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ExternalProcessPoolTest
+{
+    // Stand-in for a tagger: answers each token with "token<TAB>TAG" and each empty line with an
+    // empty line. Sleeps on the token "sleep" and exits on the token "crash".
+    private static final String TAGGER = "while IFS= read -r line; do "
+            + "case \"$line\" in "
+            + "'') echo ;; "
+            + "sleep) exec sleep 10 ;; "
+            + "crash) exit 1 ;; "
+            + "*) printf '%s\\tTAG\\n' \"$line\" ;; "
+            + "esac; done";
+
+    private ExternalProcessPool pool;
+
+    @Before
+    public void setup()
+    {
+        assumeTrue(new File("/bin/sh").canExecute());
+
+        pool = new ExternalProcessPool(asList("/bin/sh", "-c", TAGGER), "UTF-8",
+                ExternalProcessPool.BLANK_LINE_DELIMITED);
+    }
+
+    @After
+    public void teardown()
+    {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    @Test
+    public void testProcess()
+        throws Exception
+    {
+        assertEquals(asList("This\tTAG", "is\tTAG", "a\tTAG", "test\tTAG"),
+                pool.process(asList("This", "is", "a", "test")));
+        assertEquals(asList("Another\tTAG", "one\tTAG"),
+                pool.process(asList("Another", "one")));
+    }
+
+    @Test
+    public void testProcessAll()
+        throws Exception
+    {
+        pool.setSize(3);
+
+        List<List<String>> requests = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            requests.add(asList("sentence" + i, "token" + i));
+        }
+
+        List<List<String>> responses = pool.processAll(requests);
+
+        assertEquals(requests.size(), responses.size());
+        for (int i = 0; i < requests.size(); i++) {
+            assertEquals(asList("sentence" + i + "\tTAG", "token" + i + "\tTAG"),
+                    responses.get(i));
+        }
+    }
+
+    @Test
+    public void testRestartAfterCrash()
+        throws Exception
+    {
+        try {
+            pool.process(asList("crash"));
+            fail("Expected an exception");
+        }
+        catch (IOException e) {
+            // Expected
+        }
+
+        assertEquals(asList("still\tTAG", "working\tTAG"),
+                pool.process(asList("still", "working")));
+    }
+
+    @Test
+    public void testTimeout()
+        throws Exception
+    {
+        pool.setTimeout(200);
+
+        long begin = System.currentTimeMillis();
+        try {
+            pool.process(asList("sleep"));
+            fail("Expected an exception");
+        }
+        catch (IOException e) {
+            // Expected
+        }
+        assertEquals(true, System.currentTimeMillis() - begin < 5000);
+
+        assertEquals(asList("awake\tTAG"), pool.process(asList("awake")));
+    }
+}
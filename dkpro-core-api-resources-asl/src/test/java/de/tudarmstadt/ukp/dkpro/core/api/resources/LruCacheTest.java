@@ -0,0 +1,115 @@
+/*
+ * Copyright 2017
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.dkpro.core.api.resources;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class LruCacheTest
+{
+    @Test
+    public void testEvictsLeastRecentlyUsed()
+    {
+        LruCache<String, String> cache = new LruCache<>(2);
+        cache.put("a", "A");
+        cache.put("b", "B");
+        cache.get("a");
+        cache.put("c", "C");
+
+        assertEquals("A", cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals("C", cache.get("c"));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testComputeIfAbsent()
+    {
+        AtomicInteger calls = new AtomicInteger();
+        LruCache<Integer, Integer> cache = new LruCache<>(100);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(Integer.valueOf(42), cache.computeIfAbsent(21, k -> {
+                calls.incrementAndGet();
+                return k * 2;
+            }));
+        }
+
+        assertEquals(1, calls.get());
+        assertEquals(2, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void testDisabled()
+    {
+        LruCache<String, String> cache = new LruCache<>(0);
+        cache.put("a", "A");
+
+        assertNull(cache.get("a"));
+        assertEquals("B", cache.computeIfAbsent("b", k -> "B"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testForEach()
+    {
+        LruCache<String, String> cache = new LruCache<>(1000);
+        for (int i = 0; i < 500; i++) {
+            cache.put("k" + i, "v" + i);
+        }
+
+        Map<String, String> entries = new HashMap<>();
+        cache.forEach(entries::put);
+
+        assertEquals(500, entries.size());
+        for (int i = 0; i < 500; i++) {
+            assertEquals("v" + i, entries.get("k" + i));
+        }
+    }
+
+    @Test
+    public void testBoundedUnderConcurrency()
+        throws Exception
+    {
+        LruCache<Integer, Integer> cache = new LruCache<>(1000);
+
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            final int offset = t * 100000;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 100000; i++) {
+                    cache.computeIfAbsent(offset + i, k -> k);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertTrue(cache.size() <= 1000);
+    }
+}
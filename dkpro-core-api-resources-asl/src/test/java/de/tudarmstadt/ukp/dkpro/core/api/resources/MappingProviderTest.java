@@ -18,6 +18,8 @@
 package de.tudarmstadt.ukp.dkpro.core.api.resources;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
 
 import java.io.IOException;
 import java.net.URL;
@@ -25,6 +27,8 @@ import java.util.Map;
 import java.util.Properties;
 
 import org.apache.uima.cas.CAS;
+import org.apache.uima.cas.Type;
+import org.apache.uima.resource.metadata.TypeSystemDescription;
 import org.apache.uima.resource.metadata.impl.TypeSystemDescription_impl;
 import org.apache.uima.util.CasCreationUtils;
 import org.junit.Test;
@@ -170,4 +174,42 @@ public class MappingProviderTest
         Properties meta = mappingProvider.getResourceMetaData();
         assertEquals("redirected", meta.getProperty("tagset"));
     }
+
+    @Test
+    public void testTagType() throws Exception
+    {
+        TypeSystemDescription tsd = new TypeSystemDescription_impl();
+        tsd.addType("test.type.Noun", "", CAS.TYPE_NAME_ANNOTATION);
+        tsd.addType("test.type.Verb", "", CAS.TYPE_NAME_ANNOTATION);
+        tsd.addType("test.type.Other", "", CAS.TYPE_NAME_ANNOTATION);
+        CAS cas = CasCreationUtils.createCas(tsd, null, null);
+        cas.setDocumentLanguage("en");
+
+        MappingProvider mappingProvider = new MappingProvider();
+        mappingProvider.setOverride(MappingProvider.LOCATION, "src/test/resources/types.map");
+        mappingProvider.configure(cas);
+
+        Type noun = cas.getTypeSystem().getType("test.type.Noun");
+        Type other = cas.getTypeSystem().getType("test.type.Other");
+        assertSame(noun, mappingProvider.getTagType("NN"));
+        assertSame(noun, mappingProvider.getTagType(new String("NN")));
+        assertSame(other, mappingProvider.getTagType("UNKNOWN"));
+        assertSame(other, mappingProvider.getTagType(null));
+        assertEquals("test.type.Verb", mappingProvider.getTagType("VV").getName());
+
+        try {
+            mappingProvider.getTagType("XY");
+            fail("Type mapped to a tag but missing from the type system must not be accepted");
+        }
+        catch (IllegalStateException e) {
+            // Expected
+        }
+
+        // The table must follow changes of the type system
+        CAS cas2 = CasCreationUtils.createCas(tsd, null, null);
+        cas2.setDocumentLanguage("en");
+        mappingProvider.configure(cas2);
+        assertSame(cas2.getTypeSystem().getType("test.type.Noun"),
+                mappingProvider.getTagType("NN"));
+    }
 }
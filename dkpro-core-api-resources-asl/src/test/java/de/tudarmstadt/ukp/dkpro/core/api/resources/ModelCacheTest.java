@@ -0,0 +1,144 @@
+/*
+ * Copyright 2017
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.dkpro.core.api.resources;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class ModelCacheTest
+{
+    @Test
+    public void testEviction()
+        throws Exception
+    {
+        ModelCache cache = new ModelCache(100);
+
+        cache.get("a", () -> "A", v -> 40);
+        cache.get("b", () -> "B", v -> 40);
+        // Touch "a" so "b" becomes the least recently used entry
+        cache.get("a", () -> "X", v -> 40);
+        cache.get("c", () -> "C", v -> 40);
+
+        assertTrue(cache.contains("a"));
+        assertFalse(cache.contains("b"));
+        assertTrue(cache.contains("c"));
+        assertEquals(80, cache.getSize());
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(3, cache.getMissCount());
+
+        // An entry larger than the budget replaces everything else
+        cache.get("d", () -> "D", v -> 500);
+        assertEquals(1, cache.getEntryCount());
+        assertTrue(cache.contains("d"));
+
+        cache.setMaxSize(0);
+        assertEquals(0, cache.getEntryCount());
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    public void testUnknownSize()
+        throws Exception
+    {
+        ModelCache cache = new ModelCache(100);
+        cache.setDefaultSize(30);
+
+        // The model of unknown size is accounted for with the default size
+        cache.get("a", () -> "A", v -> -1);
+        cache.get("b", () -> "B", v -> 40);
+        assertEquals(70, cache.getSize());
+
+        cache.get("c", () -> "C", v -> 40);
+        assertFalse(cache.contains("a"));
+        assertEquals(80, cache.getSize());
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    @Test
+    public void testConcurrentLoad()
+        throws Exception
+    {
+        ModelCache cache = new ModelCache(Long.MAX_VALUE);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Object>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return cache.get("model", () -> {
+                        loads.incrementAndGet();
+                        Thread.sleep(100);
+                        return new Object();
+                    }, v -> 1);
+                }));
+            }
+            start.countDown();
+
+            Object model = futures.get(0).get();
+            for (Future<Object> future : futures) {
+                assertSame(model, future.get());
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(7, cache.getHitCount());
+    }
+
+    @Test
+    public void testFailedLoad()
+        throws Exception
+    {
+        ModelCache cache = new ModelCache(Long.MAX_VALUE);
+
+        try {
+            cache.get("model", () -> {
+                throw new IOException("broken");
+            }, v -> 1);
+            fail("Expected an exception");
+        }
+        catch (IOException e) {
+            assertEquals("broken", e.getMessage());
+        }
+
+        // A failed load is not cached
+        assertFalse(cache.contains("model"));
+        assertEquals("ok", cache.get("model", () -> "ok", v -> 1));
+    }
+}
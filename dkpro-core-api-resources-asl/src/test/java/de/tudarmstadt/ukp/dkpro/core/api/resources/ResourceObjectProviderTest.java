@@ -17,14 +17,20 @@
  */
 package de.tudarmstadt.ukp.dkpro.core.api.resources;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URL;
 import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.apache.commons.io.FileUtils;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -136,8 +142,37 @@ public class ResourceObjectProviderTest
         assertTrue(provider1.getResource() == provider2.getResource());
     }
     
+    @Test
+    public void testPreload() throws Exception
+    {
+        folder.newFile("model-de.bin");
+        folder.newFile("model-en.bin");
+        
+        SharableObjectProvider provider = new SharableObjectProvider();
+        provider.setDefault(ResourceObjectProviderBase.LOCATION,
+                folder.getRoot().getAbsolutePath() + "/model-${language}.bin");
+        
+        provider.preload("de", "en").get();
+        
+        // Preloading does not change the configuration of the provider
+        assertNull(provider.getResource());
+        assertNull(provider.getOverride(ResourceObjectProviderBase.LANGUAGE));
+        assertEquals(2, provider.produced.get());
+        
+        provider.setOverride(ResourceObjectProviderBase.LANGUAGE, "de");
+        provider.configure();
+        provider.setOverride(ResourceObjectProviderBase.LANGUAGE, "en");
+        provider.configure();
+        
+        assertNotNull(provider.getResource());
+        assertEquals(2, provider.produced.get());
+    }
+    
     private static class SharableObjectProvider extends ResourceObjectProviderBase<Object>
     {
+        // Shared with the copies used for preloading
+        private final AtomicInteger produced = new AtomicInteger();
+        
         {
             setDefault(SHARABLE, "true");
         }
@@ -152,6 +187,50 @@ public class ResourceObjectProviderTest
         protected Object produceResource(URL aUrl)
             throws IOException
         {
+            produced.incrementAndGet();
+            return new Object();
+        }
+    }
+    
+    @Test
+    public void testPreloadModelProvider() throws Exception
+    {
+        FileUtils.write(folder.newFile("model-de.bin"), "model", "UTF-8");
+        
+        SharableModelProvider provider = new SharableModelProvider();
+        provider.setDefault(ResourceObjectProviderBase.LOCATION,
+                folder.getRoot().getAbsolutePath() + "/model-${language}.bin");
+        
+        provider.preload("de").get();
+        assertEquals(1, provider.produced.get());
+        
+        // The preloaded model is not referenced anywhere but in the cache
+        System.gc();
+        
+        ModelCache cache = ModelCache.getInstance();
+        long hits = cache.getHitCount();
+        provider.setOverride(ResourceObjectProviderBase.LANGUAGE, "de");
+        provider.configure();
+        
+        assertNotNull(provider.getResource());
+        assertEquals(1, provider.produced.get());
+        assertEquals(hits + 1, cache.getHitCount());
+    }
+    
+    private static class SharableModelProvider extends ModelProviderBase<Object>
+    {
+        // Shared with the copies used for preloading
+        private final AtomicInteger produced = new AtomicInteger();
+        
+        {
+            setDefault(SHARABLE, "true");
+        }
+
+        @Override
+        protected Object produceResource(InputStream aStream)
+            throws Exception
+        {
+            produced.incrementAndGet();
             return new Object();
         }
     }
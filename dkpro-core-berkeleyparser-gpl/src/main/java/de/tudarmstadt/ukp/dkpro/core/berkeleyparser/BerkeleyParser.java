@@ -28,6 +28,7 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Properties;
 import java.util.zip.GZIPInputStream;
@@ -50,7 +51,7 @@ import org.apache.uima.resource.ResourceInitializationException;
 import de.tudarmstadt.ukp.dkpro.core.api.lexmorph.type.pos.POS;
 import de.tudarmstadt.ukp.dkpro.core.api.metadata.SingletonTagset;
 import de.tudarmstadt.ukp.dkpro.core.api.parameter.ComponentParameters;
-import de.tudarmstadt.ukp.dkpro.core.api.resources.CasConfigurableProviderBase;
+import de.tudarmstadt.ukp.dkpro.core.api.resources.LruCache;
 import de.tudarmstadt.ukp.dkpro.core.api.resources.MappingProvider;
 import de.tudarmstadt.ukp.dkpro.core.api.resources.MappingProviderFactory;
 import de.tudarmstadt.ukp.dkpro.core.api.resources.ModelProviderBase;
@@ -226,9 +227,21 @@ public class BerkeleyParser
     @ConfigurationParameter(name = PARAM_BINARIZE, mandatory = true, defaultValue = "false")
     private boolean binarize;
 
-    private CasConfigurableProviderBase<CoarseToFineMaxRuleParser> modelProvider;
+    /**
+     * The maximum number of parses cached by this parser, so that sentences which occur many
+     * times, e.g. boilerplate text, are only parsed once. The least recently used parses are
+     * evicted first.
+     * <p>
+     * Default: {@code 0} (no caching)
+     */
+    public static final String PARAM_PARSE_CACHE_SIZE = "parseCacheSize";
+    @ConfigurationParameter(name = PARAM_PARSE_CACHE_SIZE, mandatory = true, defaultValue = "0")
+    private int parseCacheSize;
+
+    private BerkeleyParserModelProvider modelProvider;
     private MappingProvider posMappingProvider;
     private MappingProvider constituentMappingProvider;
+    private LruCache<List<Object>, Tree<String>> parseCache;
 
     @Override
     public void initialize(UimaContext aContext)
@@ -243,6 +256,10 @@ public class BerkeleyParser
 
         constituentMappingProvider = MappingProviderFactory.createConstituentMappingProvider(
                 constituentMappingLocation, language, modelProvider);
+
+        if (parseCacheSize > 0) {
+            parseCache = new LruCache<>(parseCacheSize);
+        }
     }
 
     @Override
@@ -267,18 +284,13 @@ public class BerkeleyParser
                 }
             }
 
-            Tree<String> parseOutput = modelProvider.getResource().getBestConstrainedParse(
-                    tokenText, posTags, false);
+            Tree<String> parseOutput = parse(tokenText, posTags);
             
             // Check if the sentence could be parsed or not
             if (parseOutput.getChildren().isEmpty()) {
                 getLogger().warn("Unable to parse sentence: [" + sentence.getCoveredText() + "]");
                 continue;
             }
-            
-            if (!binarize) {
-                parseOutput = TreeAnnotations.unAnnotateTree(parseOutput, keepFunctionLabels);
-            }
 
             createConstituentAnnotationFromTree(aJCas, parseOutput, null, tokens, new MutableInt(0));
 
@@ -290,6 +302,41 @@ public class BerkeleyParser
         }
     }
 
+    @Override
+    public void collectionProcessComplete()
+        throws AnalysisEngineProcessException
+    {
+        if (parseCache != null) {
+            getLogger().info("Parse cache: hits=" + parseCache.getHitCount() + ", misses="
+                    + parseCache.getMissCount());
+        }
+        super.collectionProcessComplete();
+    }
+
+    private Tree<String> parse(List<String> aTokenText, List<String> aPosTags)
+    {
+        if (parseCache == null) {
+            return parse(modelProvider.getResource(), aTokenText, aPosTags);
+        }
+
+        // Creating the annotations does not modify the tree, so the cached tree can be reused as
+        // it is. The tokens are only matched by position, so a cached parse can be replayed at
+        // the offsets of another occurrence of the same sentence.
+        CoarseToFineMaxRuleParser parser = modelProvider.getResource();
+        List<Object> key = Arrays.asList(modelProvider.getModelId(), aTokenText, aPosTags);
+        return parseCache.computeIfAbsent(key, k -> parse(parser, aTokenText, aPosTags));
+    }
+
+    private Tree<String> parse(CoarseToFineMaxRuleParser aParser, List<String> aTokenText,
+            List<String> aPosTags)
+    {
+        Tree<String> parseOutput = aParser.getBestConstrainedParse(aTokenText, aPosTags, false);
+        if (!binarize && !parseOutput.getChildren().isEmpty()) {
+            parseOutput = TreeAnnotations.unAnnotateTree(parseOutput, keepFunctionLabels);
+        }
+        return parseOutput;
+    }
+
     /**
      * Creates linked constituent annotations + POS annotations
      *
@@ -383,6 +430,14 @@ public class BerkeleyParser
             setOverride(VARIANT, variant);
         }
 
+        /**
+         * Identifies the model, to tell apart the parses of different models in the parse cache.
+         */
+        String getModelId()
+        {
+            return getLastModelLocation();
+        }
+
         @Override
         protected CoarseToFineMaxRuleParser produceResource(URL aUrl)
             throws IOException
@@ -26,6 +26,7 @@ import static de.tudarmstadt.ukp.dkpro.core.testing.AssertAnnotations.assertTags
 import static org.apache.uima.fit.factory.AnalysisEngineFactory.createEngineDescription;
 import static org.apache.uima.fit.util.JCasUtil.select;
 import static org.apache.uima.fit.util.JCasUtil.selectSingle;
+import static org.junit.Assert.assertEquals;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -319,6 +320,41 @@ public class BerkeleyParserTest
         // jcas);
     }
 
+    @Test
+    public void testEnglishParseCache()
+        throws Exception
+    {
+        String text = "All rights reserved .\n"
+                + "This is a test .\n"
+                + "All rights reserved .\n"
+                + "This is a test .\n"
+                + "All rights reserved .";
+
+        JCas uncached = runTest("en", null, text, false);
+        JCas cached = runTest("en", null, text, false,
+                BerkeleyParser.PARAM_PARSE_CACHE_SIZE, 10);
+
+        // Cached parses are replayed at the offsets of each repetition
+        List<String> expected = new ArrayList<String>();
+        for (PennTree tree : select(uncached, PennTree.class)) {
+            expected.add(tree.getPennTree());
+        }
+        assertPennTree(expected.toArray(new String[expected.size()]),
+                select(cached, PennTree.class));
+
+        assertEquals(constituents(uncached), constituents(cached));
+    }
+
+    private static List<String> constituents(JCas aJCas)
+    {
+        List<String> constituents = new ArrayList<String>();
+        for (Constituent c : select(aJCas, Constituent.class)) {
+            constituents.add(String.format("%s %d,%d", c.getConstituentType(), c.getBegin(),
+                    c.getEnd()));
+        }
+        return constituents;
+    }
+
 	@Test
 	public void testGerman()
 		throws Exception
@@ -23,8 +23,15 @@ import static org.apache.uima.util.Level.WARNING;
 
 import java.io.IOException;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
 
 import org.apache.commons.lang.reflect.FieldUtils;
 import org.apache.uima.UimaContext;
@@ -39,7 +46,7 @@ import org.apache.uima.resource.ResourceInitializationException;
 import de.tudarmstadt.ukp.dkpro.core.api.lexmorph.type.pos.POS;
 import de.tudarmstadt.ukp.dkpro.core.api.metadata.SingletonTagset;
 import de.tudarmstadt.ukp.dkpro.core.api.parameter.ComponentParameters;
-import de.tudarmstadt.ukp.dkpro.core.api.resources.CasConfigurableProviderBase;
+import de.tudarmstadt.ukp.dkpro.core.api.resources.LruCache;
 import de.tudarmstadt.ukp.dkpro.core.api.resources.MappingProvider;
 import de.tudarmstadt.ukp.dkpro.core.api.resources.MappingProviderFactory;
 import de.tudarmstadt.ukp.dkpro.core.api.resources.ModelProviderBase;
@@ -47,6 +54,10 @@ import de.tudarmstadt.ukp.dkpro.core.api.syntax.type.constituent.Constituent;
 import de.tudarmstadt.ukp.dkpro.core.api.syntax.type.dependency.Dependency;
 import de.tudarmstadt.ukp.dkpro.core.corenlp.internal.DKPro2CoreNlp;
 import de.tudarmstadt.ukp.dkpro.core.corenlp.internal.CoreNlp2DKPro;
+import edu.stanford.nlp.ling.CoreAnnotations.SentencesAnnotation;
+import edu.stanford.nlp.ling.CoreAnnotations.TokensAnnotation;
+import edu.stanford.nlp.ling.CoreLabel;
+import edu.stanford.nlp.ling.StringLabel;
 import edu.stanford.nlp.parser.common.ParserGrammar;
 import edu.stanford.nlp.parser.lexparser.LexicalizedParser;
 import edu.stanford.nlp.parser.lexparser.Lexicon;
@@ -54,6 +65,7 @@ import edu.stanford.nlp.parser.shiftreduce.BaseModel;
 import edu.stanford.nlp.parser.shiftreduce.ShiftReduceParser;
 import edu.stanford.nlp.pipeline.Annotation;
 import edu.stanford.nlp.pipeline.ParserAnnotator;
+import edu.stanford.nlp.pipeline.ParserAnnotatorUtils;
 import edu.stanford.nlp.process.PTBEscapingProcessor;
 import edu.stanford.nlp.trees.AbstractTreebankLanguagePack;
 import edu.stanford.nlp.trees.EnglishGrammaticalRelations;
@@ -61,10 +73,13 @@ import edu.stanford.nlp.trees.EnglishGrammaticalStructureFactory;
 import edu.stanford.nlp.trees.GrammaticalRelation;
 import edu.stanford.nlp.trees.GrammaticalStructure;
 import edu.stanford.nlp.trees.GrammaticalStructureFactory;
+import edu.stanford.nlp.trees.Tree;
+import edu.stanford.nlp.trees.TreeCoreAnnotations.TreeAnnotation;
 import edu.stanford.nlp.trees.TreebankLanguagePack;
 import edu.stanford.nlp.trees.UniversalEnglishGrammaticalRelations;
 import edu.stanford.nlp.trees.UniversalEnglishGrammaticalStructureFactory;
 import edu.stanford.nlp.trees.international.pennchinese.ChineseGrammaticalRelations;
+import edu.stanford.nlp.util.CoreMap;
 
 /**
  * Parser from CoreNLP.
@@ -247,10 +262,22 @@ public class CoreNlpParser
     @ConfigurationParameter(name = PARAM_KEEP_PUNCTUATION, mandatory = true, defaultValue = "false")
     private boolean keepPunctuation;
 
-    private CasConfigurableProviderBase<ParserAnnotator> annotatorProvider;
+    /**
+     * The maximum number of parses cached by this parser, so that sentences which occur many
+     * times, e.g. boilerplate text, are only parsed once. The least recently used parses are
+     * evicted first.
+     * <p>
+     * Default: {@code 0} (no caching)
+     */
+    public static final String PARAM_PARSE_CACHE_SIZE = "parseCacheSize";
+    @ConfigurationParameter(name = PARAM_PARSE_CACHE_SIZE, mandatory = true, defaultValue = "0")
+    private int parseCacheSize;
+
+    private CoreNlpParserModelProvider annotatorProvider;
     private MappingProvider dependencyMappingProvider;
     private MappingProvider constituentMappingProvider;
     private MappingProvider posMappingProvider;
+    private LruCache<List<String>, Tree> parseCache;
     
     @Override
     public void initialize(UimaContext aContext)
@@ -270,6 +297,10 @@ public class CoreNlpParser
                 posMappingLocation, language, annotatorProvider);
 
         numThreads = ComponentParameters.computeNumThreads(numThreads);
+
+        if (parseCacheSize > 0) {
+            parseCache = new LruCache<>(parseCacheSize);
+        }
     }
     
     @Override
@@ -293,7 +324,12 @@ public class CoreNlpParser
 
         // Actual processing
         ParserAnnotator annotator = annotatorProvider.getResource();
-        annotator.annotate(document);
+        if (parseCache == null) {
+            annotator.annotate(document);
+        }
+        else {
+            annotateCached(annotator, document);
+        }
 
         // Get TreebankLanguagePack
         ParserGrammar parser;
@@ -328,6 +364,109 @@ public class CoreNlpParser
         }        
     }
 
+    @Override
+    public void collectionProcessComplete()
+        throws AnalysisEngineProcessException
+    {
+        if (parseCache != null) {
+            getLogger().info("Parse cache: hits=" + parseCache.getHitCount() + ", misses="
+                    + parseCache.getMissCount());
+        }
+        super.collectionProcessComplete();
+    }
+
+    /**
+     * Only passes the sentences to the annotator which are not in the parse cache yet. Each
+     * distinct sentence is parsed once, the other occurrences are annotated from the cached
+     * tree.
+     */
+    private void annotateCached(ParserAnnotator aAnnotator, Annotation aDocument)
+        throws AnalysisEngineProcessException
+    {
+        // The tags are part of the key because the parser uses them if they are present. The key
+        // must be built before parsing, because the parser adds the tags it predicts.
+        String modelId = annotatorProvider.getModelId();
+        Map<List<String>, List<CoreMap>> sentencesByKey = new LinkedHashMap<>();
+        for (CoreMap sentence : aDocument.get(SentencesAnnotation.class)) {
+            List<String> key = new ArrayList<>();
+            key.add(modelId);
+            for (CoreLabel token : sentence.get(TokensAnnotation.class)) {
+                key.add(token.word());
+                key.add(token.tag());
+            }
+            sentencesByKey.computeIfAbsent(key, k -> new ArrayList<>()).add(sentence);
+        }
+
+        // Parse the first occurrence of each sentence not found in the cache
+        Map<List<String>, Tree> trees = new HashMap<>();
+        List<List<String>> keysToParse = new ArrayList<>();
+        List<CoreMap> toParse = new ArrayList<>();
+        for (Map.Entry<List<String>, List<CoreMap>> e : sentencesByKey.entrySet()) {
+            Tree cachedTree = parseCache.get(e.getKey());
+            if (cachedTree != null) {
+                trees.put(e.getKey(), cachedTree);
+            }
+            else {
+                keysToParse.add(e.getKey());
+                toParse.add(e.getValue().get(0));
+            }
+        }
+
+        if (!toParse.isEmpty()) {
+            Annotation partialDocument = new Annotation((String) null);
+            partialDocument.set(SentencesAnnotation.class, toParse);
+            aAnnotator.annotate(partialDocument);
+
+            // Only the labels of the tree are kept in the cache, not the tokens of this CAS
+            for (int i = 0; i < toParse.size(); i++) {
+                Tree tree = toParse.get(i).get(TreeAnnotation.class);
+                if (tree != null) {
+                    Tree cachedTree = tree.deepCopy(tree.treeFactory(), StringLabel.factory());
+                    parseCache.put(keysToParse.get(i), cachedTree);
+                    trees.put(keysToParse.get(i), cachedTree);
+                }
+            }
+        }
+
+        GrammaticalStructureFactory gsf;
+        GrammaticalStructure.Extras extras;
+        try {
+            gsf = (GrammaticalStructureFactory) FieldUtils.readField(aAnnotator, "gsf", true);
+            extras = (GrammaticalStructure.Extras) FieldUtils.readField(aAnnotator,
+                    "extraDependencies", true);
+        }
+        catch (IllegalAccessException e) {
+            throw new AnalysisEngineProcessException(e);
+        }
+
+        Set<CoreMap> parsed = Collections.newSetFromMap(new IdentityHashMap<>());
+        parsed.addAll(toParse);
+        for (Map.Entry<List<String>, List<CoreMap>> e : sentencesByKey.entrySet()) {
+            Tree cachedTree = trees.get(e.getKey());
+            if (cachedTree == null) {
+                // The parser did not produce a tree for this sentence
+                continue;
+            }
+            
+            for (CoreMap sentence : e.getValue()) {
+                if (parsed.contains(sentence)) {
+                    continue;
+                }
+
+                // Attach the tokens of this occurrence to the leaves of a copy of the cached tree
+                // and derive the dependencies from it as the annotator would do
+                Tree tree = cachedTree.deepCopy(cachedTree.treeFactory(), CoreLabel.factory());
+                List<CoreLabel> tokens = sentence.get(TokensAnnotation.class);
+                List<Tree> leaves = tree.getLeaves();
+                for (int i = 0; i < leaves.size(); i++) {
+                    leaves.get(i).setLabel(tokens.get(i));
+                }
+                ParserAnnotatorUtils.fillInParseAnnotations(false, writeDependency && gsf != null,
+                        gsf, sentence, Collections.singletonList(tree), extras);
+            }
+        }
+    }
+
     private class CoreNlpParserModelProvider
         extends ModelProviderBase<ParserAnnotator>
     {
@@ -339,6 +478,14 @@ public class CoreNlpParser
                     "classpath:/de/tudarmstadt/ukp/dkpro/core/stanfordnlp/lib/parser-${language}-${variant}.properties");
         }
         
+        /**
+         * Identifies the model, to tell apart the parses of different models in the parse cache.
+         */
+        String getModelId()
+        {
+            return getLastModelLocation();
+        }
+        
         @SuppressWarnings("unchecked")
         @Override
         protected ParserAnnotator produceResource(URL aUrl) throws IOException
@@ -42,10 +42,14 @@ import org.junit.Assume;
 import org.junit.Rule;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.apache.uima.fit.factory.AnalysisEngineFactory.createEngine;
 import static org.apache.uima.fit.factory.AnalysisEngineFactory.createEngineDescription;
 import static org.apache.uima.fit.util.JCasUtil.select;
 import static org.apache.uima.fit.util.JCasUtil.selectSingle;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 public class CoreNlpParserTest
@@ -1052,6 +1056,50 @@ public class CoreNlpParserTest
                 pennOriginal.equals(pennFromRecreatedTree));
     }
 
+    @Test
+    public void testEnglishFactoredParseCache()
+        throws Exception
+    {
+        String text = "All rights reserved .\n"
+                + "This is a test .\n"
+                + "All rights reserved .\n"
+                + "This is a test .\n"
+                + "All rights reserved .";
+
+        JCas uncached = runTest("en", "factored", text);
+        JCas cached = runTest("en", "factored", text,
+                CoreNlpParser.PARAM_PARSE_CACHE_SIZE, 10);
+
+        // Cached parses are replayed at the offsets of each repetition
+        List<String> expected = new ArrayList<>();
+        for (PennTree tree : select(uncached, PennTree.class)) {
+            expected.add(tree.getPennTree());
+        }
+        AssertAnnotations.assertPennTree(expected.toArray(new String[expected.size()]),
+                select(cached, PennTree.class));
+
+        assertEquals(annotations(uncached), annotations(cached));
+    }
+
+    private static List<String> annotations(JCas aJCas)
+    {
+        List<String> annotations = new ArrayList<>();
+        for (POS pos : select(aJCas, POS.class)) {
+            annotations.add(String.format("%s %d,%d", pos.getPosValue(), pos.getBegin(),
+                    pos.getEnd()));
+        }
+        for (Constituent c : select(aJCas, Constituent.class)) {
+            annotations.add(String.format("%s %d,%d", c.getConstituentType(), c.getBegin(),
+                    c.getEnd()));
+        }
+        for (Dependency dep : select(aJCas, Dependency.class)) {
+            annotations.add(String.format("%s %d,%d -> %d,%d", dep.getDependencyType(),
+                    dep.getDependent().getBegin(), dep.getDependent().getEnd(),
+                    dep.getGovernor().getBegin(), dep.getGovernor().getEnd()));
+        }
+        return annotations;
+    }
+
     private JCas runTestWithPosTagger(String aLanguage, String aVariant, String aText,
             Object... aExtraParams)
         throws Exception
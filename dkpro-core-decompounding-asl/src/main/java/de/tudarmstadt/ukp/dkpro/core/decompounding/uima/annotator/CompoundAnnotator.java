@@ -20,12 +20,14 @@ package de.tudarmstadt.ukp.dkpro.core.decompounding.uima.annotator;
 
 import static org.apache.uima.fit.util.JCasUtil.select;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.uima.UimaContext;
 import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
 import org.apache.uima.fit.component.JCasAnnotator_ImplBase;
+import org.apache.uima.fit.descriptor.ConfigurationParameter;
 import org.apache.uima.fit.descriptor.ExternalResource;
 import org.apache.uima.fit.descriptor.TypeCapability;
 import org.apache.uima.fit.util.FSCollectionFactory;
@@ -33,6 +35,7 @@ import org.apache.uima.jcas.JCas;
 import org.apache.uima.jcas.cas.FSArray;
 import org.apache.uima.resource.ResourceInitializationException;
 
+import de.tudarmstadt.ukp.dkpro.core.api.resources.LruCache;
 import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Compound;
 import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.CompoundPart;
 import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.LinkingMorpheme;
@@ -43,6 +46,7 @@ import de.tudarmstadt.ukp.dkpro.core.decompounding.ranking.Ranker;
 import de.tudarmstadt.ukp.dkpro.core.decompounding.splitter.DecompoundedWord;
 import de.tudarmstadt.ukp.dkpro.core.decompounding.splitter.Fragment;
 import de.tudarmstadt.ukp.dkpro.core.decompounding.splitter.SplitterAlgorithm;
+import de.tudarmstadt.ukp.dkpro.core.decompounding.uima.resource.SharedDecompoundingCache;
 
 /**
  * Annotates compound parts and linking morphemes.
@@ -72,6 +76,25 @@ public class CompoundAnnotator
     @ExternalResource(key = PARAM_RANKING_ALGO, mandatory = false)
     private Ranker ranker;
 
+    /**
+     * This external resource caches the decompounding results, so that each word form is only
+     * split and ranked once. It can be shared by several annotators and preloaded from a lexicon.
+     * If it is not set, each annotator uses its own cache of size {@link #PARAM_CACHE_SIZE}.
+     */
+    public static final String PARAM_CACHE = "cache";
+    @ExternalResource(key = PARAM_CACHE, mandatory = false)
+    private SharedDecompoundingCache sharedCache;
+
+    /**
+     * The maximum number of decompounding results cached by this annotator if no shared cache
+     * is set. Set to 0 to disable caching.
+     */
+    public static final String PARAM_CACHE_SIZE = "cacheSize";
+    @ConfigurationParameter(name = PARAM_CACHE_SIZE, mandatory = true, defaultValue = "10000")
+    private int cacheSize;
+
+    private LruCache<String, DecompoundedWord> cache;
+
     @Override
     public void initialize(final UimaContext context)
         throws ResourceInitializationException
@@ -80,6 +103,9 @@ public class CompoundAnnotator
         if (ranker == null) {
             ranker = new DummyRanker();
         }
+        if (sharedCache == null) {
+            cache = new LruCache<>(cacheSize);
+        }
     }
 
     @Override
@@ -89,7 +115,12 @@ public class CompoundAnnotator
         for (Token token : select(aJCas, Token.class)) {
             final String coveredText = token.getCoveredText();
             DecompoundedWord result;
-            result = ranker.highestRank(splitter.split(coveredText));
+            if (sharedCache != null) {
+                result = sharedCache.get(coveredText, this::decompound);
+            }
+            else {
+                result = cache.computeIfAbsent(coveredText, this::decompound);
+            }
             if (!result.isCompound()) {
                 continue;
             }
@@ -100,6 +131,31 @@ public class CompoundAnnotator
         }
     }
 
+    private DecompoundedWord decompound(String aWord)
+    {
+        return ranker.highestRank(splitter.split(aWord));
+    }
+
+    @Override
+    public void collectionProcessComplete()
+        throws AnalysisEngineProcessException
+    {
+        if (sharedCache != null) {
+            getLogger().info(sharedCache.toString());
+            try {
+                sharedCache.write();
+            }
+            catch (IOException e) {
+                throw new AnalysisEngineProcessException(e);
+            }
+        }
+        else {
+            getLogger().info("Decompounding cache: hits=" + cache.getHitCount() + ", misses="
+                    + cache.getMissCount());
+        }
+        super.collectionProcessComplete();
+    }
+
     private void indexSplits(final JCas aJCas, final List<Fragment> splits, final int beginIndex,
             final int tokenEndIndex, final Split parentSplit, final Compound compound)
     {
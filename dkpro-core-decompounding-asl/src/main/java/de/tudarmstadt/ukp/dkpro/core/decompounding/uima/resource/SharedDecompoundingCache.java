@@ -0,0 +1,239 @@
+/*
+ * Copyright 2017
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.dkpro.core.decompounding.uima.resource;
+
+import static org.apache.commons.io.IOUtils.closeQuietly;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import org.apache.uima.fit.component.Resource_ImplBase;
+import org.apache.uima.fit.descriptor.ConfigurationParameter;
+import org.apache.uima.resource.ResourceInitializationException;
+import org.apache.uima.resource.ResourceSpecifier;
+
+import de.tudarmstadt.ukp.dkpro.core.api.parameter.ComponentParameters;
+import de.tudarmstadt.ukp.dkpro.core.api.resources.CompressionUtils;
+import de.tudarmstadt.ukp.dkpro.core.api.resources.LruCache;
+import de.tudarmstadt.ukp.dkpro.core.api.resources.ResourceUtils;
+import de.tudarmstadt.ukp.dkpro.core.decompounding.splitter.DecompoundedWord;
+
+/**
+ * Cache for decompounding results which can be shared by several annotators. Splitting and ranking
+ * a word is expensive, but the same word forms recur many times in a collection. The cache maps
+ * each word form to its highest-ranked split. It is thread-safe and bounded in size.
+ * <p>
+ * Optionally, the cache can be preloaded from a lexicon of known splits, e.g. one written by a
+ * previous run using {@link #PARAM_TARGET_LOCATION}. The lexicon is a text file with one word per
+ * line, followed by a tab and the split in the format of
+ * {@link DecompoundedWord#createFromString(String)}, e.g. {@code Aktion(s)+plan} for
+ * {@code Aktionsplan}.
+ * Lexicon entries are never evicted.
+ */
+public class SharedDecompoundingCache
+    extends Resource_ImplBase
+{
+    /**
+     * The maximum number of decompounding results kept in the cache in addition to the lexicon.
+     */
+    public static final String PARAM_CACHE_SIZE = "cacheSize";
+    @ConfigurationParameter(name = PARAM_CACHE_SIZE, mandatory = true, defaultValue = "100000")
+    private int cacheSize;
+
+    /**
+     * Location of a lexicon used to preload the cache.
+     */
+    public static final String PARAM_LEXICON_LOCATION = "lexiconLocation";
+    @ConfigurationParameter(name = PARAM_LEXICON_LOCATION, mandatory = false)
+    private String lexiconLocation;
+
+    /**
+     * File to which the lexicon and the cached decompounding results are written by
+     * {@link #write()}, e.g. at the end of processing, to preload the cache in later runs.
+     */
+    public static final String PARAM_TARGET_LOCATION = ComponentParameters.PARAM_TARGET_LOCATION;
+    @ConfigurationParameter(name = PARAM_TARGET_LOCATION, mandatory = false)
+    private File targetLocation;
+
+    /**
+     * Encoding of the lexicon files.
+     */
+    public static final String PARAM_ENCODING = ComponentParameters.PARAM_SOURCE_ENCODING;
+    @ConfigurationParameter(name = PARAM_ENCODING, mandatory = true, defaultValue = "UTF-8")
+    private String encoding;
+
+    private Map<String, DecompoundedWord> lexicon;
+    private LruCache<String, DecompoundedWord> cache;
+    private final LongAdder lexiconHits = new LongAdder();
+
+    @Override
+    public boolean initialize(ResourceSpecifier aSpecifier, Map aAdditionalParams)
+        throws ResourceInitializationException
+    {
+        if (!super.initialize(aSpecifier, aAdditionalParams)) {
+            return false;
+        }
+
+        cache = new LruCache<>(cacheSize);
+        lexicon = new HashMap<>();
+        if (lexiconLocation != null) {
+            try {
+                URL url = ResourceUtils.resolveLocation(lexiconLocation, this, null);
+                readLexicon(url);
+            }
+            catch (IOException e) {
+                throw new ResourceInitializationException(e);
+            }
+        }
+        return true;
+    }
+
+    private void readLexicon(URL aUrl)
+        throws IOException
+    {
+        BufferedReader reader = null;
+        try {
+            InputStream is = CompressionUtils.getInputStream(aUrl.toString(), aUrl.openStream());
+            reader = new BufferedReader(new InputStreamReader(is, encoding));
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isEmpty()) {
+                    continue;
+                }
+                int tab = line.indexOf('\t');
+                String word = tab >= 0 ? line.substring(0, tab) : null;
+                DecompoundedWord split = tab >= 0 ? DecompoundedWord
+                        .createFromString(line.substring(tab + 1)) : null;
+                if (split == null || !word.equals(split.getWord())) {
+                    throw new IOException("Invalid lexicon entry in line " + lineNumber + " of ["
+                            + aUrl + "]: [" + line + "]");
+                }
+                lexicon.put(word, split);
+            }
+        }
+        finally {
+            closeQuietly(reader);
+        }
+    }
+
+    /**
+     * Get the decompounding result for a word, computing and caching it if it is neither in the
+     * lexicon nor in the cache yet. The result may be shared and must not be modified.
+     *
+     * @param aWord
+     *            the word.
+     * @param aFunction
+     *            the function splitting and ranking the word.
+     * @return the decompounding result.
+     */
+    public DecompoundedWord get(String aWord, Function<String, DecompoundedWord> aFunction)
+    {
+        DecompoundedWord result = lexicon.get(aWord);
+        if (result != null) {
+            lexiconHits.increment();
+            return result;
+        }
+        return cache.computeIfAbsent(aWord, aFunction);
+    }
+
+    /**
+     * Write the lexicon and the cached decompounding results to {@link #PARAM_TARGET_LOCATION}.
+     * Does nothing if no target location is set. Results which cannot be represented in the
+     * lexicon format, e.g. because the word contains a {@code +}, are skipped.
+     *
+     * @throws IOException
+     *             if the file cannot be written.
+     */
+    public synchronized void write()
+        throws IOException
+    {
+        if (targetLocation == null) {
+            return;
+        }
+
+        Map<String, DecompoundedWord> entries = new TreeMap<>(lexicon);
+        cache.forEach(entries::put);
+
+        if (targetLocation.getParentFile() != null) {
+            targetLocation.getParentFile().mkdirs();
+        }
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(
+                targetLocation), encoding))) {
+            for (Map.Entry<String, DecompoundedWord> e : entries.entrySet()) {
+                String word = e.getKey();
+                String split = e.getValue().toString();
+                if (word.indexOf('\t') >= 0 || word.indexOf('\n') >= 0
+                        || word.indexOf('\r') >= 0
+                        || !word.equals(DecompoundedWord.createFromString(split).getWord())) {
+                    continue;
+                }
+                out.write(word);
+                out.write('\t');
+                out.write(split);
+                out.write('\n');
+            }
+        }
+    }
+
+    /**
+     * @return the number of entries loaded from the lexicon.
+     */
+    public int getLexiconSize()
+    {
+        return lexicon.size();
+    }
+
+    /**
+     * @return the number of lookups answered from the lexicon or the cache.
+     */
+    public long getHitCount()
+    {
+        return lexiconHits.sum() + cache.getHitCount();
+    }
+
+    /**
+     * @return the number of lookups for which the result had to be computed.
+     */
+    public long getMissCount()
+    {
+        return cache.getMissCount();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "SharedDecompoundingCache [lexicon=" + lexicon.size() + ", size=" + cache.size()
+                + ", maxSize=" + cache.getMaxSize() + ", hits=" + getHitCount() + ", misses="
+                + getMissCount() + "]";
+    }
+}
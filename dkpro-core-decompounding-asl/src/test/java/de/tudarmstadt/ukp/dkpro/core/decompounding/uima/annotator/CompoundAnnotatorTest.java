@@ -21,12 +21,15 @@ import static org.apache.uima.fit.factory.AnalysisEngineFactory.createEngineDesc
 import static org.apache.uima.fit.factory.ExternalResourceFactory.createExternalResourceDescription;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.uima.UIMAException;
+import org.apache.commons.io.FileUtils;
 import org.apache.uima.analysis_engine.AnalysisEngine;
 import org.apache.uima.analysis_engine.AnalysisEngineDescription;
 import org.apache.uima.cas.CAS;
@@ -49,6 +52,7 @@ import de.tudarmstadt.ukp.dkpro.core.decompounding.uima.resource.AsvToolboxSplit
 import de.tudarmstadt.ukp.dkpro.core.decompounding.uima.resource.FrequencyRankerResource;
 import de.tudarmstadt.ukp.dkpro.core.decompounding.uima.resource.LeftToRightSplitterResource;
 import de.tudarmstadt.ukp.dkpro.core.decompounding.uima.resource.RankerResource;
+import de.tudarmstadt.ukp.dkpro.core.decompounding.uima.resource.SharedDecompoundingCache;
 import de.tudarmstadt.ukp.dkpro.core.decompounding.uima.resource.SharedDictionary;
 import de.tudarmstadt.ukp.dkpro.core.decompounding.uima.resource.SharedFinder;
 import de.tudarmstadt.ukp.dkpro.core.decompounding.uima.resource.SharedLinkingMorphemes;
@@ -144,9 +148,60 @@ public class CompoundAnnotatorTest
         runAnnotator(aed, splits, compoundsParts);
     }
 
-    private void runAnnotator(AnalysisEngineDescription aed, String[] splits,
+    @Test
+    public void testWithSharedCache() throws UIMAException, IOException {
+        File lexicon = new File("target/test/decompounding-lexicon.txt");
+        lexicon.delete();
+
+        AnalysisEngineDescription aed = createEngineDescription(
+                CompoundAnnotator.class,
+                CompoundAnnotator.PARAM_SPLITTING_ALGO,
+                createExternalResourceDescription(
+                        LeftToRightSplitterResource.class,
+                        SplitterResource.PARAM_DICT_RESOURCE,
+                        createExternalResourceDescription(SharedDictionary.class),
+                        SplitterResource.PARAM_MORPHEME_RESOURCE,
+                        createExternalResourceDescription(SharedLinkingMorphemes.class)),
+                CompoundAnnotator.PARAM_CACHE,
+                createExternalResourceDescription(SharedDecompoundingCache.class,
+                        SharedDecompoundingCache.PARAM_TARGET_LOCATION, lexicon));
+        String[] splits = new String[] { "Aktion", "s", "plan", "Doppel","prozessormaschine"};
+        String[] compoundsParts = new String[] { "Aktion", "plan", "Doppel", "prozessormaschine"};
+        AnalysisEngine ae = runAnnotator(aed, splits, compoundsParts);
+        ae.collectionProcessComplete();
+
+        List<String> entries = FileUtils.readLines(lexicon, "UTF-8");
+        assertTrue(entries.contains("Aktionsplan\tAktion(s)+plan"));
+        assertTrue(entries.contains("im\tim"));
+
+        // Results are taken from the lexicon instead of splitting the words again
+        FileUtils.writeStringToFile(lexicon, "Aktionsplan\tAktions+plan\n", "UTF-8");
+        aed = createEngineDescription(
+                CompoundAnnotator.class,
+                CompoundAnnotator.PARAM_SPLITTING_ALGO,
+                createExternalResourceDescription(
+                        LeftToRightSplitterResource.class,
+                        SplitterResource.PARAM_DICT_RESOURCE,
+                        createExternalResourceDescription(SharedDictionary.class),
+                        SplitterResource.PARAM_MORPHEME_RESOURCE,
+                        createExternalResourceDescription(SharedLinkingMorphemes.class)),
+                CompoundAnnotator.PARAM_CACHE,
+                createExternalResourceDescription(SharedDecompoundingCache.class,
+                        SharedDecompoundingCache.PARAM_LEXICON_LOCATION, lexicon.getPath()));
+        splits = new String[] { "Aktions", "plan", "Doppel","prozessormaschine"};
+        compoundsParts = new String[] { "Aktions", "plan", "Doppel", "prozessormaschine"};
+        runAnnotator(aed, splits, compoundsParts, new String[0]);
+    }
+
+    private AnalysisEngine runAnnotator(AnalysisEngineDescription aed, String[] splits,
             String[] compoundsParts)
         throws CASException, UIMAException{
+        return runAnnotator(aed, splits, compoundsParts, new String[] {"s"});
+    }
+
+    private AnalysisEngine runAnnotator(AnalysisEngineDescription aed, String[] splits,
+            String[] compoundsParts, String[] linkingMorphemes)
+        throws CASException, UIMAException{
         // Create Analysis Engine
         AnalysisEngine ae = AnalysisEngineFactory.createEngine(aed);
 
@@ -159,13 +214,13 @@ public class CompoundAnnotatorTest
         ae.process(cas);
 
         String[] compounds = new String[] {"Aktionsplan", "Doppelprozessormaschine"};
-        String[] linkingMorphemes = new String[] {"s"};
 
         // Check if splits and morphemes are equal
         assertThat(getAnnotation(cas.getJCas(), Compound.class), is(compounds));
         assertThat(getAnnotation(cas.getJCas(), Split.class), is(splits));
         assertThat(getAnnotation(cas.getJCas(), CompoundPart.class), is(compoundsParts));
         assertThat(getAnnotation(cas.getJCas(), LinkingMorpheme.class), is(linkingMorphemes));
+        return ae;
     }
 
     protected <T extends Annotation> String[] getAnnotation(JCas aCas, Class<T> aClass)
@@ -24,8 +24,8 @@ import static org.apache.uima.fit.util.JCasUtil.selectCovered;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Properties;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.uima.UimaContext;
@@ -40,7 +40,7 @@ import org.apache.uima.jcas.JCas;
 import org.apache.uima.resource.ResourceInitializationException;
 
 import de.tudarmstadt.ukp.dkpro.core.api.parameter.ComponentParameters;
-import de.tudarmstadt.ukp.dkpro.core.api.resources.ResourceUtils;
+import de.tudarmstadt.ukp.dkpro.core.api.resources.ResourceObjectProviderBase;
 import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.NGram;
 import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Sentence;
 import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token;
@@ -58,6 +58,10 @@ import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token;
  * another phrase
  * </pre>
  *
+ * For each token, the longest phrase starting at that token is annotated. The phrases are compiled
+ * into a {@link PhraseAutomaton} which finds all matches in a sentence in a single pass. Since the
+ * compiled automaton is immutable, it is shared between all instances of this component which use
+ * the same phrase file.
  */
 @TypeCapability(
 	    inputs = {
@@ -102,7 +106,7 @@ public class DictionaryAnnotator
 	@ConfigurationParameter(name = PARAM_VALUE, mandatory = false)
 	private String value;
 
-	private PhraseTree phrases;
+	private ResourceObjectProviderBase<PhraseAutomaton> phrasesProvider;
 
 	@Override
 	public void initialize(UimaContext aContext)
@@ -114,23 +118,60 @@ public class DictionaryAnnotator
 			annotationType = NGram.class.getName();
 		}
 
-		phrases = new PhraseTree();
+		phrasesProvider = new ResourceObjectProviderBase<PhraseAutomaton>() {
+			private static final String ENCODING = "encoding";
 
-		InputStream is = null;
-		try {
-			URL phraseFileUrl = ResourceUtils.resolveLocation(phraseFile, aContext);
-			is = phraseFileUrl.openStream();
-			for (String inputLine : IOUtils.readLines(is, modelEncoding)) {
-				String[] phraseSplit = inputLine.split(" ");
-				phrases.addPhrase(phraseSplit);
+			{
+				setContextObject(DictionaryAnnotator.this);
+				setDefault(LOCATION, phraseFile);
+				setDefault(SHARABLE, "true");
+			}
+
+			@Override
+			protected Properties getProperties()
+			{
+				Properties props = new Properties();
+				props.setProperty(ENCODING, modelEncoding);
+				return props;
+			}
+
+			@Override
+			protected String getSharingKey(Properties aProperties)
+			{
+				// The same dictionary file read with different encodings yields different phrases
+				return aProperties.getProperty(ENCODING);
+			}
+
+			@Override
+			protected PhraseAutomaton produceResource(URL aUrl)
+				throws IOException
+			{
+				PhraseAutomaton phrases = new PhraseAutomaton();
+
+				InputStream is = null;
+				try {
+					is = aUrl.openStream();
+					for (String inputLine : IOUtils.readLines(is, modelEncoding)) {
+						String[] phraseSplit = inputLine.split(" ");
+						phrases.addPhrase(phraseSplit);
+					}
+				}
+				finally {
+					IOUtils.closeQuietly(is);
+				}
+
+				phrases.compile();
+				getLogger().info("Loaded " + phrases.size() + " phrases");
+				return phrases;
 			}
+		};
+
+		try {
+			phrasesProvider.configure();
 		}
 		catch (IOException e) {
 			throw new ResourceInitializationException(e);
 		}
-		finally {
-			IOUtils.closeQuietly(is);
-		}
 	}
 
 	@Override
@@ -148,22 +189,22 @@ public class DictionaryAnnotator
 			}
 		}
 
+		PhraseAutomaton phrases = phrasesProvider.getResource();
+
 		for (Sentence currSentence : select(jcas, Sentence.class)) {
-			ArrayList<Token> tokens = new ArrayList<Token>(selectCovered(Token.class, currSentence));
+			List<Token> tokens = selectCovered(Token.class, currSentence);
 
+			String[] sentence = new String[tokens.size()];
 			for (int i = 0; i < tokens.size(); i++) {
-				List<Token> tokensToSentenceEnd = tokens.subList(i, tokens.size() - 1);
-				String[] sentenceToEnd = new String[tokens.size()];
-
-				for (int j = 0; j < tokensToSentenceEnd.size(); j++) {
-					sentenceToEnd[j] = tokensToSentenceEnd.get(j).getCoveredText();
-				}
+				sentence[i] = tokens.get(i).getCoveredText();
+			}
 
-				String[] longestMatch = phrases.getLongestMatch(sentenceToEnd);
+			int[] longestMatches = phrases.getLongestMatches(sentence);
 
-				if (longestMatch != null) {
+			for (int i = 0; i < longestMatches.length; i++) {
+				if (longestMatches[i] > 0) {
 					Token beginToken = tokens.get(i);
-					Token endToken = tokens.get(i + longestMatch.length - 1);
+					Token endToken = tokens.get(i + longestMatches[i] - 1);
 
 					AnnotationFS newFound = jcas.getCas().createAnnotation(type,
 							beginToken.getBegin(), endToken.getEnd());
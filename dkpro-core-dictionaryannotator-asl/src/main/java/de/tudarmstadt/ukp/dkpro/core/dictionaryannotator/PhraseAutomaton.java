@@ -0,0 +1,242 @@
+/*
+ * Copyright 2017
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.dkpro.core.dictionaryannotator;
+
+import java.util.Arrays;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+
+/**
+ * Token-level Aho-Corasick automaton which finds the longest phrase starting at every position of
+ * a token sequence in a single pass. Used by the {@link DictionaryAnnotator}.
+ * <p>
+ * Tokens are interned to integer ids and all transitions are kept in a single primitive hash map
+ * keyed by state and token id, so the memory required per phrase token is small and does not
+ * include a map per node as in {@link PhraseTree}.
+ * <p>
+ * Phrases are added using {@link #addPhrase(String[])}. Afterwards, {@link #compile()} must be
+ * called before matching. A compiled automaton is immutable and can be used by multiple threads
+ * concurrently.
+ */
+public class PhraseAutomaton
+{
+    private static final int ROOT = 0;
+    private static final int NONE = -1;
+
+    private final Object2IntOpenHashMap<String> tokenIds;
+    private final Long2IntOpenHashMap transitions;
+
+    // Build-time information, discarded on compile
+    private IntArrayList parents;
+    private IntArrayList labels;
+    private IntArrayList depths;
+
+    private int[] depth;
+    private boolean[] terminal;
+    private int[] fail;
+    private int[] outputLink;
+
+    private int phraseCount;
+
+    public PhraseAutomaton()
+    {
+        tokenIds = new Object2IntOpenHashMap<String>();
+        tokenIds.defaultReturnValue(NONE);
+        transitions = new Long2IntOpenHashMap();
+        transitions.defaultReturnValue(NONE);
+
+        parents = new IntArrayList();
+        labels = new IntArrayList();
+        depths = new IntArrayList();
+        terminal = new boolean[16];
+
+        // Root state
+        parents.add(NONE);
+        labels.add(NONE);
+        depths.add(0);
+    }
+
+    /**
+     * Add a phrase, each array entry is a phrase token
+     *
+     * @param phraseParts
+     *            the phrase.
+     */
+    public void addPhrase(String[] phraseParts)
+    {
+        if (parents == null) {
+            throw new IllegalStateException("Cannot add phrases to a compiled automaton");
+        }
+
+        if (phraseParts.length == 0) {
+            return;
+        }
+
+        int state = ROOT;
+        for (String phrasePart : phraseParts) {
+            int tokenId = tokenIds.getInt(phrasePart);
+            if (tokenId == NONE) {
+                tokenId = tokenIds.size();
+                tokenIds.put(phrasePart, tokenId);
+            }
+
+            int next = transitions.get(key(state, tokenId));
+            if (next == NONE) {
+                next = parents.size();
+                parents.add(state);
+                labels.add(tokenId);
+                depths.add(depths.getInt(state) + 1);
+                transitions.put(key(state, tokenId), next);
+            }
+            state = next;
+        }
+
+        if (state >= terminal.length) {
+            terminal = Arrays.copyOf(terminal, Math.max(state + 1, terminal.length * 2));
+        }
+        if (!terminal[state]) {
+            terminal[state] = true;
+            phraseCount++;
+        }
+    }
+
+    /**
+     * Compute the failure links of the automaton. Must be called after all phrases have been
+     * added and before matching.
+     */
+    public void compile()
+    {
+        if (parents == null) {
+            return;
+        }
+
+        int stateCount = parents.size();
+        depth = depths.toIntArray();
+        terminal = Arrays.copyOf(terminal, stateCount);
+        fail = new int[stateCount];
+        outputLink = new int[stateCount];
+        fail[ROOT] = ROOT;
+        outputLink[ROOT] = NONE;
+
+        // Failure links must be computed in breadth-first order, i.e. by increasing depth. Since
+        // states are created in insertion order, sort them by depth using a counting sort.
+        int maxDepth = 0;
+        for (int d : depth) {
+            maxDepth = Math.max(maxDepth, d);
+        }
+        int[] start = new int[maxDepth + 2];
+        for (int d : depth) {
+            start[d + 1]++;
+        }
+        for (int d = 1; d < start.length; d++) {
+            start[d] += start[d - 1];
+        }
+        int[] order = new int[stateCount];
+        for (int s = 0; s < stateCount; s++) {
+            order[start[depth[s]]++] = s;
+        }
+
+        for (int s : order) {
+            if (s == ROOT) {
+                continue;
+            }
+
+            int parent = parents.getInt(s);
+            int label = labels.getInt(s);
+
+            int f = ROOT;
+            if (parent != ROOT) {
+                f = fail[parent];
+                while (f != ROOT && transitions.get(key(f, label)) == NONE) {
+                    f = fail[f];
+                }
+                int next = transitions.get(key(f, label));
+                f = next != NONE ? next : ROOT;
+            }
+            fail[s] = f;
+            outputLink[s] = terminal[f] ? f : outputLink[f];
+        }
+
+        parents = null;
+        labels = null;
+        depths = null;
+    }
+
+    /**
+     * Find the longest phrase starting at each position of the given token sequence. All
+     * positions are checked in a single pass over the tokens.
+     *
+     * @param aTokens
+     *            Text to match against, pre-tokenized
+     * @return for each position, the number of tokens of the longest phrase starting at that
+     *         position or {@code 0} if no phrase starts there.
+     */
+    public int[] getLongestMatches(String[] aTokens)
+    {
+        if (parents != null) {
+            throw new IllegalStateException("Automaton must be compiled before matching");
+        }
+
+        int[] longest = new int[aTokens.length];
+
+        int state = ROOT;
+        for (int i = 0; i < aTokens.length; i++) {
+            int tokenId = aTokens[i] != null ? tokenIds.getInt(aTokens[i]) : NONE;
+
+            if (tokenId == NONE) {
+                // Token does not occur in any phrase
+                state = ROOT;
+                continue;
+            }
+
+            int next = transitions.get(key(state, tokenId));
+            while (next == NONE && state != ROOT) {
+                state = fail[state];
+                next = transitions.get(key(state, tokenId));
+            }
+            state = next != NONE ? next : ROOT;
+
+            // Report all phrases ending at this position
+            int match = terminal[state] ? state : outputLink[state];
+            while (match > ROOT) {
+                int begin = i - depth[match] + 1;
+                if (depth[match] > longest[begin]) {
+                    longest[begin] = depth[match];
+                }
+                match = outputLink[match];
+            }
+        }
+
+        return longest;
+    }
+
+    /**
+     * @return the number of distinct phrases in the automaton.
+     */
+    public int size()
+    {
+        return phraseCount;
+    }
+
+    private static long key(int aState, int aTokenId)
+    {
+        return ((long) aState << 32) | (aTokenId & 0xffffffffL);
+    }
+}
@@ -54,6 +54,23 @@ public class DictionaryAnnotatorTest
 		assertEquals("John Silver", ne.getCoveredText());
 	}
 
+	@Test
+	public void testPhraseAtSentenceEnd() throws Exception
+	{
+		AnalysisEngine ae = createEngine(DictionaryAnnotator.class,
+				DictionaryAnnotator.PARAM_ANNOTATION_TYPE, NamedEntity.class,
+				DictionaryAnnotator.PARAM_MODEL_LOCATION, "src/test/resources/persons.txt");
+
+		JCas jcas = JCasFactory.createJCas();
+		TokenBuilder<Token, Sentence> tb = new TokenBuilder<Token, Sentence>(Token.class, Sentence.class);
+		tb.buildTokens(jcas, "I am John Silver");
+
+		ae.process(jcas);
+
+		NamedEntity ne = selectSingle(jcas, NamedEntity.class);
+		assertEquals("John Silver", ne.getCoveredText());
+	}
+
 	@Test
 	public void testWithValue() throws Exception
 	{
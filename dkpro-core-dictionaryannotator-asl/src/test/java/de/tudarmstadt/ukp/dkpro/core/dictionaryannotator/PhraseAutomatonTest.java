@@ -0,0 +1,77 @@
+/*
+ * Copyright 2017
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.dkpro.core.dictionaryannotator;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class PhraseAutomatonTest
+{
+	private PhraseAutomaton phrases;
+
+	@Before
+	public void setUp()
+		throws Exception
+	{
+		phrases = new PhraseAutomaton();
+
+		phrases.addPhrase("the red dog".split(" "));
+		phrases.addPhrase("the red".split(" "));
+		phrases.addPhrase("the new kid".split(" "));
+		phrases.addPhrase("red dog barks".split(" "));
+		phrases.addPhrase("a".split(" "));
+		phrases.addPhrase("a".split(" "));
+		phrases.compile();
+	}
+
+	@Test
+	public void sizeTest()
+		throws Exception
+	{
+		assertEquals(5, phrases.size());
+	}
+
+	@Test
+	public void matchTest()
+		throws Exception
+	{
+		assertArrayEquals(new int[] { 3, 0, 0, 0 },
+				phrases.getLongestMatches("the red dog whines".split(" ")));
+		assertArrayEquals(new int[] { 3, 3, 0, 0 },
+				phrases.getLongestMatches("the red dog barks".split(" ")));
+		assertArrayEquals(new int[] { 2, 0, 0 },
+				phrases.getLongestMatches("the red cat".split(" ")));
+		assertArrayEquals(new int[] { 0, 2, 0, 1 },
+				phrases.getLongestMatches("the the red a".split(" ")));
+		assertArrayEquals(new int[] { 0, 0 },
+				phrases.getLongestMatches("the new".split(" ")));
+		assertArrayEquals(new int[] { 0, 0 },
+				phrases.getLongestMatches("red dog".split(" ")));
+		assertArrayEquals(new int[0], phrases.getLongestMatches(new String[0]));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void addAfterCompileTest()
+		throws Exception
+	{
+		phrases.addPhrase("too late".split(" "));
+	}
+}
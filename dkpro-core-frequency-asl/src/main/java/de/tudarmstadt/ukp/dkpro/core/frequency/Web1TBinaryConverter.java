@@ -0,0 +1,333 @@
+/*
+ * Copyright 2017
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.dkpro.core.frequency;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import it.unimi.dsi.fastutil.ints.AbstractIntComparator;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+
+/**
+ * Converts n-gram counts in the Web1T format, e.g. as written by
+ * {@code Web1TWriter}/{@code Web1TConverter}, into the binary format read by
+ * {@link Web1TBinaryProvider}. The counts of level <i>n</i> are read from all files in the
+ * sub-folder {@code <n>gms}. Files ending in {@code .gz} are decompressed on the fly.
+ * <p>
+ * The vocabulary and the n-grams of one level at a time are held in memory while converting, so
+ * very large count sets should be converted on a machine with sufficient memory. The resulting
+ * file can then be used on any machine.
+ * <p>
+ * The n-grams of a level are sorted in a single array of token ids, so the number of n-gram
+ * lines of a level multiplied by the level must not exceed {@value #MAX_TOKENS_PER_LEVEL}, e.g.
+ * about 715 million lines for trigrams. The conversion fails with an {@link IOException} if a
+ * level exceeds this limit. Consolidating duplicate n-grams beforehand reduces the number of
+ * lines.
+ */
+public class Web1TBinaryConverter
+{
+    /**
+     * The maximum number of token ids of a single level, i.e. the maximum size of a Java array.
+     */
+    public static final int MAX_TOKENS_PER_LEVEL = Integer.MAX_VALUE - 8;
+
+    private final String encoding;
+
+    /**
+     * @param aEncoding
+     *            the encoding of the Web1T files.
+     */
+    public Web1TBinaryConverter(String aEncoding)
+    {
+        encoding = aEncoding;
+    }
+
+    /**
+     * @param aWeb1TFolder
+     *            the folder containing the {@code 1gms}, {@code 2gms}, ... sub-folders.
+     * @param aMaxLevel
+     *            the maximum n-gram level to convert.
+     * @param aTarget
+     *            the binary file to write.
+     * @throws IOException
+     *             if the counts cannot be read or the file cannot be written.
+     */
+    public void convert(File aWeb1TFolder, int aMaxLevel, File aTarget)
+        throws IOException
+    {
+        if (aMaxLevel < 1) {
+            throw new IllegalArgumentException("Maximum level must be at least 1");
+        }
+
+        // Assign ids in lexicographic order of the tokens, so the n-grams are stored in
+        // lexicographic order as well
+        String[] vocabulary = readVocabulary(aWeb1TFolder, aMaxLevel);
+        Arrays.sort(vocabulary);
+        Object2IntOpenHashMap<String> ids = new Object2IntOpenHashMap<>(vocabulary.length);
+        ids.defaultReturnValue(-1);
+        for (int i = 0; i < vocabulary.length; i++) {
+            ids.put(vocabulary[i], i);
+        }
+
+        int slots = 1;
+        while (slots < vocabulary.length * 2L) {
+            slots <<= 1;
+        }
+
+        long[] distinct = new long[aMaxLevel + 1];
+        long[] totals = new long[aMaxLevel + 1];
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new FileOutputStream(aTarget), 1 << 16))) {
+            out.writeInt(Web1TBinaryProvider.MAGIC);
+            out.writeInt(Web1TBinaryProvider.VERSION);
+            out.writeInt(aMaxLevel);
+            out.writeInt(vocabulary.length);
+            out.writeInt(slots);
+            out.writeInt(0);
+            // Placeholders for the statistics of each level - filled in at the end
+            for (int n = 1; n <= aMaxLevel; n++) {
+                out.writeLong(0);
+                out.writeLong(0);
+            }
+
+            writeVocabulary(out, vocabulary, slots);
+
+            for (int n = 1; n <= aMaxLevel; n++) {
+                long[] stats = writeLevel(out, aWeb1TFolder, n, ids);
+                distinct[n] = stats[0];
+                totals[n] = stats[1];
+            }
+        }
+
+        try (RandomAccessFile raf = new RandomAccessFile(aTarget, "rw")) {
+            raf.seek(Web1TBinaryProvider.HEADER_SIZE);
+            for (int n = 1; n <= aMaxLevel; n++) {
+                raf.writeLong(distinct[n]);
+                raf.writeLong(totals[n]);
+            }
+        }
+    }
+
+    private String[] readVocabulary(File aFolder, int aMaxLevel)
+        throws IOException
+    {
+        ObjectOpenHashSet<String> tokens = new ObjectOpenHashSet<>();
+        for (int n = 1; n <= aMaxLevel; n++) {
+            for (File file : getFiles(aFolder, n)) {
+                try (BufferedReader reader = open(file)) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        int tab = line.indexOf('\t');
+                        if (tab < 0) {
+                            continue;
+                        }
+                        for (String token : line.substring(0, tab).split(" ")) {
+                            if (!token.isEmpty()) {
+                                tokens.add(token);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return tokens.toArray(new String[tokens.size()]);
+    }
+
+    private static void writeVocabulary(DataOutputStream aOut, String[] aVocabulary, int aSlots)
+        throws IOException
+    {
+        long offset = 0;
+        for (String token : aVocabulary) {
+            aOut.writeLong(offset);
+            offset += token.length();
+        }
+        aOut.writeLong(offset);
+
+        for (String token : aVocabulary) {
+            aOut.writeChars(token);
+        }
+        writePadding(aOut, offset * 2);
+
+        int[] table = new int[aSlots];
+        int mask = aSlots - 1;
+        for (int id = 0; id < aVocabulary.length; id++) {
+            String token = aVocabulary[id];
+            int slot = Web1TBinaryProvider.hash(token, 0, token.length()) & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = id + 1;
+        }
+        for (int entry : table) {
+            aOut.writeInt(entry);
+        }
+        writePadding(aOut, aSlots * 4L);
+    }
+
+    private static void writePadding(DataOutputStream aOut, long aLength)
+        throws IOException
+    {
+        for (long i = aLength; i < Web1TBinaryProvider.pad(aLength); i++) {
+            aOut.writeByte(0);
+        }
+    }
+
+    /**
+     * @return the number of distinct n-grams and the total count.
+     */
+    private long[] writeLevel(DataOutputStream aOut, File aFolder, int aLevel,
+            Object2IntOpenHashMap<String> aIds)
+        throws IOException
+    {
+        IntArrayList ngramIds = new IntArrayList();
+        LongArrayList counts = new LongArrayList();
+        for (File file : getFiles(aFolder, aLevel)) {
+            try (BufferedReader reader = open(file)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    int tab = line.indexOf('\t');
+                    if (tab < 0) {
+                        continue;
+                    }
+                    String[] tokens = line.substring(0, tab).trim().split(" +");
+                    if (tokens.length != aLevel) {
+                        continue;
+                    }
+                    if (ngramIds.size() > MAX_TOKENS_PER_LEVEL - aLevel) {
+                        throw new IOException("Level " + aLevel + " has more than "
+                                + (MAX_TOKENS_PER_LEVEL / aLevel) + " n-grams, which is the "
+                                + "maximum supported by the converter. Error in file [" + file
+                                + "] after " + counts.size() + " n-grams.");
+                    }
+                    for (String token : tokens) {
+                        ngramIds.add(aIds.getInt(token));
+                    }
+                    counts.add(Long.parseLong(line.substring(tab + 1).trim()));
+                }
+            }
+        }
+
+        int[] ids = ngramIds.elements();
+        long[] cnt = counts.elements();
+        it.unimi.dsi.fastutil.Arrays.quickSort(0, counts.size(), new AbstractIntComparator()
+        {
+            @Override
+            public int compare(int aA, int aB)
+            {
+                return compareNgrams(ids, aA, aB, aLevel);
+            }
+        }, (aA, aB) -> {
+            for (int k = 0; k < aLevel; k++) {
+                int tmp = ids[aA * aLevel + k];
+                ids[aA * aLevel + k] = ids[aB * aLevel + k];
+                ids[aB * aLevel + k] = tmp;
+            }
+            long tmp = cnt[aA];
+            cnt[aA] = cnt[aB];
+            cnt[aB] = tmp;
+        });
+
+        long distinct = 0;
+        long total = 0;
+        int i = 0;
+        while (i < counts.size()) {
+            // Merge duplicate n-grams
+            long count = cnt[i];
+            int j = i + 1;
+            while (j < counts.size() && compareNgrams(ids, i, j, aLevel) == 0) {
+                count += cnt[j];
+                j++;
+            }
+
+            for (int k = 0; k < aLevel; k++) {
+                aOut.writeInt(ids[i * aLevel + k]);
+            }
+            aOut.writeLong(count);
+
+            distinct++;
+            total += count;
+            i = j;
+        }
+
+        return new long[] { distinct, total };
+    }
+
+    private static int compareNgrams(int[] aIds, int aA, int aB, int aLevel)
+    {
+        for (int k = 0; k < aLevel; k++) {
+            int cmp = Integer.compare(aIds[aA * aLevel + k], aIds[aB * aLevel + k]);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return 0;
+    }
+
+    private static List<File> getFiles(File aFolder, int aLevel)
+    {
+        List<File> files = new ArrayList<>();
+        File[] candidates = new File(aFolder, aLevel + "gms").listFiles();
+        if (candidates != null) {
+            Arrays.sort(candidates);
+            for (File file : candidates) {
+                if (file.isFile() && !file.isHidden()) {
+                    files.add(file);
+                }
+            }
+        }
+        return files;
+    }
+
+    private BufferedReader open(File aFile)
+        throws IOException
+    {
+        InputStream is = new FileInputStream(aFile);
+        if (aFile.getName().endsWith(".gz")) {
+            is = new GZIPInputStream(is);
+        }
+        return new BufferedReader(new InputStreamReader(is, encoding));
+    }
+
+    public static void main(String[] aArgs)
+        throws IOException
+    {
+        if (aArgs.length < 3) {
+            System.err.println("Usage: Web1TBinaryConverter <web1t folder> <max level> "
+                    + "<target file> [encoding]");
+            System.exit(1);
+        }
+
+        new Web1TBinaryConverter(aArgs.length > 3 ? aArgs[3] : "UTF-8").convert(
+                new File(aArgs[0]), Integer.parseInt(aArgs[1]), new File(aArgs[2]));
+    }
+}
@@ -0,0 +1,383 @@
+/*
+ * Copyright 2017
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.dkpro.core.frequency;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import de.tudarmstadt.ukp.dkpro.core.api.frequency.provider.FrequencyCountProviderBase;
+
+/**
+ * Frequency count provider serving n-gram counts from a binary file created by
+ * {@link Web1TBinaryConverter}. The file is memory-mapped, so opening it takes only milliseconds
+ * regardless of its size, and the counts are paged in by the operating system on demand.
+ * <p>
+ * Tokens are stored in a hash table mapping them to integer ids. The n-grams of each level are
+ * stored as a sorted array of id tuples with their counts, which is searched using binary search.
+ * Looking up a frequency does not allocate any objects on the heap. The provider is thread-safe.
+ * <p>
+ * File layout (big-endian):
+ *
+ * <pre>
+ * int    magic, int version, int maxLevel, int vocabularySize, int hashSlots, int unused
+ * long   distinct n-grams, long total count          (for each level)
+ * long   start offset of each token in the characters (vocabularySize + 1)
+ * char   the characters of all tokens                 (padded to 8 bytes)
+ * int    token id + 1 for each hash slot, 0 if empty  (padded to 8 bytes)
+ * record int id[level], long count                    (for each n-gram of each level)
+ * </pre>
+ */
+public class Web1TBinaryProvider
+    extends FrequencyCountProviderBase
+{
+    static final int MAGIC = 0x444B5731; // "DKW1"
+    static final int VERSION = 1;
+    // The header is padded to 8 bytes, so all sections are aligned
+    static final int HEADER_SIZE = 24;
+
+    private static final int CHUNK_SIZE = 1 << 30;
+
+    private final String language;
+    private final int maxLevel;
+    private final int vocabularySize;
+    private final int hashMask;
+    private final long[] distinct;
+    private final long[] totals;
+
+    private final MappedArray tokenOffsets;
+    private final MappedArray tokenChars;
+    private final MappedArray hashSlots;
+    private final MappedArray[] ngrams;
+
+    private final ThreadLocal<int[]> queryBuffer;
+
+    /**
+     * @param aLanguage
+     *            the language of the counts.
+     * @param aFile
+     *            the binary file created by {@link Web1TBinaryConverter}.
+     * @throws IOException
+     *             if the file cannot be opened or is not a valid count file.
+     */
+    public Web1TBinaryProvider(String aLanguage, File aFile)
+        throws IOException
+    {
+        language = aLanguage;
+
+        try (RandomAccessFile raf = new RandomAccessFile(aFile, "r")) {
+            FileChannel channel = raf.getChannel();
+
+            MappedByteBuffer header = channel.map(MapMode.READ_ONLY, 0,
+                    Math.min(channel.size(), HEADER_SIZE));
+            if (header.limit() < HEADER_SIZE || header.getInt(0) != MAGIC) {
+                throw new IOException("[" + aFile + "] is not a binary n-gram count file");
+            }
+            if (header.getInt(4) != VERSION) {
+                throw new IOException("Unsupported version [" + header.getInt(4) + "] of [" + aFile
+                        + "]");
+            }
+            maxLevel = header.getInt(8);
+            vocabularySize = header.getInt(12);
+            int slots = header.getInt(16);
+            hashMask = slots - 1;
+
+            long offset = HEADER_SIZE;
+            MappedByteBuffer levels = channel.map(MapMode.READ_ONLY, offset, maxLevel * 16L);
+            distinct = new long[maxLevel + 1];
+            totals = new long[maxLevel + 1];
+            for (int n = 1; n <= maxLevel; n++) {
+                distinct[n] = levels.getLong((n - 1) * 16);
+                totals[n] = levels.getLong((n - 1) * 16 + 8);
+            }
+            offset += maxLevel * 16L;
+
+            tokenOffsets = new MappedArray(channel, offset, vocabularySize + 1L, 8);
+            offset += (vocabularySize + 1L) * 8;
+            long charCount = tokenOffsets.getLong(vocabularySize, 0);
+
+            tokenChars = new MappedArray(channel, offset, charCount, 2);
+            offset = pad(offset + charCount * 2);
+
+            hashSlots = new MappedArray(channel, offset, slots, 4);
+            offset = pad(offset + slots * 4L);
+
+            ngrams = new MappedArray[maxLevel + 1];
+            for (int n = 1; n <= maxLevel; n++) {
+                ngrams[n] = new MappedArray(channel, offset, distinct[n], recordSize(n));
+                offset += distinct[n] * recordSize(n);
+            }
+
+            if (offset != channel.size()) {
+                throw new IOException("[" + aFile + "] is truncated or corrupt");
+            }
+        }
+
+        int levels = maxLevel;
+        queryBuffer = ThreadLocal.withInitial(() -> new int[levels]);
+    }
+
+    static int recordSize(int aLevel)
+    {
+        return aLevel * 4 + 8;
+    }
+
+    static long pad(long aOffset)
+    {
+        return (aOffset + 7) & ~7L;
+    }
+
+    static int hash(CharSequence aText, int aBegin, int aEnd)
+    {
+        int h = 0;
+        for (int i = aBegin; i < aEnd; i++) {
+            h = 31 * h + aText.charAt(i);
+        }
+        return h ^ (h >>> 16);
+    }
+
+    @Override
+    protected long getFrequencyFromProvider(String aPhrase)
+        throws IOException
+    {
+        int[] query = queryBuffer.get();
+        int n = 0;
+        int length = aPhrase.length();
+        int i = 0;
+        while (i < length) {
+            if (aPhrase.charAt(i) == ' ') {
+                i++;
+                continue;
+            }
+
+            int end = i;
+            while (end < length && aPhrase.charAt(end) != ' ') {
+                end++;
+            }
+
+            if (n == maxLevel) {
+                return 0;
+            }
+
+            int id = lookupToken(aPhrase, i, end);
+            if (id < 0) {
+                return 0;
+            }
+            query[n++] = id;
+            i = end;
+        }
+
+        if (n == 0) {
+            return 0;
+        }
+
+        long index = find(query, n);
+        return index < 0 ? 0 : ngrams[n].getLong(index, n * 4);
+    }
+
+    /**
+     * @return the id of the token or {@code -1} if it is not in the vocabulary.
+     */
+    private int lookupToken(CharSequence aText, int aBegin, int aEnd)
+    {
+        int slot = hash(aText, aBegin, aEnd) & hashMask;
+        while (true) {
+            int id = hashSlots.getInt(slot, 0) - 1;
+            if (id < 0) {
+                return -1;
+            }
+            if (tokenEquals(id, aText, aBegin, aEnd)) {
+                return id;
+            }
+            slot = (slot + 1) & hashMask;
+        }
+    }
+
+    private boolean tokenEquals(int aId, CharSequence aText, int aBegin, int aEnd)
+    {
+        long begin = tokenOffsets.getLong(aId, 0);
+        long end = tokenOffsets.getLong(aId + 1L, 0);
+        if (end - begin != aEnd - aBegin) {
+            return false;
+        }
+        for (int i = 0; i < aEnd - aBegin; i++) {
+            if (tokenChars.getChar(begin + i, 0) != aText.charAt(aBegin + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the index of the n-gram in its level or {@code -1} if it is not contained.
+     */
+    private long find(int[] aIds, int aLevel)
+    {
+        MappedArray records = ngrams[aLevel];
+        long low = 0;
+        long high = distinct[aLevel] - 1;
+        while (low <= high) {
+            long mid = (low + high) >>> 1;
+            int cmp = 0;
+            for (int k = 0; k < aLevel && cmp == 0; k++) {
+                cmp = Integer.compare(records.getInt(mid, k * 4), aIds[k]);
+            }
+            if (cmp < 0) {
+                low = mid + 1;
+            }
+            else if (cmp > 0) {
+                high = mid - 1;
+            }
+            else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private String getToken(int aId)
+    {
+        long begin = tokenOffsets.getLong(aId, 0);
+        int length = (int) (tokenOffsets.getLong(aId + 1L, 0) - begin);
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = tokenChars.getChar(begin + i, 0);
+        }
+        return new String(chars);
+    }
+
+    public int getMaxLevel()
+    {
+        return maxLevel;
+    }
+
+    public int getVocabularySize()
+    {
+        return vocabularySize;
+    }
+
+    @Override
+    public long getNrOfNgrams(int aN)
+    {
+        return aN >= 1 && aN <= maxLevel ? totals[aN] : 0;
+    }
+
+    @Override
+    public long getNrOfTokens()
+    {
+        return getNrOfNgrams(1);
+    }
+
+    @Override
+    public long getNrOfDistinctNgrams(int aN)
+    {
+        return aN >= 1 && aN <= maxLevel ? distinct[aN] : 0;
+    }
+
+    @Override
+    public Iterator<String> getNgramIterator(int aN)
+        throws IOException
+    {
+        long size = getNrOfDistinctNgrams(aN);
+        return new Iterator<String>()
+        {
+            private long next = 0;
+
+            @Override
+            public boolean hasNext()
+            {
+                return next < size;
+            }
+
+            @Override
+            public String next()
+            {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                StringBuilder sb = new StringBuilder();
+                for (int k = 0; k < aN; k++) {
+                    if (k > 0) {
+                        sb.append(' ');
+                    }
+                    sb.append(getToken(ngrams[aN].getInt(next, k * 4)));
+                }
+                next++;
+                return sb.toString();
+            }
+        };
+    }
+
+    @Override
+    public String getLanguage()
+    {
+        return language;
+    }
+
+    /**
+     * Fixed-size elements of a section of a file mapped into memory. Sections larger than 2 GB are
+     * split into several buffers. The buffers are only accessed using absolute positions, so they
+     * can be shared between threads.
+     */
+    private static class MappedArray
+    {
+        private final MappedByteBuffer[] chunks;
+        private final int elementSize;
+        private final long elementsPerChunk;
+
+        MappedArray(FileChannel aChannel, long aOffset, long aCount, int aElementSize)
+            throws IOException
+        {
+            elementSize = aElementSize;
+            elementsPerChunk = CHUNK_SIZE / aElementSize;
+            int chunkCount = (int) ((aCount + elementsPerChunk - 1) / elementsPerChunk);
+            chunks = new MappedByteBuffer[chunkCount];
+            for (int i = 0; i < chunkCount; i++) {
+                long first = i * elementsPerChunk;
+                long count = Math.min(elementsPerChunk, aCount - first);
+                chunks[i] = aChannel.map(MapMode.READ_ONLY, aOffset + first * elementSize,
+                        count * elementSize);
+            }
+        }
+
+        int getInt(long aIndex, int aOffset)
+        {
+            return chunks[(int) (aIndex / elementsPerChunk)].getInt(position(aIndex, aOffset));
+        }
+
+        long getLong(long aIndex, int aOffset)
+        {
+            return chunks[(int) (aIndex / elementsPerChunk)].getLong(position(aIndex, aOffset));
+        }
+
+        char getChar(long aIndex, int aOffset)
+        {
+            return chunks[(int) (aIndex / elementsPerChunk)].getChar(position(aIndex, aOffset));
+        }
+
+        private int position(long aIndex, int aOffset)
+        {
+            return (int) (aIndex % elementsPerChunk) * elementSize + aOffset;
+        }
+    }
+}
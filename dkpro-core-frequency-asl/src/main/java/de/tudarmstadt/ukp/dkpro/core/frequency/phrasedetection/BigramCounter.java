@@ -0,0 +1,348 @@
+/*
+ * Copyright 2017
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.dkpro.core.frequency.phrasedetection;
+
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Counts unigrams and bigrams with a bounded amount of memory. Tokens are mapped to integer ids and
+ * a bigram is packed into a single {@code long} key, so counting does not create any strings.
+ * Unigram counts are always kept in memory. When the number of distinct bigrams in memory reaches
+ * the configured limit, they are sorted and spilled to a temporary file. The partial counts are
+ * merged when the counts are {@link #forEachBigram(long, NgramConsumer) read}.
+ */
+class BigramCounter
+    implements Closeable
+{
+    private final int maxBigramsInMemory;
+    private final File spillDirectory;
+
+    private final Object2IntOpenHashMap<String> ids = new Object2IntOpenHashMap<>();
+    private final ObjectArrayList<String> tokens = new ObjectArrayList<>();
+    private final LongArrayList unigramCounts = new LongArrayList();
+    private final Long2IntOpenHashMap bigramCounts = new Long2IntOpenHashMap();
+    private final List<File> runs = new ArrayList<>();
+
+    /**
+     * @param aMaxBigramsInMemory
+     *            the number of distinct bigrams kept in memory before spilling them to disk.
+     * @param aSpillDirectory
+     *            the directory for the temporary files or {@code null} to use the default
+     *            temporary directory.
+     */
+    public BigramCounter(int aMaxBigramsInMemory, File aSpillDirectory)
+    {
+        if (aMaxBigramsInMemory < 1) {
+            throw new IllegalArgumentException("Maximum number of bigrams in memory must be at "
+                    + "least 1, but was " + aMaxBigramsInMemory);
+        }
+        maxBigramsInMemory = aMaxBigramsInMemory;
+        spillDirectory = aSpillDirectory;
+        ids.defaultReturnValue(-1);
+    }
+
+    /**
+     * Count the unigrams and bigrams in a sequence of tokens.
+     *
+     * @param aSequence
+     *            the tokens.
+     * @throws IOException
+     *             if the counts cannot be spilled to disk.
+     */
+    public void count(String[] aSequence)
+        throws IOException
+    {
+        int previous = -1;
+        for (String token : aSequence) {
+            int id = getId(token);
+            unigramCounts.set(id, unigramCounts.getLong(id) + 1);
+
+            if (previous >= 0) {
+                bigramCounts.addTo(pack(previous, id), 1);
+                if (bigramCounts.size() >= maxBigramsInMemory) {
+                    spill();
+                }
+            }
+            previous = id;
+        }
+    }
+
+    private int getId(String aToken)
+    {
+        int id = ids.getInt(aToken);
+        if (id < 0) {
+            id = tokens.size();
+            ids.put(aToken, id);
+            tokens.add(aToken);
+            unigramCounts.add(0);
+        }
+        return id;
+    }
+
+    static long pack(int aFirst, int aSecond)
+    {
+        return ((long) aFirst << 32) | (aSecond & 0xFFFFFFFFL);
+    }
+
+    static int first(long aBigram)
+    {
+        return (int) (aBigram >>> 32);
+    }
+
+    static int second(long aBigram)
+    {
+        return (int) aBigram;
+    }
+
+    private void spill()
+        throws IOException
+    {
+        File run = File.createTempFile("bigrams", ".run", spillDirectory);
+        run.deleteOnExit();
+        runs.add(run);
+
+        long[] keys = bigramCounts.keySet().toLongArray();
+        Arrays.sort(keys);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new FileOutputStream(run), 1 << 16))) {
+            for (long key : keys) {
+                out.writeLong(key);
+                out.writeInt(bigramCounts.get(key));
+            }
+        }
+        bigramCounts.clear();
+        bigramCounts.trim();
+    }
+
+    /**
+     * @return the number of distinct unigrams.
+     */
+    public int getVocabularySize()
+    {
+        return tokens.size();
+    }
+
+    /**
+     * @return the number of temporary files the bigram counts have been spilled to.
+     */
+    public int getSpillCount()
+    {
+        return runs.size();
+    }
+
+    public String getToken(int aId)
+    {
+        return tokens.get(aId);
+    }
+
+    /**
+     * Pass all unigrams occurring at least the given number of times to the consumer.
+     *
+     * @param aMinCount
+     *            the minimum count.
+     * @param aConsumer
+     *            the consumer.
+     * @throws IOException
+     *             if the consumer fails.
+     */
+    public void forEachUnigram(long aMinCount, NgramConsumer aConsumer)
+        throws IOException
+    {
+        for (int id = 0; id < tokens.size(); id++) {
+            long count = unigramCounts.getLong(id);
+            if (count >= aMinCount) {
+                aConsumer.accept(id, count);
+            }
+        }
+    }
+
+    /**
+     * Pass all bigrams occurring at least the given number of times to the consumer. The bigrams
+     * are passed in order of their packed keys and the partial counts spilled to disk are merged.
+     *
+     * @param aMinCount
+     *            the minimum count.
+     * @param aConsumer
+     *            the consumer.
+     * @throws IOException
+     *             if the partial counts cannot be read or the consumer fails.
+     */
+    public void forEachBigram(long aMinCount, NgramConsumer aConsumer)
+        throws IOException
+    {
+        PriorityQueue<Run> queue = new PriorityQueue<>(runs.size() + 1,
+                (a, b) -> Long.compare(a.key, b.key));
+        try {
+            for (File file : runs) {
+                Run run = new FileRun(file);
+                if (run.next()) {
+                    queue.add(run);
+                }
+                else {
+                    run.close();
+                }
+            }
+            Run memory = new MemoryRun();
+            if (memory.next()) {
+                queue.add(memory);
+            }
+
+            while (!queue.isEmpty()) {
+                // Each run contains a key at most once, so the loop ends after visiting all runs
+                long key = queue.peek().key;
+                long count = 0;
+                while (!queue.isEmpty() && queue.peek().key == key) {
+                    Run run = queue.poll();
+                    count += run.count;
+                    if (run.next()) {
+                        queue.add(run);
+                    }
+                    else {
+                        run.close();
+                    }
+                }
+
+                if (count >= aMinCount) {
+                    aConsumer.accept(key, count);
+                }
+            }
+        }
+        finally {
+            for (Run run : queue) {
+                run.close();
+            }
+        }
+    }
+
+    /**
+     * Delete the temporary files.
+     */
+    @Override
+    public void close()
+    {
+        for (File run : runs) {
+            run.delete();
+        }
+        runs.clear();
+    }
+
+    /**
+     * Receives n-gram counts. For unigrams, the n-gram is the token id, for bigrams, the packed
+     * token ids.
+     */
+    interface NgramConsumer
+    {
+        void accept(long aNgram, long aCount)
+            throws IOException;
+    }
+
+    private abstract static class Run
+        implements Closeable
+    {
+        long key;
+        long count;
+
+        abstract boolean next()
+            throws IOException;
+
+        @Override
+        public void close()
+        {
+            // Nothing to do by default
+        }
+    }
+
+    private static class FileRun
+        extends Run
+    {
+        private final DataInputStream in;
+
+        FileRun(File aFile)
+            throws IOException
+        {
+            in = new DataInputStream(new BufferedInputStream(new FileInputStream(aFile), 1 << 16));
+        }
+
+        @Override
+        boolean next()
+            throws IOException
+        {
+            try {
+                key = in.readLong();
+            }
+            catch (EOFException e) {
+                return false;
+            }
+            count = in.readInt();
+            return true;
+        }
+
+        @Override
+        public void close()
+        {
+            try {
+                in.close();
+            }
+            catch (IOException e) {
+                // Ignore
+            }
+        }
+    }
+
+    private class MemoryRun
+        extends Run
+    {
+        private final long[] keys;
+        private int next = 0;
+
+        MemoryRun()
+        {
+            keys = bigramCounts.keySet().toLongArray();
+            Arrays.sort(keys);
+        }
+
+        @Override
+        boolean next()
+        {
+            if (next == keys.length) {
+                return false;
+            }
+            key = keys[next++];
+            count = bigramCounts.get(key);
+            return true;
+        }
+    }
+}
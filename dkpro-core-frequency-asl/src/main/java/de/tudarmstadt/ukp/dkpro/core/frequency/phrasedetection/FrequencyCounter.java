@@ -23,21 +23,29 @@ import de.tudarmstadt.ukp.dkpro.core.api.io.sequencegenerator.PhraseSequenceGene
 import de.tudarmstadt.ukp.dkpro.core.api.io.sequencegenerator.StringSequenceGenerator;
 import de.tudarmstadt.ukp.dkpro.core.api.resources.CompressionUtils;
 import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token;
-import org.apache.commons.collections4.Bag;
-import org.apache.commons.collections4.bag.HashBag;
+import it.unimi.dsi.fastutil.Arrays;
+import it.unimi.dsi.fastutil.ints.AbstractIntComparator;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
 import org.apache.uima.UimaContext;
 import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
 import org.apache.uima.fit.descriptor.ConfigurationParameter;
 import org.apache.uima.jcas.JCas;
 import org.apache.uima.resource.ResourceInitializationException;
 
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
-import java.io.OutputStream;
-import java.util.stream.Stream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 
 /**
  * Count unigrams and bigrams in a collection.
+ * <p>
+ * Tokens are mapped to integer ids and bigrams are counted using these ids, so the memory needed
+ * grows with the number of distinct bigrams rather than with the size of their text. If there are
+ * more distinct bigrams than {@link #PARAM_MAX_BIGRAMS_IN_MEMORY}, the partial counts are spilled
+ * to temporary files and merged when the counts are written. This allows counting corpora of any
+ * size.
  */
 public class FrequencyCounter
         extends JCasFileWriter_ImplBase
@@ -59,7 +67,6 @@ public class FrequencyCounter
      * This string (a line) will separate unigrams from bigrams in the output file
      **/
     static final String NGRAM_SEPARATOR_LINE = "----------------------------------------------------";
-    static final String NEWLINE_REGEX = "\r\n?|\n";
 
     /**
      * The feature path. Default: tokens.
@@ -120,8 +127,23 @@ public class FrequencyCounter
     @ConfigurationParameter(name = PARAM_REGEX_REPLACEMENT, mandatory = true, defaultValue = "")
     private String regexReplacement;
 
-    private Bag<String> unigrams;
-    private Bag<String> bigrams;
+    /**
+     * The number of distinct bigrams held in memory. When this number is reached, the counts are
+     * spilled to a temporary file. Default: 10000000.
+     */
+    public static final String PARAM_MAX_BIGRAMS_IN_MEMORY = "maxBigramsInMemory";
+    @ConfigurationParameter(name = PARAM_MAX_BIGRAMS_IN_MEMORY, mandatory = true, defaultValue = "10000000")
+    private int maxBigramsInMemory;
+
+    /**
+     * The directory for the temporary files holding partial bigram counts. Default: the system
+     * temporary directory.
+     */
+    public static final String PARAM_SPILL_DIRECTORY = "spillDirectory";
+    @ConfigurationParameter(name = PARAM_SPILL_DIRECTORY, mandatory = false)
+    private File spillDirectory;
+
+    private BigramCounter counter;
     private StringSequenceGenerator sequenceGenerator;
 
     @Override
@@ -134,8 +156,12 @@ public class FrequencyCounter
                     "Can only sort either by count or alphabetically."));
         }
 
-        unigrams = new HashBag<>();
-        bigrams = new HashBag<>();
+        try {
+            counter = new BigramCounter(maxBigramsInMemory, spillDirectory);
+        }
+        catch (IllegalArgumentException e) {
+            throw new ResourceInitializationException(e);
+        }
 
         /* set feature path to default */
         if (featurePath == null) {
@@ -166,77 +192,210 @@ public class FrequencyCounter
         try {
             /* iterate over sequences (e.g. sentences)*/
             for (String[] sequence : sequenceGenerator.tokenSequences(aJCas)) {
-                /* iterate over tokens in sequence */
                 for (int i = 0; i < sequence.length; i++) {
-                    /* count unigrams */
-                    String unigram = sequence[i]
-                            .replaceAll(COLUMN_SEPARATOR, COLUMN_SEP_REPLACEMENT)
-                            .replaceAll(NEWLINE_REGEX, COLUMN_SEP_REPLACEMENT);
-                    unigrams.add(unigram);
-
-                    /* count bigrams */
-                    if (i + 1 < sequence.length) {
-                        String bigram = unigram + BIGRAM_SEPARATOR + sequence[i + 1]
-                                .replaceAll(COLUMN_SEPARATOR, COLUMN_SEP_REPLACEMENT)
-                                .replaceAll(NEWLINE_REGEX, COLUMN_SEP_REPLACEMENT);
-                        bigrams.add(bigram);
-                    }
+                    sequence[i] = escape(sequence[i]);
                 }
+                counter.count(sequence);
             }
         }
+        catch (IOException e) {
+            throw new AnalysisEngineProcessException(e);
+        }
         catch (FeaturePathException e) {
             throw new AnalysisEngineProcessException(e);
         }
     }
 
+    /**
+     * Replace column separators and line breaks in a token by {@link #COLUMN_SEP_REPLACEMENT}.
+     * Tokens which do not contain any of these are returned as they are.
+     */
+    static String escape(String aToken)
+    {
+        int i = 0;
+        while (i < aToken.length()) {
+            char c = aToken.charAt(i);
+            if (c == '\t' || c == '\r' || c == '\n') {
+                break;
+            }
+            i++;
+        }
+        if (i == aToken.length()) {
+            return aToken;
+        }
+
+        StringBuilder sb = new StringBuilder(aToken.length());
+        sb.append(aToken, 0, i);
+        for (; i < aToken.length(); i++) {
+            char c = aToken.charAt(i);
+            if (c == '\t' || c == '\n') {
+                sb.append(COLUMN_SEP_REPLACEMENT);
+            }
+            else if (c == '\r') {
+                sb.append(COLUMN_SEP_REPLACEMENT);
+                // "\r\n" is a single line break
+                if (i + 1 < aToken.length() && aToken.charAt(i + 1) == '\n') {
+                    i++;
+                }
+            }
+            else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
     @Override
     public void collectionProcessComplete()
             throws AnalysisEngineProcessException
     {
-        getLogger().info("Vocabulary size: " + unigrams.uniqueSet().size());
+        getLogger().info("Vocabulary size: " + counter.getVocabularySize());
+        if (counter.getSpillCount() > 0) {
+            getLogger().info("Merging bigram counts from " + counter.getSpillCount()
+                    + " temporary files");
+        }
         try {
             getLogger().info("Writing frequencies to " + getTargetLocation());
-            OutputStream os = CompressionUtils.getOutputStream(new File(getTargetLocation()));
-
-            writeNgrams(os, unigrams);
-            os.write((NGRAM_SEPARATOR_LINE + "\n").getBytes());
-            writeNgrams(os, bigrams);
-            os.close();
+            try (Writer out = new BufferedWriter(new OutputStreamWriter(
+                    CompressionUtils.getOutputStream(new File(getTargetLocation()))))) {
+                writeUnigrams(out);
+                out.write(NGRAM_SEPARATOR_LINE + "\n");
+                writeBigrams(out);
+            }
         }
         catch (IOException e) {
             throw new AnalysisEngineProcessException(e);
         }
+        finally {
+            counter.close();
+        }
     }
 
-    /**
-     * Write counter with counts from a bag to an output stream.
-     *
-     * @param os      an {@link OutputStream}
-     * @param counter a {@link Bag} of string counter
-     */
-    private void writeNgrams(OutputStream os, Bag<String> counter)
+    private void writeUnigrams(Writer aOut)
+            throws IOException
+    {
+        LongArrayList ids = new LongArrayList();
+        LongArrayList counts = new LongArrayList();
+        counter.forEachUnigram(minCount, (id, count) -> {
+            ids.add(id);
+            counts.add(count);
+        });
+
+        sort(ids.elements(), counts.elements(), ids.size(), (a, b) -> counter
+                .getToken((int) a).compareTo(counter.getToken((int) b)));
+
+        for (int i = 0; i < ids.size(); i++) {
+            writeLine(aOut, counter.getToken((int) ids.getLong(i)), null, counts.getLong(i));
+        }
+    }
+
+    private void writeBigrams(Writer aOut)
+            throws IOException
     {
-        /* create token stream */
-        Stream<String> stream = counter.uniqueSet().stream()
-                .filter(token -> counter.getCount(token) >= minCount);
+        if (!sortByAlphabet && !sortByCount) {
+            /* write the merged counts directly */
+            counter.forEachBigram(minCount, (bigram, count) -> writeLine(aOut,
+                    counter.getToken(BigramCounter.first(bigram)),
+                    counter.getToken(BigramCounter.second(bigram)), count));
+            return;
+        }
+
+        LongArrayList bigrams = new LongArrayList();
+        LongArrayList counts = new LongArrayList();
+        counter.forEachBigram(minCount, (bigram, count) -> {
+            bigrams.add(bigram);
+            counts.add(count);
+        });
+
+        sort(bigrams.elements(), counts.elements(), bigrams.size(), this::compareBigrams);
 
-        /* sort output */
-        if (sortByAlphabet) {
-            stream = stream.sorted(String::compareTo);
+        for (int i = 0; i < bigrams.size(); i++) {
+            long bigram = bigrams.getLong(i);
+            writeLine(aOut, counter.getToken(BigramCounter.first(bigram)),
+                    counter.getToken(BigramCounter.second(bigram)), counts.getLong(i));
         }
-        else if (sortByCount) {
-            stream = stream.sorted((o1, o2) ->
-                    -Integer.compare(counter.getCount(o1), counter.getCount(o2)));
+    }
+
+    private static void writeLine(Writer aOut, String aFirst, String aSecond, long aCount)
+            throws IOException
+    {
+        aOut.write(aFirst);
+        if (aSecond != null) {
+            aOut.write(BIGRAM_SEPARATOR);
+            aOut.write(aSecond);
         }
+        aOut.write(COLUMN_SEPARATOR);
+        aOut.write(Long.toString(aCount));
+        aOut.write('\n');
+    }
 
-        /* write tokens with counts */
-        stream.forEach(token -> {
-            try {
-                os.write((token + COLUMN_SEPARATOR + counter.getCount(token) + "\n").getBytes());
-            }
-            catch (IOException e) {
-                throw new RuntimeException(e);
+    /**
+     * Sort n-grams and their counts according to the configured order.
+     */
+    private void sort(long[] aNgrams, long[] aCounts, int aSize, NgramComparator aAlphabetical)
+    {
+        if (!sortByAlphabet && !sortByCount) {
+            return;
+        }
+
+        Arrays.quickSort(0, aSize, new AbstractIntComparator()
+        {
+            @Override
+            public int compare(int aA, int aB)
+            {
+                if (sortByAlphabet) {
+                    return aAlphabetical.compare(aNgrams[aA], aNgrams[aB]);
+                }
+                else {
+                    return -Long.compare(aCounts[aA], aCounts[aB]);
+                }
             }
+        }, (aA, aB) -> {
+            long ngram = aNgrams[aA];
+            aNgrams[aA] = aNgrams[aB];
+            aNgrams[aB] = ngram;
+            long count = aCounts[aA];
+            aCounts[aA] = aCounts[aB];
+            aCounts[aB] = count;
         });
     }
+
+    /**
+     * Compare two bigrams as if their tokens were joined by {@link #BIGRAM_SEPARATOR}, without
+     * actually creating the strings.
+     */
+    private int compareBigrams(long aBigram1, long aBigram2)
+    {
+        String a1 = counter.getToken(BigramCounter.first(aBigram1));
+        String a2 = counter.getToken(BigramCounter.second(aBigram1));
+        String b1 = counter.getToken(BigramCounter.first(aBigram2));
+        String b2 = counter.getToken(BigramCounter.second(aBigram2));
+        int lengthA = a1.length() + BIGRAM_SEPARATOR.length() + a2.length();
+        int lengthB = b1.length() + BIGRAM_SEPARATOR.length() + b2.length();
+        for (int i = 0; i < Math.min(lengthA, lengthB); i++) {
+            char ca = charAt(a1, a2, i);
+            char cb = charAt(b1, b2, i);
+            if (ca != cb) {
+                return ca - cb;
+            }
+        }
+        return lengthA - lengthB;
+    }
+
+    private static char charAt(String aFirst, String aSecond, int aIndex)
+    {
+        if (aIndex < aFirst.length()) {
+            return aFirst.charAt(aIndex);
+        }
+        int i = aIndex - aFirst.length();
+        if (i < BIGRAM_SEPARATOR.length()) {
+            return BIGRAM_SEPARATOR.charAt(i);
+        }
+        return aSecond.charAt(i - BIGRAM_SEPARATOR.length());
+    }
+
+    private interface NgramComparator
+    {
+        int compare(long aNgram1, long aNgram2);
+    }
 }
@@ -43,8 +43,9 @@ import de.tudarmstadt.ukp.dkpro.core.frequency.tfidf.util.TfidfUtils;
 /**
  * This component adds {@link Tfidf} annotations consisting of a term and a tfidf weight. <br>
  * The annotator is type agnostic concerning the input annotation, so you have to specify the
- * annotation type and string representation. It uses a pre-serialized {@link DfStore}, which can be
- * created using the {@link TfidfConsumer}.
+ * annotation type and string representation. It uses a pre-computed {@link DfStore}, which can be
+ * created using the {@link TfidfConsumer}. The model is memory-mapped, so it is not loaded into the
+ * heap of every pipeline.
  * 
  */
 @TypeCapability(outputs = { "de.tudarmstadt.ukp.dkpro.core.api.frequency.tfidf.type.Tfidf" })
@@ -119,7 +120,7 @@ public class TfidfAnnotator
     {
         super.initialize(context);
         try {
-            dfModel = TfidfUtils.getDfModel(tfdfPath);
+            dfModel = TfidfUtils.openDfModel(tfdfPath);
         }
         catch (Exception e) {
             throw new ResourceInitializationException(e);
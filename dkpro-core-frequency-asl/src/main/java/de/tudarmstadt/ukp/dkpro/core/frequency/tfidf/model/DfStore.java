@@ -17,51 +17,93 @@
  */
 package de.tudarmstadt.ukp.dkpro.core.frequency.tfidf.model;
 
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
+import java.io.OutputStream;
 import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Objects;
 import java.util.Set;
-import java.util.TreeSet;
 
 import de.tudarmstadt.ukp.dkpro.core.frequency.tfidf.TfidfAnnotator;
 import de.tudarmstadt.ukp.dkpro.core.frequency.tfidf.TfidfConsumer;
 import de.tudarmstadt.ukp.dkpro.core.frequency.tfidf.util.FreqDist;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
 
 /**
  * Container that stores the document frequency and additional data in a collection of documents. To
- * be filled and serialized by {@link TfidfConsumer} and deserialized and used by
- * {@link TfidfAnnotator}.
- * 
+ * be filled and written by {@link TfidfConsumer} and read and used by {@link TfidfAnnotator}.
+ * <p>
+ * Stores created from different parts of a collection, e.g. by parallel pipelines, can be combined
+ * using {@link #merge(DfStore)}. The binary format written by {@link #write(File)} can be loaded
+ * into memory using {@link #read(InputStream)} or memory-mapped using {@link MappedDfModel}.
+ * <p>
+ * Java serialization uses the same form as earlier versions of this class, so serialized models
+ * created by these versions can still be read.
  */
 public class DfStore
     implements DfModel, Serializable
 {
     private static final long serialVersionUID = -7052868467568275617L;
 
-    private final FreqDist<String> df;
+    // The fields of earlier versions of this class which stored the counts in a FreqDist
+    private static final ObjectStreamField[] serialPersistentFields = {
+            new ObjectStreamField("df", FreqDist.class),
+            new ObjectStreamField("featurePath", String.class),
+            new ObjectStreamField("documentCount", int.class),
+            new ObjectStreamField("termsInThisDocument", Set.class),
+            new ObjectStreamField("lowercase", boolean.class) };
+
+    static final int MAGIC = 0x444B4446; // "DKDF"
+    static final int VERSION = 1;
+
+    private Object2IntOpenHashMap<String> df;
     private String featurePath;
     private int documentCount = 0;
-    private Set<String> termsInThisDocument;
-    private final boolean lowercase;
+    private transient ObjectOpenHashSet<String> termsInThisDocument;
+    private boolean lowercase;
 
     public DfStore()
     {
-        df = new FreqDist<String>();
-        lowercase = false;
+        this(null, false);
     }
 
     public DfStore(String featurePath, boolean convertToLowercase)
     {
-        df = new FreqDist<String>();
+        df = new Object2IntOpenHashMap<String>();
         this.featurePath = featurePath;
         this.lowercase = convertToLowercase;
     }
 
+    DfStore(String aFeaturePath, boolean aLowercase, int aDocumentCount)
+    {
+        this(aFeaturePath, aLowercase);
+        documentCount = aDocumentCount;
+    }
+
     /**
      * Call this method when starting processing a new document.
      */
     public void registerNewDocument()
     {
         documentCount++;
-        termsInThisDocument = new TreeSet<String>();
+        if (termsInThisDocument == null) {
+            termsInThisDocument = new ObjectOpenHashSet<String>();
+        }
+        else {
+            termsInThisDocument.clear();
+        }
     }
 
     public void countTerm(String term)
@@ -74,14 +116,41 @@ public class DfStore
      */
     public void closeCurrentDocument()
     {
-        df.count(termsInThisDocument);
-        termsInThisDocument = null;
+        for (String term : termsInThisDocument) {
+            df.addTo(term, 1);
+        }
+        termsInThisDocument.clear();
+    }
+
+    /**
+     * Add the counts of another store, e.g. one created by a parallel pipeline from a different
+     * part of the collection.
+     *
+     * @param aOther
+     *            the other store.
+     * @throws IllegalArgumentException
+     *             if the other store was created using a different feature path or lowercase
+     *             setting.
+     */
+    public void merge(DfStore aOther)
+    {
+        if (!Objects.equals(featurePath, aOther.featurePath) || lowercase != aOther.lowercase) {
+            throw new IllegalArgumentException("Cannot merge model created with feature path ["
+                    + aOther.featurePath + "] and lowercase [" + aOther.lowercase
+                    + "] into model created with feature path [" + featurePath
+                    + "] and lowercase [" + lowercase + "]");
+        }
+
+        documentCount += aOther.documentCount;
+        for (Object2IntMap.Entry<String> e : aOther.df.object2IntEntrySet()) {
+            df.addTo(e.getKey(), e.getIntValue());
+        }
     }
 
     @Override
     public int getDf(String term)
     {
-        return df.getCount(term);
+        return df.getInt(term);
     }
 
     @Override
@@ -102,4 +171,246 @@ public class DfStore
         return lowercase;
     }
 
+    /**
+     * @return the number of distinct terms.
+     */
+    public int getTermCount()
+    {
+        return df.size();
+    }
+
+    void setDf(String aTerm, int aDf)
+    {
+        df.put(aTerm, aDf);
+    }
+
+    private void writeObject(ObjectOutputStream aOut)
+        throws IOException
+    {
+        FreqDist<String> counts = new FreqDist<String>();
+        for (Object2IntMap.Entry<String> e : df.object2IntEntrySet()) {
+            counts.count(e.getKey(), e.getIntValue());
+        }
+
+        ObjectOutputStream.PutField fields = aOut.putFields();
+        fields.put("df", counts);
+        fields.put("featurePath", featurePath);
+        fields.put("documentCount", documentCount);
+        fields.put("termsInThisDocument", null);
+        fields.put("lowercase", lowercase);
+        aOut.writeFields();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream aIn)
+        throws IOException, ClassNotFoundException
+    {
+        ObjectInputStream.GetField fields = aIn.readFields();
+        FreqDist<String> counts = (FreqDist<String>) fields.get("df", null);
+        featurePath = (String) fields.get("featurePath", null);
+        documentCount = fields.get("documentCount", 0);
+        lowercase = fields.get("lowercase", false);
+
+        df = new Object2IntOpenHashMap<String>();
+        if (counts != null) {
+            for (String term : counts.getKeys()) {
+                df.put(term, counts.getCount(term));
+            }
+        }
+    }
+
+    /**
+     * Write the store in the binary format.
+     *
+     * @param aFile
+     *            the target file.
+     * @throws IOException
+     *             if the file cannot be written.
+     */
+    public void write(File aFile)
+        throws IOException
+    {
+        try (OutputStream os = new BufferedOutputStream(new FileOutputStream(aFile), 1 << 16)) {
+            write(os);
+        }
+    }
+
+    /**
+     * Write the store in the binary format. The layout is described in {@link MappedDfModel}.
+     *
+     * @param aOutputStream
+     *            the target stream.
+     * @throws IOException
+     *             if the stream cannot be written.
+     */
+    public void write(OutputStream aOutputStream)
+        throws IOException
+    {
+        String[] terms = df.keySet().toArray(new String[df.size()]);
+        Arrays.sort(terms);
+
+        int slots = 1;
+        while (slots < terms.length * 2L) {
+            slots <<= 1;
+        }
+
+        DataOutputStream out = new DataOutputStream(aOutputStream);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(documentCount);
+        out.writeInt(lowercase ? 1 : 0);
+        out.writeInt(terms.length);
+        out.writeInt(slots);
+        out.writeUTF(featurePath != null ? featurePath : "");
+        writePadding(out, out.size());
+
+        long offset = 0;
+        for (String term : terms) {
+            out.writeLong(offset);
+            offset += term.length();
+        }
+        out.writeLong(offset);
+
+        for (String term : terms) {
+            out.writeChars(term);
+        }
+        writePadding(out, offset * 2);
+
+        for (String term : terms) {
+            out.writeInt(df.getInt(term));
+        }
+        writePadding(out, terms.length * 4L);
+
+        int[] table = new int[slots];
+        int mask = slots - 1;
+        for (int i = 0; i < terms.length; i++) {
+            int slot = MappedDfModel.hash(terms[i]) & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = i + 1;
+        }
+        for (int entry : table) {
+            out.writeInt(entry);
+        }
+
+        out.flush();
+    }
+
+    private static void writePadding(DataOutputStream aOut, long aLength)
+        throws IOException
+    {
+        for (long i = aLength; i < MappedDfModel.pad(aLength); i++) {
+            aOut.writeByte(0);
+        }
+    }
+
+    /**
+     * Check if a stream starts with a model in the binary format. The stream must support
+     * {@link InputStream#mark(int)} and is reset to its original position.
+     *
+     * @param aInputStream
+     *            the stream.
+     * @return whether the stream contains a model in the binary format.
+     * @throws IOException
+     *             if the stream cannot be read.
+     */
+    public static boolean isBinaryFormat(InputStream aInputStream)
+        throws IOException
+    {
+        aInputStream.mark(4);
+        try {
+            return new DataInputStream(aInputStream).readInt() == MAGIC;
+        }
+        catch (EOFException e) {
+            return false;
+        }
+        finally {
+            aInputStream.reset();
+        }
+    }
+
+    /**
+     * Load a store written in the binary format into memory. The stream is not closed.
+     *
+     * @param aInputStream
+     *            the source stream.
+     * @return the store.
+     * @throws IOException
+     *             if the stream cannot be read or is not in the binary format.
+     */
+    public static DfStore read(InputStream aInputStream)
+        throws IOException
+    {
+        DataInputStream in = new DataInputStream(aInputStream);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a binary document frequency model");
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported model version [" + version + "]");
+        }
+        int documentCount = in.readInt();
+        boolean lowercase = in.readInt() != 0;
+        int termCount = in.readInt();
+        int slots = in.readInt();
+        String featurePath = in.readUTF();
+        long headerLength = 24 + 2 + utfLength(featurePath);
+        skipPadding(in, headerLength);
+
+        long[] offsets = new long[termCount + 1];
+        for (int i = 0; i <= termCount; i++) {
+            offsets[i] = in.readLong();
+        }
+
+        String[] terms = new String[termCount];
+        for (int i = 0; i < termCount; i++) {
+            char[] chars = new char[(int) (offsets[i + 1] - offsets[i])];
+            for (int k = 0; k < chars.length; k++) {
+                chars[k] = in.readChar();
+            }
+            terms[i] = new String(chars);
+        }
+        skipPadding(in, offsets[termCount] * 2);
+
+        DfStore store = new DfStore(featurePath.isEmpty() ? null : featurePath, lowercase);
+        store.documentCount = documentCount;
+        for (int i = 0; i < termCount; i++) {
+            store.df.put(terms[i], in.readInt());
+        }
+        skipPadding(in, termCount * 4L);
+
+        // The hash table is only needed when the model is memory-mapped
+        in.skipBytes(slots * 4);
+
+        return store;
+    }
+
+    /**
+     * @return the number of bytes used by {@link DataOutputStream#writeUTF(String)} for the text,
+     *         excluding the length prefix.
+     */
+    static int utfLength(String aText)
+    {
+        int length = 0;
+        for (int i = 0; i < aText.length(); i++) {
+            char c = aText.charAt(i);
+            if (c >= 0x0001 && c <= 0x007F) {
+                length++;
+            }
+            else if (c > 0x07FF) {
+                length += 3;
+            }
+            else {
+                length += 2;
+            }
+        }
+        return length;
+    }
+
+    private static void skipPadding(DataInputStream aIn, long aLength)
+        throws IOException
+    {
+        aIn.skipBytes((int) (MappedDfModel.pad(aLength) - aLength));
+    }
 }
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2017
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.dkpro.core.frequency.tfidf.model;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.ObjectStreamException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+
+/**
+ * Read-only {@link DfModel} backed by a memory-mapped file in the binary format written by
+ * {@link DfStore#write(File)}. Opening the model does not load the terms into the heap and
+ * looking up a document frequency does not allocate any objects, so the same file can be used by
+ * many annotators and pipelines at low cost. The model is thread-safe.
+ * <p>
+ * File layout (big-endian):
+ *
+ * <pre>
+ * int    magic, int version, int documentCount, int lowercase, int termCount, int hashSlots
+ * UTF    featurePath                                      (padded to 8 bytes)
+ * long   start offset of each term in the characters     (termCount + 1)
+ * char   the characters of all terms, sorted             (padded to 8 bytes)
+ * int    document frequency of each term                 (padded to 8 bytes)
+ * int    term index + 1 for each hash slot, 0 if empty
+ * </pre>
+ * <p>
+ * The mapped file cannot be serialized. A serialized model is written as a {@link DfStore}
+ * holding the same counts.
+ */
+public class MappedDfModel
+    implements DfModel
+{
+    private static final long serialVersionUID = -4829467309315290651L;
+
+    private final int documentCount;
+    private final boolean lowercase;
+    private final String featurePath;
+    private final int termCount;
+    private final int hashMask;
+
+    private final transient MappedByteBuffer buffer;
+    private final long charsOffset;
+    private final long dfOffset;
+    private final long slotsOffset;
+
+    /**
+     * @param aFile
+     *            the model file.
+     * @throws IOException
+     *             if the file cannot be read or is not in the binary format.
+     */
+    public MappedDfModel(File aFile)
+        throws IOException
+    {
+        long headerLength;
+        int slots;
+        try (DataInputStream in = new DataInputStream(new FileInputStream(aFile))) {
+            if (in.readInt() != DfStore.MAGIC) {
+                throw new IOException("[" + aFile + "] is not a binary document frequency model");
+            }
+            int version = in.readInt();
+            if (version != DfStore.VERSION) {
+                throw new IOException("Unsupported version [" + version + "] of [" + aFile + "]");
+            }
+            documentCount = in.readInt();
+            lowercase = in.readInt() != 0;
+            termCount = in.readInt();
+            slots = in.readInt();
+            String path = in.readUTF();
+            featurePath = path.isEmpty() ? null : path;
+            headerLength = 24 + 2 + DfStore.utfLength(path);
+        }
+        hashMask = slots - 1;
+
+        try (RandomAccessFile raf = new RandomAccessFile(aFile, "r")) {
+            FileChannel channel = raf.getChannel();
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("[" + aFile + "] is too large to be mapped");
+            }
+            buffer = channel.map(MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        long offsetsOffset = pad(headerLength);
+        charsOffset = offsetsOffset + (termCount + 1L) * 8;
+        long charCount = buffer.getLong((int) (charsOffset - 8));
+        dfOffset = pad(charsOffset + charCount * 2);
+        slotsOffset = pad(dfOffset + termCount * 4L);
+
+        if (slotsOffset + slots * 4L != buffer.capacity()) {
+            throw new IOException("[" + aFile + "] is truncated or corrupt");
+        }
+    }
+
+    static long pad(long aOffset)
+    {
+        return (aOffset + 7) & ~7L;
+    }
+
+    static int hash(CharSequence aText)
+    {
+        int h = 0;
+        for (int i = 0; i < aText.length(); i++) {
+            h = 31 * h + aText.charAt(i);
+        }
+        return h ^ (h >>> 16);
+    }
+
+    @Override
+    public int getDf(String term)
+    {
+        int slot = hash(term) & hashMask;
+        while (true) {
+            int index = buffer.getInt((int) (slotsOffset + slot * 4L)) - 1;
+            if (index < 0) {
+                return 0;
+            }
+            if (termEquals(index, term)) {
+                return buffer.getInt((int) (dfOffset + index * 4L));
+            }
+            slot = (slot + 1) & hashMask;
+        }
+    }
+
+    private boolean termEquals(int aIndex, String aTerm)
+    {
+        int offsets = (int) (charsOffset - (termCount + 1L) * 8);
+        long begin = buffer.getLong(offsets + aIndex * 8);
+        long end = buffer.getLong(offsets + (aIndex + 1) * 8);
+        if (end - begin != aTerm.length()) {
+            return false;
+        }
+        int pos = (int) (charsOffset + begin * 2);
+        for (int i = 0; i < aTerm.length(); i++) {
+            if (buffer.getChar(pos + i * 2) != aTerm.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int getDocumentCount()
+    {
+        return documentCount;
+    }
+
+    @Override
+    public String getFeaturePath()
+    {
+        return featurePath;
+    }
+
+    @Override
+    public boolean getLowercase()
+    {
+        return lowercase;
+    }
+
+    /**
+     * @return the number of distinct terms.
+     */
+    public int getTermCount()
+    {
+        return termCount;
+    }
+
+    /**
+     * Load the model into memory.
+     *
+     * @return a store holding the same counts as this model.
+     */
+    public DfStore toDfStore()
+    {
+        DfStore store = new DfStore(featurePath, lowercase, documentCount);
+        int offsets = (int) (charsOffset - (termCount + 1L) * 8);
+        for (int i = 0; i < termCount; i++) {
+            long begin = buffer.getLong(offsets + i * 8);
+            long end = buffer.getLong(offsets + (i + 1) * 8);
+            char[] chars = new char[(int) (end - begin)];
+            int pos = (int) (charsOffset + begin * 2);
+            for (int k = 0; k < chars.length; k++) {
+                chars[k] = buffer.getChar(pos + k * 2);
+            }
+            store.setDf(new String(chars), buffer.getInt((int) (dfOffset + i * 4L)));
+        }
+        return store;
+    }
+
+    private Object writeReplace()
+        throws ObjectStreamException
+    {
+        return toDfStore();
+    }
+}
@@ -20,7 +20,7 @@ package de.tudarmstadt.ukp.dkpro.core.frequency.tfidf.model;
 import static org.apache.uima.fit.factory.ExternalResourceFactory.bindResource;
 
 import java.io.File;
-import java.io.ObjectInputStream;
+import java.io.InputStream;
 import java.net.MalformedURLException;
 
 import org.apache.uima.analysis_engine.AnalysisEngineDescription;
@@ -29,6 +29,8 @@ import org.apache.uima.resource.ResourceInitializationException;
 import org.apache.uima.resource.SharedResourceObject;
 import org.apache.uima.util.InvalidXMLException;
 
+import de.tudarmstadt.ukp.dkpro.core.frequency.tfidf.util.TfidfUtils;
+
 /**
  * Shared {@link DfModel}.
  * 
@@ -44,7 +46,7 @@ public class SharedDfModel
 
     /**
      * Binds a {@link DfModel} to the given {@link AnalysisEngineDescription}. The model is
-     * deserialized from file stream.
+     * memory-mapped or read from the file.
      * 
      * @param aaed
      *            An aggregate {@link AnalysisEngineDescription}. The binding does not work with
@@ -71,7 +73,15 @@ public class SharedDfModel
         throws ResourceInitializationException
     {
         try {
-            dfModel = (DfModel) new ObjectInputStream(aData.getInputStream()).readObject();
+            // Memory-map local models instead of loading them into each pipeline
+            if (aData.getUri() != null && "file".equals(aData.getUri().getScheme())) {
+                dfModel = TfidfUtils.openDfModel(new File(aData.getUri()).getPath());
+            }
+            else {
+                try (InputStream is = aData.getInputStream()) {
+                    dfModel = TfidfUtils.readDfModel(is);
+                }
+            }
         }
         catch (Exception e) {
             throw new ResourceInitializationException(e);
@@ -17,11 +17,13 @@
  */
 package de.tudarmstadt.ukp.dkpro.core.frequency.tfidf.util;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 
@@ -29,6 +31,7 @@ import org.apache.commons.io.FileUtils;
 
 import de.tudarmstadt.ukp.dkpro.core.frequency.tfidf.model.DfModel;
 import de.tudarmstadt.ukp.dkpro.core.frequency.tfidf.model.DfStore;
+import de.tudarmstadt.ukp.dkpro.core.frequency.tfidf.model.MappedDfModel;
 
 /**
  * Serialization and deserialization methods.
@@ -38,7 +41,8 @@ import de.tudarmstadt.ukp.dkpro.core.frequency.tfidf.model.DfStore;
 public class TfidfUtils
 {
     /**
-     * Serializes the DfStore at outputPath.
+     * Writes the model at outputPath. A {@link DfStore} or {@link MappedDfModel} is written in the
+     * compact binary format of {@link DfStore}, other models are serialized.
      * 
      * @param dfModel
      *            a model.
@@ -50,11 +54,25 @@ public class TfidfUtils
     public static void writeDfModel(DfModel dfModel, String path)
         throws IOException
     {
-        serialize(dfModel, path);
+        if (dfModel instanceof MappedDfModel) {
+            writeDfModel(((MappedDfModel) dfModel).toDfStore(), path);
+        }
+        else if (dfModel instanceof DfStore) {
+            File file = new File(path);
+            if (file.isDirectory()) {
+                throw new IOException("A directory with that name exists!");
+            }
+            FileUtils.forceMkdir(file.getAbsoluteFile().getParentFile());
+            ((DfStore) dfModel).write(file);
+        }
+        else {
+            serialize(dfModel, path);
+        }
     }
 
     /**
-     * Reads a {@link DfStore} from disk.
+     * Reads a {@link DfModel} from disk into memory. Both the binary format of {@link DfStore} and
+     * serialized models are supported.
      * 
      * @param path
      *            the source path.
@@ -65,7 +83,102 @@ public class TfidfUtils
     public static DfModel getDfModel(String path)
         throws IOException
     {
-        return deserialize(path);
+        try (InputStream is = new BufferedInputStream(new FileInputStream(path))) {
+            return readDfModel(is);
+        }
+    }
+
+    /**
+     * Reads a {@link DfModel} from a stream. Both the binary format of {@link DfStore} and
+     * serialized models are supported. The stream is not closed.
+     * 
+     * @param aInputStream
+     *            the source stream.
+     * @return the model.
+     * @throws IOException
+     *             if the model could not be read.
+     */
+    public static DfModel readDfModel(InputStream aInputStream)
+        throws IOException
+    {
+        InputStream is = aInputStream.markSupported() ? aInputStream
+                : new BufferedInputStream(aInputStream);
+        if (DfStore.isBinaryFormat(is)) {
+            return DfStore.read(is);
+        }
+
+        try {
+            return (DfModel) new ObjectInputStream(is).readObject();
+        }
+        catch (ClassNotFoundException e) {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * Opens a {@link DfModel} for read-only access. A model in the binary format of
+     * {@link DfStore} is memory-mapped, serialized models are read into memory.
+     * 
+     * @param path
+     *            the source path.
+     * @return the model.
+     * @throws IOException
+     *             if the model could not be read.
+     */
+    public static DfModel openDfModel(String path)
+        throws IOException
+    {
+        boolean binary;
+        try (InputStream is = new BufferedInputStream(new FileInputStream(path))) {
+            binary = DfStore.isBinaryFormat(is);
+        }
+
+        if (binary) {
+            return new MappedDfModel(new File(path));
+        }
+        else {
+            return getDfModel(path);
+        }
+    }
+
+    /**
+     * Merges models created from different parts of a collection, e.g. by parallel pipelines, into
+     * a single model.
+     * 
+     * @param targetPath
+     *            the path of the merged model.
+     * @param sourcePaths
+     *            the paths of the models to merge. They must have been created by the
+     *            {@code TfidfConsumer} using the same settings.
+     * @throws IOException
+     *             if a model could not be read or the merged model could not be written.
+     */
+    public static void mergeDfModels(String targetPath, String... sourcePaths)
+        throws IOException
+    {
+        DfStore merged = null;
+        for (String path : sourcePaths) {
+            DfModel model = getDfModel(path);
+            if (!(model instanceof DfStore)) {
+                throw new IOException("Model [" + path + "] cannot be merged");
+            }
+            if (merged == null) {
+                merged = (DfStore) model;
+            }
+            else {
+                try {
+                    merged.merge((DfStore) model);
+                }
+                catch (IllegalArgumentException e) {
+                    throw new IOException("Model [" + path + "] cannot be merged", e);
+                }
+            }
+        }
+
+        if (merged == null) {
+            throw new IllegalArgumentException("No models to merge");
+        }
+        writeDfModel(merged, targetPath);
     }
 
     public static void serialize(Object object, String fileName)
@@ -35,6 +35,8 @@ import java.nio.file.Files;
 import static org.apache.uima.fit.factory.AnalysisEngineFactory.createEngineDescription;
 import static org.apache.uima.fit.factory.CollectionReaderFactory.createReaderDescription;
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 public class FrequencyCounterTest
@@ -71,6 +73,45 @@ public class FrequencyCounterTest
                 Files.lines(targetFile.toPath()).sorted().toArray());
     }
 
+    @Test
+    public void testCountWithSpilling()
+            throws Exception
+    {
+        int minCount = 1;
+
+        File targetFile = new File(DkproTestContext.get().getTestOutputFolder(), "counts.txt");
+        File expectedFile = new File("src/test/resources/phrasedetection/counts.txt");
+
+        String sentence = "This is a first test that contains a first test example";
+        String language = "en";
+
+        CollectionReaderDescription reader = createReaderDescription(StringReader.class,
+                StringReader.PARAM_DOCUMENT_TEXT, sentence,
+                StringReader.PARAM_LANGUAGE, language);
+        AnalysisEngineDescription segmenter = createEngineDescription(BreakIteratorSegmenter.class);
+        AnalysisEngineDescription writer = createEngineDescription(FrequencyCounter.class,
+                FrequencyCounter.PARAM_TARGET_LOCATION, targetFile,
+                FrequencyCounter.PARAM_MIN_COUNT, minCount,
+                FrequencyCounter.PARAM_MAX_BIGRAMS_IN_MEMORY, 2,
+                FrequencyCounter.PARAM_SPILL_DIRECTORY,
+                DkproTestContext.get().getTestOutputFolder());
+
+        SimplePipeline.runPipeline(reader, segmenter, writer);
+
+        assertTrue(targetFile.exists());
+        assertArrayEquals(
+                Files.lines(expectedFile.toPath()).sorted().toArray(),
+                Files.lines(targetFile.toPath()).sorted().toArray());
+    }
+
+    @Test
+    public void testEscape()
+    {
+        String token = "token";
+        assertSame(token, FrequencyCounter.escape(token));
+        assertEquals("a b c d e", FrequencyCounter.escape("a\tb\r\nc\rd\ne"));
+    }
+
     @Test
     public void testCountSortedAlphabetically()
             throws Exception
@@ -23,6 +23,7 @@ import static de.tudarmstadt.ukp.dkpro.core.api.io.ResourceCollectionReaderBase.
 import static org.apache.uima.fit.factory.AnalysisEngineFactory.createEngineDescription;
 import static org.apache.uima.fit.factory.CollectionReaderFactory.createReaderDescription;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 
@@ -37,6 +38,7 @@ import org.junit.rules.TestName;
 
 import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token;
 import de.tudarmstadt.ukp.dkpro.core.frequency.tfidf.model.DfModel;
+import de.tudarmstadt.ukp.dkpro.core.frequency.tfidf.model.DfStore;
 import de.tudarmstadt.ukp.dkpro.core.frequency.tfidf.util.TfidfUtils;
 import de.tudarmstadt.ukp.dkpro.core.io.text.TextReader;
 import de.tudarmstadt.ukp.dkpro.core.tokit.BreakIteratorSegmenter;
@@ -76,6 +78,80 @@ public class TfidfConsumerTest
         assertEquals(2, dfModel.getDf("example"));
         assertEquals(2, dfModel.getDf("sentence"));
         assertEquals(1, dfModel.getDf("funny"));
+        
+        // The same model can be memory-mapped
+        DfModel mappedModel = TfidfUtils.openDfModel(target.getPath());
+        
+        assertEquals(dfModel.getDocumentCount(), mappedModel.getDocumentCount());
+        assertEquals(Token.class.getName(), mappedModel.getFeaturePath());
+        assertEquals(2, mappedModel.getDf("example"));
+        assertEquals(2, mappedModel.getDf("sentence"));
+        assertEquals(1, mappedModel.getDf("funny"));
+        assertEquals(0, mappedModel.getDf("unknown"));
+    }
+
+    @Test
+    public void mergeTest()
+        throws Exception
+    {
+        DfStore shard1 = new DfStore("featurePath", false);
+        shard1.registerNewDocument();
+        shard1.countTerm("a");
+        shard1.countTerm("b");
+        shard1.countTerm("a");
+        shard1.closeCurrentDocument();
+        shard1.registerNewDocument();
+        shard1.countTerm("a");
+        shard1.closeCurrentDocument();
+        
+        DfStore shard2 = new DfStore("featurePath", false);
+        shard2.registerNewDocument();
+        shard2.countTerm("b");
+        shard2.countTerm("c");
+        shard2.closeCurrentDocument();
+        
+        File file1 = folder.newFile("shard1");
+        File file2 = folder.newFile("shard2");
+        File merged = new File(folder.getRoot(), "merged");
+        TfidfUtils.writeDfModel(shard1, file1.getPath());
+        TfidfUtils.writeDfModel(shard2, file2.getPath());
+        TfidfUtils.mergeDfModels(merged.getPath(), file1.getPath(), file2.getPath());
+        
+        DfModel dfModel = TfidfUtils.openDfModel(merged.getPath());
+        assertEquals(3, dfModel.getDocumentCount());
+        assertEquals(2, dfModel.getDf("a"));
+        assertEquals(2, dfModel.getDf("b"));
+        assertEquals(1, dfModel.getDf("c"));
+        assertEquals(0, dfModel.getDf("d"));
+    }
+
+    @Test
+    public void legacySerializedModelTest()
+        throws Exception
+    {
+        // Serialized by the DfStore class which stored the counts in a FreqDist
+        DfModel dfModel = TfidfUtils.getDfModel("src/test/resources/tfidf/dfModel.ser");
+
+        assertTrue(dfModel instanceof DfStore);
+        assertEquals(2, dfModel.getDocumentCount());
+        assertEquals(Token.class.getName(), dfModel.getFeaturePath());
+        assertEquals(2, dfModel.getDf("example"));
+        assertEquals(2, dfModel.getDf("sentence"));
+        assertEquals(1, dfModel.getDf("funny"));
+        assertEquals(0, dfModel.getDf("unknown"));
+
+        // A memory-mapped model is serialized as a DfStore
+        File binary = folder.newFile("binary");
+        TfidfUtils.writeDfModel(dfModel, binary.getPath());
+        File serialized = folder.newFile("serialized");
+        TfidfUtils.serialize(TfidfUtils.openDfModel(binary.getPath()), serialized.getPath());
+        DfModel deserialized = TfidfUtils.deserialize(serialized.getPath());
+
+        assertTrue(deserialized instanceof DfStore);
+        assertEquals(2, deserialized.getDocumentCount());
+        assertEquals(Token.class.getName(), deserialized.getFeaturePath());
+        assertEquals(2, deserialized.getDf("example"));
+        assertEquals(1, deserialized.getDf("funny"));
     }
 
     @Rule
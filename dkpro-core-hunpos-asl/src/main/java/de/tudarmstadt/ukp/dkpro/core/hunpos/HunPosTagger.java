@@ -17,17 +17,14 @@
  */
 package de.tudarmstadt.ukp.dkpro.core.hunpos;
 
+import static java.util.Arrays.asList;
 import static org.apache.uima.fit.util.JCasUtil.select;
 import static org.apache.uima.fit.util.JCasUtil.selectCovered;
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
-import java.io.PrintWriter;
-import java.lang.ProcessBuilder.Redirect;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.uima.UimaContext;
@@ -43,6 +40,7 @@ import org.apache.uima.resource.ResourceInitializationException;
 import de.tudarmstadt.ukp.dkpro.core.api.lexmorph.type.pos.POS;
 import de.tudarmstadt.ukp.dkpro.core.api.parameter.ComponentParameters;
 import de.tudarmstadt.ukp.dkpro.core.api.resources.CasConfigurableProviderBase;
+import de.tudarmstadt.ukp.dkpro.core.api.resources.ExternalProcessPool;
 import de.tudarmstadt.ukp.dkpro.core.api.resources.MappingProvider;
 import de.tudarmstadt.ukp.dkpro.core.api.resources.MappingProviderFactory;
 import de.tudarmstadt.ukp.dkpro.core.api.resources.ResourceUtils;
@@ -116,10 +114,34 @@ public class HunPosTagger
     @ConfigurationParameter(name = PARAM_PRINT_TAGSET, mandatory = true, defaultValue = "false")
     protected boolean printTagSet;
 
+    /**
+     * The number of HunPos processes to run. The processes are kept running between documents
+     * and the sentences of a document are distributed over them.
+     *
+     * Default: {@code 1}
+     */
+    public static final String PARAM_NUM_PROCESSES = "numProcesses";
+    @ConfigurationParameter(name = PARAM_NUM_PROCESSES, mandatory = true, defaultValue = "1")
+    private int numProcesses;
+
+    /**
+     * The time in milliseconds HunPos may take to tag a single sentence before the process is
+     * restarted and processing fails. Set to {@code 0} to wait indefinitely.
+     *
+     * Default: {@code 0}
+     */
+    public static final String PARAM_TIMEOUT = "timeout";
+    @ConfigurationParameter(name = PARAM_TIMEOUT, mandatory = true, defaultValue = "0")
+    private long timeout;
+
     private CasConfigurableProviderBase<File> modelProvider;
     private RuntimeProvider runtimeProvider;
     private MappingProvider posMappingProvider;
 
+    private ExternalProcessPool pool;
+    private File poolModel;
+    private String poolEncoding;
+
     @Override
     public void initialize(UimaContext aContext)
         throws ResourceInitializationException
@@ -173,89 +195,90 @@ public class HunPosTagger
                     new Throwable("Model should contain encoding metadata"));
         }
         File model = modelProvider.getResource();
-        File executable;
 
-        try {
-            executable = runtimeProvider.getFile("hunpos-tag");
-        }
-        catch (IOException e) {
-            throw new AnalysisEngineProcessException(e);
-        }
+        List<List<Token>> sentences = new ArrayList<>();
+        List<List<String>> requests = new ArrayList<>();
+        for (Sentence sentence : select(aJCas, Sentence.class)) {
+            List<Token> tokens = selectCovered(Token.class, sentence);
 
-        ProcessBuilder pb = new ProcessBuilder(executable.getAbsolutePath(),
-                model.getAbsolutePath());
-        pb.redirectError(Redirect.INHERIT);
+            // Skip empty sentences
+            if (tokens.isEmpty()) {
+                continue;
+            }
 
-        StringBuffer lastOut = new StringBuffer();
-        String lastIn = null;
-        boolean success = false;
-        Process proc = null;
-        try {
-            proc = pb.start();
-
-            PrintWriter out = new PrintWriter(new OutputStreamWriter(proc.getOutputStream(),
-                    modelEncoding));
-            BufferedReader in = new BufferedReader(new InputStreamReader(proc.getInputStream(),
-                    modelEncoding));
-
-            for (Sentence sentence : select(aJCas, Sentence.class)) {
-                List<Token> tokens = selectCovered(Token.class, sentence);
-
-                // Skip empty sentences
-                if (tokens.isEmpty()) {
-                    continue;
-                }
-
-                // Send full sentence
-                for (Token token : tokens) {
-                    lastOut.append(token.getCoveredText()).append(' ');
-                    out.printf("%s%n", token.getCoveredText());
-                }
-                out.printf("%n");
-                out.flush();
-
-                // Read sentence tags
-                String[] tags = new String[tokens.size()];
-                for (int i = 0; i < tokens.size(); i++) {
-                    lastIn = in.readLine();
-                    tags[i] = lastIn.split("\t", 2)[1].trim();
-                }
-                in.readLine(); // Read extra new line after sentence
-
-                int i = 0;
-                for (Token t : tokens) {
-                    Type posTag = posMappingProvider.getTagType(tags[i]);
-                    POS posAnno = (POS) cas.createAnnotation(posTag, t.getBegin(), t.getEnd());
-                    posAnno.setPosValue(internTags ? tags[i].intern() : tags[i]);
-                    posAnno.setCoarseValue(posAnno.getClass().equals(POS.class) ? null
-                            : posAnno.getType().getShortName().intern());
-                    posAnno.addToIndexes();
-                    t.setPos(posAnno);
-                    i++;
-                }
-
-                lastOut.setLength(0);
+            List<String> request = new ArrayList<>(tokens.size());
+            for (Token token : tokens) {
+                request.add(token.getCoveredText());
             }
+            sentences.add(tokens);
+            requests.add(request);
+        }
 
-            success = true;
+        List<List<String>> responses;
+        try {
+            responses = getPool(model, modelEncoding).processAll(requests);
         }
         catch (IOException e) {
             throw new AnalysisEngineProcessException(e);
         }
-        finally {
-            if (!success) {
-                getLogger().error("Sent before error: [" + lastOut + "]");
-                getLogger().error("Last response before error: [" + lastIn + "]");
+
+        for (int s = 0; s < sentences.size(); s++) {
+            List<Token> tokens = sentences.get(s);
+            List<String> response = responses.get(s);
+            if (response.size() != tokens.size()) {
+                getLogger().error("Sent before error: " + requests.get(s));
+                getLogger().error("Response before error: " + response);
+                throw new AnalysisEngineProcessException(new IllegalStateException(
+                        "Expected [" + tokens.size() + "] tags but got [" + response.size()
+                                + "]"));
             }
-            if (proc != null) {
-                proc.destroy();
+
+            int i = 0;
+            for (Token t : tokens) {
+                String tag = response.get(i).split("\t", 2)[1].trim();
+                Type posTag = posMappingProvider.getTagType(tag);
+                POS posAnno = (POS) cas.createAnnotation(posTag, t.getBegin(), t.getEnd());
+                posAnno.setPosValue(internTags ? tag.intern() : tag);
+                posAnno.setCoarseValue(posAnno.getClass().equals(POS.class) ? null
+                        : posAnno.getType().getShortName().intern());
+                posAnno.addToIndexes();
+                t.setPos(posAnno);
+                i++;
+            }
+        }
+    }
+
+    /**
+     * Get the pool of HunPos processes for the given model. If the model has changed, the
+     * processes for the previous model are stopped.
+     */
+    private ExternalProcessPool getPool(File aModel, String aEncoding)
+        throws IOException
+    {
+        if (pool == null || !aModel.equals(poolModel) || !aEncoding.equals(poolEncoding)) {
+            if (pool != null) {
+                pool.close();
             }
+
+            File executable = runtimeProvider.getFile("hunpos-tag");
+            pool = new ExternalProcessPool(
+                    asList(executable.getAbsolutePath(), aModel.getAbsolutePath()), aEncoding,
+                    ExternalProcessPool.BLANK_LINE_DELIMITED);
+            pool.setSize(numProcesses);
+            pool.setTimeout(timeout);
+            poolModel = aModel;
+            poolEncoding = aEncoding;
         }
+        return pool;
     }
 
     @Override
     public void destroy()
     {
+        if (pool != null) {
+            pool.close();
+            pool = null;
+        }
         runtimeProvider.uninstall();
         super.destroy();
     }
@@ -106,6 +106,8 @@ public class AclAnthologyReader
         finally {
             closeQuietly(is);
         }
+
+        casCompleted();
     }
 
     private String replaceHyphens(String text) {
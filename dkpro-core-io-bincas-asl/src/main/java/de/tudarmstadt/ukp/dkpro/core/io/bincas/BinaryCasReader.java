@@ -188,6 +188,8 @@ public class BinaryCasReader
         catch (CASException e) {
             throw new CollectionException(e);
         }
+
+        casCompleted();
     }
     
     // Check whether this is original UIMA CAS format or DKPro Core Legacy format
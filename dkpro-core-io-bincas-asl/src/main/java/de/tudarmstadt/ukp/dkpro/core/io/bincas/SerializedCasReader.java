@@ -87,6 +87,8 @@ public class SerializedCasReader
 		finally {
 			closeQuietly(is);
 		}
+
+		casCompleted();
 	}
 	
     private CASMgrSerializer readCasManager() throws IOException
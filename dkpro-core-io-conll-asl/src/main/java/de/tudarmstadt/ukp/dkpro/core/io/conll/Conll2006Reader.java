@@ -17,11 +17,8 @@
  */
 package de.tudarmstadt.ukp.dkpro.core.io.conll;
 
-import static org.apache.commons.io.IOUtils.closeQuietly;
-
 import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -32,7 +29,6 @@ import org.apache.commons.lang.StringUtils;
 import org.apache.uima.UimaContext;
 import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
 import org.apache.uima.cas.Type;
-import org.apache.uima.collection.CollectionException;
 import org.apache.uima.fit.descriptor.ConfigurationParameter;
 import org.apache.uima.fit.descriptor.MimeTypeCapability;
 import org.apache.uima.fit.descriptor.TypeCapability;
@@ -40,12 +36,10 @@ import org.apache.uima.fit.factory.JCasBuilder;
 import org.apache.uima.jcas.JCas;
 import org.apache.uima.resource.ResourceInitializationException;
 
-import de.tudarmstadt.ukp.dkpro.core.api.io.JCasResourceCollectionReader_ImplBase;
 import de.tudarmstadt.ukp.dkpro.core.api.lexmorph.type.morph.MorphologicalFeatures;
 import de.tudarmstadt.ukp.dkpro.core.api.lexmorph.type.pos.POS;
 import de.tudarmstadt.ukp.dkpro.core.api.parameter.ComponentParameters;
 import de.tudarmstadt.ukp.dkpro.core.api.parameter.MimeTypes;
-import de.tudarmstadt.ukp.dkpro.core.api.resources.CompressionUtils;
 import de.tudarmstadt.ukp.dkpro.core.api.resources.MappingProvider;
 import de.tudarmstadt.ukp.dkpro.core.api.resources.MappingProviderFactory;
 import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Lemma;
@@ -71,12 +65,8 @@ import de.tudarmstadt.ukp.dkpro.core.api.syntax.type.dependency.ROOT;
                 "de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Lemma",
                 "de.tudarmstadt.ukp.dkpro.core.api.syntax.type.dependency.Dependency" })
 public class Conll2006Reader
-    extends JCasResourceCollectionReader_ImplBase
+    extends ConllReader_ImplBase
 {
-    public static final String PARAM_ENCODING = ComponentParameters.PARAM_SOURCE_ENCODING;
-    @ConfigurationParameter(name = PARAM_ENCODING, mandatory = true, defaultValue = "UTF-8")
-    private String encoding;
-
     public static final String PARAM_READ_POS = ComponentParameters.PARAM_READ_POS;
     @ConfigurationParameter(name = PARAM_READ_POS, mandatory = true, defaultValue = "true")
     private boolean readPos;
@@ -148,23 +138,6 @@ public class Conll2006Reader
     }
     
     @Override
-    public void getNext(JCas aJCas)
-        throws IOException, CollectionException
-    {
-        Resource res = nextFile();
-        initCas(aJCas, res);
-        BufferedReader reader = null;
-        try {
-            reader = new BufferedReader(new InputStreamReader(
-                    CompressionUtils.getInputStream(res.getLocation(), res.getInputStream()),
-                    encoding));
-            convert(aJCas, reader);
-        }
-        finally {
-            closeQuietly(reader);
-        }
-    }
-
     public void convert(JCas aJCas, BufferedReader aReader)
         throws IOException
     {
@@ -179,13 +152,15 @@ public class Conll2006Reader
         
         JCasBuilder doc = new JCasBuilder(aJCas);
 
+        int sentenceCount = 0;
         List<String[]> words;
-        while ((words = readSentence(aReader)) != null) {
+        while (!isDocumentComplete(sentenceCount) && (words = readSentence(aReader)) != null) {
             if (words.isEmpty()) {
                  // Ignore empty sentences. This can happen when there are multiple end-of-sentence
                  // markers following each other.
                 continue; 
             }
+            sentenceCount++;
 
             int sentenceBegin = doc.getPosition();
             int sentenceEnd = sentenceBegin;
@@ -314,7 +289,7 @@ public class Conll2006Reader
 
             firstLineOfSentence = false;
             
-            String[] fields = line.split("\t");
+            String[] fields = splitFields(line, '\t');
             if (fields.length != 10) {
                 throw new IOException(
                         "Invalid file format. Line needs to have 10 tab-separated fields, but it has "
@@ -17,11 +17,8 @@
  */
 package de.tudarmstadt.ukp.dkpro.core.io.conll;
 
-import static org.apache.commons.io.IOUtils.closeQuietly;
-
 import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -32,7 +29,6 @@ import org.apache.commons.lang.StringUtils;
 import org.apache.uima.UimaContext;
 import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
 import org.apache.uima.cas.Type;
-import org.apache.uima.collection.CollectionException;
 import org.apache.uima.fit.descriptor.ConfigurationParameter;
 import org.apache.uima.fit.descriptor.MimeTypeCapability;
 import org.apache.uima.fit.descriptor.TypeCapability;
@@ -41,12 +37,10 @@ import org.apache.uima.fit.util.FSCollectionFactory;
 import org.apache.uima.jcas.JCas;
 import org.apache.uima.resource.ResourceInitializationException;
 
-import de.tudarmstadt.ukp.dkpro.core.api.io.JCasResourceCollectionReader_ImplBase;
 import de.tudarmstadt.ukp.dkpro.core.api.lexmorph.type.morph.MorphologicalFeatures;
 import de.tudarmstadt.ukp.dkpro.core.api.lexmorph.type.pos.POS;
 import de.tudarmstadt.ukp.dkpro.core.api.parameter.ComponentParameters;
 import de.tudarmstadt.ukp.dkpro.core.api.parameter.MimeTypes;
-import de.tudarmstadt.ukp.dkpro.core.api.resources.CompressionUtils;
 import de.tudarmstadt.ukp.dkpro.core.api.resources.MappingProvider;
 import de.tudarmstadt.ukp.dkpro.core.api.resources.MappingProviderFactory;
 import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Lemma;
@@ -80,12 +74,8 @@ import de.tudarmstadt.ukp.dkpro.core.api.syntax.type.dependency.ROOT;
         "de.tudarmstadt.ukp.dkpro.core.api.semantics.type.SemPred",
         "de.tudarmstadt.ukp.dkpro.core.api.semantics.type.SemArg"})
 public class Conll2009Reader
-    extends JCasResourceCollectionReader_ImplBase
+    extends ConllReader_ImplBase
 {
-    public static final String PARAM_ENCODING = ComponentParameters.PARAM_SOURCE_ENCODING;
-    @ConfigurationParameter(name = PARAM_ENCODING, mandatory = true, defaultValue = "UTF-8")
-    private String encoding;
-
     public static final String PARAM_READ_POS = ComponentParameters.PARAM_READ_POS;
     @ConfigurationParameter(name = PARAM_READ_POS, mandatory = true, defaultValue = "true")
     private boolean readPos;
@@ -154,23 +144,6 @@ public class Conll2009Reader
     }
     
     @Override
-    public void getNext(JCas aJCas)
-        throws IOException, CollectionException
-    {
-        Resource res = nextFile();
-        initCas(aJCas, res);
-        BufferedReader reader = null;
-        try {
-            reader = new BufferedReader(new InputStreamReader(
-                    CompressionUtils.getInputStream(res.getLocation(), res.getInputStream()),
-                    encoding));
-            convert(aJCas, reader);
-        }
-        finally {
-            closeQuietly(reader);
-        }
-    }
-
     public void convert(JCas aJCas, BufferedReader aReader)
         throws IOException
     {
@@ -185,13 +158,15 @@ public class Conll2009Reader
         
         JCasBuilder doc = new JCasBuilder(aJCas);
 
+        int sentenceCount = 0;
         List<String[]> words;
-        while ((words = readSentence(aReader)) != null) {
+        while (!isDocumentComplete(sentenceCount) && (words = readSentence(aReader)) != null) {
             if (words.isEmpty()) {
                  // Ignore empty sentences. This can happen when there are multiple end-of-sentence
                  // markers following each other.
                 continue; 
             }
+            sentenceCount++;
 
             int sentenceBegin = doc.getPosition();
             int sentenceEnd = sentenceBegin;
@@ -329,7 +304,7 @@ public class Conll2009Reader
                 // Currently, we just ignore this.
                 break; // Consider end of sentence
             }
-            String[] fields = line.split("\t");
+            String[] fields = splitFields(line, '\t');
 //            if (fields.length != 10) {
 //                throw new IOException(
 //                        "Invalid file format. Line needs to have 10 tab-separated fields, but it has "
@@ -17,11 +17,8 @@
  */
 package de.tudarmstadt.ukp.dkpro.core.io.conll;
 
-import static org.apache.commons.io.IOUtils.closeQuietly;
-
 import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -34,7 +31,6 @@ import org.apache.commons.lang.StringUtils;
 import org.apache.uima.UimaContext;
 import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
 import org.apache.uima.cas.Type;
-import org.apache.uima.collection.CollectionException;
 import org.apache.uima.fit.descriptor.ConfigurationParameter;
 import org.apache.uima.fit.descriptor.MimeTypeCapability;
 import org.apache.uima.fit.descriptor.TypeCapability;
@@ -45,13 +41,11 @@ import org.apache.uima.resource.ResourceInitializationException;
 
 import de.tudarmstadt.ukp.dkpro.core.api.coref.type.CoreferenceChain;
 import de.tudarmstadt.ukp.dkpro.core.api.coref.type.CoreferenceLink;
-import de.tudarmstadt.ukp.dkpro.core.api.io.JCasResourceCollectionReader_ImplBase;
 import de.tudarmstadt.ukp.dkpro.core.api.lexmorph.type.pos.POS;
 import de.tudarmstadt.ukp.dkpro.core.api.metadata.type.DocumentMetaData;
 import de.tudarmstadt.ukp.dkpro.core.api.ner.type.NamedEntity;
 import de.tudarmstadt.ukp.dkpro.core.api.parameter.ComponentParameters;
 import de.tudarmstadt.ukp.dkpro.core.api.parameter.MimeTypes;
-import de.tudarmstadt.ukp.dkpro.core.api.resources.CompressionUtils;
 import de.tudarmstadt.ukp.dkpro.core.api.resources.MappingProvider;
 import de.tudarmstadt.ukp.dkpro.core.api.resources.MappingProviderFactory;
 import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Lemma;
@@ -81,12 +75,8 @@ import de.tudarmstadt.ukp.dkpro.core.io.penntree.PennTreeUtils;
                 "de.tudarmstadt.ukp.dkpro.core.api.semantics.type.SemPred",
                 "de.tudarmstadt.ukp.dkpro.core.api.semantics.type.SemArg"})
 public class Conll2012Reader
-    extends JCasResourceCollectionReader_ImplBase
+    extends ConllReader_ImplBase
 {
-    public static final String PARAM_ENCODING = ComponentParameters.PARAM_SOURCE_ENCODING;
-    @ConfigurationParameter(name = PARAM_ENCODING, mandatory = true, defaultValue = "UTF-8")
-    private String encoding;
-
     public static final String PARAM_READ_POS = ComponentParameters.PARAM_READ_POS;
     @ConfigurationParameter(name = PARAM_READ_POS, mandatory = true, defaultValue = "true")
     private boolean readPos;
@@ -189,6 +179,9 @@ public class Conll2012Reader
     private static final int NAMED_ENTITIES = 10;
     private static final int APRED = 11;
     
+    private static final Pattern DOCUMENT_HEADER = Pattern
+            .compile("^#begin document \\((.*)\\); part (\\d+)$");
+
     private MappingProvider posMappingProvider;
     private MappingProvider constituentMappingProvider;
     
@@ -214,23 +207,12 @@ public class Conll2012Reader
     }
     
     @Override
-    public void getNext(JCas aJCas)
-        throws IOException, CollectionException
+    protected boolean isDocumentStart(String aLine)
     {
-        Resource res = nextFile();
-        initCas(aJCas, res);
-        BufferedReader reader = null;
-        try {
-            reader = new BufferedReader(new InputStreamReader(
-                    CompressionUtils.getInputStream(res.getLocation(), res.getInputStream()),
-                    encoding));
-            convert(aJCas, reader);
-        }
-        finally {
-            closeQuietly(reader);
-        }
+        return aLine.startsWith("#begin document");
     }
 
+    @Override
     public void convert(JCas aJCas, BufferedReader aReader)
         throws IOException
     {
@@ -251,13 +233,15 @@ public class Conll2012Reader
         
         JCasBuilder doc = new JCasBuilder(aJCas);
 
+        int sentenceCount = 0;
         List<String[]> words;
-        while ((words = readSentence(aJCas, aReader)) != null) {
+        while (!isDocumentComplete(sentenceCount) && (words = readSentence(aJCas, aReader)) != null) {
             if (words.isEmpty()) {
                  // Ignore empty sentences. This can happen when there are multiple end-of-sentence
                  // markers following each other.
                 continue; 
             }
+            sentenceCount++;
 
             int sentenceBegin = doc.getPosition();
             int sentenceEnd = sentenceBegin;
@@ -316,7 +300,7 @@ public class Conll2012Reader
                 }
 
                 if (!UNUSED.equals(word[word.length-1]) && readCoreference) {
-                    String[] chainFragments = word[word.length-1].split("\\|");
+                    String[] chainFragments = splitFields(word[word.length-1], '|');
                     for (String chainFragment : chainFragments) {
                         boolean beginning = chainFragment.startsWith("(");
                         boolean ending = chainFragment.endsWith(")");
@@ -466,8 +450,7 @@ public class Conll2012Reader
             }
             if (line.startsWith("#")) {
                 if (line.startsWith("#begin") && useHeaderMetadata) {
-                    Pattern pattern = Pattern.compile("^#begin document \\((.*)\\); part (\\d+)$");
-                    Matcher matcher = pattern.matcher(line);
+                    Matcher matcher = DOCUMENT_HEADER.matcher(line);
                     if (matcher.matches()) {
                         DocumentMetaData meta = DocumentMetaData.get(aJCas);
                         meta.setDocumentId(matcher.group(1)+'#'+matcher.group(2));
@@ -482,7 +465,7 @@ public class Conll2012Reader
                 // Currently, we just ignore this.
                 break; // Consider end of sentence
             }
-            String[] fields = line.split("\\s+");
+            String[] fields = splitWhitespace(line);
 //            if (fields.length != 10) {
 //                throw new IOException(
 //                        "Invalid file format. Line needs to have 10 tab-separated fields, but it has "
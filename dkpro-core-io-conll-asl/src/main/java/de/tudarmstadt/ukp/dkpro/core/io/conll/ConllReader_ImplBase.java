@@ -0,0 +1,380 @@
+/*
+ * Copyright 2017
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.dkpro.core.io.conll;
+
+import static org.apache.commons.io.IOUtils.closeQuietly;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.uima.UimaContext;
+import org.apache.uima.collection.CollectionException;
+import org.apache.uima.fit.descriptor.ConfigurationParameter;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.resource.ResourceInitializationException;
+
+import de.tudarmstadt.ukp.dkpro.core.api.io.JCasResourceCollectionReader_ImplBase;
+import de.tudarmstadt.ukp.dkpro.core.api.parameter.ComponentParameters;
+import de.tudarmstadt.ukp.dkpro.core.api.resources.CompressionUtils;
+
+/**
+ * Base class for readers of column-based CoNLL formats. By default, each file is read into a
+ * single CAS. Using {@link #PARAM_DOCUMENT_UNIT}, a file can instead be split into several CASes
+ * which are read one at a time from the open file, so large files can be read with a bounded
+ * amount of memory.
+ */
+public abstract class ConllReader_ImplBase
+    extends JCasResourceCollectionReader_ImplBase
+{
+    /**
+     * Read each file into a single CAS.
+     */
+    public static final String DOCUMENT_UNIT_FILE = "file";
+
+    /**
+     * Start a new CAS at each document marker, e.g. {@code # newdoc} in CoNLL-U files.
+     */
+    public static final String DOCUMENT_UNIT_NEWDOC = "newdoc";
+
+    public static final String PARAM_ENCODING = ComponentParameters.PARAM_SOURCE_ENCODING;
+    @ConfigurationParameter(name = PARAM_ENCODING, mandatory = true, defaultValue = "UTF-8")
+    private String encoding;
+
+    /**
+     * The unit of text read into a single CAS. This is either {@link #DOCUMENT_UNIT_FILE},
+     * {@link #DOCUMENT_UNIT_NEWDOC} or a positive number of sentences. If the file is split into
+     * several CASes, the document ID and URI of each CAS are qualified with the number of the
+     * CAS within the file, e.g. {@code file.conllu#3}.
+     */
+    public static final String PARAM_DOCUMENT_UNIT = "documentUnit";
+    @ConfigurationParameter(name = PARAM_DOCUMENT_UNIT, mandatory = true,
+            defaultValue = DOCUMENT_UNIT_FILE)
+    private String documentUnit;
+
+    private int sentencesPerDocument;
+
+    private Resource currentResource;
+    private DocumentReader currentReader;
+    private int currentDocumentNumber;
+
+    @Override
+    public void initialize(UimaContext aContext)
+        throws ResourceInitializationException
+    {
+        super.initialize(aContext);
+
+        if (DOCUMENT_UNIT_FILE.equals(documentUnit) || DOCUMENT_UNIT_NEWDOC.equals(documentUnit)) {
+            sentencesPerDocument = 0;
+        }
+        else {
+            try {
+                sentencesPerDocument = Integer.parseInt(documentUnit);
+            }
+            catch (NumberFormatException e) {
+                sentencesPerDocument = 0;
+            }
+            if (sentencesPerDocument < 1) {
+                throw new ResourceInitializationException(new IllegalArgumentException(
+                        "Document unit must be [" + DOCUMENT_UNIT_FILE + "], ["
+                                + DOCUMENT_UNIT_NEWDOC + "] or a positive number of sentences, "
+                                + "but was [" + documentUnit + "]"));
+            }
+        }
+    }
+
+    @Override
+    public boolean hasNext()
+        throws IOException, CollectionException
+    {
+        if (DOCUMENT_UNIT_FILE.equals(documentUnit)) {
+            return super.hasNext();
+        }
+
+        // Skip files which do not contain anything
+        while (currentReader == null && super.hasNext()) {
+            currentResource = nextFile();
+            currentDocumentNumber = 0;
+            DocumentReader reader = new DocumentReader(open(currentResource),
+                    DOCUMENT_UNIT_NEWDOC.equals(documentUnit));
+            if (reader.nextDocument()) {
+                currentReader = reader;
+            }
+            else {
+                closeQuietly(reader);
+            }
+        }
+        return currentReader != null;
+    }
+
+    @Override
+    public void getNext(JCas aJCas)
+        throws IOException, CollectionException
+    {
+        if (DOCUMENT_UNIT_FILE.equals(documentUnit)) {
+            Resource res = nextFile();
+            initCas(aJCas, res);
+            BufferedReader reader = null;
+            try {
+                reader = new BufferedReader(open(res));
+                convert(aJCas, reader);
+            }
+            finally {
+                closeQuietly(reader);
+            }
+            return;
+        }
+
+        if (!hasNext()) {
+            throw new CollectionException(new IllegalStateException("No more documents"));
+        }
+
+        currentDocumentNumber++;
+        initCas(aJCas, currentResource, String.valueOf(currentDocumentNumber));
+        try {
+            convert(aJCas, currentReader);
+            if (!currentReader.nextDocument()) {
+                closeCurrentReader();
+            }
+        }
+        catch (IOException e) {
+            closeCurrentReader();
+            throw e;
+        }
+    }
+
+    @Override
+    public void close()
+        throws IOException
+    {
+        closeCurrentReader();
+        super.close();
+    }
+
+    private void closeCurrentReader()
+    {
+        closeQuietly(currentReader);
+        currentReader = null;
+    }
+
+    private Reader open(Resource aResource)
+        throws IOException
+    {
+        return new InputStreamReader(CompressionUtils.getInputStream(aResource.getLocation(),
+                aResource.getInputStream()), encoding);
+    }
+
+    /**
+     * Read sentences from the reader into the CAS until the reader is exhausted or
+     * {@link #isDocumentComplete(int)} returns {@code true}.
+     *
+     * @param aJCas
+     *            the CAS.
+     * @param aReader
+     *            the reader.
+     * @throws IOException
+     *             if the data cannot be read or is invalid.
+     */
+    protected abstract void convert(JCas aJCas, BufferedReader aReader)
+        throws IOException;
+
+    /**
+     * @param aSentenceCount
+     *            the number of sentences read into the current CAS so far.
+     * @return whether no further sentences should be read into the current CAS.
+     */
+    protected boolean isDocumentComplete(int aSentenceCount)
+    {
+        return sentencesPerDocument > 0 && aSentenceCount >= sentencesPerDocument;
+    }
+
+    /**
+     * Check if a line marks the start of a new document. Used if the document unit is
+     * {@link #DOCUMENT_UNIT_NEWDOC}. By default, the CoNLL-U {@code # newdoc} comment is
+     * recognized.
+     *
+     * @param aLine
+     *            a line.
+     * @return whether the line starts a new document.
+     */
+    protected boolean isDocumentStart(String aLine)
+    {
+        return aLine.startsWith("# newdoc");
+    }
+
+    /**
+     * Split a line at each occurrence of the separator. The result is the same as that of
+     * {@link String#split(String)} with the separator as a literal, i.e. trailing empty fields are
+     * removed, but no regular expression is involved.
+     *
+     * @param aLine
+     *            the line.
+     * @param aSeparator
+     *            the separator.
+     * @return the fields.
+     */
+    protected static String[] splitFields(String aLine, char aSeparator)
+    {
+        int end = aLine.length();
+        if (aLine.indexOf(aSeparator) < 0) {
+            return new String[] { aLine };
+        }
+        while (end > 0 && aLine.charAt(end - 1) == aSeparator) {
+            end--;
+        }
+
+        int count = end > 0 ? 1 : 0;
+        for (int i = 0; i < end; i++) {
+            if (aLine.charAt(i) == aSeparator) {
+                count++;
+            }
+        }
+
+        String[] fields = new String[count];
+        int begin = 0;
+        for (int i = 0; i < count; i++) {
+            int next = aLine.indexOf(aSeparator, begin);
+            if (next < 0 || next > end) {
+                next = end;
+            }
+            fields[i] = aLine.substring(begin, next);
+            begin = next + 1;
+        }
+        return fields;
+    }
+
+    /**
+     * Split a line at each sequence of whitespace. The result is the same as that of
+     * {@link String#split(String)} with the expression {@code \s+}, but no regular expression is
+     * involved.
+     *
+     * @param aLine
+     *            the line.
+     * @return the fields.
+     */
+    protected static String[] splitWhitespace(String aLine)
+    {
+        List<String> fields = new ArrayList<>();
+        int length = aLine.length();
+        int i = 0;
+        boolean found = false;
+        while (i < length) {
+            int begin = i;
+            while (i < length && !isWhitespace(aLine.charAt(i))) {
+                i++;
+            }
+            fields.add(aLine.substring(begin, i));
+            if (i < length) {
+                found = true;
+                while (i < length && isWhitespace(aLine.charAt(i))) {
+                    i++;
+                }
+            }
+        }
+
+        if (!found) {
+            return new String[] { aLine };
+        }
+
+        // Like String.split, drop trailing empty fields
+        int count = fields.size();
+        while (count > 0 && fields.get(count - 1).isEmpty()) {
+            count--;
+        }
+        return fields.subList(0, count).toArray(new String[count]);
+    }
+
+    private static boolean isWhitespace(char aChar)
+    {
+        // Same characters as \s in a regular expression
+        return aChar == ' ' || aChar == '\t' || aChar == '\n' || aChar == 0x0B || aChar == '\f'
+                || aChar == '\r';
+    }
+
+    /**
+     * Reader which reports the end of the input at the end of each document, so that the format
+     * specific code can read one document at a time from a file without knowing about documents.
+     * Only {@link #readLine()} is supported.
+     */
+    private class DocumentReader
+        extends BufferedReader
+    {
+        private final boolean splitAtDocumentStart;
+        private String pendingLine;
+        private boolean documentStarted;
+        private boolean atDocumentEnd;
+
+        public DocumentReader(Reader aReader, boolean aSplitAtDocumentStart)
+        {
+            super(aReader);
+            splitAtDocumentStart = aSplitAtDocumentStart;
+        }
+
+        @Override
+        public String readLine()
+            throws IOException
+        {
+            if (atDocumentEnd) {
+                return null;
+            }
+
+            String line = pendingLine != null ? pendingLine : super.readLine();
+            pendingLine = null;
+
+            if (line != null && splitAtDocumentStart && documentStarted
+                    && isDocumentStart(line)) {
+                // Keep the line for the next document
+                pendingLine = line;
+                atDocumentEnd = true;
+                return null;
+            }
+
+            if (line != null && !StringUtils.isBlank(line)) {
+                documentStarted = true;
+            }
+
+            return line;
+        }
+
+        /**
+         * Move on to the next document.
+         *
+         * @return whether there is any further non-blank line.
+         */
+        public boolean nextDocument()
+            throws IOException
+        {
+            atDocumentEnd = false;
+            documentStarted = false;
+            while (pendingLine == null) {
+                String line = super.readLine();
+                if (line == null) {
+                    return false;
+                }
+                if (!StringUtils.isBlank(line)) {
+                    pendingLine = line;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -17,11 +17,8 @@
  */
 package de.tudarmstadt.ukp.dkpro.core.io.conll;
 
-import static org.apache.commons.io.IOUtils.closeQuietly;
-
 import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
@@ -30,7 +27,6 @@ import org.apache.uima.UimaContext;
 import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
 import org.apache.uima.cas.Feature;
 import org.apache.uima.cas.Type;
-import org.apache.uima.collection.CollectionException;
 import org.apache.uima.fit.descriptor.ConfigurationParameter;
 import org.apache.uima.fit.descriptor.MimeTypeCapability;
 import org.apache.uima.fit.descriptor.TypeCapability;
@@ -38,12 +34,10 @@ import org.apache.uima.fit.factory.JCasBuilder;
 import org.apache.uima.jcas.JCas;
 import org.apache.uima.resource.ResourceInitializationException;
 
-import de.tudarmstadt.ukp.dkpro.core.api.io.JCasResourceCollectionReader_ImplBase;
 import de.tudarmstadt.ukp.dkpro.core.api.lexmorph.type.morph.MorphologicalFeatures;
 import de.tudarmstadt.ukp.dkpro.core.api.lexmorph.type.pos.POS;
 import de.tudarmstadt.ukp.dkpro.core.api.parameter.ComponentParameters;
 import de.tudarmstadt.ukp.dkpro.core.api.parameter.MimeTypes;
-import de.tudarmstadt.ukp.dkpro.core.api.resources.CompressionUtils;
 import de.tudarmstadt.ukp.dkpro.core.api.resources.MappingProvider;
 import de.tudarmstadt.ukp.dkpro.core.api.resources.MappingProviderFactory;
 import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Lemma;
@@ -72,12 +66,8 @@ import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
                 "de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Lemma",
                 "de.tudarmstadt.ukp.dkpro.core.api.syntax.type.dependency.Dependency" })
 public class ConllUReader
-    extends JCasResourceCollectionReader_ImplBase
+    extends ConllReader_ImplBase
 {
-    public static final String PARAM_ENCODING = ComponentParameters.PARAM_SOURCE_ENCODING;
-    @ConfigurationParameter(name = PARAM_ENCODING, mandatory = true, defaultValue = "UTF-8")
-    private String encoding;
-
     public static final String PARAM_READ_POS = ComponentParameters.PARAM_READ_POS;
     @ConfigurationParameter(name = PARAM_READ_POS, mandatory = true, defaultValue = "true")
     private boolean readPos;
@@ -145,23 +135,6 @@ public class ConllUReader
     }
     
     @Override
-    public void getNext(JCas aJCas)
-        throws IOException, CollectionException
-    {
-        Resource res = nextFile();
-        initCas(aJCas, res);
-        BufferedReader reader = null;
-        try {
-            reader = new BufferedReader(new InputStreamReader(
-                    CompressionUtils.getInputStream(res.getLocation(), res.getInputStream()),
-                    encoding));
-            convert(aJCas, reader);
-        }
-        finally {
-            closeQuietly(reader);
-        }
-    }
-
     public void convert(JCas aJCas, BufferedReader aReader)
         throws IOException
     {
@@ -176,13 +149,15 @@ public class ConllUReader
         
         JCasBuilder doc = new JCasBuilder(aJCas);
 
+        int sentenceCount = 0;
         List<String[]> words;
-        while ((words = readSentence(aReader)) != null) {
+        while (!isDocumentComplete(sentenceCount) && (words = readSentence(aReader)) != null) {
             if (words.isEmpty()) {
                  // Ignore empty sentences. This can happen when there are multiple end-of-sentence
                  // markers following each other.
                 continue; 
             }
+            sentenceCount++;
 
             int sentenceBegin = doc.getPosition();
             int sentenceEnd = sentenceBegin;
@@ -197,7 +172,7 @@ public class ConllUReader
             while (wordIterator.hasNext()) {
                 String[] word = wordIterator.next();
                 if (word[ID].contains("-")) {
-                    String[] fragments = word[ID].split("-");
+                    String[] fragments = splitFields(word[ID], '-');
                     surfaceBegin = Integer.valueOf(fragments[0]);
                     surfaceEnd = Integer.valueOf(fragments[1]);
                     surfaceString = word[FORM];
@@ -252,9 +227,9 @@ public class ConllUReader
                     // MorphologicalFeatures type is based on the definition from the UD project,
                     // we can do this rather straightforwardly.
                     Type morphType = morphtag.getType();
-                    String[] items = word[FEATS].split("\\|");
+                    String[] items = splitFields(word[FEATS], '|');
                     for (String item : items) {
-                        String[] keyValue = item.split("=");
+                        String[] keyValue = splitFields(item, '=');
                         StringBuilder key = new StringBuilder(keyValue[0]);
                         key.setCharAt(0, Character.toLowerCase(key.charAt(0)));
                         String value = keyValue[1];
@@ -295,9 +270,9 @@ public class ConllUReader
                     
                     if (!UNUSED.equals(word[DEPS])) {
                         // list items separated by vertical bar
-                        String[] items = word[DEPS].split("\\|");
+                        String[] items = splitFields(word[DEPS], '|');
                         for (String item : items) {
-                            String[] sItem = item.split(":");
+                            String[] sItem = splitFields(item, ':');
                             
                             int depId = Integer.valueOf(word[ID]);
                             int govId = Integer.valueOf(sItem[0]);
@@ -361,7 +336,7 @@ public class ConllUReader
                 // Comment line
                 continue;
             }
-            String[] fields = line.split("\t");
+            String[] fields = splitFields(line, '\t');
             if (fields.length != 10) {
                 throw new IOException(
                         "Invalid file format. Line needs to have 10 tab-separated fields, but it has "
@@ -22,6 +22,10 @@ import static de.tudarmstadt.ukp.dkpro.core.testing.AssertAnnotations.assertPOS;
 import static de.tudarmstadt.ukp.dkpro.core.testing.AssertAnnotations.assertSentence;
 import static org.apache.uima.fit.factory.CollectionReaderFactory.createReaderDescription;
 import static org.apache.uima.fit.util.JCasUtil.select;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
 
 import org.apache.uima.collection.CollectionReaderDescription;
 import org.apache.uima.fit.pipeline.JCasIterable;
@@ -31,6 +35,7 @@ import org.junit.Test;
 
 import de.tudarmstadt.ukp.dkpro.core.api.lexmorph.type.morph.MorphologicalFeatures;
 import de.tudarmstadt.ukp.dkpro.core.api.lexmorph.type.pos.POS;
+import de.tudarmstadt.ukp.dkpro.core.api.metadata.type.DocumentMetaData;
 import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Sentence;
 import de.tudarmstadt.ukp.dkpro.core.testing.DkproTestContext;
 
@@ -74,6 +79,57 @@ public class ConllUReaderTest
         assertMorph(morphologicalFeeatures, select(jcas, MorphologicalFeatures.class));
     }
 
+    @Test
+    public void testDocumentUnitNewdoc()
+        throws Exception
+    {
+        CollectionReaderDescription reader = createReaderDescription(
+                ConllUReader.class, 
+                ConllUReader.PARAM_LANGUAGE, "en",
+                ConllUReader.PARAM_SOURCE_LOCATION, "src/test/resources/conll/u/", 
+                ConllUReader.PARAM_PATTERNS, "conllu-en-newdoc.conll",
+                ConllUReader.PARAM_DOCUMENT_UNIT, ConllUReader.DOCUMENT_UNIT_NEWDOC);
+        
+        List<String> ids = new ArrayList<>();
+        List<String> texts = new ArrayList<>();
+        for (JCas jcas : new JCasIterable(reader)) {
+            ids.add(DocumentMetaData.get(jcas).getDocumentId());
+            texts.add(jcas.getDocumentText());
+        }
+
+        assertEquals(2, ids.size());
+        assertEquals("conllu-en-newdoc.conll#1", ids.get(0));
+        assertEquals("conllu-en-newdoc.conll#2", ids.get(1));
+        assertEquals("They buy books.\nThey sell.\n", texts.get(0));
+        assertEquals("I read.\n", texts.get(1));
+    }
+
+    @Test
+    public void testDocumentUnitSentences()
+        throws Exception
+    {
+        CollectionReaderDescription reader = createReaderDescription(
+                ConllUReader.class, 
+                ConllUReader.PARAM_LANGUAGE, "en",
+                ConllUReader.PARAM_SOURCE_LOCATION, "src/test/resources/conll/u/", 
+                ConllUReader.PARAM_PATTERNS, "conllu-en-orig.conll",
+                ConllUReader.PARAM_DOCUMENT_UNIT, "1");
+        
+        int documents = 0;
+        List<String> sentences = new ArrayList<>();
+        for (JCas jcas : new JCasIterable(reader)) {
+            for (Sentence s : select(jcas, Sentence.class)) {
+                sentences.add(s.getCoveredText());
+            }
+            documents++;
+        }
+
+        assertEquals(2, documents);
+        assertEquals(2, sentences.size());
+        assertEquals("They buy and sell books.", sentences.get(0));
+        assertEquals("I have not a clue.", sentences.get(1));
+    }
+
     @Rule
     public DkproTestContext testContext = new DkproTestContext();
 }
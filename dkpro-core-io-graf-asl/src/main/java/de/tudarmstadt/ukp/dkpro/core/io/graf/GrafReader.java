@@ -87,5 +87,7 @@ public class GrafReader
         catch (ResourceInitializationException | SAXException | CASException | GrafException e) {
             throw new IOException(e);
         }
+
+		casCompleted();
 	}
 }
@@ -184,15 +184,21 @@ public class ImsCwbReader
     public boolean hasNext()
     	throws IOException, CollectionException
     {
-    	return wackyIterator.hasNext();
+    	if (wackyIterator.hasNext()) {
+    		return true;
+    	}
+
+    	endOfCollection();
+    	return false;
     }
 
     @Override
     public void getNext(CAS aCAS)
         throws IOException, CollectionException
     {
-		Resource res = wackyIterator.getCurrentResource();
         CorpusText text = wackyIterator.next();
+        // The iterator reads ahead, so its current resource may already be the next one
+        Resource res = text.getResource();
 
         // Reset counter when a new file is read.
         if (!res.equals(lastResource)) {
@@ -311,6 +317,8 @@ public class ImsCwbReader
         completed++;
         documentCount++;
         qualifier++;
+
+        casCompleted();
     }
 
     @Override
@@ -20,6 +20,8 @@ package de.tudarmstadt.ukp.dkpro.core.io.imscwb.util;
 import java.util.ArrayList;
 import java.util.List;
 
+import de.tudarmstadt.ukp.dkpro.core.api.io.ResourceCollectionReaderBase.Resource;
+
 /**
  * Used for temporary storing extracted texts before adding to the CAS.
  *
@@ -29,6 +31,7 @@ public class CorpusText {
 
     private final List<CorpusSentence> sentences;
     private String documentTitle;
+    private Resource resource;
 
 	public CorpusText() {
     	this("");
@@ -57,6 +60,19 @@ public class CorpusText {
     public void setDocumentTitle(String documentTitle) {
 		this.documentTitle = documentTitle;
 	}
+
+    /**
+     * @return the resource from which the text was read.
+     */
+    public Resource getResource()
+    {
+        return resource;
+    }
+
+    public void setResource(Resource aResource)
+    {
+        resource = aResource;
+    }
 }
 
 
@@ -108,6 +108,7 @@ public class TextIterable
             if (line.startsWith("<text ")) {
                 String title = getTitle(line);
                 text = new CorpusText(title);
+                text.setResource(currentResource);
             }
             if (line.equals("<s>")) {
                 insideSentence = true;
@@ -17,14 +17,21 @@
  */
 package de.tudarmstadt.ukp.dkpro.core.io.imscwb;
 
+import static org.apache.uima.fit.factory.CollectionReaderFactory.createReader;
 import static org.apache.uima.fit.factory.CollectionReaderFactory.createReaderDescription;
 import static org.apache.uima.fit.pipeline.SimplePipeline.iteratePipeline;
 import static org.apache.uima.fit.util.JCasUtil.select;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.io.File;
+
+import org.apache.uima.cas.CAS;
+import org.apache.uima.collection.CollectionReader;
 import org.apache.uima.collection.CollectionReaderDescription;
 import org.apache.uima.jcas.JCas;
+import org.apache.uima.util.CasCreationUtils;
 import org.junit.Rule;
 import org.junit.Test;
 
@@ -124,6 +131,39 @@ public class ImsCwbReaderTest
         fail("no Exception!");
 	}
 
+	@Test
+	public void wackyTestCheckpoint()
+		throws Exception
+	{
+		File checkpoint = new File(testContext.getTestOutputFolder(), "checkpoint.txt");
+
+		CollectionReaderDescription desc = createReaderDescription(
+				ImsCwbReader.class,
+				ImsCwbReader.PARAM_SOURCE_LOCATION, "src/test/resources/wacky/",
+				ImsCwbReader.PARAM_LANGUAGE, "de",
+				ImsCwbReader.PARAM_SOURCE_ENCODING, "ISO-8859-15",
+				ImsCwbReader.PARAM_PATTERNS, new String[] { "[+]test.txt", "[+]test.txt.gz" },
+				ImsCwbReader.PARAM_CHECKPOINT_FILE, checkpoint);
+
+		// Each file contains four documents. Read the first file and one document of the second.
+		CollectionReader reader = createReader(desc);
+		CAS cas = CasCreationUtils.createCas(reader.getProcessingResourceMetaData());
+		for (int i = 0; i < 5; i++) {
+			reader.hasNext();
+			reader.getNext(cas);
+			cas.reset();
+		}
+		reader.destroy();
+
+		// Only the first file is recorded, so the resumed reader reads the second file again
+		int i = 0;
+		for (JCas jcas : iteratePipeline(desc)) {
+			assertTrue(DocumentMetaData.get(jcas).getDocumentUri().endsWith("/test.txt.gz#" + i));
+			i++;
+		}
+		assertEquals(4, i);
+	}
+
     @Rule
     public DkproTestContext testContext = new DkproTestContext();
 }
\ No newline at end of file
@@ -48,6 +48,11 @@ import static java.util.Arrays.asList;
  * <p>
  * will create a CAS for each record, write the content of "text" column into CAS document text and
  * that of "title" column into the document title field of the {@link DocumentMetaData} annotation.
+ * <p>
+ * By default, the reader uses a scrollable result set in order to determine the number of rows.
+ * Most drivers then load the complete result into memory. For large tables, enable
+ * {@link #PARAM_STREAMING} to read the rows through a forward-only cursor, or set
+ * {@link #PARAM_KEY_COLUMN} to read the rows in pages using keyset pagination.
  */
 
 @TypeCapability(
@@ -135,12 +140,83 @@ public class JdbcReader
     @ConfigurationParameter(name = PARAM_LANGUAGE, mandatory = false)
     private String language;
 
+    /**
+     * Read the rows through a forward-only cursor instead of a scrollable result set. In this
+     * mode, the total number of rows is only known if {@link #PARAM_COUNT_QUERY} is set.
+     * <p>
+     * Note that some drivers only stream results under certain conditions, e.g. MySQL requires
+     * a {@link #PARAM_FETCH_SIZE} of {@link Integer#MIN_VALUE} or the connection parameter
+     * {@code useCursorFetch=true}. Auto-commit is disabled in this mode as required e.g. by
+     * PostgreSQL.
+     */
+    public static final String PARAM_STREAMING = "streaming";
+    @ConfigurationParameter(name = PARAM_STREAMING, mandatory = true, defaultValue = "false")
+    private boolean streaming;
+
+    /**
+     * The number of rows the driver should fetch from the database at once when reading through
+     * a forward-only cursor. Use {@code 0} for the driver default.
+     */
+    public static final String PARAM_FETCH_SIZE = "fetchSize";
+    @ConfigurationParameter(name = PARAM_FETCH_SIZE, mandatory = true, defaultValue = "1000")
+    private int fetchSize;
+
+    /**
+     * A query returning the total number of rows (or an estimate of it) in its first column, e.g.
+     * <code>SELECT COUNT(*) FROM test_table</code>. It is used to report progress when
+     * {@link #PARAM_STREAMING} or {@link #PARAM_KEY_COLUMN} are used.
+     */
+    public static final String PARAM_COUNT_QUERY = "countQuery";
+    @ConfigurationParameter(name = PARAM_COUNT_QUERY, mandatory = false)
+    private String countQuery;
+
+    /**
+     * Enables keyset pagination. The value is the label of a result column containing a unique
+     * key by which the query orders the rows ascendingly. The query must contain a single
+     * parameter placeholder which is bound to the key of the last row read, e.g.
+     * <p>
+     * <code>SELECT id AS cas_key, text AS cas_text FROM test_table WHERE id &gt; ? ORDER BY id</code>
+     * <p>
+     * The query is executed repeatedly, each time fetching up to {@link #PARAM_PAGE_SIZE} rows,
+     * until it returns no more rows. This implies a forward-only cursor. The key of the last row
+     * of each page is logged, so a job can be resumed using {@link #PARAM_START_KEY}.
+     */
+    public static final String PARAM_KEY_COLUMN = "keyColumn";
+    @ConfigurationParameter(name = PARAM_KEY_COLUMN, mandatory = false)
+    private String keyColumn;
+
+    /**
+     * The value bound to the query parameter for fetching the first page when
+     * {@link #PARAM_KEY_COLUMN} is used. It must be smaller than all keys to read. The value is
+     * converted to the SQL type of the key column if the driver reports it, so e.g. numeric keys
+     * are compared numerically. The keys of subsequent pages are bound as read from the result set.
+     */
+    public static final String PARAM_START_KEY = "startKey";
+    @ConfigurationParameter(name = PARAM_START_KEY, mandatory = true, defaultValue = "0")
+    private String startKey;
+
+    /**
+     * The maximum number of rows fetched per query when {@link #PARAM_KEY_COLUMN} is used.
+     */
+    public static final String PARAM_PAGE_SIZE = "pageSize";
+    @ConfigurationParameter(name = PARAM_PAGE_SIZE, mandatory = true, defaultValue = "10000")
+    private int pageSize;
+
     private Connection sqlConnection;
+    private Statement statement;
     private ResultSet resultSet;
     private int resultSetSize;
     private int completed;
     private Set<String> columnNames;
 
+    // Look-ahead state - a row has been fetched but not yet turned into a CAS
+    private boolean rowFetched;
+    private boolean rowAvailable;
+
+    // Keyset pagination state
+    private int pageRows;
+    private Object lastKey;
+
     @Override
     public void initialize(UimaContext context)
             throws ResourceInitializationException
@@ -169,6 +245,9 @@ public class JdbcReader
         Class.forName(driver);
         sqlConnection = DriverManager.getConnection(url);
 
+        if (streaming || keyColumn != null) {
+            sqlConnection.setAutoCommit(false);
+        }
     }
 
     private void query()
@@ -176,14 +255,36 @@ public class JdbcReader
     {
         getLogger().info("Executing query: '" + query + "'.");
 
-        Statement statement = sqlConnection
-                .createStatement(ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY);
-        resultSet = statement.executeQuery(query);
-        resultSet.last();
-        resultSetSize = resultSet.getRow();
-        getLogger().info(resultSetSize + " documents retrieved.");
+        resultSetSize = -1;
+        if (countQuery != null) {
+            resultSetSize = count();
+            getLogger().info(resultSetSize + " documents to retrieve.");
+        }
 
-        resultSet.beforeFirst();
+        if (keyColumn != null) {
+            PreparedStatement preparedStatement = sqlConnection.prepareStatement(query,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            preparedStatement.setFetchSize(fetchSize);
+            preparedStatement.setMaxRows(pageSize);
+            statement = preparedStatement;
+            queryPage(startKey, getKeyType(preparedStatement));
+        }
+        else if (streaming) {
+            statement = sqlConnection.createStatement(ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            resultSet = statement.executeQuery(query);
+        }
+        else {
+            statement = sqlConnection.createStatement(ResultSet.TYPE_SCROLL_INSENSITIVE,
+                    ResultSet.CONCUR_READ_ONLY);
+            resultSet = statement.executeQuery(query);
+            resultSet.last();
+            resultSetSize = resultSet.getRow();
+            getLogger().info(resultSetSize + " documents retrieved.");
+
+            resultSet.beforeFirst();
+        }
         completed = 0;
 
         // Store available column names
@@ -192,18 +293,106 @@ public class JdbcReader
         for (int i = 1; i < meta.getColumnCount() + 1; i++) {
             String columnName = meta.getColumnLabel(i);
             columnNames.add(columnName);
-            if (!CAS_COLUMNS.contains(columnName)) {
+            if (!CAS_COLUMNS.contains(columnName) && !columnName.equalsIgnoreCase(keyColumn)) {
                 getLogger().warn("Unknown column [" + columnName + "].");
             }
         }
     }
 
+    private int count()
+            throws SQLException
+    {
+        Statement countStatement = sqlConnection.createStatement();
+        ResultSet countResult = null;
+        try {
+            countResult = countStatement.executeQuery(countQuery);
+            countResult.next();
+            return (int) Math.min(countResult.getLong(1), Integer.MAX_VALUE);
+        }
+        finally {
+            DbUtils.closeQuietly(countResult);
+            DbUtils.closeQuietly(countStatement);
+        }
+    }
+
+    /**
+     * Determine the SQL type of the key column from the metadata of the prepared query or, if the
+     * driver does not provide it before executing the query, of its parameter.
+     *
+     * @return the SQL type or {@code null} if it is unknown.
+     */
+    private Integer getKeyType(PreparedStatement aStatement)
+    {
+        try {
+            ResultSetMetaData meta = aStatement.getMetaData();
+            if (meta != null) {
+                for (int i = 1; i < meta.getColumnCount() + 1; i++) {
+                    if (meta.getColumnLabel(i).equalsIgnoreCase(keyColumn)) {
+                        return meta.getColumnType(i);
+                    }
+                }
+            }
+            return aStatement.getParameterMetaData().getParameterType(1);
+        }
+        catch (SQLException e) {
+            getLogger().warn("Unable to determine the type of key column [" + keyColumn + "].", e);
+            return null;
+        }
+    }
+
+    private void queryPage(Object aKey, Integer aSqlType)
+            throws SQLException
+    {
+        getLogger().info("Fetching up to " + pageSize + " rows after key [" + aKey + "].");
+
+        DbUtils.closeQuietly(resultSet);
+        PreparedStatement preparedStatement = (PreparedStatement) statement;
+        if (aSqlType != null) {
+            preparedStatement.setObject(1, aKey, aSqlType);
+        }
+        else {
+            preparedStatement.setObject(1, aKey);
+        }
+        resultSet = preparedStatement.executeQuery();
+        pageRows = 0;
+    }
+
+    /**
+     * Advance to the next row unless a row has already been fetched and not been consumed yet.
+     *
+     * @return whether there is a row.
+     */
+    private boolean fetchRow()
+            throws SQLException
+    {
+        if (!rowFetched) {
+            rowAvailable = resultSet.next();
+
+            // If the page was full, there may be more rows after it
+            if (!rowAvailable && keyColumn != null && pageRows >= pageSize) {
+                queryPage(lastKey, null);
+                rowAvailable = resultSet.next();
+            }
+
+            if (rowAvailable && keyColumn != null) {
+                pageRows++;
+                lastKey = resultSet.getObject(keyColumn);
+            }
+
+            rowFetched = true;
+        }
+        return rowAvailable;
+    }
+
     @Override
     public void getNext(CAS cas)
             throws IOException, CollectionException
     {
         try {
-            resultSet.next(); // advance to next item (used to be done in hasNext())
+            if (!fetchRow()) {
+                throw new CollectionException(new IllegalStateException("No more rows."));
+            }
+            rowFetched = false;
         }
         catch (SQLException e) {
             throw new CollectionException(e);
@@ -249,8 +438,7 @@ public class JdbcReader
     @Override
     public Progress[] getProgress()
     {
-        // REC: It should be possible to determine the current row and the total size of the result
-        // set and use this here to return progress information.
+        // The total is -1 if it is unknown
         return new Progress[] { new ProgressImpl(completed, resultSetSize, "row") };
     }
 
@@ -258,7 +446,12 @@ public class JdbcReader
     public boolean hasNext()
             throws IOException, CollectionException
     {
-        return (completed < resultSetSize);
+        try {
+            return fetchRow();
+        }
+        catch (SQLException e) {
+            throw new CollectionException(e);
+        }
     }
 
     @Override
@@ -266,6 +459,7 @@ public class JdbcReader
             throws IOException
     {
         DbUtils.closeQuietly(resultSet);
+        DbUtils.closeQuietly(statement);
         DbUtils.closeQuietly(sqlConnection);
     }
 }
@@ -0,0 +1,432 @@
+/*
+ * Copyright 2017
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.dkpro.core.io.jdbc;
+
+import static de.tudarmstadt.ukp.dkpro.core.io.jdbc.JdbcReader.CAS_METADATA_COLLECTION_ID;
+import static de.tudarmstadt.ukp.dkpro.core.io.jdbc.JdbcReader.CAS_METADATA_DOCUMENT_BASE_URI;
+import static de.tudarmstadt.ukp.dkpro.core.io.jdbc.JdbcReader.CAS_METADATA_DOCUMENT_ID;
+import static de.tudarmstadt.ukp.dkpro.core.io.jdbc.JdbcReader.CAS_METADATA_DOCUMENT_URI;
+import static de.tudarmstadt.ukp.dkpro.core.io.jdbc.JdbcReader.CAS_METADATA_LANGUAGE;
+import static de.tudarmstadt.ukp.dkpro.core.io.jdbc.JdbcReader.CAS_METADATA_TITLE;
+import static de.tudarmstadt.ukp.dkpro.core.io.jdbc.JdbcReader.CAS_TEXT;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.commons.dbutils.DbUtils;
+import org.apache.uima.UimaContext;
+import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
+import org.apache.uima.cas.text.AnnotationFS;
+import org.apache.uima.fit.component.JCasConsumer_ImplBase;
+import org.apache.uima.fit.descriptor.ConfigurationParameter;
+import org.apache.uima.fit.descriptor.TypeCapability;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.resource.ResourceInitializationException;
+
+import de.tudarmstadt.ukp.dkpro.core.api.featurepath.FeaturePathException;
+import de.tudarmstadt.ukp.dkpro.core.api.featurepath.FeaturePathFactory;
+import de.tudarmstadt.ukp.dkpro.core.api.metadata.type.DocumentMetaData;
+
+/**
+ * Writes documents into a JDBC database. The document text and the fields of the
+ * {@link DocumentMetaData} annotation are inserted into {@link #PARAM_DOCUMENT_TABLE} using the
+ * column names of the {@link JdbcReader} (e.g. {@link JdbcReader#CAS_TEXT}), so the table can be
+ * read again using <code>SELECT * FROM ...</code>.
+ * <p>
+ * Optionally, annotations selected by type or feature path (see {@link #PARAM_ANNOTATION_TYPES})
+ * are inserted into {@link #PARAM_ANNOTATION_TABLE}, one row per annotation. The columns of this
+ * table are {@link JdbcReader#CAS_METADATA_DOCUMENT_ID}, {@link #COLUMN_PATH},
+ * {@link #COLUMN_BEGIN}, {@link #COLUMN_END} and {@link #COLUMN_VALUE}.
+ * <p>
+ * Rows are collected and sent to the database in batches of {@link #PARAM_BATCH_SIZE} using
+ * prepared statements. The tables must already exist.
+ */
+@TypeCapability(
+        inputs = {
+                "de.tudarmstadt.ukp.dkpro.core.api.metadata.type.DocumentMetaData" })
+public class JdbcWriter
+        extends JCasConsumer_ImplBase
+{
+    public static final String COLUMN_PATH = "annotation_path";
+    public static final String COLUMN_BEGIN = "annotation_begin";
+    public static final String COLUMN_END = "annotation_end";
+    public static final String COLUMN_VALUE = "annotation_value";
+
+    private static final String[] DOCUMENT_COLUMNS = { CAS_METADATA_DOCUMENT_ID,
+            CAS_METADATA_COLLECTION_ID, CAS_METADATA_DOCUMENT_URI, CAS_METADATA_DOCUMENT_BASE_URI,
+            CAS_METADATA_TITLE, CAS_METADATA_LANGUAGE, CAS_TEXT };
+
+    private static final String[] ANNOTATION_COLUMNS = { CAS_METADATA_DOCUMENT_ID, COLUMN_PATH,
+            COLUMN_BEGIN, COLUMN_END, COLUMN_VALUE };
+
+    /**
+     * Specify the class name of the JDBC driver.
+     * <p>
+     * If used with uimaFIT and the value is not given, <code>com.mysql.cj.jdbc.Driver</code> will be
+     * taken.
+     */
+    public static final String PARAM_DRIVER = JdbcReader.PARAM_DRIVER;
+    @ConfigurationParameter(name = PARAM_DRIVER, mandatory = true, defaultValue = "com.mysql.cj.jdbc.Driver")
+    private String driver;
+
+    /**
+     * Specifies the URL to the database.
+     * <p>
+     * If used with uimaFIT and the value is not given, <code>jdbc:mysql://127.0.0.1/</code> will be
+     * taken.
+     * <p>
+     * Do not use this parameter to add additional parameters, but use {@link #PARAM_CONNECTION_PARAMS}
+     * instead.
+     */
+    public static final String PARAM_CONNECTION = JdbcReader.PARAM_CONNECTION;
+    @ConfigurationParameter(name = PARAM_CONNECTION, mandatory = true, defaultValue = "jdbc:mysql://127.0.0.1/")
+    private String connection;
+
+    /**
+     * Add additional parameters for the connection URL here in a single string: {@code [&propertyName1=propertyValue1[&propertyName2=propertyValue2]...]}.
+     * <p>
+     * For MySQL, {@code &rewriteBatchedStatements=true} considerably speeds up batched inserts.
+     */
+    public static final String PARAM_CONNECTION_PARAMS = JdbcReader.PARAM_CONNECTION_PARAMS;
+    @ConfigurationParameter(name = PARAM_CONNECTION_PARAMS, mandatory = true, defaultValue = "")
+    private String connectionParams;
+
+    /**
+     * Specifies name of the database to be accessed.
+     */
+    public static final String PARAM_DATABASE = JdbcReader.PARAM_DATABASE;
+    @ConfigurationParameter(name = PARAM_DATABASE, mandatory = true)
+    private String database;
+
+    /**
+     * Specifies the user name for database access.
+     */
+    public static final String PARAM_USER = JdbcReader.PARAM_USER;
+    @ConfigurationParameter(name = PARAM_USER, mandatory = true)
+    private String user;
+
+    /**
+     * Specifies the password for database access.
+     */
+    public static final String PARAM_PASSWORD = JdbcReader.PARAM_PASSWORD;
+    @ConfigurationParameter(name = PARAM_PASSWORD, mandatory = true)
+    private String password;
+
+    /**
+     * The table into which the document text and metadata are written.
+     */
+    public static final String PARAM_DOCUMENT_TABLE = "documentTable";
+    @ConfigurationParameter(name = PARAM_DOCUMENT_TABLE, mandatory = true)
+    private String documentTable;
+
+    /**
+     * The table into which the annotations are written. If not set, no annotations are written.
+     */
+    public static final String PARAM_ANNOTATION_TABLE = "annotationTable";
+    @ConfigurationParameter(name = PARAM_ANNOTATION_TABLE, mandatory = false)
+    private String annotationTable;
+
+    /**
+     * The annotations to write into {@link #PARAM_ANNOTATION_TABLE}. Each entry is either a fully
+     * qualified type name, in which case the covered text is written as value, or a type name
+     * followed by a feature path, e.g.
+     * <code>de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token/pos/PosValue</code>.
+     */
+    public static final String PARAM_ANNOTATION_TYPES = "annotationTypes";
+    @ConfigurationParameter(name = PARAM_ANNOTATION_TYPES, mandatory = false)
+    private String[] annotationTypes;
+
+    /**
+     * The number of rows sent to the database in a single batch.
+     */
+    public static final String PARAM_BATCH_SIZE = "batchSize";
+    @ConfigurationParameter(name = PARAM_BATCH_SIZE, mandatory = true, defaultValue = "1000")
+    private int batchSize;
+
+    /**
+     * The number of documents after which the transaction is committed. Use {@code 0} to enable
+     * auto-commit, i.e. to commit every batch.
+     */
+    public static final String PARAM_COMMIT_INTERVAL = "commitInterval";
+    @ConfigurationParameter(name = PARAM_COMMIT_INTERVAL, mandatory = true, defaultValue = "10000")
+    private int commitInterval;
+
+    /**
+     * Send the batches to the database in a background thread. While a batch is being written,
+     * the pipeline can continue to process documents and to collect the next batch.
+     */
+    public static final String PARAM_BACKGROUND_FLUSH = "backgroundFlush";
+    @ConfigurationParameter(name = PARAM_BACKGROUND_FLUSH, mandatory = true, defaultValue = "false")
+    private boolean backgroundFlush;
+
+    private Connection sqlConnection;
+    private PreparedStatement documentStatement;
+    private PreparedStatement annotationStatement;
+
+    private List<String[]> documentRows;
+    private List<Object[]> annotationRows;
+    private int uncommitted;
+
+    private ExecutorService flushExecutor;
+    private Future<?> pendingFlush;
+
+    @Override
+    public void initialize(UimaContext aContext)
+        throws ResourceInitializationException
+    {
+        super.initialize(aContext);
+
+        if (annotationTypes != null && annotationTypes.length > 0 && annotationTable == null) {
+            throw new ResourceInitializationException(new IllegalArgumentException(
+                    "Parameter [" + PARAM_ANNOTATION_TYPES + "] requires ["
+                            + PARAM_ANNOTATION_TABLE + "] to be set."));
+        }
+
+        try {
+            openDatabaseConnection();
+        }
+        catch (SQLException | ClassNotFoundException e) {
+            throw new ResourceInitializationException(e);
+        }
+
+        documentRows = new ArrayList<>();
+        annotationRows = new ArrayList<>();
+        uncommitted = 0;
+
+        if (backgroundFlush) {
+            flushExecutor = Executors.newSingleThreadExecutor();
+        }
+    }
+
+    private void openDatabaseConnection()
+        throws SQLException, ClassNotFoundException
+    {
+        if (!connection.endsWith("/")) {
+            connection = connection + "/";
+        }
+        String url = connection + database + "?user=" + user + "&password=" + password
+                + connectionParams;
+
+        Class.forName(driver);
+        sqlConnection = DriverManager.getConnection(url);
+        sqlConnection.setAutoCommit(commitInterval <= 0);
+
+        documentStatement = sqlConnection.prepareStatement(insertStatement(documentTable,
+                DOCUMENT_COLUMNS));
+        if (annotationTable != null) {
+            annotationStatement = sqlConnection.prepareStatement(insertStatement(annotationTable,
+                    ANNOTATION_COLUMNS));
+        }
+    }
+
+    private static String insertStatement(String aTable, String[] aColumns)
+    {
+        StringBuilder sb = new StringBuilder();
+        sb.append("INSERT INTO ").append(aTable).append(" (");
+        for (int i = 0; i < aColumns.length; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(aColumns[i]);
+        }
+        sb.append(") VALUES (");
+        for (int i = 0; i < aColumns.length; i++) {
+            sb.append(i > 0 ? ", ?" : "?");
+        }
+        sb.append(")");
+        return sb.toString();
+    }
+
+    @Override
+    public void process(JCas aJCas)
+        throws AnalysisEngineProcessException
+    {
+        DocumentMetaData meta = DocumentMetaData.get(aJCas);
+        String documentId = meta.getDocumentId();
+
+        documentRows.add(new String[] { documentId, meta.getCollectionId(),
+                meta.getDocumentUri(), meta.getDocumentBaseUri(), meta.getDocumentTitle(),
+                aJCas.getDocumentLanguage(), aJCas.getDocumentText() });
+
+        if (annotationTable != null && annotationTypes != null) {
+            for (String path : annotationTypes) {
+                try {
+                    for (Entry<AnnotationFS, String> entry : FeaturePathFactory
+                            .select(aJCas.getCas(), path)) {
+                        AnnotationFS anno = entry.getKey();
+                        annotationRows.add(new Object[] { documentId, path, anno.getBegin(),
+                                anno.getEnd(), entry.getValue() });
+                    }
+                }
+                catch (FeaturePathException e) {
+                    throw new AnalysisEngineProcessException(e);
+                }
+            }
+        }
+
+        if (documentRows.size() >= batchSize || annotationRows.size() >= batchSize) {
+            flush();
+        }
+    }
+
+    /**
+     * Hand the collected rows over to the database, either directly or to the background thread.
+     * At most one batch is being written in the background while the next one is collected.
+     */
+    private void flush()
+        throws AnalysisEngineProcessException
+    {
+        final List<String[]> documents = documentRows;
+        final List<Object[]> annotations = annotationRows;
+        documentRows = new ArrayList<>();
+        annotationRows = new ArrayList<>();
+
+        if (flushExecutor != null) {
+            awaitPendingFlush();
+            pendingFlush = flushExecutor.submit(() -> {
+                write(documents, annotations);
+                return null;
+            });
+        }
+        else {
+            try {
+                write(documents, annotations);
+            }
+            catch (SQLException e) {
+                throw new AnalysisEngineProcessException(e);
+            }
+        }
+    }
+
+    private void awaitPendingFlush()
+        throws AnalysisEngineProcessException
+    {
+        if (pendingFlush == null) {
+            return;
+        }
+
+        try {
+            pendingFlush.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AnalysisEngineProcessException(e);
+        }
+        catch (ExecutionException e) {
+            throw new AnalysisEngineProcessException(e.getCause());
+        }
+        finally {
+            pendingFlush = null;
+        }
+    }
+
+    private void write(List<String[]> aDocuments, List<Object[]> aAnnotations)
+        throws SQLException
+    {
+        int pending = 0;
+        for (String[] row : aDocuments) {
+            for (int i = 0; i < row.length; i++) {
+                documentStatement.setString(i + 1, row[i]);
+            }
+            documentStatement.addBatch();
+            if (++pending >= batchSize) {
+                documentStatement.executeBatch();
+                pending = 0;
+            }
+        }
+        if (pending > 0) {
+            documentStatement.executeBatch();
+        }
+
+        pending = 0;
+        for (Object[] row : aAnnotations) {
+            annotationStatement.setString(1, (String) row[0]);
+            annotationStatement.setString(2, (String) row[1]);
+            annotationStatement.setInt(3, (Integer) row[2]);
+            annotationStatement.setInt(4, (Integer) row[3]);
+            annotationStatement.setString(5, (String) row[4]);
+            annotationStatement.addBatch();
+            if (++pending >= batchSize) {
+                annotationStatement.executeBatch();
+                pending = 0;
+            }
+        }
+        if (pending > 0) {
+            annotationStatement.executeBatch();
+        }
+
+        uncommitted += aDocuments.size();
+        if (commitInterval > 0 && uncommitted >= commitInterval) {
+            sqlConnection.commit();
+            getLogger().info("Committed " + uncommitted + " documents.");
+            uncommitted = 0;
+        }
+    }
+
+    @Override
+    public void collectionProcessComplete()
+        throws AnalysisEngineProcessException
+    {
+        try {
+            if (!documentRows.isEmpty() || !annotationRows.isEmpty()) {
+                flush();
+            }
+            awaitPendingFlush();
+
+            if (commitInterval > 0 && uncommitted > 0) {
+                sqlConnection.commit();
+                uncommitted = 0;
+            }
+        }
+        catch (SQLException e) {
+            throw new AnalysisEngineProcessException(e);
+        }
+
+        super.collectionProcessComplete();
+    }
+
+    @Override
+    public void destroy()
+    {
+        closeDatabaseConnection();
+        super.destroy();
+    }
+
+    private void closeDatabaseConnection()
+    {
+        if (flushExecutor != null) {
+            flushExecutor.shutdown();
+            flushExecutor = null;
+        }
+        DbUtils.closeQuietly(annotationStatement);
+        DbUtils.closeQuietly(documentStatement);
+        DbUtils.closeQuietly(sqlConnection);
+        annotationStatement = null;
+        documentStatement = null;
+        sqlConnection = null;
+    }
+}
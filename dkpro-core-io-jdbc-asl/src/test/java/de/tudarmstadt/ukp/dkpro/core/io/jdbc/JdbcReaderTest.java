@@ -0,0 +1,181 @@
+/*
+ * Copyright 2017
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.dkpro.core.io.jdbc;
+
+import static org.apache.uima.fit.factory.CollectionReaderFactory.createReader;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+import org.apache.commons.dbutils.DbUtils;
+import org.apache.uima.cas.CAS;
+import org.apache.uima.collection.CollectionReader;
+import org.apache.uima.fit.factory.JCasFactory;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestName;
+
+import de.tudarmstadt.ukp.dkpro.core.api.metadata.type.DocumentMetaData;
+
+public class JdbcReaderTest
+{
+    private static final String DB_USER = "root";
+    private static final String DB_PASS = "";
+    private static final String TBL_NAME = "test_table";
+    private static final int ROWS = 25;
+
+    private String dbName;
+
+    @Before
+    public void setup()
+        throws Exception
+    {
+        dbName = "test_db_" + name.getMethodName();
+
+        Connection conn = null;
+        Statement stmnt = null;
+        PreparedStatement insert = null;
+        try {
+            conn = DriverManager.getConnection("jdbc:hsqldb:mem:/" + dbName, DB_USER, DB_PASS);
+            stmnt = conn.createStatement();
+            stmnt.execute("CREATE TABLE " + TBL_NAME
+                    + " (id INTEGER PRIMARY KEY, title VARCHAR(50), text VARCHAR(100));");
+            insert = conn.prepareStatement("INSERT INTO " + TBL_NAME
+                    + " (id, title, text) VALUES (?, ?, ?);");
+            for (int i = 1; i <= ROWS; i++) {
+                insert.setInt(1, i);
+                insert.setString(2, "title" + i);
+                insert.setString(3, "text..." + i);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+        finally {
+            DbUtils.closeQuietly(insert);
+            DbUtils.closeQuietly(stmnt);
+            DbUtils.closeQuietly(conn);
+        }
+    }
+
+    @Test
+    public void testStreaming()
+        throws Exception
+    {
+        CollectionReader reader = createReader(
+                JdbcReader.class,
+                JdbcReader.PARAM_DATABASE, dbName,
+                JdbcReader.PARAM_USER, DB_USER,
+                JdbcReader.PARAM_PASSWORD, DB_PASS,
+                JdbcReader.PARAM_QUERY, "SELECT title AS \"" + JdbcReader.CAS_METADATA_TITLE
+                        + "\", text AS \"" + JdbcReader.CAS_TEXT + "\" FROM " + TBL_NAME
+                        + " ORDER BY id;",
+                JdbcReader.PARAM_DRIVER, "org.hsqldb.jdbc.JDBCDriver",
+                JdbcReader.PARAM_CONNECTION, "jdbc:hsqldb:mem:",
+                JdbcReader.PARAM_STREAMING, true,
+                JdbcReader.PARAM_FETCH_SIZE, 4,
+                JdbcReader.PARAM_COUNT_QUERY, "SELECT COUNT(*) FROM " + TBL_NAME);
+
+        assertEquals(ROWS, reader.getProgress()[0].getTotal());
+        assertRows(reader, 1, ROWS);
+        assertEquals(ROWS, reader.getProgress()[0].getCompleted());
+    }
+
+    @Test
+    public void testKeysetPagination()
+        throws Exception
+    {
+        CollectionReader reader = createReader(
+                JdbcReader.class,
+                JdbcReader.PARAM_DATABASE, dbName,
+                JdbcReader.PARAM_USER, DB_USER,
+                JdbcReader.PARAM_PASSWORD, DB_PASS,
+                JdbcReader.PARAM_QUERY, "SELECT id AS \"cas_key\", title AS \""
+                        + JdbcReader.CAS_METADATA_TITLE + "\", text AS \"" + JdbcReader.CAS_TEXT
+                        + "\" FROM " + TBL_NAME + " WHERE id > ? ORDER BY id;",
+                JdbcReader.PARAM_DRIVER, "org.hsqldb.jdbc.JDBCDriver",
+                JdbcReader.PARAM_CONNECTION, "jdbc:hsqldb:mem:",
+                JdbcReader.PARAM_KEY_COLUMN, "cas_key",
+                JdbcReader.PARAM_PAGE_SIZE, 5);
+
+        assertRows(reader, 1, ROWS);
+    }
+
+    @Test
+    public void testKeysetPaginationResume()
+        throws Exception
+    {
+        CollectionReader reader = createReader(
+                JdbcReader.class,
+                JdbcReader.PARAM_DATABASE, dbName,
+                JdbcReader.PARAM_USER, DB_USER,
+                JdbcReader.PARAM_PASSWORD, DB_PASS,
+                JdbcReader.PARAM_QUERY, "SELECT id AS \"cas_key\", title AS \""
+                        + JdbcReader.CAS_METADATA_TITLE + "\", text AS \"" + JdbcReader.CAS_TEXT
+                        + "\" FROM " + TBL_NAME + " WHERE id > ? ORDER BY id;",
+                JdbcReader.PARAM_DRIVER, "org.hsqldb.jdbc.JDBCDriver",
+                JdbcReader.PARAM_CONNECTION, "jdbc:hsqldb:mem:",
+                JdbcReader.PARAM_KEY_COLUMN, "cas_key",
+                JdbcReader.PARAM_START_KEY, "20",
+                JdbcReader.PARAM_PAGE_SIZE, 2);
+
+        assertRows(reader, 21, ROWS);
+    }
+
+    @Test
+    public void testKeysetPaginationIntegerKey()
+        throws Exception
+    {
+        // Compared as strings, "9" would be greater than the keys 10 to 25
+        CollectionReader reader = createReader(
+                JdbcReader.class,
+                JdbcReader.PARAM_DATABASE, dbName,
+                JdbcReader.PARAM_USER, DB_USER,
+                JdbcReader.PARAM_PASSWORD, DB_PASS,
+                JdbcReader.PARAM_QUERY, "SELECT id AS \"cas_key\", title AS \""
+                        + JdbcReader.CAS_METADATA_TITLE + "\", text AS \"" + JdbcReader.CAS_TEXT
+                        + "\" FROM " + TBL_NAME + " WHERE id > ? ORDER BY id;",
+                JdbcReader.PARAM_DRIVER, "org.hsqldb.jdbc.JDBCDriver",
+                JdbcReader.PARAM_CONNECTION, "jdbc:hsqldb:mem:",
+                JdbcReader.PARAM_KEY_COLUMN, "cas_key",
+                JdbcReader.PARAM_START_KEY, "9",
+                JdbcReader.PARAM_PAGE_SIZE, 4);
+
+        assertRows(reader, 10, ROWS);
+    }
+
+    private static void assertRows(CollectionReader aReader, int aFirst, int aLast)
+        throws Exception
+    {
+        for (int i = aFirst; i <= aLast; i++) {
+            CAS cas = JCasFactory.createJCas().getCas();
+            aReader.getNext(cas);
+            assertEquals("title" + i, DocumentMetaData.get(cas).getDocumentTitle());
+            assertEquals("text..." + i, cas.getDocumentText());
+        }
+        assertFalse(aReader.hasNext());
+        aReader.close();
+    }
+
+    @Rule
+    public TestName name = new TestName();
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2017
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.dkpro.core.io.jdbc;
+
+import static org.apache.uima.fit.factory.AnalysisEngineFactory.createEngine;
+import static org.apache.uima.fit.factory.CollectionReaderFactory.createReader;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import org.apache.commons.dbutils.DbUtils;
+import org.apache.uima.analysis_engine.AnalysisEngine;
+import org.apache.uima.cas.CAS;
+import org.apache.uima.collection.CollectionReader;
+import org.apache.uima.fit.factory.JCasFactory;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.jcas.tcas.Annotation;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestName;
+
+import de.tudarmstadt.ukp.dkpro.core.api.metadata.type.DocumentMetaData;
+
+public class JdbcWriterTest
+{
+    private static final String DB_USER = "root";
+    private static final String DB_PASS = "";
+    private static final String DOC_TABLE = "documents";
+    private static final String ANNO_TABLE = "annotations";
+    private static final int DOCS = 25;
+
+    private String dbName;
+
+    @Before
+    public void setup()
+        throws Exception
+    {
+        dbName = "test_db_" + name.getMethodName();
+
+        Connection conn = null;
+        Statement stmnt = null;
+        try {
+            conn = openConnection();
+            stmnt = conn.createStatement();
+            stmnt.execute("CREATE TABLE " + DOC_TABLE + " ("
+                    + JdbcReader.CAS_METADATA_DOCUMENT_ID + " VARCHAR(50) PRIMARY KEY, "
+                    + JdbcReader.CAS_METADATA_COLLECTION_ID + " VARCHAR(50), "
+                    + JdbcReader.CAS_METADATA_DOCUMENT_URI + " VARCHAR(100), "
+                    + JdbcReader.CAS_METADATA_DOCUMENT_BASE_URI + " VARCHAR(100), "
+                    + JdbcReader.CAS_METADATA_TITLE + " VARCHAR(50), "
+                    + JdbcReader.CAS_METADATA_LANGUAGE + " VARCHAR(10), "
+                    + JdbcReader.CAS_TEXT + " VARCHAR(100));");
+            stmnt.execute("CREATE TABLE " + ANNO_TABLE + " ("
+                    + JdbcReader.CAS_METADATA_DOCUMENT_ID + " VARCHAR(50), "
+                    + JdbcWriter.COLUMN_PATH + " VARCHAR(200), "
+                    + JdbcWriter.COLUMN_BEGIN + " INTEGER, "
+                    + JdbcWriter.COLUMN_END + " INTEGER, "
+                    + JdbcWriter.COLUMN_VALUE + " VARCHAR(100));");
+        }
+        finally {
+            DbUtils.closeQuietly(stmnt);
+            DbUtils.closeQuietly(conn);
+        }
+    }
+
+    @Test
+    public void testWriteAndRead()
+        throws Exception
+    {
+        write(false);
+        assertDocuments();
+        assertEquals(DOCS, count("SELECT COUNT(*) FROM " + ANNO_TABLE + " WHERE "
+                + JdbcWriter.COLUMN_VALUE + " = 'text'"));
+    }
+
+    @Test
+    public void testBackgroundFlush()
+        throws Exception
+    {
+        write(true);
+        assertDocuments();
+        assertEquals(DOCS, count("SELECT COUNT(*) FROM " + ANNO_TABLE + " WHERE "
+                + JdbcWriter.COLUMN_BEGIN + " = 0 AND " + JdbcWriter.COLUMN_END + " = 4"));
+    }
+
+    private void write(boolean aBackgroundFlush)
+        throws Exception
+    {
+        AnalysisEngine writer = createEngine(
+                JdbcWriter.class,
+                JdbcWriter.PARAM_DATABASE, dbName,
+                JdbcWriter.PARAM_USER, DB_USER,
+                JdbcWriter.PARAM_PASSWORD, DB_PASS,
+                JdbcWriter.PARAM_DRIVER, "org.hsqldb.jdbc.JDBCDriver",
+                JdbcWriter.PARAM_CONNECTION, "jdbc:hsqldb:mem:",
+                JdbcWriter.PARAM_DOCUMENT_TABLE, DOC_TABLE,
+                JdbcWriter.PARAM_ANNOTATION_TABLE, ANNO_TABLE,
+                JdbcWriter.PARAM_ANNOTATION_TYPES, Annotation.class.getName(),
+                JdbcWriter.PARAM_BATCH_SIZE, 4,
+                JdbcWriter.PARAM_COMMIT_INTERVAL, 10,
+                JdbcWriter.PARAM_BACKGROUND_FLUSH, aBackgroundFlush);
+
+        for (int i = 1; i <= DOCS; i++) {
+            JCas jcas = JCasFactory.createJCas();
+            jcas.setDocumentText("text..." + i);
+            jcas.setDocumentLanguage("en");
+            DocumentMetaData meta = DocumentMetaData.create(jcas);
+            meta.setDocumentId(String.format("doc%02d", i));
+            meta.setDocumentTitle("title" + i);
+            new Annotation(jcas, 0, 4).addToIndexes();
+            writer.process(jcas);
+        }
+
+        writer.collectionProcessComplete();
+        writer.destroy();
+    }
+
+    private void assertDocuments()
+        throws Exception
+    {
+        CollectionReader reader = createReader(
+                JdbcReader.class,
+                JdbcReader.PARAM_DATABASE, dbName,
+                JdbcReader.PARAM_USER, DB_USER,
+                JdbcReader.PARAM_PASSWORD, DB_PASS,
+                JdbcReader.PARAM_QUERY, "SELECT * FROM " + DOC_TABLE + " ORDER BY "
+                        + JdbcReader.CAS_METADATA_DOCUMENT_ID + ";",
+                JdbcReader.PARAM_DRIVER, "org.hsqldb.jdbc.JDBCDriver",
+                JdbcReader.PARAM_CONNECTION, "jdbc:hsqldb:mem:");
+
+        for (int i = 1; i <= DOCS; i++) {
+            CAS cas = JCasFactory.createJCas().getCas();
+            reader.getNext(cas);
+            DocumentMetaData meta = DocumentMetaData.get(cas);
+            assertEquals(String.format("doc%02d", i), meta.getDocumentId());
+            assertEquals("title" + i, meta.getDocumentTitle());
+            assertEquals("en", meta.getLanguage());
+            assertEquals("text..." + i, cas.getDocumentText());
+        }
+        assertFalse(reader.hasNext());
+        reader.close();
+    }
+
+    private int count(String aQuery)
+        throws Exception
+    {
+        Connection conn = null;
+        Statement stmnt = null;
+        ResultSet result = null;
+        try {
+            conn = openConnection();
+            stmnt = conn.createStatement();
+            result = stmnt.executeQuery(aQuery);
+            result.next();
+            return result.getInt(1);
+        }
+        finally {
+            DbUtils.closeQuietly(conn, stmnt, result);
+        }
+    }
+
+    private Connection openConnection()
+        throws Exception
+    {
+        return DriverManager.getConnection("jdbc:hsqldb:mem:/" + dbName, DB_USER, DB_PASS);
+    }
+
+    @Rule
+    public TestName name = new TestName();
+}
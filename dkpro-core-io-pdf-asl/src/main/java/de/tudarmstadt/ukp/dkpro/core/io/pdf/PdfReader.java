@@ -152,5 +152,7 @@ public class PdfReader
         finally {
             closeQuietly(is);
         }
+
+        casCompleted();
     }
 }
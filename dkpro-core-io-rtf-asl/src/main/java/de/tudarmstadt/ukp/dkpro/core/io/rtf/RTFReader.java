@@ -70,6 +70,8 @@ public class RTFReader
         catch (BadLocationException e) {
             throw new CollectionException(e);
         }
+
+        casCompleted();
     }
 
     /**
@@ -32,7 +32,13 @@ import static de.tudarmstadt.ukp.dkpro.core.io.tei.internal.TeiConstants.TAG_TEX
 import static de.tudarmstadt.ukp.dkpro.core.io.tei.internal.TeiConstants.TAG_TITLE;
 import static de.tudarmstadt.ukp.dkpro.core.io.tei.internal.TeiConstants.TAG_U;
 import static de.tudarmstadt.ukp.dkpro.core.io.tei.internal.TeiConstants.TAG_WORD;
+import static de.tudarmstadt.ukp.dkpro.core.io.tei.internal.TeiConstants.TEI_NS;
 import static java.util.Arrays.asList;
+import static javax.xml.stream.XMLStreamConstants.CDATA;
+import static javax.xml.stream.XMLStreamConstants.CHARACTERS;
+import static javax.xml.stream.XMLStreamConstants.END_ELEMENT;
+import static javax.xml.stream.XMLStreamConstants.SPACE;
+import static javax.xml.stream.XMLStreamConstants.START_ELEMENT;
 import static org.apache.commons.io.IOUtils.closeQuietly;
 import static org.apache.commons.lang.StringUtils.isNotBlank;
 
@@ -44,6 +50,10 @@ import java.util.List;
 import java.util.Stack;
 import java.util.zip.GZIPInputStream;
 
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang.StringUtils;
 import org.apache.uima.UimaContext;
@@ -69,8 +79,10 @@ import org.jaxen.JaxenException;
 import org.jaxen.XPath;
 import org.jaxen.dom4j.Dom4jXPath;
 import org.xml.sax.Attributes;
+import org.xml.sax.ContentHandler;
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
+import org.xml.sax.helpers.AttributesImpl;
 import org.xml.sax.helpers.DefaultHandler;
 
 import de.tudarmstadt.ukp.dkpro.core.api.io.ResourceCollectionReaderBase;
@@ -202,11 +214,26 @@ public class TeiReader
     @ConfigurationParameter(name = PARAM_UTTERANCES_AS_SENTENCES, mandatory = true, defaultValue = "false")
     private boolean utterancesAsSentences;
 
+	/**
+	 * Read the TEI elements of a file one at a time using a streaming parser instead of loading
+	 * the whole file into memory first. This is recommended for large files containing many TEI
+	 * elements, e.g. a {@code teiCorpus}, because only the TEI element currently being read is
+	 * held in memory.
+	 */
+	public static final String PARAM_STREAMING = "streaming";
+	@ConfigurationParameter(name = PARAM_STREAMING, mandatory = true, defaultValue = "false")
+	private boolean streaming;
+
 	private Iterator<Element> teiElementIterator;
 	private Element currentTeiElement;
 	private Resource currentResource;
 	private int currentTeiElementNumber;
 
+	private XMLInputFactory xmlInputFactory;
+	private InputStream teiStream;
+	private XMLStreamReader teiStreamReader;
+	private final AttributesImpl attributes = new AttributesImpl();
+
 	private MappingProvider posMappingProvider;
 
 	@Override
@@ -220,6 +247,12 @@ public class TeiReader
 					"Setting readPOS to 'true' requires writeToken to be 'true' too."));
 		}
 
+		if (streaming) {
+			xmlInputFactory = XMLInputFactory.newInstance();
+			xmlInputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+			xmlInputFactory.setProperty(XMLInputFactory.IS_REPLACING_ENTITY_REFERENCES, true);
+		}
+
 		try {
 			// Init with an empty iterator
 			teiElementIterator = asList(new Element[0]).iterator();
@@ -237,6 +270,11 @@ public class TeiReader
 
 	private void nextTeiElement() throws CollectionException, IOException
 	{
+		if (streaming) {
+			nextTeiElementStreaming();
+			return;
+		}
+
 		if (teiElementIterator == null) {
 			currentTeiElement = null;
 			return;
@@ -291,10 +329,141 @@ public class TeiReader
 		}
 	}
 
+	/**
+	 * Position the stream reader on the start tag of the next TEI element, opening the next file
+	 * if the current one does not contain any further TEI elements. If there are no more TEI
+	 * elements, the stream reader is closed and set to {@code null}.
+	 */
+	private void nextTeiElementStreaming() throws CollectionException, IOException
+	{
+		try {
+			while (true) {
+				if (teiStreamReader != null && seekTeiElement(teiStreamReader)) {
+					currentTeiElementNumber++;
+					return;
+				}
+
+				closeTeiStream();
+
+				if (!super.hasNext()) {
+					return;
+				}
+
+				currentResource = nextFile();
+				teiStream = currentResource.getInputStream();
+				if (currentResource.getPath().endsWith(".gz")) {
+					teiStream = new GZIPInputStream(teiStream);
+				}
+				teiStreamReader = xmlInputFactory.createXMLStreamReader(
+						currentResource.getLocation(), teiStream);
+				currentTeiElementNumber = 0;
+			}
+		}
+		catch (XMLStreamException e) {
+			closeTeiStream();
+			throw new IOException(e);
+		}
+	}
+
+	private static boolean seekTeiElement(XMLStreamReader aReader) throws XMLStreamException
+	{
+		while (aReader.hasNext()) {
+			if (aReader.next() == START_ELEMENT && TAG_TEI_DOC.equals(aReader.getLocalName())
+					&& TEI_NS.equals(aReader.getNamespaceURI())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Pass the TEI element the stream reader is positioned on to the handler. Afterwards, the
+	 * reader is positioned on the end tag of the element.
+	 */
+	private void streamTeiElement(XMLStreamReader aReader, ContentHandler aHandler)
+		throws XMLStreamException, SAXException
+	{
+		int depth = 0;
+		while (true) {
+			switch (aReader.getEventType()) {
+			case START_ELEMENT:
+				depth++;
+				attributes.clear();
+				for (int i = 0; i < aReader.getAttributeCount(); i++) {
+					String localName = aReader.getAttributeLocalName(i);
+					attributes.addAttribute(
+							StringUtils.defaultString(aReader.getAttributeNamespace(i)),
+							localName, getQName(aReader.getAttributePrefix(i), localName),
+							aReader.getAttributeType(i), aReader.getAttributeValue(i));
+				}
+				aHandler.startElement(StringUtils.defaultString(aReader.getNamespaceURI()),
+						aReader.getLocalName(),
+						getQName(aReader.getPrefix(), aReader.getLocalName()), attributes);
+				break;
+			case END_ELEMENT:
+				depth--;
+				aHandler.endElement(StringUtils.defaultString(aReader.getNamespaceURI()),
+						aReader.getLocalName(),
+						getQName(aReader.getPrefix(), aReader.getLocalName()));
+				break;
+			case CHARACTERS:
+			case CDATA:
+				aHandler.characters(aReader.getTextCharacters(), aReader.getTextStart(),
+						aReader.getTextLength());
+				break;
+			case SPACE:
+				aHandler.ignorableWhitespace(aReader.getTextCharacters(), aReader.getTextStart(),
+						aReader.getTextLength());
+				break;
+			default:
+				// Comments and processing instructions are not passed on
+				break;
+			}
+
+			if (depth == 0) {
+				return;
+			}
+
+			aReader.next();
+		}
+	}
+
+	private static String getQName(String aPrefix, String aLocalName)
+	{
+		return StringUtils.isEmpty(aPrefix) ? aLocalName : aPrefix + ":" + aLocalName;
+	}
+
+	private void closeTeiStream()
+	{
+		if (teiStreamReader != null) {
+			try {
+				teiStreamReader.close();
+			}
+			catch (XMLStreamException e) {
+				// Ignore - the underlying stream is closed anyway
+			}
+			teiStreamReader = null;
+		}
+		closeQuietly(teiStream);
+		teiStream = null;
+	}
+
+	@Override
+	public void close()
+		throws IOException
+	{
+		closeTeiStream();
+		super.close();
+	}
+
 	@Override
 	public boolean hasNext()
 		throws IOException, CollectionException
 	{
+		if (streaming) {
+			return teiStreamReader != null;
+		}
+
 		return teiElementIterator != null || currentTeiElement != null;
 	}
 
@@ -328,14 +497,19 @@ public class TeiReader
 			handler.setLogger(getLogger());
 
 			// Parse TEI text
-			SAXWriter writer = new SAXWriter(handler);
-			writer.write(currentTeiElement);
+			if (streaming) {
+				streamTeiElement(teiStreamReader, handler);
+			}
+			else {
+				SAXWriter writer = new SAXWriter(handler);
+				writer.write(currentTeiElement);
+			}
 			handler.endDocument();
 		}
 		catch (CASException e) {
 			throw new CollectionException(e);
 		}
-		catch (SAXException e) {
+		catch (SAXException | XMLStreamException e) {
 			throw new IOException(e);
 		}
 		finally {
@@ -344,6 +518,8 @@ public class TeiReader
 
 		// Move currentTeiElement to the next text
 		nextTeiElement();
+
+		casCompleted();
 	}
 
 	protected Handler newSaxHandler()
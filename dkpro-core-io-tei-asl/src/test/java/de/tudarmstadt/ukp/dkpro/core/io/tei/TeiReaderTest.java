@@ -34,6 +34,7 @@ import org.apache.uima.fit.pipeline.JCasIterable;
 import org.apache.uima.fit.pipeline.SimplePipeline;
 import org.apache.uima.fit.util.JCasUtil;
 import org.apache.uima.jcas.JCas;
+import org.junit.Ignore;
 import org.junit.Test;
 
 import de.tudarmstadt.ukp.dkpro.core.api.lexmorph.type.pos.POS;
@@ -93,6 +94,89 @@ public class TeiReaderTest
         assertEquals(expectedSizes, actualSizes);
     }
 
+    @Test
+    public void digibibStreamingTest()
+        throws Exception
+    {
+        Map<String, String> expected = readTexts(false, "classpath:/digibib");
+        Map<String, String> actual = readTexts(true, "classpath:/digibib");
+
+        assertEquals(17, actual.size());
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void brownReaderStreamingTest()
+        throws Exception
+    {
+        File reference = new File("src/test/resources/brown_ims.txt");
+        File output = new File("target/test-output/brown_ims_streaming.txt");
+
+        CollectionReaderDescription reader = createReaderDescription(
+                TeiReader.class,
+                TeiReader.PARAM_LANGUAGE, "en",
+                TeiReader.PARAM_SOURCE_LOCATION, "classpath:/brown_tei/",
+                TeiReader.PARAM_PATTERNS, new String[] { "[+]*.xml" },
+                TeiReader.PARAM_STREAMING, true);
+
+        AnalysisEngineDescription writer = createEngineDescription(ImsCwbWriter.class,
+                ImsCwbWriter.PARAM_TARGET_LOCATION, output,
+                ImsCwbWriter.PARAM_WRITE_CPOS, true,
+                ImsCwbWriter.PARAM_SENTENCE_TAG, "sentence");
+
+        SimplePipeline.runPipeline(reader, writer);
+
+        assertEquals(
+                FileUtils.readFileToString(reference, "UTF-8"),
+                FileUtils.readFileToString(output, "UTF-8"));
+    }
+
+    @Ignore("Benchmark comparing the streaming and the DOM-based mode")
+    @Test
+    public void streamingBenchmark()
+        throws Exception
+    {
+        // Build a corpus file containing many TEI elements
+        String tei = FileUtils.readFileToString(new File("src/test/resources/brown_tei/a01.xml"),
+                "UTF-8");
+        tei = tei.substring(tei.indexOf("<TEI"));
+        File folder = new File("target/test-output/streamingBenchmark");
+        File corpus = new File(folder, "corpus.xml");
+        StringBuilder sb = new StringBuilder();
+        sb.append("<teiCorpus xmlns=\"http://www.tei-c.org/ns/1.0\">\n");
+        for (int i = 0; i < 500; i++) {
+            sb.append(tei).append('\n');
+        }
+        sb.append("</teiCorpus>\n");
+        FileUtils.writeStringToFile(corpus, sb.toString(), "UTF-8");
+
+        for (boolean streaming : new boolean[] { false, true, false, true }) {
+            Runtime.getRuntime().gc();
+            long start = System.currentTimeMillis();
+            int documents = readTexts(streaming, folder.getPath()).size();
+            long time = System.currentTimeMillis() - start;
+            System.out.printf("streaming: %-5b  documents: %d  time: %d ms  MB/s: %.1f%n",
+                    streaming, documents, time, corpus.length() / 1024.0 / 1024.0 / time * 1000);
+        }
+    }
+
+    private static Map<String, String> readTexts(boolean aStreaming, String aSourceLocation)
+        throws Exception
+    {
+        CollectionReaderDescription reader = createReaderDescription(
+                TeiReader.class,
+                TeiReader.PARAM_LANGUAGE, "de",
+                TeiReader.PARAM_SOURCE_LOCATION, aSourceLocation,
+                TeiReader.PARAM_PATTERNS, new String[] { "[+]*.xml" },
+                TeiReader.PARAM_STREAMING, aStreaming);
+
+        Map<String, String> texts = new LinkedHashMap<String, String>();
+        for (JCas jcas : new JCasIterable(reader)) {
+            texts.put(DocumentMetaData.get(jcas).getDocumentId(), jcas.getDocumentText());
+        }
+        return texts;
+    }
+
     @Test
     public void brownReaderTest()
         throws Exception
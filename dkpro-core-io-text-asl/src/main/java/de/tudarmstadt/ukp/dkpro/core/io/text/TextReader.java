@@ -81,5 +81,7 @@ public class TextReader
 		finally {
 			closeQuietly(is);
 		}
+
+		casCompleted();
 	}
 }
@@ -83,5 +83,7 @@ public class TikaReader
 
         // Add parsed document text to CAS
         cas.setDocumentText(docText);
+
+        casCompleted();
     }
 }
@@ -124,6 +124,22 @@ public class Web1TWriter
 	@ConfigurationParameter(name = PARAM_SPLIT_TRESHOLD, mandatory = false, defaultValue = "1.0")
 	private float splitThreshold;
 
+	/**
+	 * The number of threads used to sort the n-gram files when creating the index.
+	 */
+	public static final String PARAM_NUM_THREADS = ComponentParameters.PARAM_NUM_THREADS;
+	@ConfigurationParameter(name = PARAM_NUM_THREADS, mandatory = true,
+	        defaultValue = ComponentParameters.AUTO_NUM_THREADS)
+	private int numThreads;
+
+	/**
+	 * Compress the temporary files created while sorting the n-gram files. This reduces the
+	 * required disk space and I/O at the expense of CPU time.
+	 */
+	public static final String PARAM_COMPRESS_TEMP_FILES = "compressTempFiles";
+	@ConfigurationParameter(name = PARAM_COMPRESS_TEMP_FILES, mandatory = true, defaultValue = "false")
+	private boolean compressTempFiles;
+
 	/**
 	 * The type being used for segments
 	 */
@@ -152,6 +168,8 @@ public class Web1TWriter
 		converter.setMinFrequency(minFreq);
 		converter.setToLowercase(lowercase);
 		converter.setOutputEncoding(outputEncoding);
+		converter.setSortThreads(ComponentParameters.computeNumThreads(numThreads));
+		converter.setCompressTempFiles(compressTempFiles);
 	}
 
     @Override
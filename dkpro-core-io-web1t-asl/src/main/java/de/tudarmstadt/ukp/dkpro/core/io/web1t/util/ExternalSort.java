@@ -38,7 +38,10 @@ import java.util.PriorityQueue;
 *  April 2010
 * originally posted at 
 *  http://www.daniel-lemire.com/blog/archives/2010/04/01/external-memory-sorting-in-java/
+*
+* @deprecated Use {@link Web1TExternalSorter} instead.
 */
+@Deprecated
 public class ExternalSort {
 	
 	static int DEFAULTMAXTEMPFILES = 1024;
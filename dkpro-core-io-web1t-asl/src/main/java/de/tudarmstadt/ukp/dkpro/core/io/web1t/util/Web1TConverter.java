@@ -29,10 +29,13 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang.StringUtils;
@@ -68,9 +71,12 @@ public class Web1TConverter
     private boolean toLowercase = false;
     private boolean writeIndexes = true;
     private float splitThreshold = 1.0f;
+    private int sortThreads = Runtime.getRuntime().availableProcessors();
+    private boolean compressTempFiles = false;
 
     private Map<Integer, BufferedWriter> ngramWriters;
     private Map<Integer, FrequencyDistribution<String>> letterFDs;
+    private ExecutorService sortExecutor;
 
     public Web1TConverter(String outputPath)
         throws IOException
@@ -158,10 +164,17 @@ public class Web1TConverter
 
         // read the file with the counts per file and create the final
         // aggregated counts
-        for (int level = minNgramLength; level <= maxNgramLength; level++) {
-            Integer nextFreeFileNumber = processInputFileForLevel(level, comparator);
+        sortExecutor = Executors.newFixedThreadPool(sortThreads);
+        try {
+            for (int level = minNgramLength; level <= maxNgramLength; level++) {
+                Integer nextFreeFileNumber = processInputFileForLevel(level, comparator);
 
-            processCreatedMiscFileAgain(level, comparator, nextFreeFileNumber);
+                processCreatedMiscFileAgain(level, comparator, nextFreeFileNumber);
+            }
+        }
+        finally {
+            sortExecutor.shutdownNow();
+            sortExecutor = null;
         }
 
         if (writeIndexes) {
@@ -184,30 +197,13 @@ public class Web1TConverter
         Web1TFileSplitter splitter = new Web1TFileSplitter(unsortedInputFile, outputFolder,
                 outputEncoding, letterFD, splitThreshold, 0);
 
-        splitter.split();
-        List<File> splitFiles = splitter.getFiles();
-
-        Web1TFileSorter sorter = new Web1TFileSorter(splitFiles, comparator);
-        sorter.sort();
-        splitter.cleanUp(); // Remove files from previous step
-
-        LinkedList<File> sortedFiles = sorter.getSortedFiles();
-
-        Web1TFileConsolidator consolidator = new Web1TFileConsolidator(sortedFiles, comparator,
-                outputEncoding, minFrequency);
-
-        consolidator.consolidate();
-        sorter.cleanUp(); // Remove files from previous step
-
-        LinkedList<File> consolidatedFiles = consolidator.getConsolidatedFiles();
-
-        // rename consolidated files -> final index files
-        for (File file : consolidatedFiles) {
-            String name = Web1TUtil.cutOffUnderscoredSuffixFromFileName(file);
-            file.renameTo(new File(name));
+        try {
+            splitter.split();
+            sortAndConsolidate(splitter.getFiles(), comparator);
+        }
+        finally {
+            splitter.cleanUp(); // Remove files from previous step
         }
-
-        consolidator.cleanUp();
 
         unsortedInputFile.delete();
 
@@ -332,33 +328,65 @@ public class Web1TConverter
         // Make sure that the misc file is split into little pieces
         splitThreshold /= 10;
 
-        Web1TFileSplitter splitter = new Web1TFileSplitter(misc, folder, "UTF-8", letterFD,
+        Web1TFileSplitter splitter = new Web1TFileSplitter(misc, folder, outputEncoding, letterFD,
                 splitThreshold, nextFileNumber);
-        splitter.split();
-        List<File> splittedFiles = splitter.getFiles();
-
-        Web1TFileSorter sorter = new Web1TFileSorter(splittedFiles, comparator);
-        sorter.sort();
-        List<File> sortedFiles = splitter.getFiles();
+        try {
+            splitter.split();
+            List<File> splittedFiles = splitter.getFiles();
 
-        splitThreshold = oldThreshold;
-        misc.delete();
+            misc.delete();
 
-        Web1TFileConsolidator consolidator = new Web1TFileConsolidator(sortedFiles, comparator,
-                outputEncoding, minFrequency);
-        consolidator.consolidate();
+            sortAndConsolidate(splittedFiles, comparator);
+        }
+        finally {
+            splitThreshold = oldThreshold;
+            splitter.cleanUp();
+        }
+    }
 
-        LinkedList<File> consolidatedFiles = consolidator.getConsolidatedFiles();
+    /**
+     * Sort the split files and sum up the counts of identical n-grams in a single pass. The
+     * results are written directly to the final index files, i.e. the split file names without
+     * the underscored suffix. The files are sorted in parallel on the shared sort executor, each
+     * of them in a single thread.
+     */
+    private void sortAndConsolidate(List<File> splitFiles, Comparator<String> comparator)
+        throws IOException
+    {
+        Web1TExternalSorter sorter = new Web1TExternalSorter();
+        sorter.setComparator(comparator);
+        sorter.setEncoding(outputEncoding);
+        sorter.setMinFrequency(minFrequency);
+        sorter.setThreads(1);
+        sorter.setCompressRuns(compressTempFiles);
+
+        List<Future<Long>> pending = new ArrayList<Future<Long>>();
+        try {
+            for (File file : splitFiles) {
+                File output = new File(Web1TUtil.cutOffUnderscoredSuffixFromFileName(file));
+                pending.add(sortExecutor.submit(() -> sorter.sort(file, output)));
+            }
 
-        // rename consolidated files -> final index files
-        for (File file : consolidatedFiles) {
-            String name = Web1TUtil.cutOffUnderscoredSuffixFromFileName(file);
-            file.renameTo(new File(name));
+            for (Future<Long> future : pending) {
+                future.get();
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        }
+        catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+        finally {
+            // Do not leave sorts running on files which are about to be cleaned up
+            for (Future<Long> future : pending) {
+                future.cancel(true);
+            }
         }
-
-        splitter.cleanUp();
-        sorter.cleanUp();
-        consolidator.cleanUp();
     }
 
     /**
@@ -467,6 +495,26 @@ public class Web1TConverter
         this.splitThreshold = splitThreshold;
     }
 
+    public int getSortThreads()
+    {
+        return sortThreads;
+    }
+
+    public void setSortThreads(int sortThreads)
+    {
+        this.sortThreads = sortThreads;
+    }
+
+    public boolean isCompressTempFiles()
+    {
+        return compressTempFiles;
+    }
+
+    public void setCompressTempFiles(boolean compressTempFiles)
+    {
+        this.compressTempFiles = compressTempFiles;
+    }
+
     public String getOutputEncoding()
     {
         return outputEncoding;
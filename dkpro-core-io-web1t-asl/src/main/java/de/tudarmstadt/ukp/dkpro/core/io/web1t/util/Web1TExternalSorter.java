@@ -0,0 +1,654 @@
+/*
+ * Copyright 2017
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.dkpro.core.io.web1t.util;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * External merge sort for n-gram count files, i.e. files with one {@code n-gram TAB count} entry
+ * per line. In contrast to {@link Web1TFileSorter} followed by {@link Web1TFileConsolidator}, the
+ * counts of identical n-grams are summed up while sorting, so a single pass produces the final
+ * consolidated file.
+ * <p>
+ * The input is cut into runs which are sorted in parallel, pre-consolidated and written to
+ * temporary files as binary records (UTF-8 key and count), optionally compressed. The runs are
+ * then merged using a k-way merge. If there are more than {@link #setMaxOpenRuns(int) maxOpenRuns}
+ * runs, groups of runs are first merged into larger runs in parallel.
+ */
+public class Web1TExternalSorter
+{
+    private static final char TAB = '\t';
+    private static final char LF = '\n';
+
+    private final Log log = LogFactory.getLog(getClass());
+
+    private Comparator<String> comparator = Comparator.naturalOrder();
+    private String encoding = "UTF-8";
+    private int minFrequency = 1;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private long runSize = 64 * 1024 * 1024;
+    private int bufferSize = 1024 * 1024;
+    private int maxOpenRuns = 128;
+    private boolean compressRuns = false;
+    private File tempDirectory;
+
+    /**
+     * Sort the given n-gram file and sum up the counts of identical n-grams.
+     *
+     * @param aInput
+     *            the unsorted n-gram file.
+     * @param aOutput
+     *            the sorted and consolidated n-gram file.
+     * @return the number of n-grams written to the output file.
+     * @throws IOException
+     *             if an I/O problem occurs.
+     */
+    public long sort(File aInput, File aOutput)
+        throws IOException
+    {
+        return sort(Collections.singletonList(aInput), aOutput);
+    }
+
+    /**
+     * Sort the given n-gram files into a single file and sum up the counts of identical n-grams.
+     *
+     * @param aInputs
+     *            the unsorted n-gram files.
+     * @param aOutput
+     *            the sorted and consolidated n-gram file.
+     * @return the number of n-grams written to the output file.
+     * @throws IOException
+     *             if an I/O problem occurs.
+     */
+    public long sort(List<File> aInputs, File aOutput)
+        throws IOException
+    {
+        ExecutorService executor = threads > 1 ? Executors.newFixedThreadPool(threads) : null;
+        // All run files created during this sort, including those of failed or cancelled tasks
+        List<File> runFiles = new ArrayList<>();
+        try {
+            List<File> runs = new ArrayList<>();
+            for (File input : aInputs) {
+                runs.addAll(createRuns(input, executor, runFiles));
+            }
+
+            while (runs.size() > maxOpenRuns) {
+                runs = mergeRuns(runs, executor, runFiles);
+            }
+
+            try (Writer out = new BufferedWriter(new OutputStreamWriter(
+                    new FileOutputStream(aOutput), encoding), bufferSize)) {
+                return merge(runs, new TextSink(out));
+            }
+        }
+        finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+            for (File run : runFiles) {
+                run.delete();
+            }
+        }
+    }
+
+    private List<File> createRuns(File aInput, ExecutorService aExecutor, List<File> aRunFiles)
+        throws IOException
+    {
+        List<File> runs = new ArrayList<>();
+        LinkedList<Future<File>> pending = new LinkedList<>();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new FileInputStream(aInput), encoding), bufferSize)) {
+            Chunk chunk = new Chunk();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int tabPos = line.indexOf(TAB);
+                if (tabPos < 0) {
+                    log.warn("No tab found in line: " + line);
+                    continue;
+                }
+
+                long count;
+                try {
+                    count = Long.parseLong(line.substring(tabPos + 1).trim());
+                }
+                catch (NumberFormatException e) {
+                    log.warn("Invalid count in line: " + line);
+                    continue;
+                }
+
+                chunk.add(line.substring(0, tabPos), count);
+
+                if (chunk.bytes >= runSize) {
+                    // Limit the number of chunks held in memory
+                    if (pending.size() >= threads) {
+                        runs.add(await(pending.removeFirst()));
+                    }
+                    final Chunk full = chunk;
+                    final File run = createRunFile(aRunFiles);
+                    pending.add(submit(aExecutor, () -> writeRun(full, run)));
+                    chunk = new Chunk();
+                }
+            }
+
+            if (chunk.size > 0) {
+                final Chunk last = chunk;
+                final File run = createRunFile(aRunFiles);
+                pending.add(submit(aExecutor, () -> writeRun(last, run)));
+            }
+
+            while (!pending.isEmpty()) {
+                runs.add(await(pending.removeFirst()));
+            }
+        }
+        finally {
+            for (Future<File> future : pending) {
+                future.cancel(true);
+            }
+        }
+
+        return runs;
+    }
+
+    private File writeRun(Chunk aChunk, File aRun)
+        throws IOException
+    {
+        Entry[] entries = Arrays.copyOf(aChunk.entries, aChunk.size);
+        aChunk.entries = null;
+        Arrays.sort(entries, (a, b) -> comparator.compare(a.key, b.key));
+
+        try (RunSink sink = new RunSink(aRun)) {
+            Entry current = null;
+            for (Entry entry : entries) {
+                if (current != null && comparator.compare(current.key, entry.key) == 0) {
+                    current.count += entry.count;
+                }
+                else {
+                    if (current != null) {
+                        sink.write(current.key, current.count);
+                    }
+                    current = entry;
+                }
+            }
+            if (current != null) {
+                sink.write(current.key, current.count);
+            }
+        }
+        return aRun;
+    }
+
+    private List<File> mergeRuns(List<File> aRuns, ExecutorService aExecutor,
+            List<File> aRunFiles)
+        throws IOException
+    {
+        log.info("Merging " + aRuns.size() + " runs in groups of " + maxOpenRuns);
+
+        List<Future<File>> pending = new ArrayList<>();
+        for (int i = 0; i < aRuns.size(); i += maxOpenRuns) {
+            final List<File> group = aRuns.subList(i, Math.min(i + maxOpenRuns, aRuns.size()));
+            final File run = createRunFile(aRunFiles);
+            pending.add(submit(aExecutor, () -> {
+                try (RunSink sink = new RunSink(run)) {
+                    merge(group, sink);
+                }
+                return run;
+            }));
+        }
+
+        List<File> merged = new ArrayList<>();
+        for (Future<File> future : pending) {
+            merged.add(await(future));
+        }
+
+        // Free the disk space early, the merged runs are no longer needed
+        for (File run : aRuns) {
+            run.delete();
+        }
+        return merged;
+    }
+
+    /**
+     * Merge the given sorted runs into the sink, summing up the counts of identical n-grams.
+     */
+    private long merge(List<File> aRuns, Sink aSink)
+        throws IOException
+    {
+        PriorityQueue<RunReader> queue = new PriorityQueue<>(Math.max(1, aRuns.size()),
+                (a, b) -> comparator.compare(a.key, b.key));
+        try {
+            for (File run : aRuns) {
+                RunReader reader = new RunReader(run);
+                if (reader.next()) {
+                    queue.add(reader);
+                }
+                else {
+                    reader.close();
+                }
+            }
+
+            long written = 0;
+            String key = null;
+            long count = 0;
+            while (!queue.isEmpty()) {
+                RunReader reader = queue.poll();
+                if (key != null && comparator.compare(key, reader.key) == 0) {
+                    count += reader.count;
+                }
+                else {
+                    if (key != null && aSink.write(key, count)) {
+                        written++;
+                    }
+                    key = reader.key;
+                    count = reader.count;
+                }
+
+                if (reader.next()) {
+                    queue.add(reader);
+                }
+                else {
+                    reader.close();
+                }
+            }
+            if (key != null && aSink.write(key, count)) {
+                written++;
+            }
+            return written;
+        }
+        finally {
+            for (RunReader reader : queue) {
+                IOUtils.closeQuietly(reader);
+            }
+        }
+    }
+
+    /**
+     * Create a temporary run file. The file is created in the calling thread and recorded, so it
+     * is deleted at the end of the sort even if the task writing it fails or is cancelled.
+     */
+    private File createRunFile(List<File> aRunFiles)
+        throws IOException
+    {
+        File run = File.createTempFile("web1t", ".run", tempDirectory);
+        aRunFiles.add(run);
+        return run;
+    }
+
+    /**
+     * Run the task on the executor or, if there is none, directly in the calling thread.
+     */
+    private static <T> Future<T> submit(ExecutorService aExecutor, Callable<T> aTask)
+    {
+        if (aExecutor != null) {
+            return aExecutor.submit(aTask);
+        }
+
+        FutureTask<T> future = new FutureTask<>(aTask);
+        future.run();
+        return future;
+    }
+
+    private static <T> T await(Future<T> aFuture)
+        throws IOException
+    {
+        try {
+            return aFuture.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        }
+        catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    public Comparator<String> getComparator()
+    {
+        return comparator;
+    }
+
+    public void setComparator(Comparator<String> aComparator)
+    {
+        comparator = aComparator;
+    }
+
+    public String getEncoding()
+    {
+        return encoding;
+    }
+
+    /**
+     * @param aEncoding
+     *            the encoding of the input and output files. The temporary runs always use UTF-8.
+     */
+    public void setEncoding(String aEncoding)
+    {
+        encoding = aEncoding;
+    }
+
+    public int getMinFrequency()
+    {
+        return minFrequency;
+    }
+
+    /**
+     * @param aMinFrequency
+     *            n-grams with a lower total count are not written to the output file.
+     */
+    public void setMinFrequency(int aMinFrequency)
+    {
+        minFrequency = aMinFrequency;
+    }
+
+    public int getThreads()
+    {
+        return threads;
+    }
+
+    /**
+     * @param aThreads
+     *            the number of threads used to sort runs and to merge groups of runs. With a
+     *            single thread, all work is done in the thread calling {@link #sort}, e.g. to sort
+     *            several files in parallel on a shared executor.
+     */
+    public void setThreads(int aThreads)
+    {
+        if (aThreads < 1) {
+            throw new IllegalArgumentException("Number of threads must be >= 1");
+        }
+        threads = aThreads;
+    }
+
+    public long getRunSize()
+    {
+        return runSize;
+    }
+
+    /**
+     * @param aRunSize
+     *            the approximate number of input characters per run. Up to
+     *            {@link #getThreads() threads + 1} runs are held in memory at the same time.
+     */
+    public void setRunSize(long aRunSize)
+    {
+        runSize = aRunSize;
+    }
+
+    public int getBufferSize()
+    {
+        return bufferSize;
+    }
+
+    /**
+     * @param aBufferSize
+     *            the size of the I/O buffer of each file opened while sorting, in bytes.
+     */
+    public void setBufferSize(int aBufferSize)
+    {
+        bufferSize = aBufferSize;
+    }
+
+    public int getMaxOpenRuns()
+    {
+        return maxOpenRuns;
+    }
+
+    /**
+     * @param aMaxOpenRuns
+     *            the maximum number of runs merged at once.
+     */
+    public void setMaxOpenRuns(int aMaxOpenRuns)
+    {
+        if (aMaxOpenRuns < 2) {
+            throw new IllegalArgumentException("Maximum number of open runs must be >= 2");
+        }
+        maxOpenRuns = aMaxOpenRuns;
+    }
+
+    public boolean isCompressRuns()
+    {
+        return compressRuns;
+    }
+
+    /**
+     * @param aCompressRuns
+     *            whether to compress the temporary runs. This trades CPU time for disk I/O.
+     */
+    public void setCompressRuns(boolean aCompressRuns)
+    {
+        compressRuns = aCompressRuns;
+    }
+
+    public File getTempDirectory()
+    {
+        return tempDirectory;
+    }
+
+    /**
+     * @param aTempDirectory
+     *            the directory for the temporary runs. If {@code null}, the system default
+     *            temporary directory is used.
+     */
+    public void setTempDirectory(File aTempDirectory)
+    {
+        tempDirectory = aTempDirectory;
+    }
+
+    private static class Entry
+    {
+        final String key;
+        long count;
+
+        Entry(String aKey, long aCount)
+        {
+            key = aKey;
+            count = aCount;
+        }
+    }
+
+    private static class Chunk
+    {
+        Entry[] entries = new Entry[1024];
+        int size;
+        long bytes;
+
+        void add(String aKey, long aCount)
+        {
+            if (size == entries.length) {
+                entries = Arrays.copyOf(entries, size * 2);
+            }
+            entries[size++] = new Entry(aKey, aCount);
+            bytes += aKey.length() + 8;
+        }
+    }
+
+    private interface Sink
+    {
+        /**
+         * @return whether the entry was written.
+         */
+        boolean write(String aKey, long aCount)
+            throws IOException;
+    }
+
+    private class TextSink
+        implements Sink
+    {
+        private final Writer out;
+
+        TextSink(Writer aOut)
+        {
+            out = aOut;
+        }
+
+        @Override
+        public boolean write(String aKey, long aCount)
+            throws IOException
+        {
+            if (aCount < minFrequency) {
+                return false;
+            }
+            out.write(aKey);
+            out.write(TAB);
+            out.write(Long.toString(aCount));
+            out.write(LF);
+            return true;
+        }
+    }
+
+    private class RunSink
+        implements Sink, Closeable
+    {
+        private final DataOutputStream out;
+        private Deflater deflater;
+
+        RunSink(File aFile)
+            throws IOException
+        {
+            OutputStream os = new FileOutputStream(aFile);
+            if (compressRuns) {
+                deflater = new Deflater(Deflater.BEST_SPEED);
+                os = new DeflaterOutputStream(os, deflater, bufferSize);
+            }
+            out = new DataOutputStream(new BufferedOutputStream(os, bufferSize));
+        }
+
+        @Override
+        public boolean write(String aKey, long aCount)
+            throws IOException
+        {
+            byte[] bytes = aKey.getBytes(UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+            out.writeLong(aCount);
+            return true;
+        }
+
+        @Override
+        public void close()
+            throws IOException
+        {
+            try {
+                out.close();
+            }
+            finally {
+                if (deflater != null) {
+                    deflater.end();
+                }
+            }
+        }
+    }
+
+    private class RunReader
+        implements Closeable
+    {
+        private final DataInputStream in;
+        private Inflater inflater;
+        private byte[] buffer = new byte[256];
+        String key;
+        long count;
+
+        RunReader(File aFile)
+            throws IOException
+        {
+            InputStream is = new FileInputStream(aFile);
+            if (compressRuns) {
+                inflater = new Inflater();
+                is = new InflaterInputStream(is, inflater, bufferSize);
+            }
+            in = new DataInputStream(new BufferedInputStream(is, bufferSize));
+        }
+
+        boolean next()
+            throws IOException
+        {
+            int length;
+            try {
+                length = in.readInt();
+            }
+            catch (EOFException e) {
+                key = null;
+                return false;
+            }
+
+            if (length > buffer.length) {
+                buffer = new byte[Math.max(length, buffer.length * 2)];
+            }
+            in.readFully(buffer, 0, length);
+            key = new String(buffer, 0, length, UTF_8);
+            count = in.readLong();
+            return true;
+        }
+
+        @Override
+        public void close()
+            throws IOException
+        {
+            try {
+                in.close();
+            }
+            finally {
+                if (inflater != null) {
+                    inflater.end();
+                }
+            }
+        }
+    }
+}
@@ -28,8 +28,12 @@ import java.io.OutputStreamWriter;
 import java.util.Comparator;
 import java.util.LinkedList;
 import java.util.List;
-
-
+/**
+ * Sums up the counts of identical n-grams in sorted n-gram files.
+ *
+ * @deprecated Use {@link Web1TExternalSorter}, which sums up the counts while sorting.
+ */
+@Deprecated
 public class Web1TFileConsolidator
 {
 
@@ -23,8 +23,13 @@ import java.util.Comparator;
 import java.util.LinkedList;
 import java.util.List;
 
-
-
+/**
+ * Sorts n-gram files using {@link ExternalSort}.
+ *
+ * @deprecated Use {@link Web1TExternalSorter}, which also sums up the counts of identical n-grams
+ *             while sorting.
+ */
+@Deprecated
 public class Web1TFileSorter
 {
 
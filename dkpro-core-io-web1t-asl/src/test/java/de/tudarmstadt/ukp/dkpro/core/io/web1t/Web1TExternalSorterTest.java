@@ -0,0 +1,98 @@
+/*
+ * Copyright 2017
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.dkpro.core.io.web1t;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.tudarmstadt.ukp.dkpro.core.io.web1t.util.Web1TExternalSorter;
+
+public class Web1TExternalSorterTest
+{
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testSort()
+		throws IOException
+	{
+		File output = folder.newFile("sorted");
+
+		Web1TExternalSorter sorter = new Web1TExternalSorter();
+		long written = sorter.sort(
+				asList(new File("src/test/resources/Web1TSorter/00000000_unsorted"),
+						new File("src/test/resources/Web1TSorter/00000001_unsorted")),
+				output);
+
+		assertEquals(7, written);
+		assertEquals(asList("a\t3", "although\t4", "annoying\t5", "often\t3", "oil\t30",
+				"out\t2", "out-of-order\t5"), FileUtils.readLines(output, "UTF-8"));
+	}
+
+	@Test
+	public void testSortAndConsolidateManyRuns()
+		throws IOException
+	{
+		Random rnd = new Random(42);
+		Map<String, Long> expected = new TreeMap<>();
+		List<String> lines = new ArrayList<>();
+		for (int i = 0; i < 20000; i++) {
+			String ngram = "w" + rnd.nextInt(1000) + " ä" + rnd.nextInt(3);
+			long count = 1 + rnd.nextInt(5);
+			expected.merge(ngram, count, Long::sum);
+			lines.add(ngram + "\t" + count);
+		}
+		File input = folder.newFile("unsorted");
+		FileUtils.writeLines(input, "UTF-8", lines, "\n");
+
+		File output = folder.newFile("sorted");
+
+		Web1TExternalSorter sorter = new Web1TExternalSorter();
+		sorter.setThreads(3);
+		sorter.setRunSize(4096);
+		sorter.setMaxOpenRuns(4);
+		sorter.setCompressRuns(true);
+		sorter.setMinFrequency(10);
+		sorter.setTempDirectory(folder.newFolder("tmp"));
+		long written = sorter.sort(input, output);
+
+		List<String> expectedLines = new ArrayList<>();
+		for (Map.Entry<String, Long> e : expected.entrySet()) {
+			if (e.getValue() >= 10) {
+				expectedLines.add(e.getKey() + "\t" + e.getValue());
+			}
+		}
+
+		assertEquals(expectedLines.size(), written);
+		assertEquals(expectedLines, FileUtils.readLines(output, "UTF-8"));
+		assertEquals(0, new File(folder.getRoot(), "tmp").list().length);
+	}
+}
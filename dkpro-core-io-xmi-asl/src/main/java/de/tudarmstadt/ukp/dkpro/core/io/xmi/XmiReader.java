@@ -74,5 +74,7 @@ public class XmiReader
         finally {
             closeQuietly(is);
         }
+
+		casCompleted();
 	}
 }
@@ -96,6 +96,8 @@ public class XmlTextReader
 		finally {
 			closeQuietly(is);
 		}
+
+		casCompleted();
 	}
 
 	protected Handler newSaxHandler()
@@ -19,8 +19,16 @@ package de.tudarmstadt.ukp.dkpro.core.languagetool;
 
 import java.io.IOException;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.uima.UimaContext;
 import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
@@ -28,6 +36,7 @@ import org.apache.uima.fit.component.JCasAnnotator_ImplBase;
 import org.apache.uima.fit.descriptor.ConfigurationParameter;
 import org.apache.uima.fit.descriptor.LanguageCapability;
 import org.apache.uima.fit.descriptor.TypeCapability;
+import org.apache.uima.fit.util.JCasUtil;
 import org.apache.uima.jcas.JCas;
 import org.apache.uima.resource.ResourceInitializationException;
 import org.apache.uima.util.Level;
@@ -38,7 +47,9 @@ import org.languagetool.rules.RuleMatch;
 
 import de.tudarmstadt.ukp.dkpro.core.api.anomaly.type.GrammarAnomaly;
 import de.tudarmstadt.ukp.dkpro.core.api.parameter.ComponentParameters;
+import de.tudarmstadt.ukp.dkpro.core.api.resources.LruCache;
 import de.tudarmstadt.ukp.dkpro.core.api.resources.ModelProviderBase;
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Sentence;
 
 /**
  * Detect grammatical errors in text using LanguageTool a rule based grammar checker.
@@ -60,7 +71,45 @@ public class LanguageToolChecker
 	@ConfigurationParameter(name = PARAM_LANGUAGE, mandatory = false)
 	private String language;
 
+	/**
+	 * Check each {@link Sentence} separately instead of the whole document. The sentence
+	 * boundaries already present in the CAS are used instead of those determined by LanguageTool.
+	 * Rules which look across sentence boundaries do not find anything in this mode. If the CAS
+	 * contains no sentences, the whole document is checked.
+	 * <p>
+	 * Default: {@code false}
+	 */
+	public static final String PARAM_CHECK_SENTENCES = "checkSentences";
+	@ConfigurationParameter(name = PARAM_CHECK_SENTENCES, mandatory = true, defaultValue = "false")
+	private boolean checkSentences;
+
+	/**
+	 * Number of threads used to check the sentences of a document concurrently if
+	 * {@link #PARAM_CHECK_SENTENCES} is enabled. Each thread uses its own {@link JLanguageTool}.
+	 * See {@link ComponentParameters#computeNumThreads(int)} for the interpretation of zero and
+	 * negative values.
+	 * <p>
+	 * Default: {@code 1} (check on the calling thread)
+	 */
+	public static final String PARAM_NUM_THREADS = ComponentParameters.PARAM_NUM_THREADS;
+	@ConfigurationParameter(name = PARAM_NUM_THREADS, mandatory = true, defaultValue = "1")
+	private int numThreads;
+
+	/**
+	 * The maximum number of sentences for which the matches are cached if
+	 * {@link #PARAM_CHECK_SENTENCES} is enabled. Sentences with the same text, e.g. in documents
+	 * which are processed again, are then only checked once.
+	 * <p>
+	 * Default: {@code 0} (no caching)
+	 */
+	public static final String PARAM_CACHE_SIZE = "cacheSize";
+	@ConfigurationParameter(name = PARAM_CACHE_SIZE, mandatory = true, defaultValue = "0")
+	private int cacheSize;
+
 	private ModelProviderBase<JLanguageTool> modelProvider;
+	private ExecutorService executor;
+	private ThreadLocal<JLanguageTool> threadLanguageTool;
+	private LruCache<String, List<Match>> cache;
 	
 	@Override
 	public void initialize(UimaContext aContext)
@@ -100,6 +149,22 @@ public class LanguageToolChecker
 		        return new JLanguageTool(lang);
 		    }
 		};
+
+		cache = new LruCache<>(cacheSize);
+
+		int threads = ComponentParameters.computeNumThreads(numThreads);
+		if (checkSentences && threads > 1) {
+			getLogger().info("Checking with " + threads + " threads");
+			AtomicInteger threadCount = new AtomicInteger();
+			executor = Executors.newFixedThreadPool(threads, runnable -> {
+				Thread thread = new Thread(runnable,
+						getClass().getSimpleName() + "-" + threadCount.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			});
+			// JLanguageTool is not thread-safe, so each thread gets its own instance
+			threadLanguageTool = new ThreadLocal<>();
+		}
 	}
 
 	@Override
@@ -108,23 +173,154 @@ public class LanguageToolChecker
 	{
 	    modelProvider.configure(aJCas.getCas());
 	    
-		// get document text
-		String docText = aJCas.getDocumentText();
+		Collection<Sentence> sentences = checkSentences ? JCasUtil.select(aJCas, Sentence.class)
+				: Collections.emptyList();
+		if (sentences.isEmpty()) {
+			// get document text
+			String docText = aJCas.getDocumentText();
+
+			try {
+				List<RuleMatch> matches = modelProvider.getResource().check(docText);
+				for (RuleMatch match : matches) {
+					createAnnotation(aJCas, 0, new Match(match));
+				}
+			}
+			catch (IOException e) {
+				throw new AnalysisEngineProcessException(e);
+			}
+			return;
+		}
+
+		JLanguageTool languageTool = modelProvider.getResource();
+		if (executor == null) {
+			for (Sentence sentence : sentences) {
+				try {
+					for (Match match : check(languageTool, sentence.getCoveredText())) {
+						createAnnotation(aJCas, sentence.getBegin(), match);
+					}
+				}
+				catch (IOException e) {
+					throw new AnalysisEngineProcessException(e);
+				}
+			}
+			return;
+		}
+
+		// The sentences are checked concurrently, but the annotations are created in sentence
+		// order on the calling thread
+		Language lang = languageTool.getLanguage();
+		List<Future<List<Match>>> results = new ArrayList<>();
+		for (Sentence sentence : sentences) {
+			String text = sentence.getCoveredText();
+			results.add(executor.submit(() -> check(getThreadLanguageTool(lang), text)));
+		}
 
 		try {
-			List<RuleMatch> matches = modelProvider.getResource().check(docText);
-			for (RuleMatch match : matches) {
-				// create annotation
-				GrammarAnomaly annotation = new GrammarAnomaly(aJCas);
-				annotation.setBegin(match.getFromPos());
-				annotation.setEnd(match.getToPos());
-				annotation.setDescription(match.getMessage());
-				annotation.addToIndexes();
-				getContext().getLogger().log(Level.FINEST, "Found: " + annotation);
+			int i = 0;
+			for (Sentence sentence : sentences) {
+				for (Match match : results.get(i++).get()) {
+					createAnnotation(aJCas, sentence.getBegin(), match);
+				}
 			}
 		}
-		catch (IOException e) {
+		catch (ExecutionException e) {
+			throw new AnalysisEngineProcessException(e.getCause());
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
 			throw new AnalysisEngineProcessException(e);
 		}
+		finally {
+			for (Future<List<Match>> future : results) {
+				future.cancel(true);
+			}
+		}
+	}
+
+	private JLanguageTool getThreadLanguageTool(Language aLanguage)
+	{
+		JLanguageTool languageTool = threadLanguageTool.get();
+		if (languageTool == null || !languageTool.getLanguage().equals(aLanguage)) {
+			languageTool = new JLanguageTool(aLanguage);
+			threadLanguageTool.set(languageTool);
+		}
+		return languageTool;
+	}
+
+	private List<Match> check(JLanguageTool aLanguageTool, String aText)
+		throws IOException
+	{
+		if (cache.getMaxSize() == 0) {
+			return toMatches(aLanguageTool.check(aText));
+		}
+
+		String key = aLanguageTool.getLanguage().getShortNameWithCountryAndVariant() + '\n'
+				+ aText;
+		List<Match> matches = cache.get(key);
+		if (matches == null) {
+			matches = toMatches(aLanguageTool.check(aText));
+			cache.put(key, matches);
+		}
+		return matches;
+	}
+
+	private static List<Match> toMatches(List<RuleMatch> aMatches)
+	{
+		List<Match> matches = new ArrayList<>(aMatches.size());
+		for (RuleMatch match : aMatches) {
+			matches.add(new Match(match));
+		}
+		return matches;
+	}
+
+	private void createAnnotation(JCas aJCas, int aOffset, Match aMatch)
+	{
+		// create annotation
+		GrammarAnomaly annotation = new GrammarAnomaly(aJCas);
+		annotation.setBegin(aOffset + aMatch.begin);
+		annotation.setEnd(aOffset + aMatch.end);
+		annotation.setDescription(aMatch.message);
+		annotation.addToIndexes();
+		getContext().getLogger().log(Level.FINEST, "Found: " + annotation);
+	}
+
+	@Override
+	public void collectionProcessComplete()
+		throws AnalysisEngineProcessException
+	{
+		if (cache.getMaxSize() > 0) {
+			getLogger().info("Sentence cache: hits=" + cache.getHitCount() + ", misses="
+					+ cache.getMissCount());
+		}
+		super.collectionProcessComplete();
+	}
+
+	@Override
+	public void destroy()
+	{
+		if (executor != null) {
+			executor.shutdownNow();
+			executor = null;
+		}
+
+		super.destroy();
+	}
+
+	/**
+	 * The part of a {@link RuleMatch} needed to create the annotation. Unlike the rule match, it
+	 * does not refer to the rule and the analyzed sentence, so it can be cached cheaply.
+	 */
+	private static class Match
+	{
+		final int begin;
+		final int end;
+		final String message;
+
+		Match(RuleMatch aMatch)
+		{
+			begin = aMatch.getFromPos();
+			end = aMatch.getToPos();
+			message = aMatch.getMessage();
+		}
 	}
 }
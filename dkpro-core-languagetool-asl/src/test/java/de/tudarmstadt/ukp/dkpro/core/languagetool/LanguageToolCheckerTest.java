@@ -21,6 +21,9 @@ import static org.apache.uima.fit.factory.AnalysisEngineFactory.createEngine;
 import static org.apache.uima.fit.util.JCasUtil.select;
 import static org.junit.Assert.assertEquals;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.apache.uima.analysis_engine.AnalysisEngine;
 import org.apache.uima.fit.testing.factory.TokenBuilder;
 import org.apache.uima.jcas.JCas;
@@ -58,6 +61,39 @@ public class LanguageToolCheckerTest
 		}
 		assertEquals(count, 3);
 	}
+
+	@Test
+	public void grammarCheckerSentencesTest()
+		throws Exception
+	{
+		String sentence = "A sentence with a error in the Hitchhiker's Guide tot he Galaxy .";
+		String testDocument = sentence + "\n" + sentence;
+
+		AnalysisEngine engine = createEngine(LanguageToolChecker.class,
+				LanguageToolChecker.PARAM_LANGUAGE, "en",
+				LanguageToolChecker.PARAM_CHECK_SENTENCES, true,
+				LanguageToolChecker.PARAM_NUM_THREADS, 2,
+				LanguageToolChecker.PARAM_CACHE_SIZE, 100);
+		JCas aJCas = engine.newJCas();
+
+		TokenBuilder<Token, Sentence> tb = new TokenBuilder<Token, Sentence>(Token.class, Sentence.class);
+		tb.buildTokens(aJCas, testDocument);
+
+		engine.process(aJCas);
+
+		// The matches of the second sentence are mapped to its own offsets
+		List<GrammarAnomaly> anomalies = new ArrayList<GrammarAnomaly>(
+				select(aJCas, GrammarAnomaly.class));
+		assertEquals(6, anomalies.size());
+		int offset = sentence.length() + 1;
+		for (int i = 0; i < 3; i++) {
+			GrammarAnomaly first = anomalies.get(i);
+			GrammarAnomaly second = anomalies.get(i + 3);
+			assertEquals(first.getBegin() + offset, second.getBegin());
+			assertEquals(first.getEnd() + offset, second.getEnd());
+			assertEquals(first.getDescription(), second.getDescription());
+		}
+	}
     
     @Rule
     public DkproTestContext testContext = new DkproTestContext();
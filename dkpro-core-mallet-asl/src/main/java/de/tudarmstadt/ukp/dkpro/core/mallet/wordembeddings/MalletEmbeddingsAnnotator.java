@@ -37,7 +37,6 @@ import org.dkpro.core.api.embeddings.text.TextFormatVectorizer;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.Optional;
 
 /**
  * Reads word embeddings from a file and adds {@link WordEmbedding} annotations to tokens/lemmas.
@@ -101,6 +100,11 @@ public class MalletEmbeddingsAnnotator
     @ConfigurationParameter(name = PARAM_LOWERCASE, mandatory = true, defaultValue = "false")
     private boolean lowercase;
 
+    /**
+     * Buffer into which vectors are read in order to avoid allocating an array for every token.
+     */
+    private float[] vectorBuffer;
+
     @Override
     public void initialize(UimaContext context)
             throws ResourceInitializationException
@@ -124,6 +128,8 @@ public class MalletEmbeddingsAnnotator
             throw new ResourceInitializationException(new IllegalArgumentException(
                     "If PARAM_LOWERCASE is set, the model should be caseless and vice-versa."));
         }
+
+        vectorBuffer = new float[vectorizer.dimensions()];
     }
 
     @Override
@@ -148,14 +154,12 @@ public class MalletEmbeddingsAnnotator
         if (lowercase) {
             text = text.toLowerCase();
         }
-        Optional<float[]> vector = getVector(text);
+        boolean known = vectorizer.vectorize(text, vectorBuffer);
 
-        if (vector.isPresent()) {
+        if (known || annotateUnknownTokens) {
             WordEmbedding embedding = new WordEmbedding(aJCas, begin, end);
-            FloatArray array = new FloatArray(aJCas, vector.get().length);
-            for (int i = 0; i < vector.get().length; i++) {
-                array.set(i, vector.get()[i]);
-            }
+            FloatArray array = new FloatArray(aJCas, vectorBuffer.length);
+            array.copyFromArray(vectorBuffer, 0, 0, vectorBuffer.length);
             embedding.setWordEmbedding(array);
             embedding.addToIndexes(aJCas);
         }
@@ -163,26 +167,4 @@ public class MalletEmbeddingsAnnotator
             getLogger().debug(text + " not found in embeddings list.");
         }
     }
-
-    /**
-     * If {@link #PARAM_ANNOTATE_UNKNOWN_TOKENS} is set to true, always return a vector retrieved
-     * from the vectorizer, which should hold a stable random vector for unknown tokens.
-     * Otherwise, return a vector for known tokens, or none if the token is unknown.
-     *
-     * @param token a token for which to look up an embedding
-     * @return an {@code Optional<float[]>} that holds the token embedding or is empty if no embeddings is available for the token
-     * @throws IOException if an I/O error occurs
-     */
-    private Optional<float[]> getVector(String token)
-            throws IOException
-    {
-        if (annotateUnknownTokens) {
-            return Optional.of(vectorizer.vectorize(token));
-        }
-        else {
-            return vectorizer.contains(token) ?
-                    Optional.of(vectorizer.vectorize(token)) :
-                    Optional.empty();
-        }
-    }
 }
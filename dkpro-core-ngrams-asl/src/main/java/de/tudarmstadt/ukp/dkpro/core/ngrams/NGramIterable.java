@@ -21,39 +21,25 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 
-import org.apache.commons.lang.StringUtils;
 import org.apache.uima.cas.CASException;
 import org.apache.uima.cas.text.AnnotationFS;
+import org.apache.uima.jcas.JCas;
 
 import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.NGram;
+import de.tudarmstadt.ukp.dkpro.core.ngrams.util.NGramCursor;
+import de.tudarmstadt.ukp.dkpro.core.ngrams.util.NGramStringIterable;
 
 public class NGramIterable<T extends AnnotationFS>
 	implements Iterable<NGram>
 {
-	List<NGram> nGramList;
+	private final List<T> tokenList;
+	private final String[] tokenTexts;
+	private final int n;
 
 	private NGramIterable(Iterable<T> tokens, int n)
 	{
-		this.nGramList = createNGramList(tokens, n);
-	}
-
-	public static <T extends AnnotationFS> NGramIterable<T> create(Iterable<T> tokens, int n)
-	{
-		return new NGramIterable<T>(tokens, n);
-	}
-
-	@Override
-	public Iterator<NGram> iterator()
-	{
-		return nGramList.iterator();
-	}
-
-	private List<NGram> createNGramList(Iterable<T> tokens, int n)
-	{
-		List<NGram> nGrams = new ArrayList<NGram>();
-
 		// fill token list
-		List<T> tokenList = new ArrayList<T>();
+		tokenList = new ArrayList<T>();
 		for (T t : tokens) {
 			tokenList.add(t);
 		}
@@ -68,43 +54,48 @@ public class NGramIterable<T extends AnnotationFS>
 			}
 		}
 
-		for (int k = 1; k <= n; k++) {
-			// if the number of tokens is less than k => break
-			if (tokenList.size() < k) {
-				break;
-			}
-			nGrams.addAll(getNGrams(tokenList, k));
+		tokenTexts = new String[tokenList.size()];
+		for (int i = 0; i < tokenTexts.length; i++) {
+			tokenTexts[i] = tokenList.get(i).getCoveredText();
 		}
 
-		return nGrams;
+		this.n = n;
 	}
 
-	private List<NGram> getNGrams(List<T> tokenList, int k)
+	public static <T extends AnnotationFS> NGramIterable<T> create(Iterable<T> tokens, int n)
 	{
-		List<NGram> nGrams = new ArrayList<NGram>();
-
-		int size = tokenList.size();
-		for (int i = 0; i < (size + 1 - k); i++) {
-			try {
-				NGram ngram = new NGram(tokenList.get(i).getCAS().getJCas(), tokenList.get(i)
-						.getBegin(), tokenList.get(i + k - 1).getEnd());
-				ngram.setText(getTokenText(tokenList, i, i + k - 1));
-				nGrams.add(ngram);
-			}
-			catch (CASException e) {
-				throw new IllegalStateException(e);
-			}
-		}
-
-		return nGrams;
+		return new NGramIterable<T>(tokens, n);
 	}
 
-	private String getTokenText(List<T> tokenList, int start, int end)
+	@Override
+	public Iterator<NGram> iterator()
 	{
-		List<String> tokenTexts = new ArrayList<String>();
-		for (int i = start; i <= end; i++) {
-			tokenTexts.add(tokenList.get(i).getCoveredText());
-		}
-		return StringUtils.join(tokenTexts, " ");
+		final NGramCursor cursor = new NGramCursor(tokenList.size(), 1, n);
+		return new Iterator<NGram>()
+		{
+			@Override
+			public boolean hasNext()
+			{
+				return cursor.hasNext();
+			}
+
+			@Override
+			public NGram next()
+			{
+				cursor.next();
+				T first = tokenList.get(cursor.getBegin());
+				T last = tokenList.get(cursor.getEnd() - 1);
+				try {
+					JCas jcas = first.getCAS().getJCas();
+					NGram ngram = new NGram(jcas, first.getBegin(), last.getEnd());
+					ngram.setText(NGramStringIterable.join(tokenTexts, cursor.getBegin(),
+							cursor.getEnd()));
+					return ngram;
+				}
+				catch (CASException e) {
+					throw new IllegalStateException(e);
+				}
+			}
+		};
 	}
 }
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2017
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.dkpro.core.ngrams.util;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Moves over the n-gram windows of a sequence without creating any objects. All n-grams of length
+ * {@code minN} are visited first, followed by those of length {@code minN + 1} and so on up to
+ * {@code maxN}. Lengths exceeding the length of the sequence are skipped.
+ *
+ * <pre>
+ * NGramCursor cursor = new NGramCursor(tokens.length, 1, 3);
+ * while (cursor.hasNext()) {
+ *     cursor.next();
+ *     // use tokens[cursor.getBegin()] to tokens[cursor.getEnd() - 1]
+ * }
+ * </pre>
+ */
+public class NGramCursor
+{
+    private final int size;
+    private final int maxN;
+
+    // Length and start of the next window
+    private int n;
+    private int nextBegin;
+
+    private int begin = -1;
+    private int end = -1;
+
+    /**
+     * @param aSize
+     *            the length of the sequence.
+     * @param aMinN
+     *            the minimal n-gram length.
+     * @param aMaxN
+     *            the maximal n-gram length.
+     */
+    public NGramCursor(int aSize, int aMinN, int aMaxN)
+    {
+        if (aMinN > aMaxN) {
+            throw new IllegalArgumentException("minN needs to be smaller or equal than maxN.");
+        }
+
+        size = aSize;
+        n = aMinN;
+        maxN = aMaxN;
+    }
+
+    public boolean hasNext()
+    {
+        return n <= maxN && nextBegin + n <= size;
+    }
+
+    /**
+     * Move to the next window.
+     *
+     * @throws NoSuchElementException
+     *             if there are no more windows.
+     */
+    public void next()
+    {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        begin = nextBegin;
+        end = nextBegin + n;
+
+        nextBegin++;
+        if (nextBegin + n > size) {
+            n++;
+            nextBegin = 0;
+        }
+    }
+
+    /**
+     * @return the start of the current window (inclusive).
+     */
+    public int getBegin()
+    {
+        return begin;
+    }
+
+    /**
+     * @return the end of the current window (exclusive).
+     */
+    public int getEnd()
+    {
+        return end;
+    }
+
+    /**
+     * @return the length of the current window.
+     */
+    public int getLength()
+    {
+        return end - begin;
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2017
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.dkpro.core.ngrams.util;
+
+import java.util.PrimitiveIterator;
+
+/**
+ * 64-bit hashes of n-grams. Components which only count n-grams can use the hashes as keys, e.g.
+ * in a primitive long-keyed map, instead of creating a string for each n-gram. Equal n-grams
+ * always have the same hash. Different n-grams have the same hash only with a probability of
+ * about 2<sup>-64</sup> per pair, which is negligible for counting but means that the hashes must
+ * not be used where collisions are unacceptable.
+ */
+public final class NGramHashes
+{
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final long COMBINE = 0x9e3779b97f4a7c15L;
+
+    private NGramHashes()
+    {
+        // No instances
+    }
+
+    /**
+     * @param aToken
+     *            a token.
+     * @return the 64-bit FNV-1a hash of the characters of the token.
+     */
+    public static long hash(String aToken)
+    {
+        long h = FNV_OFFSET;
+        for (int i = 0; i < aToken.length(); i++) {
+            char c = aToken.charAt(i);
+            h = (h ^ (c & 0xFF)) * FNV_PRIME;
+            h = (h ^ (c >>> 8)) * FNV_PRIME;
+        }
+        return h;
+    }
+
+    /**
+     * @param aTokens
+     *            the tokens.
+     * @param aBegin
+     *            the first token of the n-gram (inclusive).
+     * @param aEnd
+     *            the last token of the n-gram (exclusive).
+     * @return the hash of the n-gram.
+     */
+    public static long hash(String[] aTokens, int aBegin, int aEnd)
+    {
+        long h = aEnd - aBegin;
+        for (int i = aBegin; i < aEnd; i++) {
+            h = h * COMBINE + hash(aTokens[i]);
+        }
+        return mix(h);
+    }
+
+    /**
+     * Iterate over the hashes of all n-grams of the tokens in the order of
+     * {@link NGramStringIterable}. Each token is hashed only once.
+     *
+     * @param aTokens
+     *            the tokens.
+     * @param aMinN
+     *            the minimal n-gram length.
+     * @param aMaxN
+     *            the maximal n-gram length.
+     * @return the n-gram hashes.
+     */
+    public static PrimitiveIterator.OfLong iterator(String[] aTokens, int aMinN, int aMaxN)
+    {
+        final long[] tokenHashes = new long[aTokens.length];
+        for (int i = 0; i < aTokens.length; i++) {
+            tokenHashes[i] = hash(aTokens[i]);
+        }
+
+        final NGramCursor cursor = new NGramCursor(aTokens.length, aMinN, aMaxN);
+        return new PrimitiveIterator.OfLong()
+        {
+            @Override
+            public boolean hasNext()
+            {
+                return cursor.hasNext();
+            }
+
+            @Override
+            public long nextLong()
+            {
+                cursor.next();
+                long h = cursor.getLength();
+                for (int i = cursor.getBegin(); i < cursor.getEnd(); i++) {
+                    h = h * COMBINE + tokenHashes[i];
+                }
+                return mix(h);
+            }
+        };
+    }
+
+    /**
+     * Finalization step of MurmurHash3, spreading the bits of the combined token hashes.
+     */
+    private static long mix(long aHash)
+    {
+        long h = aHash;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -17,23 +17,22 @@
  */
 package de.tudarmstadt.ukp.dkpro.core.ngrams.util;
 
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Iterator;
-import java.util.List;
-
-import org.apache.commons.lang.StringUtils;
 
 /**
  * Creates a NGram iterable from a list of tokens.
  * It does not detect any sentence boundaries.
  * Thus, one should make sure to only add lists that reflect a sentence or a phrase.
- * 
+ * <p>
+ * The n-gram strings are created lazily while iterating. Use {@link NGramCursor} or
+ * {@link NGramHashes} to process n-grams without creating strings at all.
  *
  */
 public class NGramStringIterable implements Iterable<String>
 {
-	List<String> nGramList;
+	private final String[] tokens;
+	private final int minN;
+	private final int maxN;
 
 //    /**
 //     * @param tokens An iterable of annotations.
@@ -54,7 +53,13 @@ public class NGramStringIterable implements Iterable<String>
      */
 	public NGramStringIterable(Iterable<String> tokens, int minN, int maxN)
 	{
-		this.nGramList = createNGramList(tokens, minN, maxN);
+		if (minN > maxN) {
+			throw new IllegalArgumentException("minN needs to be smaller or equal than maxN.");
+		}
+
+		this.tokens = NGramStringListIterable.toArray(tokens);
+		this.minN = minN;
+		this.maxN = maxN;
 	}
 	
 	/**
@@ -66,52 +71,64 @@ public class NGramStringIterable implements Iterable<String>
      */
     public NGramStringIterable(String[] tokens, int minN, int maxN)
     {
-        this.nGramList = createNGramList(Arrays.asList(tokens), minN, maxN);
+		if (minN > maxN) {
+			throw new IllegalArgumentException("minN needs to be smaller or equal than maxN.");
+		}
+
+		this.tokens = tokens.clone();
+		this.minN = minN;
+		this.maxN = maxN;
     }
 
 	
 	@Override
 	public Iterator<String> iterator()
 	{
-		return nGramList.iterator();
-	}
-
-	private List<String> createNGramList(Iterable<String> tokens, int minN, int maxN)
-	{
-        if (minN > maxN) {
-            throw new IllegalArgumentException("minN needs to be smaller or equal than maxN.");
-        }
-
-		List<String> nGrams = new ArrayList<String>();
-
-		// fill token list
-		List<String> tokenList = new ArrayList<String>();
-		for (String t : tokens) {
-			tokenList.add(t);
-		}
-
-		for (int k = minN; k <= maxN; k++) {
-			// if the number of tokens is less than k => break
-			if (tokenList.size() < k) {
-				break;
+		final NGramCursor cursor = new NGramCursor(tokens.length, minN, maxN);
+		return new Iterator<String>()
+		{
+			@Override
+			public boolean hasNext()
+			{
+				return cursor.hasNext();
 			}
-			nGrams.addAll(getNGrams(tokenList, k));
-		}
 
-		return nGrams;
+			@Override
+			public String next()
+			{
+				cursor.next();
+				return join(tokens, cursor.getBegin(), cursor.getEnd());
+			}
+		};
 	}
 
-	private List<String> getNGrams(List<String> tokenList, int k)
+	/**
+	 * Join the tokens in the given range with a space. Like {@code StringUtils.join}, {@code null}
+	 * tokens are treated as empty strings.
+	 *
+	 * @param tokens
+	 *            the tokens.
+	 * @param begin
+	 *            the first token (inclusive).
+	 * @param end
+	 *            the last token (exclusive).
+	 * @return the joined tokens.
+	 */
+	public static String join(String[] tokens, int begin, int end)
 	{
-		List<String> nGrams = new ArrayList<String>();
-
-		int size = tokenList.size();
-		for (int i = 0; i < (size + 1 - k); i++) {
-			nGrams.add(
-					StringUtils.join(tokenList.subList(i, i + k), ' ')
-			);
+		if (end - begin == 1 && tokens[begin] != null) {
+			return tokens[begin];
 		}
 
-		return nGrams;
+		StringBuilder sb = new StringBuilder();
+		for (int i = begin; i < end; i++) {
+			if (i > begin) {
+				sb.append(' ');
+			}
+			if (tokens[i] != null) {
+				sb.append(tokens[i]);
+			}
+		}
+		return sb.toString();
 	}
-}
+}
@@ -19,19 +19,24 @@ package de.tudarmstadt.ukp.dkpro.core.ngrams.util;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 
 /**
  * Creates a NGram iterable from a list of tokens. It does not detect any sentence boundaries. Thus,
  * one should make sure to only add lists that reflect a sentence or a phrase.
- * 
+ * <p>
+ * The n-grams are created lazily while iterating. Each n-gram is a read-only view on a shared
+ * copy of the tokens, so no lists are copied.
  *
  */
 public class NGramStringListIterable
     implements Iterable<List<String>>
 {
-    List<List<String>> nGramList;
+    private final List<String> tokenList;
+    private final int minN;
+    private final int maxN;
 
     /**
      * @param tokens
@@ -43,7 +48,13 @@ public class NGramStringListIterable
      */
     public NGramStringListIterable(Iterable<String> tokens, int minN, int maxN)
     {
-        this.nGramList = createNGramList(tokens, minN, maxN);
+        if (minN > maxN) {
+            throw new IllegalArgumentException("minN needs to be smaller or equal than maxN.");
+        }
+
+        this.tokenList = Collections.unmodifiableList(Arrays.asList(toArray(tokens)));
+        this.minN = minN;
+        this.maxN = maxN;
     }
 
     /**
@@ -56,49 +67,44 @@ public class NGramStringListIterable
      */
     public NGramStringListIterable(String[] tokens, int minN, int maxN)
     {
-        this.nGramList = createNGramList(Arrays.asList(tokens), minN, maxN);
+        this(Arrays.asList(tokens), minN, maxN);
     }
 
     @Override
     public Iterator<List<String>> iterator()
     {
-        return nGramList.iterator();
-    }
-
-    private List<List<String>> createNGramList(Iterable<String> tokens, int minN, int maxN)
-    {
-        if (minN > maxN) {
-            throw new IllegalArgumentException("minN needs to be smaller or equal than maxN.");
-        }
-
-        List<List<String>> nGrams = new ArrayList<List<String>>();
-
-        // fill token list
-        List<String> tokenList = new ArrayList<String>();
-        for (String t : tokens) {
-            tokenList.add(t);
-        }
-
-        for (int k = minN; k <= maxN; k++) {
-            // if the number of tokens is less than k => break
-            if (tokenList.size() < k) {
-                break;
+        final NGramCursor cursor = new NGramCursor(tokenList.size(), minN, maxN);
+        return new Iterator<List<String>>()
+        {
+            @Override
+            public boolean hasNext()
+            {
+                return cursor.hasNext();
             }
-            nGrams.addAll(getNGrams(tokenList, k));
-        }
 
-        return nGrams;
+            @Override
+            public List<String> next()
+            {
+                cursor.next();
+                return tokenList.subList(cursor.getBegin(), cursor.getEnd());
+            }
+        };
     }
 
-    private List<List<String>> getNGrams(List<String> tokenList, int k)
+    /**
+     * Copy the tokens into a new array.
+     */
+    static String[] toArray(Iterable<String> tokens)
     {
-        List<List<String>> nGrams = new ArrayList<List<String>>();
-
-        int size = tokenList.size();
-        for (int i = 0; i < (size + 1 - k); i++) {
-            nGrams.add(tokenList.subList(i, i + k));
+        if (tokens instanceof List) {
+            List<String> list = (List<String>) tokens;
+            return list.toArray(new String[list.size()]);
         }
 
-        return nGrams;
+        List<String> list = new ArrayList<String>();
+        for (String t : tokens) {
+            list.add(t);
+        }
+        return list.toArray(new String[list.size()]);
     }
-}
+}
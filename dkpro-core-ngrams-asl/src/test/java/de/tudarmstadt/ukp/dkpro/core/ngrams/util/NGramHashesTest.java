@@ -0,0 +1,63 @@
+/*
+ * Copyright 2017
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.dkpro.core.ngrams.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PrimitiveIterator;
+
+import org.junit.Test;
+
+public class NGramHashesTest
+{
+    @Test
+    public void testSameOrderAsStrings()
+    {
+        String[] tokens = "the cat saw the cat .".split(" ");
+
+        Map<String, Long> hashes = new HashMap<>();
+        PrimitiveIterator.OfLong iterator = NGramHashes.iterator(tokens, 1, 3);
+        for (String ngram : new NGramStringIterable(tokens, 1, 3)) {
+            long hash = iterator.nextLong();
+            Long previous = hashes.put(ngram, hash);
+            if (previous != null) {
+                // Equal n-grams have equal hashes
+                assertEquals(previous.longValue(), hash);
+            }
+        }
+        assertFalse(iterator.hasNext());
+
+        // Different n-grams have different hashes
+        assertEquals(hashes.size(), hashes.values().stream().distinct().count());
+    }
+
+    @Test
+    public void testHash()
+    {
+        String[] tokens = { "a", "b", "ab" };
+
+        assertEquals(NGramHashes.hash(tokens, 0, 2), NGramHashes.hash(new String[] { "a", "b" },
+                0, 2));
+        assertNotEquals(NGramHashes.hash(tokens, 0, 2), NGramHashes.hash(tokens, 2, 3));
+        assertNotEquals(NGramHashes.hash(tokens, 0, 1), NGramHashes.hash(tokens, 1, 2));
+    }
+}
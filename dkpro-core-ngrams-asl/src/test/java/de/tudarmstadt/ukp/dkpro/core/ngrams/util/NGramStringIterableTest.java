@@ -20,6 +20,10 @@ package de.tudarmstadt.ukp.dkpro.core.ngrams.util;
 
 import static org.junit.Assert.assertEquals;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 import org.junit.Test;
 
 public class NGramStringIterableTest
@@ -40,4 +44,21 @@ public class NGramStringIterableTest
         }
         assertEquals(6, i);
     }
+
+    @Test
+    public void ngramMultipleLengthsTest() {
+        
+        String[] tokens = "a b c".split(" ");
+        NGramStringIterable ngrams = new NGramStringIterable(tokens, 1, 5);
+        
+        List<String> expected = Arrays.asList("a", "b", "c", "a b", "b c", "a b c");
+        for (int i = 0; i < 2; i++) {
+            // Each iteration creates the n-grams anew
+            List<String> actual = new ArrayList<String>();
+            for (String ngram : ngrams) {
+                actual.add(ngram);
+            }
+            assertEquals(expected, actual);
+        }
+    }
 }
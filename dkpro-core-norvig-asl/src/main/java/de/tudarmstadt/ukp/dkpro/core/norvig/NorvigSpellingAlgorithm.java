@@ -31,12 +31,17 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import de.tudarmstadt.ukp.dkpro.core.api.resources.LruCache;
+
 import static java.lang.Character.isUpperCase;
 import static java.lang.Character.toUpperCase;
 import static java.lang.Double.parseDouble;
 
 /**
  * Spelling corrector based on Norvig's algorithm.
+ * <p>
+ * Corrections are cached in a size-bounded LRU cache. Looking up corrections is thread-safe once
+ * training is complete.
  *
  * @see <a href="http://norvig.com/spell-correct.html">Norvig&#39;s algorithm</a>
  */
@@ -46,20 +51,30 @@ public class NorvigSpellingAlgorithm
 
 	private final Map<String, AtomicInteger> nWords = new HashMap<String, AtomicInteger>();
 
-	private Map<String, String> cachedCorrections = new HashMap<String, String>();
-	private int bestScore = -1;
-	private String bestCandidate;
+	public static final int DEFAULT_CACHE_SIZE = 100000;
+
+	private LruCache<String, String> cachedCorrections = new LruCache<String, String>(
+			DEFAULT_CACHE_SIZE);
 
-	protected void resetScore()
+	public void reset()
 	{
-		bestScore = -1;
-		bestCandidate = null;
+		cachedCorrections.clear();
 	}
 
-	public void reset()
+	/**
+	 * Set the maximum number of cached corrections. This clears the cache.
+	 *
+	 * @param aCacheSize
+	 *            the maximum number of cached corrections, {@code 0} to disable caching.
+	 */
+	public void setCacheSize(int aCacheSize)
+	{
+		cachedCorrections = new LruCache<String, String>(aCacheSize);
+	}
+
+	public LruCache<String, String> getCache()
 	{
-		resetScore();
-		cachedCorrections = new HashMap<String, String>();
+		return cachedCorrections;
 	}
 
 	/**
@@ -85,6 +100,7 @@ public class NorvigSpellingAlgorithm
 				if (count == null) {
 					count = new AtomicInteger(0);
 					nWords.put(word, count);
+					wordAdded(word);
 				}
 				count.incrementAndGet();
 			}
@@ -111,6 +127,30 @@ public class NorvigSpellingAlgorithm
 		}
 	}
 
+	/**
+	 * Called during training when a word is encountered for the first time.
+	 *
+	 * @param aWord
+	 *            the new word.
+	 */
+	protected void wordAdded(String aWord)
+	{
+		// Nothing to do by default
+	}
+
+	/**
+	 * Get the number of times the given word was seen during training.
+	 *
+	 * @param aWord
+	 *            the word.
+	 * @return the count or {@code 0} if the word is unknown.
+	 */
+	protected int getCount(String aWord)
+	{
+		AtomicInteger count = nWords.get(aWord);
+		return count != null ? count.get() : 0;
+	}
+
 	/**
 	 * Get a list for all possible variants of the given word containing an insertion, deletion,
 	 * replacement or transposition.
@@ -170,11 +210,7 @@ public class NorvigSpellingAlgorithm
 
 		// Correct if not cached
 		String word = aWord.toLowerCase();
-		String correction = cachedCorrections.get(word);
-		if (correction == null) {
-			correction = getBestCandidate(word);
-			cachedCorrections.put(word, correction);
-		}
+		String correction = cachedCorrections.computeIfAbsent(word, this::getBestCandidate);
 
 		// Restore case
 		char[] buffer = correction.toCharArray();
@@ -211,51 +247,44 @@ public class NorvigSpellingAlgorithm
 			return word;
 		}
 
-		// Reset score
-		resetScore();
-
 		// Look up the potential correct words in the dictionary
 		List<String> candidates1 = edits(word);
-		for (String candidate : candidates1) {
-			consider(candidate);
-		}
+		String best = getMostFrequent(candidates1, null);
 
 		// Found possible correction for one mistake
-		if (bestScore != -1) {
-			return bestCandidate;
+		if (best != null) {
+			return best;
 		}
 
 		// Repeat the process for a potential second mistake
 		for (String candidate1 : candidates1) {
-			List<String> candidates2 = edits(candidate1);
-			for (String candidate2 : candidates2) {
-				consider(candidate2);
-			}
+			best = getMostFrequent(edits(candidate1), best);
 		}
 
-		if (bestScore != -1) {
-			return bestCandidate;
-		}
-		else {
-			return word;
-		}
+		return best != null ? best : word;
 	}
 
 	/**
-	 * Consider the given candidate. If it is better than a previously found candidate, then
-	 * remember it, otherwise forget it.
+	 * Get the most frequent dictionary word among the given candidates. The best candidate is kept
+	 * in local variables, so corrections can be looked up concurrently.
 	 *
-	 * @param candidate
-	 *            the candidate to consider.
+	 * @param aCandidates
+	 *            the candidates to consider.
+	 * @param aBest
+	 *            the best candidate found so far or {@code null}.
+	 * @return the best candidate or {@code null} if none of the candidates is known.
 	 */
-	protected void consider(String candidate)
+	private String getMostFrequent(List<String> aCandidates, String aBest)
 	{
-		AtomicInteger score = nWords.get(candidate);
-		if (score != null) {
-			if (score.get() > bestScore) {
+		String best = aBest;
+		int bestScore = aBest != null ? getCount(aBest) : -1;
+		for (String candidate : aCandidates) {
+			AtomicInteger score = nWords.get(candidate);
+			if (score != null && score.get() > bestScore) {
 				bestScore = score.get();
-				bestCandidate = candidate;
+				best = candidate;
 			}
 		}
+		return best;
 	}
 }
@@ -21,8 +21,9 @@ import static org.apache.uima.fit.util.JCasUtil.select;
 import static org.apache.uima.fit.util.JCasUtil.selectCovered;
 
 import org.apache.uima.UimaContext;
-import org.apache.uima.analysis_component.JCasAnnotator_ImplBase;
 import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
+import org.apache.uima.fit.component.JCasAnnotator_ImplBase;
+import org.apache.uima.fit.descriptor.ConfigurationParameter;
 import org.apache.uima.fit.descriptor.TypeCapability;
 import org.apache.uima.jcas.JCas;
 import org.apache.uima.resource.ResourceInitializationException;
@@ -48,6 +49,28 @@ public class NorvigSpellingCorrector
 	extends JCasAnnotator_ImplBase
 {
 	public static final String PARAM_MODEL_FILE = ComponentParameters.PARAM_MODEL_LOCATION;
+	@ConfigurationParameter(name = PARAM_MODEL_FILE, mandatory = true)
+	private String modelFile;
+
+	public static final String ALGORITHM_NORVIG = "norvig";
+	public static final String ALGORITHM_SYMMETRIC_DELETE = "symspell";
+
+	/**
+	 * The algorithm used to find corrections. {@value #ALGORITHM_NORVIG} generates all variants
+	 * of a misspelled word within two edits and looks them up in the dictionary.
+	 * {@value #ALGORITHM_SYMMETRIC_DELETE} precomputes an index of deletes of the dictionary words
+	 * while loading the model and is much faster on noisy text at the expense of memory.
+	 */
+	public static final String PARAM_ALGORITHM = "algorithm";
+	@ConfigurationParameter(name = PARAM_ALGORITHM, mandatory = true, defaultValue = ALGORITHM_NORVIG)
+	private String algorithm;
+
+	/**
+	 * The maximum number of corrections to cache. Use {@code 0} to disable caching.
+	 */
+	public static final String PARAM_CACHE_SIZE = "cacheSize";
+	@ConfigurationParameter(name = PARAM_CACHE_SIZE, mandatory = true, defaultValue = "100000")
+	private int cacheSize;
 
 	private NorvigSpellingAlgorithm spellingCorrector;
 
@@ -56,11 +79,20 @@ public class NorvigSpellingCorrector
 		throws ResourceInitializationException
 	{
 		super.initialize(context);
-		try {
-			String trainingFile = (String) context.getConfigParameterValue(PARAM_MODEL_FILE);
-
+		if (ALGORITHM_NORVIG.equals(algorithm)) {
 			spellingCorrector = new NorvigSpellingAlgorithm();
-			spellingCorrector.train(getContext().getResourceURL(trainingFile), "UTF-8");
+		}
+		else if (ALGORITHM_SYMMETRIC_DELETE.equals(algorithm)) {
+			spellingCorrector = new SymmetricDeleteSpellingAlgorithm();
+		}
+		else {
+			throw new ResourceInitializationException(new IllegalArgumentException(
+					"Unknown algorithm [" + algorithm + "]"));
+		}
+		spellingCorrector.setCacheSize(cacheSize);
+
+		try {
+			spellingCorrector.train(getContext().getResourceURL(modelFile), "UTF-8");
 		}
 		catch (Exception e) {
 			throw new ResourceInitializationException(e);
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2017
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.dkpro.core.norvig;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Spelling corrector using a precomputed symmetric delete index (SymSpell). During training, all
+ * variants of each dictionary word (or rather of its first {@link #PREFIX_LENGTH} characters)
+ * which can be obtained by deleting up to two characters are indexed. To correct a word, only the
+ * deletes of the word itself need to be generated and looked up in the index. The candidates
+ * found are then verified using the Damerau-Levenshtein distance (optimal string alignment).
+ * <p>
+ * Like {@link NorvigSpellingAlgorithm}, a known word is returned as is, otherwise the most frequent
+ * word at edit distance 1 is preferred over the most frequent word at edit distance 2. Unlike
+ * {@link NorvigSpellingAlgorithm}, edits are not restricted to the letters a-z. Ties are broken
+ * in favor of the lexicographically smaller word.
+ */
+public class SymmetricDeleteSpellingAlgorithm
+	extends NorvigSpellingAlgorithm
+{
+	public static final int MAX_EDIT_DISTANCE = 2;
+
+	/**
+	 * Only deletes of this many leading characters are indexed. This bounds the size of the index
+	 * for long words without affecting the result.
+	 */
+	public static final int PREFIX_LENGTH = 7;
+
+	private final Map<String, String[]> deletes = new HashMap<String, String[]>();
+
+	@Override
+	protected void wordAdded(String aWord)
+	{
+		String prefix = prefix(aWord);
+		for (String delete : deletes(prefix)) {
+			String[] words = deletes.get(delete);
+			if (words == null) {
+				deletes.put(delete, new String[] { aWord });
+			}
+			else {
+				words = Arrays.copyOf(words, words.length + 1);
+				words[words.length - 1] = aWord;
+				deletes.put(delete, words);
+			}
+		}
+	}
+
+	@Override
+	protected String getBestCandidate(String aWord)
+	{
+		// If the word is in the dictionary, it is probably correct
+		if (getCount(aWord) > 0) {
+			return aWord;
+		}
+
+		String[] best = new String[MAX_EDIT_DISTANCE + 1];
+		int[] bestScore = new int[MAX_EDIT_DISTANCE + 1];
+
+		Set<String> seen = new HashSet<String>();
+		for (String delete : deletes(prefix(aWord))) {
+			String[] words = deletes.get(delete);
+			if (words == null) {
+				continue;
+			}
+
+			for (String candidate : words) {
+				if (!seen.add(candidate)) {
+					continue;
+				}
+
+				int distance = distance(aWord, candidate, MAX_EDIT_DISTANCE);
+				if (distance < 1 || distance > MAX_EDIT_DISTANCE) {
+					continue;
+				}
+
+				int score = getCount(candidate);
+				if (score > bestScore[distance] || (score == bestScore[distance]
+						&& candidate.compareTo(best[distance]) < 0)) {
+					bestScore[distance] = score;
+					best[distance] = candidate;
+				}
+			}
+		}
+
+		for (int d = 1; d <= MAX_EDIT_DISTANCE; d++) {
+			if (best[d] != null) {
+				return best[d];
+			}
+		}
+
+		return aWord;
+	}
+
+	private static String prefix(String aWord)
+	{
+		return aWord.length() > PREFIX_LENGTH ? aWord.substring(0, PREFIX_LENGTH) : aWord;
+	}
+
+	/**
+	 * Get the given string and all strings obtained by deleting up to {@link #MAX_EDIT_DISTANCE}
+	 * characters from it.
+	 */
+	private static Set<String> deletes(String aWord)
+	{
+		Set<String> result = new HashSet<String>();
+		result.add(aWord);
+		collectDeletes(aWord, MAX_EDIT_DISTANCE, result);
+		return result;
+	}
+
+	private static void collectDeletes(String aWord, int aRemaining, Set<String> aResult)
+	{
+		if (aRemaining == 0) {
+			return;
+		}
+
+		char[] buffer = new char[Math.max(0, aWord.length() - 1)];
+		for (int i = 0; i < aWord.length(); i++) {
+			aWord.getChars(0, i, buffer, 0);
+			aWord.getChars(i + 1, aWord.length(), buffer, i);
+			String delete = new String(buffer);
+			if (aResult.add(delete)) {
+				collectDeletes(delete, aRemaining - 1, aResult);
+			}
+		}
+	}
+
+	/**
+	 * Optimal string alignment distance, i.e. Levenshtein distance additionally allowing the
+	 * transposition of adjacent characters.
+	 *
+	 * @return the distance or {@code aMax + 1} if the distance is larger than {@code aMax}.
+	 */
+	static int distance(String aA, String aB, int aMax)
+	{
+		int n = aA.length();
+		int m = aB.length();
+		if (Math.abs(n - m) > aMax) {
+			return aMax + 1;
+		}
+
+		int[] prev2 = new int[m + 1];
+		int[] prev = new int[m + 1];
+		int[] cur = new int[m + 1];
+		for (int j = 0; j <= m; j++) {
+			prev[j] = j;
+		}
+		int prevRowMin = 0;
+
+		for (int i = 1; i <= n; i++) {
+			cur[0] = i;
+			int rowMin = cur[0];
+			char ca = aA.charAt(i - 1);
+			for (int j = 1; j <= m; j++) {
+				char cb = aB.charAt(j - 1);
+				int cost = ca == cb ? 0 : 1;
+				int d = Math.min(Math.min(prev[j] + 1, cur[j - 1] + 1), prev[j - 1] + cost);
+				if (i > 1 && j > 1 && ca == aB.charAt(j - 2) && aA.charAt(i - 2) == cb) {
+					d = Math.min(d, prev2[j - 2] + 1);
+				}
+				cur[j] = d;
+				rowMin = Math.min(rowMin, d);
+			}
+
+			// Transpositions look back two rows, so both rows must exceed the maximum
+			if (rowMin > aMax && prevRowMin > aMax) {
+				return aMax + 1;
+			}
+			prevRowMin = rowMin;
+
+			int[] tmp = prev2;
+			prev2 = prev;
+			prev = cur;
+			cur = tmp;
+		}
+
+		return Math.min(prev[m], aMax + 1);
+	}
+}
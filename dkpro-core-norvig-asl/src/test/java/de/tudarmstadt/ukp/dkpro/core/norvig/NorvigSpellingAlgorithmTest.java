@@ -0,0 +1,120 @@
+/*
+ * Copyright 2017
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.dkpro.core.norvig;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+
+import org.junit.Test;
+
+public class NorvigSpellingAlgorithmTest
+{
+    private static final File DICTIONARY = new File("src/test/resources/norvig/dictionary.txt");
+
+    // Misspelling and expected correction, including words longer than the prefix indexed by
+    // the symmetric delete algorithm and edits on both sides of the prefix boundary
+    private static final String[][] CORRECTIONS = {
+            { "cta", "cat" },
+            { "zat", "cat" },
+            { "hous", "house" },
+            { "teh", "the" },
+            { "Teh", "The" },
+            { "speling", "spelling" },
+            { "spellingg", "spelling" },
+            { "algoritm", "algorithm" },
+            { "corection", "correction" },
+            { "xcorrection", "correction" },
+            { "dictinary", "dictionary" },
+            { "dcitionray", "dictionary" },
+            { "internasional", "international" },
+            { "undrestanding", "understanding" },
+            { "pronounciation", "pronunciation" },
+            { "reprezentatve", "representative" },
+            { "correction", "correction" },
+            { "xyzzyq", "xyzzyq" } };
+
+    @Test
+    public void testNorvig()
+        throws Exception
+    {
+        assertCorrections(train(new NorvigSpellingAlgorithm()));
+    }
+
+    @Test
+    public void testSymmetricDelete()
+        throws Exception
+    {
+        assertCorrections(train(new SymmetricDeleteSpellingAlgorithm()));
+    }
+
+    @Test
+    public void testSameCorrections()
+        throws Exception
+    {
+        NorvigSpellingAlgorithm norvig = train(new NorvigSpellingAlgorithm());
+        NorvigSpellingAlgorithm symspell = train(new SymmetricDeleteSpellingAlgorithm());
+
+        for (String[] correction : CORRECTIONS) {
+            assertEquals(correction[0], norvig.correct(correction[0]),
+                    symspell.correct(correction[0]));
+        }
+    }
+
+    @Test
+    public void testCacheSize()
+        throws Exception
+    {
+        NorvigSpellingAlgorithm norvig = train(new NorvigSpellingAlgorithm());
+
+        norvig.setCacheSize(2);
+        assertCorrections(norvig);
+        assertEquals(2, norvig.getCache().size());
+
+        // Disabled cache
+        norvig.setCacheSize(0);
+        assertCorrections(norvig);
+        assertEquals(0, norvig.getCache().size());
+    }
+
+    @Test
+    public void testCacheHit()
+        throws Exception
+    {
+        NorvigSpellingAlgorithm norvig = train(new NorvigSpellingAlgorithm());
+
+        assertEquals("correction", norvig.correct("corection"));
+        assertEquals("Correction", norvig.correct("Corection"));
+        assertTrue(norvig.getCache().getHitCount() > 0);
+    }
+
+    private static NorvigSpellingAlgorithm train(NorvigSpellingAlgorithm aAlgorithm)
+        throws Exception
+    {
+        aAlgorithm.train(DICTIONARY.toURI().toURL(), "UTF-8");
+        return aAlgorithm;
+    }
+
+    private static void assertCorrections(NorvigSpellingAlgorithm aAlgorithm)
+    {
+        for (String[] correction : CORRECTIONS) {
+            assertEquals(correction[1], aAlgorithm.correct(correction[0]));
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2017
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.dkpro.core.norvig;
+
+import static java.util.Arrays.asList;
+import static org.apache.uima.fit.factory.AnalysisEngineFactory.createEngine;
+import static org.apache.uima.fit.util.JCasUtil.select;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.uima.analysis_engine.AnalysisEngine;
+import org.apache.uima.fit.testing.factory.TokenBuilder;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.resource.ResourceInitializationException;
+import org.junit.Test;
+
+import de.tudarmstadt.ukp.dkpro.core.api.anomaly.type.SpellingAnomaly;
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Sentence;
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token;
+import de.tudarmstadt.ukp.dkpro.core.api.transform.type.SofaChangeAnnotation;
+
+public class NorvigSpellingCorrectorTest
+{
+    @Test
+    public void testNorvig()
+        throws Exception
+    {
+        runTest(NorvigSpellingCorrector.ALGORITHM_NORVIG, 100);
+    }
+
+    @Test
+    public void testSymmetricDelete()
+        throws Exception
+    {
+        runTest(NorvigSpellingCorrector.ALGORITHM_SYMMETRIC_DELETE, 100);
+    }
+
+    @Test
+    public void testWithoutCache()
+        throws Exception
+    {
+        runTest(NorvigSpellingCorrector.ALGORITHM_SYMMETRIC_DELETE, 0);
+    }
+
+    @Test(expected = ResourceInitializationException.class)
+    public void testUnknownAlgorithm()
+        throws Exception
+    {
+        createEngine(NorvigSpellingCorrector.class,
+                NorvigSpellingCorrector.PARAM_MODEL_FILE, "norvig/dictionary.txt",
+                NorvigSpellingCorrector.PARAM_ALGORITHM, "unknown");
+    }
+
+    private static void runTest(String aAlgorithm, int aCacheSize)
+        throws Exception
+    {
+        AnalysisEngine engine = createEngine(NorvigSpellingCorrector.class,
+                NorvigSpellingCorrector.PARAM_MODEL_FILE, "norvig/dictionary.txt",
+                NorvigSpellingCorrector.PARAM_ALGORITHM, aAlgorithm,
+                NorvigSpellingCorrector.PARAM_CACHE_SIZE, aCacheSize);
+
+        JCas jcas = engine.newJCas();
+        TokenBuilder<Token, Sentence> tb = TokenBuilder.create(Token.class, Sentence.class);
+        tb.buildTokens(jcas, "The cta sat on the mat .\nTeh undrestanding of the dcitionray .");
+
+        // Only tokens marked as spelling anomalies are corrected
+        List<String> errors = asList("cta", "Teh", "undrestanding", "dcitionray");
+        for (Token token : select(jcas, Token.class)) {
+            if (errors.contains(token.getCoveredText())) {
+                new SpellingAnomaly(jcas, token.getBegin(), token.getEnd()).addToIndexes();
+            }
+        }
+
+        engine.process(jcas);
+
+        List<String> corrections = new ArrayList<String>();
+        for (SofaChangeAnnotation change : select(jcas, SofaChangeAnnotation.class)) {
+            corrections.add(change.getCoveredText() + " -> " + change.getValue());
+        }
+        assertEquals(asList("cta -> cat", "Teh -> The", "undrestanding -> understanding",
+                "dcitionray -> dictionary"), corrections);
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2017
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.dkpro.core.performance;
+
+/**
+ * Measurements for a single component of a pipeline run with {@link PipelineProfiler}. All
+ * histograms contain one value per processed document.
+ */
+public class ComponentProfile
+{
+    private final String name;
+    private final Histogram latency = new Histogram();
+    private final Histogram allocatedBytes = new Histogram();
+    private final Histogram addedFeatureStructures = new Histogram();
+
+    public ComponentProfile(String aName)
+    {
+        name = aName;
+    }
+
+    /**
+     * @return the name of the component. For components of nested aggregates, the names of the
+     *         enclosing aggregates are prepended, separated by a slash.
+     */
+    public String getName()
+    {
+        return name;
+    }
+
+    /**
+     * @return the processing time in nanoseconds.
+     */
+    public Histogram getLatency()
+    {
+        return latency;
+    }
+
+    /**
+     * @return the number of bytes allocated on the heap while processing. Empty if the JVM does
+     *         not support measuring allocations per thread.
+     */
+    public Histogram getAllocatedBytes()
+    {
+        return allocatedBytes;
+    }
+
+    /**
+     * @return the number of indexed feature structures added by the component. If a component
+     *         removes more feature structures than it adds, {@code 0} is recorded. Empty if
+     *         counting feature structures has been disabled.
+     */
+    public Histogram getAddedFeatureStructures()
+    {
+        return addedFeatureStructures;
+    }
+}
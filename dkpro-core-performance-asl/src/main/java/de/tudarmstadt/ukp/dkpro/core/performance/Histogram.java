@@ -0,0 +1,154 @@
+/*
+ * Copyright 2017
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.dkpro.core.performance;
+
+import java.util.Arrays;
+
+/**
+ * Histogram of non-negative long values (e.g. latencies in nanoseconds) with a fixed memory
+ * footprint. Like HdrHistogram, the buckets are linear within each power of two, so every value
+ * is recorded with a relative error of less than 1% regardless of its magnitude. Recording a
+ * value is constant time and does not allocate.
+ */
+public class Histogram
+{
+    // 2^(SUB_BUCKET_BITS - 1) buckets per power of two, i.e. a relative error below 1/128
+    private static final int SUB_BUCKET_BITS = 8;
+    private static final int SUB_BUCKET_HALF = 1 << (SUB_BUCKET_BITS - 1);
+
+    private final long[] counts = new long[SUB_BUCKET_HALF * (64 - SUB_BUCKET_BITS + 2)];
+    private long totalCount;
+    private long sum;
+    private long min = Long.MAX_VALUE;
+    private long max = Long.MIN_VALUE;
+
+    /**
+     * @param aValue
+     *            the value to record. Negative values are recorded as {@code 0}.
+     */
+    public void record(long aValue)
+    {
+        long value = Math.max(0, aValue);
+        counts[indexOf(value)]++;
+        totalCount++;
+        sum += value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Add all values recorded by the given histogram to this histogram.
+     *
+     * @param aOther
+     *            the other histogram.
+     */
+    public void add(Histogram aOther)
+    {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += aOther.counts[i];
+        }
+        totalCount += aOther.totalCount;
+        sum += aOther.sum;
+        min = Math.min(min, aOther.min);
+        max = Math.max(max, aOther.max);
+    }
+
+    public long getCount()
+    {
+        return totalCount;
+    }
+
+    public long getSum()
+    {
+        return sum;
+    }
+
+    public long getMin()
+    {
+        return totalCount > 0 ? min : 0;
+    }
+
+    public long getMax()
+    {
+        return totalCount > 0 ? max : 0;
+    }
+
+    public double getMean()
+    {
+        return totalCount > 0 ? (double) sum / totalCount : 0;
+    }
+
+    /**
+     * Get the value below or at which the given percentage of recorded values lies. The result is
+     * the largest value which falls into the same bucket as the exact percentile.
+     *
+     * @param aPercentile
+     *            the percentile, between {@code 0} and {@code 100}.
+     * @return the value at the percentile or {@code 0} if nothing was recorded.
+     */
+    public long getValueAtPercentile(double aPercentile)
+    {
+        if (totalCount == 0) {
+            return 0;
+        }
+
+        double percentile = Math.min(Math.max(aPercentile, 0), 100);
+        long target = Math.max(1, (long) Math.ceil(percentile / 100 * totalCount));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return Math.max(min, Math.min(max, highestValueOf(i)));
+            }
+        }
+        return max;
+    }
+
+    public void reset()
+    {
+        Arrays.fill(counts, 0);
+        totalCount = 0;
+        sum = 0;
+        min = Long.MAX_VALUE;
+        max = Long.MIN_VALUE;
+    }
+
+    static int indexOf(long aValue)
+    {
+        int magnitude = 63 - Long.numberOfLeadingZeros(aValue);
+        if (magnitude < SUB_BUCKET_BITS) {
+            return (int) aValue;
+        }
+
+        int shift = magnitude - SUB_BUCKET_BITS + 1;
+        return shift * SUB_BUCKET_HALF + (int) (aValue >>> shift);
+    }
+
+    static long highestValueOf(int aIndex)
+    {
+        if (aIndex < 2 * SUB_BUCKET_HALF) {
+            return aIndex;
+        }
+
+        int shift = aIndex / SUB_BUCKET_HALF - 1;
+        long subBucket = aIndex - shift * SUB_BUCKET_HALF;
+        long highest = ((subBucket + 1) << shift) - 1;
+        // The last bucket would overflow
+        return highest < 0 ? Long.MAX_VALUE : highest;
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2017
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.dkpro.core.performance;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Measurements of a pipeline run with {@link PipelineProfiler}, consisting of a
+ * {@link ComponentProfile} per component and statistics about the processed documents. The
+ * results can be exported as CSV or JSON.
+ */
+public class PipelineProfile
+{
+    private static final double[] PERCENTILES = { 50, 90, 99, 99.9 };
+
+    private final List<ComponentProfile> components;
+    private final Histogram latency = new Histogram();
+    private final Histogram textLength = new Histogram();
+    private final Histogram featureStructures = new Histogram();
+
+    public PipelineProfile(List<ComponentProfile> aComponents)
+    {
+        components = Collections.unmodifiableList(new ArrayList<>(aComponents));
+    }
+
+    /**
+     * @return the profiles of the components in the order in which they are run.
+     */
+    public List<ComponentProfile> getComponents()
+    {
+        return components;
+    }
+
+    /**
+     * @return the time in nanoseconds needed by all components together to process a document.
+     */
+    public Histogram getLatency()
+    {
+        return latency;
+    }
+
+    /**
+     * @return the length of the document text in characters.
+     */
+    public Histogram getTextLength()
+    {
+        return textLength;
+    }
+
+    /**
+     * @return the number of indexed feature structures in the CAS after processing. Empty if
+     *         counting feature structures has been disabled.
+     */
+    public Histogram getFeatureStructures()
+    {
+        return featureStructures;
+    }
+
+    public long getDocumentCount()
+    {
+        return latency.getCount();
+    }
+
+    /**
+     * Write one line per component with the total time, the share of the pipeline time, the
+     * latency percentiles, the mean allocation and the mean number of added feature structures
+     * per document. Times are given in nanoseconds.
+     *
+     * @param aWriter
+     *            the target.
+     * @throws IOException
+     *             if the results cannot be written.
+     */
+    public void writeCsv(Writer aWriter)
+        throws IOException
+    {
+        PrintWriter out = new PrintWriter(aWriter);
+        out.print("component,documents,total_ns,share,mean_ns,min_ns");
+        for (double p : PERCENTILES) {
+            out.print(",p" + formatPercentile(p).replace('.', '_') + "_ns");
+        }
+        out.println(",max_ns,mean_allocated_bytes,mean_added_fs");
+
+        for (ComponentProfile component : components) {
+            Histogram h = component.getLatency();
+            out.print(escapeCsv(component.getName()));
+            out.printf(Locale.US, ",%d,%d,%.4f,%.0f,%d", h.getCount(), h.getSum(), share(h),
+                    h.getMean(), h.getMin());
+            for (double p : PERCENTILES) {
+                out.print("," + h.getValueAtPercentile(p));
+            }
+            out.printf(Locale.US, ",%d,%.0f,%.1f%n", h.getMax(),
+                    component.getAllocatedBytes().getMean(),
+                    component.getAddedFeatureStructures().getMean());
+        }
+        out.flush();
+        if (out.checkError()) {
+            throw new IOException("Unable to write CSV");
+        }
+    }
+
+    /**
+     * Write the complete profile as a JSON object.
+     *
+     * @param aWriter
+     *            the target.
+     * @throws IOException
+     *             if the results cannot be written.
+     */
+    public void writeJson(Writer aWriter)
+        throws IOException
+    {
+        PrintWriter out = new PrintWriter(aWriter);
+        out.println("{");
+        out.println("  \"documents\": " + getDocumentCount() + ",");
+        out.println("  \"latencyNs\": " + toJson(latency) + ",");
+        out.println("  \"textLength\": " + toJson(textLength) + ",");
+        out.println("  \"featureStructures\": " + toJson(featureStructures) + ",");
+        out.println("  \"components\": [");
+        for (int i = 0; i < components.size(); i++) {
+            ComponentProfile component = components.get(i);
+            out.println("    {");
+            out.println("      \"name\": " + escapeJson(component.getName()) + ",");
+            out.printf(Locale.US, "      \"share\": %.4f,%n", share(component.getLatency()));
+            out.println("      \"latencyNs\": " + toJson(component.getLatency()) + ",");
+            out.println("      \"allocatedBytes\": " + toJson(component.getAllocatedBytes())
+                    + ",");
+            out.println("      \"addedFeatureStructures\": "
+                    + toJson(component.getAddedFeatureStructures()));
+            out.println(i < components.size() - 1 ? "    }," : "    }");
+        }
+        out.println("  ]");
+        out.println("}");
+        out.flush();
+        if (out.checkError()) {
+            throw new IOException("Unable to write JSON");
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        StringWriter sw = new StringWriter();
+        try {
+            writeCsv(sw);
+        }
+        catch (IOException e) {
+            // Cannot happen with a StringWriter
+            throw new IllegalStateException(e);
+        }
+        return sw.toString();
+    }
+
+    private double share(Histogram aComponentLatency)
+    {
+        return latency.getSum() > 0 ? (double) aComponentLatency.getSum() / latency.getSum() : 0;
+    }
+
+    private static String toJson(Histogram aHistogram)
+    {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"count\": ").append(aHistogram.getCount());
+        sb.append(", \"sum\": ").append(aHistogram.getSum());
+        sb.append(", \"mean\": ").append(String.format(Locale.US, "%.1f", aHistogram.getMean()));
+        sb.append(", \"min\": ").append(aHistogram.getMin());
+        for (double p : PERCENTILES) {
+            sb.append(", \"p").append(formatPercentile(p)).append("\": ")
+                    .append(aHistogram.getValueAtPercentile(p));
+        }
+        sb.append(", \"max\": ").append(aHistogram.getMax());
+        sb.append("}");
+        return sb.toString();
+    }
+
+    private static String formatPercentile(double aPercentile)
+    {
+        return aPercentile == Math.rint(aPercentile) ? Long.toString((long) aPercentile)
+                : Double.toString(aPercentile);
+    }
+
+    private static String escapeCsv(String aValue)
+    {
+        if (aValue.indexOf(',') < 0 && aValue.indexOf('"') < 0 && aValue.indexOf('\n') < 0) {
+            return aValue;
+        }
+        return '"' + aValue.replace("\"", "\"\"") + '"';
+    }
+
+    private static String escapeJson(String aValue)
+    {
+        StringBuilder sb = new StringBuilder("\"");
+        for (int i = 0; i < aValue.length(); i++) {
+            char c = aValue.charAt(i);
+            switch (c) {
+            case '"':
+                sb.append("\\\"");
+                break;
+            case '\\':
+                sb.append("\\\\");
+                break;
+            default:
+                if (c < 0x20) {
+                    sb.append(String.format("\\u%04x", (int) c));
+                }
+                else {
+                    sb.append(c);
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
@@ -0,0 +1,312 @@
+/*
+ * Copyright 2017
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.dkpro.core.performance;
+
+import static org.apache.uima.fit.factory.AnalysisEngineFactory.createEngineDescription;
+import static org.apache.uima.fit.factory.CollectionReaderFactory.createReader;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.uima.UIMAFramework;
+import org.apache.uima.analysis_engine.AnalysisEngine;
+import org.apache.uima.analysis_engine.AnalysisEngineDescription;
+import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
+import org.apache.uima.analysis_engine.metadata.FixedFlow;
+import org.apache.uima.analysis_engine.metadata.FlowConstraints;
+import org.apache.uima.cas.CAS;
+import org.apache.uima.cas.FSIterator;
+import org.apache.uima.cas.FeatureStructure;
+import org.apache.uima.collection.CollectionException;
+import org.apache.uima.collection.CollectionReader;
+import org.apache.uima.collection.CollectionReaderDescription;
+import org.apache.uima.resource.ResourceInitializationException;
+import org.apache.uima.resource.ResourceSpecifier;
+import org.apache.uima.resource.metadata.MetaDataObject;
+import org.apache.uima.util.CasCreationUtils;
+import org.apache.uima.util.InvalidXMLException;
+
+/**
+ * Runs a pipeline and measures each of its components. Aggregates with a fixed flow (such as those
+ * created by uimaFIT) are flattened, so each primitive component is instantiated and measured
+ * separately. Other aggregates are measured as a whole. Note that flattening does not apply
+ * parameter overrides or sofa mappings declared on the aggregate.
+ * <p>
+ * For every component and document, the processing time is measured in nanoseconds and, if
+ * supported by the JVM, the number of bytes allocated by the processing thread. Optionally, the
+ * number of indexed feature structures added by each component is counted. This requires iterating
+ * over all indexed feature structures after each component, but does not affect the measured
+ * times.
+ * <p>
+ * Example:
+ *
+ * <pre>
+ * PipelineProfile profile = PipelineProfiler.runPipeline(reader, segmenter, tagger, parser);
+ * profile.writeCsv(new FileWriter("target/profile.csv"));
+ * </pre>
+ */
+public class PipelineProfiler
+{
+    private final List<String> names = new ArrayList<>();
+    private final List<AnalysisEngine> engines = new ArrayList<>();
+    private final List<ComponentProfile> componentProfiles = new ArrayList<>();
+    private final PipelineProfile profile;
+
+    private final com.sun.management.ThreadMXBean threadBean;
+    private boolean countFeatureStructures = true;
+
+    public PipelineProfiler(AnalysisEngineDescription aDesc)
+        throws ResourceInitializationException
+    {
+        flatten("", null, aDesc);
+
+        for (int i = 0; i < engines.size(); i++) {
+            componentProfiles.add(new ComponentProfile(names.get(i)));
+        }
+        profile = new PipelineProfile(componentProfiles);
+
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        com.sun.management.ThreadMXBean allocationBean = null;
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            allocationBean = (com.sun.management.ThreadMXBean) bean;
+            if (allocationBean.isThreadAllocatedMemorySupported()) {
+                allocationBean.setThreadAllocatedMemoryEnabled(true);
+            }
+            else {
+                allocationBean = null;
+            }
+        }
+        threadBean = allocationBean;
+    }
+
+    /**
+     * @param aName
+     *            the key of the component in the enclosing aggregate or {@code null} for the
+     *            outermost component.
+     */
+    private void flatten(String aPrefix, String aName, AnalysisEngineDescription aDesc)
+        throws ResourceInitializationException
+    {
+        String[] flow = fixedFlow(aDesc);
+        if (flow == null) {
+            names.add(aPrefix + (aName != null ? aName : name(aDesc)));
+            engines.add(UIMAFramework.produceAnalysisEngine(aDesc));
+            return;
+        }
+
+        String prefix = aName != null ? aPrefix + aName + "/" : aPrefix;
+
+        Map<String, ResourceSpecifier> delegates;
+        try {
+            delegates = aDesc.getDelegateAnalysisEngineSpecifiers();
+        }
+        catch (InvalidXMLException e) {
+            throw new ResourceInitializationException(e);
+        }
+
+        for (String key : flow) {
+            ResourceSpecifier delegate = delegates.get(key);
+            if (delegate instanceof AnalysisEngineDescription) {
+                flatten(prefix, key, (AnalysisEngineDescription) delegate);
+            }
+            else {
+                names.add(prefix + key);
+                engines.add(UIMAFramework.produceAnalysisEngine(delegate));
+            }
+        }
+    }
+
+    private static String[] fixedFlow(AnalysisEngineDescription aDesc)
+    {
+        if (aDesc.isPrimitive()) {
+            return null;
+        }
+
+        FlowConstraints constraints = aDesc.getAnalysisEngineMetaData().getFlowConstraints();
+        if (constraints instanceof FixedFlow) {
+            return ((FixedFlow) constraints).getFixedFlow();
+        }
+
+        return null;
+    }
+
+    private static String name(AnalysisEngineDescription aDesc)
+    {
+        String name = aDesc.isPrimitive() ? aDesc.getAnnotatorImplementationName() : null;
+        if (name == null) {
+            name = aDesc.getMetaData().getName();
+        }
+        return name;
+    }
+
+    /**
+     * @param aCountFeatureStructures
+     *            whether to count the indexed feature structures after each component.
+     */
+    public void setCountFeatureStructures(boolean aCountFeatureStructures)
+    {
+        countFeatureStructures = aCountFeatureStructures;
+    }
+
+    public boolean isCountFeatureStructures()
+    {
+        return countFeatureStructures;
+    }
+
+    /**
+     * Process the given CAS with all components and record the measurements.
+     *
+     * @param aCas
+     *            the CAS.
+     * @throws AnalysisEngineProcessException
+     *             if a component fails.
+     */
+    public void process(CAS aCas)
+        throws AnalysisEngineProcessException
+    {
+        long threadId = Thread.currentThread().getId();
+        long fsCount = countFeatureStructures ? countFeatureStructures(aCas) : 0;
+        long documentTime = 0;
+
+        for (int i = 0; i < engines.size(); i++) {
+            ComponentProfile component = componentProfiles.get(i);
+
+            long allocatedBefore = threadBean != null
+                    ? threadBean.getThreadAllocatedBytes(threadId) : 0;
+            long begin = System.nanoTime();
+            engines.get(i).process(aCas);
+            long time = System.nanoTime() - begin;
+            long allocatedAfter = threadBean != null
+                    ? threadBean.getThreadAllocatedBytes(threadId) : 0;
+
+            component.getLatency().record(time);
+            documentTime += time;
+
+            if (threadBean != null && allocatedBefore >= 0 && allocatedAfter >= 0) {
+                component.getAllocatedBytes().record(allocatedAfter - allocatedBefore);
+            }
+
+            if (countFeatureStructures) {
+                long newFsCount = countFeatureStructures(aCas);
+                component.getAddedFeatureStructures().record(newFsCount - fsCount);
+                fsCount = newFsCount;
+            }
+        }
+
+        profile.getLatency().record(documentTime);
+        String text = aCas.getDocumentText();
+        profile.getTextLength().record(text != null ? text.length() : 0);
+        if (countFeatureStructures) {
+            profile.getFeatureStructures().record(fsCount);
+        }
+    }
+
+    private static long countFeatureStructures(CAS aCas)
+    {
+        long count = 0;
+        Iterator<CAS> views = aCas.getViewIterator();
+        while (views.hasNext()) {
+            CAS view = views.next();
+            FSIterator<FeatureStructure> i = view.getIndexRepository()
+                    .getAllIndexedFS(view.getTypeSystem().getTopType());
+            while (i.hasNext()) {
+                i.next();
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public void collectionProcessComplete()
+        throws AnalysisEngineProcessException
+    {
+        for (AnalysisEngine engine : engines) {
+            engine.collectionProcessComplete();
+        }
+    }
+
+    public void destroy()
+    {
+        for (AnalysisEngine engine : engines) {
+            engine.destroy();
+        }
+    }
+
+    public PipelineProfile getProfile()
+    {
+        return profile;
+    }
+
+    /**
+     * Run the given pipeline like
+     * {@link org.apache.uima.fit.pipeline.SimplePipeline#runPipeline(CollectionReaderDescription, AnalysisEngineDescription...)}
+     * and measure its components.
+     *
+     * @param aReaderDesc
+     *            the reader.
+     * @param aDescs
+     *            the components.
+     * @return the measurements.
+     * @throws ResourceInitializationException
+     *             if a component cannot be initialized.
+     * @throws AnalysisEngineProcessException
+     *             if a component fails.
+     * @throws IOException
+     *             if the reader fails.
+     */
+    public static PipelineProfile runPipeline(CollectionReaderDescription aReaderDesc,
+            AnalysisEngineDescription... aDescs)
+        throws ResourceInitializationException, AnalysisEngineProcessException, IOException
+    {
+        AnalysisEngineDescription aggregate = aDescs.length == 1 ? aDescs[0]
+                : createEngineDescription(aDescs);
+
+        CollectionReader reader = createReader(aReaderDesc);
+        PipelineProfiler profiler = new PipelineProfiler(aggregate);
+        try {
+            List<MetaDataObject> metaData = new ArrayList<>();
+            metaData.add(reader.getMetaData());
+            metaData.add(aggregate);
+            CAS cas = CasCreationUtils.createCas(metaData);
+            reader.typeSystemInit(cas.getTypeSystem());
+
+            while (reader.hasNext()) {
+                reader.getNext(cas);
+                profiler.process(cas);
+                cas.reset();
+            }
+
+            profiler.collectionProcessComplete();
+        }
+        catch (CollectionException e) {
+            throw new IOException(e);
+        }
+        finally {
+            reader.close();
+            reader.destroy();
+            profiler.destroy();
+        }
+
+        return profiler.getProfile();
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2017
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.tudarmstadt.ukp.dkpro.core.performance;
+
+import static org.apache.uima.fit.factory.AnalysisEngineFactory.createEngineDescription;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringWriter;
+
+import org.apache.uima.fit.component.NoOpAnnotator;
+import org.apache.uima.fit.factory.JCasFactory;
+import org.apache.uima.jcas.JCas;
+import org.junit.Test;
+
+import de.tudarmstadt.ukp.dkpro.core.tokit.BreakIteratorSegmenter;
+
+public class PipelineProfilerTest
+{
+    @Test
+    public void testProfile()
+        throws Exception
+    {
+        PipelineProfiler profiler = new PipelineProfiler(createEngineDescription(
+                createEngineDescription(BreakIteratorSegmenter.class),
+                createEngineDescription(NoOpAnnotator.class)));
+
+        JCas jcas = JCasFactory.createJCas();
+        for (int i = 0; i < 3; i++) {
+            jcas.reset();
+            jcas.setDocumentLanguage("en");
+            jcas.setDocumentText("This is a test. This is another test.");
+            profiler.process(jcas.getCas());
+        }
+        profiler.collectionProcessComplete();
+        profiler.destroy();
+
+        PipelineProfile profile = profiler.getProfile();
+        assertEquals(3, profile.getDocumentCount());
+        assertEquals(2, profile.getComponents().size());
+
+        ComponentProfile segmenter = profile.getComponents().get(0);
+        assertTrue(segmenter.getName().contains(BreakIteratorSegmenter.class.getSimpleName()));
+        assertEquals(3, segmenter.getLatency().getCount());
+        // 10 tokens and 2 sentences
+        assertEquals(12, segmenter.getAddedFeatureStructures().getMax());
+
+        ComponentProfile noop = profile.getComponents().get(1);
+        assertEquals(0, noop.getAddedFeatureStructures().getMax());
+
+        StringWriter csv = new StringWriter();
+        profile.writeCsv(csv);
+        String[] lines = csv.toString().split("\\r?\\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("component,documents,total_ns"));
+
+        StringWriter json = new StringWriter();
+        profile.writeJson(json);
+        assertTrue(json.toString().contains("\"documents\": 3"));
+    }
+
+    @Test
+    public void testHistogramPercentiles()
+    {
+        Histogram histogram = new Histogram();
+        for (int i = 1; i <= 100000; i++) {
+            histogram.record(i * 1000L);
+        }
+
+        assertEquals(100000, histogram.getCount());
+        assertEquals(1000, histogram.getMin());
+        assertEquals(100000000, histogram.getMax());
+        assertEquals(50000000, histogram.getValueAtPercentile(50), 50000000 * 0.01);
+        assertEquals(99000000, histogram.getValueAtPercentile(99), 99000000 * 0.01);
+        assertEquals(100000000, histogram.getValueAtPercentile(100));
+    }
+}
@@ -17,17 +17,10 @@
  */
 package de.tudarmstadt.ukp.dkpro.core.rftagger;
 
-import static org.apache.commons.io.IOUtils.closeQuietly;
-
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.ByteArrayOutputStream;
 import java.io.DataInput;
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
-import java.lang.ProcessBuilder.Redirect;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
@@ -48,6 +41,7 @@ import de.tudarmstadt.ukp.dkpro.core.api.lexmorph.type.morph.MorphologicalFeatur
 import de.tudarmstadt.ukp.dkpro.core.api.lexmorph.type.pos.POS;
 import de.tudarmstadt.ukp.dkpro.core.api.metadata.SingletonTagset;
 import de.tudarmstadt.ukp.dkpro.core.api.parameter.ComponentParameters;
+import de.tudarmstadt.ukp.dkpro.core.api.resources.ExternalProcessPool;
 import de.tudarmstadt.ukp.dkpro.core.api.resources.LittleEndianDataInputStream;
 import de.tudarmstadt.ukp.dkpro.core.api.resources.MappingProvider;
 import de.tudarmstadt.ukp.dkpro.core.api.resources.MappingProviderFactory;
@@ -118,12 +112,30 @@ public class RfTagger
     @ConfigurationParameter(name = PARAM_PRINT_TAGSET, mandatory = true, defaultValue = "false")
     protected boolean printTagSet;
 
+    /**
+     * The number of RFTagger processes to run. The processes are kept running between documents
+     * and the sentences of a document are distributed over them.
+     *
+     * Default: {@code 1}
+     */
+    public static final String PARAM_NUM_PROCESSES = "numProcesses";
+    @ConfigurationParameter(name = PARAM_NUM_PROCESSES, mandatory = true, defaultValue = "1")
+    private int numProcesses;
+
+    /**
+     * The time in milliseconds RFTagger may take to tag a single sentence before the process is
+     * restarted and processing fails. Set to {@code 0} to wait indefinitely.
+     *
+     * Default: {@code 0}
+     */
+    public static final String PARAM_TIMEOUT = "timeout";
+    @ConfigurationParameter(name = PARAM_TIMEOUT, mandatory = true, defaultValue = "0")
+    private long timeout;
+
     private MappingProvider mappingProvider;
     private RuntimeProvider runtimeProvider;
     private ModelProviderBase<File> modelProvider;
-    private Process process;
-    private BufferedWriter writer;
-    private BufferedReader reader;
+    private ExternalProcessPool pool;
     private MorphologicalFeaturesParser featuresParser;
 
     private String encodingLoadedFromModel;
@@ -202,7 +214,7 @@ public class RfTagger
     private void ensureTaggerRunning()
         throws AnalysisEngineProcessException
     {
-        if (process == null) {
+        if (pool == null) {
             try {
                 PlatformDetector pd = new PlatformDetector();
                 String platform = pd.getPlatformId();
@@ -214,15 +226,13 @@ public class RfTagger
                 cmd.add(executableFile.getAbsolutePath());
                 cmd.add("-q"); // quiet mode
                 cmd.add(modelProvider.getResource().getAbsolutePath());
-                ProcessBuilder pb = new ProcessBuilder();
-                pb.redirectError(Redirect.INHERIT);
-                pb.command(cmd);
-                process = pb.start();
-
-                writer = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(),
-                        getEncoding()));
-                reader = new BufferedReader(new InputStreamReader(process.getInputStream(),
-                        getEncoding()));
+
+                // The tagger waits for an empty line marking the end of a sequence before it
+                // starts tagging and terminates its output with an empty line as well.
+                pool = new ExternalProcessPool(cmd, getEncoding(),
+                        ExternalProcessPool.BLANK_LINE_DELIMITED);
+                pool.setSize(numProcesses);
+                pool.setTimeout(timeout);
             }
             catch (Exception e) {
                 throw new AnalysisEngineProcessException(e);
@@ -250,17 +260,29 @@ public class RfTagger
         configure(aJCas);
         ensureTaggerRunning();
 
-        try {
-            for (Sentence sentence : JCasUtil.select(aJCas, Sentence.class)) {
-                StringBuilder sb = new StringBuilder();
-                List<Token> tokens = JCasUtil.selectCovered(aJCas, Token.class,
-                        sentence.getBegin(), sentence.getEnd());
-                for (Token token : tokens) {
-                    sb.append(token.getCoveredText() + "\n");
-                }
+        List<List<Token>> sentences = new ArrayList<>();
+        List<List<String>> requests = new ArrayList<>();
+        for (Sentence sentence : JCasUtil.select(aJCas, Sentence.class)) {
+            List<Token> tokens = JCasUtil.selectCovered(aJCas, Token.class,
+                    sentence.getBegin(), sentence.getEnd());
+
+            // Skip empty sentences
+            if (tokens.isEmpty()) {
+                continue;
+            }
+
+            List<String> request = new ArrayList<>(tokens.size());
+            for (Token token : tokens) {
+                request.add(token.getCoveredText());
+            }
+            sentences.add(tokens);
+            requests.add(request);
+        }
 
-                writeInput(sb);
-                annotateOutput(readOutput(), aJCas, tokens);
+        try {
+            List<List<String>> responses = pool.processAll(requests);
+            for (int i = 0; i < sentences.size(); i++) {
+                annotateOutput(responses.get(i), aJCas, sentences.get(i));
             }
         }
         catch (IOException e) {
@@ -314,41 +336,23 @@ public class RfTagger
         return string.substring(0, idx);
     }
 
-    private List<String> readOutput()
-        throws IOException
+    @Override
+    public void collectionProcessComplete()
+        throws AnalysisEngineProcessException
     {
-        List<String> readLines = new ArrayList<>();
-
-        String line = null;
-        while ((line = reader.readLine()) != null) {
-            readLines.add(line);
-            if (!reader.ready()) {
-                break;
-            }
+        if (pool != null) {
+            pool.close();
+            pool = null;
         }
-
-        return readLines;
-    }
-
-    private void writeInput(StringBuilder sb)
-        throws IOException
-    {
-        // the tagger waits of an empty line to mark end of sequence before it
-        // starts tagging
-        sb.append("\n");
-        sb.append("\n");
-
-        writer.write(sb.toString());
-        writer.flush();
     }
 
     @Override
-    public void collectionProcessComplete()
-        throws AnalysisEngineProcessException
+    public void destroy()
     {
-        closeQuietly(writer);
-        closeQuietly(reader);
-        process.destroy();
-        process = null;
+        if (pool != null) {
+            pool.close();
+            pool = null;
+        }
+        super.destroy();
     }
 }
@@ -18,6 +18,7 @@
  */
 package de.tudarmstadt.ukp.dkpro.core.sfst;
 
+import static java.util.Arrays.asList;
 import static org.apache.uima.fit.util.JCasUtil.select;
 import static org.apache.uima.fit.util.JCasUtil.selectCovered;
 
@@ -26,11 +27,10 @@ import java.io.ByteArrayOutputStream;
 import java.io.DataInput;
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
-import java.io.PrintWriter;
-import java.lang.ProcessBuilder.Redirect;
+import java.io.Writer;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Properties;
 
@@ -47,6 +47,7 @@ import de.tudarmstadt.ukp.dkpro.core.api.lexmorph.morph.MorphologicalFeaturesPar
 import de.tudarmstadt.ukp.dkpro.core.api.lexmorph.type.morph.MorphologicalFeatures;
 import de.tudarmstadt.ukp.dkpro.core.api.metadata.SingletonTagset;
 import de.tudarmstadt.ukp.dkpro.core.api.parameter.ComponentParameters;
+import de.tudarmstadt.ukp.dkpro.core.api.resources.ExternalProcessPool;
 import de.tudarmstadt.ukp.dkpro.core.api.resources.LittleEndianDataInputStream;
 import de.tudarmstadt.ukp.dkpro.core.api.resources.ModelProviderBase;
 import de.tudarmstadt.ukp.dkpro.core.api.resources.ResourceUtils;
@@ -135,9 +136,33 @@ public class SfstAnnotator
     @ConfigurationParameter(name = PARAM_MORPH_MAPPING_LOCATION, mandatory = false)
     private String morphMappingLocation;
 
+    /**
+     * The number of SFST processes to run. The processes are kept running between documents
+     * and the sentences of a document are distributed over them.
+     *
+     * Default: {@code 1}
+     */
+    public static final String PARAM_NUM_PROCESSES = "numProcesses";
+    @ConfigurationParameter(name = PARAM_NUM_PROCESSES, mandatory = true, defaultValue = "1")
+    private int numProcesses;
+
+    /**
+     * The time in milliseconds SFST may take to analyze a single sentence before the process is
+     * restarted and processing fails. Set to {@code 0} to wait indefinitely.
+     *
+     * Default: {@code 0}
+     */
+    public static final String PARAM_TIMEOUT = "timeout";
+    @ConfigurationParameter(name = PARAM_TIMEOUT, mandatory = true, defaultValue = "0")
+    private long timeout;
+
     private ModelProviderBase<File> modelProvider;
     private MorphologicalFeaturesParser featuresParser;
     private RuntimeProvider runtimeProvider;
+
+    private ExternalProcessPool pool;
+    private File poolModel;
+    private String poolEncoding;
     
     @Override
     public void initialize(UimaContext aContext)
@@ -219,123 +244,160 @@ public class SfstAnnotator
                     new Throwable("Model should contain encoding metadata"));
         }
         File model = modelProvider.getResource();
-        File executable;
 
+        List<List<Token>> sentences = new ArrayList<>();
+        List<List<String>> requests = new ArrayList<>();
+        for (Sentence sentence : select(aJCas, Sentence.class)) {
+            List<Token> tokens = selectCovered(Token.class, sentence);
+
+            // Skip empty sentences
+            if (tokens.isEmpty()) {
+                continue;
+            }
+
+            List<String> request = new ArrayList<>(tokens.size());
+            for (Token token : tokens) {
+                request.add(token.getCoveredText());
+            }
+            sentences.add(tokens);
+            requests.add(request);
+        }
+
+        List<List<String>> responses;
         try {
-            executable = runtimeProvider.getFile("fst-infl2");
+            responses = getPool(model, modelEncoding).processAll(requests);
         }
         catch (IOException e) {
             throw new AnalysisEngineProcessException(e);
         }
 
-        ProcessBuilder pb = new ProcessBuilder(executable.getAbsolutePath(), "-s", "-q",
-                model.getAbsolutePath());
-        pb.redirectError(Redirect.INHERIT);
+        for (int s = 0; s < sentences.size(); s++) {
+            Iterator<String> lines = responses.get(s).iterator();
 
-        StringBuffer lastOut = new StringBuffer();
-        String lastIn = null;
-        boolean success = false;
-        Process proc = null;
-        try {
-            proc = pb.start();
+            // Read sentence tags
+            tokenLoop: for (Token token : sentences.get(s)) {
+                boolean skip = false;
+                analysisLoop: while (lines.hasNext()) {
+                    String line = lines.next();
 
-            PrintWriter out = new PrintWriter(new OutputStreamWriter(proc.getOutputStream(),
-                    modelEncoding));
-            BufferedReader in = new BufferedReader(new InputStreamReader(proc.getInputStream(),
-                    modelEncoding));
+                    // Analysis line
+                    if (line.startsWith(">")) {
+                        // Echo line, ignore.
+                        continue analysisLoop;
+                    }
 
-            for (Sentence sentence : select(aJCas, Sentence.class)) {
-                List<Token> tokens = selectCovered(Token.class, sentence);
+                    if (line.contains(FLUSH_TOKEN)) {
+                        // End of analysis
+                        continue tokenLoop;
+                    }
 
-                // Skip empty sentences
-                if (tokens.isEmpty()) {
-                    continue;
-                }
+                    if (line.startsWith("no result for")) {
+                        // No analysis for this token
+                        MorphologicalFeatures morph = new MorphologicalFeatures(aJCas,
+                                token.getBegin(), token.getEnd());
+                        morph.setValue("");
+                        morph.addToIndexes();
 
-                // Send full sentence
-                for (Token token : tokens) {
-                    lastOut.append(token.getCoveredText()).append(' ');
-                    out.printf("%s%n", token.getCoveredText());
-                    out.printf("%s%n", FLUSH_TOKEN);
-                }
-                out.flush();
-
-                // Read sentence tags
-                tokenLoop: for (Token token : tokens) {
-                    boolean skip = false;
-                    analysisLoop: while ((lastIn = in.readLine()) != null) {
-                        // Analysis line
-                        if (lastIn.startsWith(">")) {
-                            // Echo line, ignore.
-                            continue analysisLoop;
-                        }
-                        
-                        if (lastIn.contains(FLUSH_TOKEN)) {
-                            // End of analysis
-                            continue tokenLoop;
+                        if (token.getMorph() == null) {
+                            token.setMorph(morph);
                         }
-                        
-                        if (lastIn.startsWith("no result for")) {
-                            // No analysis for this token
-                            MorphologicalFeatures morph = new MorphologicalFeatures(aJCas,
-                                    token.getBegin(), token.getEnd());
-                            morph.setValue("");
-                            morph.addToIndexes();
-                            
-                            if (token.getMorph() == null) {
-                                token.setMorph(morph);
-                            }
-                            
-                            // We need to continue the inner loop because we still need to consume
-                            // the flush marker.
-                            continue analysisLoop;
-                        }
-                        
-                        // Analysis line
-                        if (!skip) {
-                            MorphologicalFeatures morph = featuresParser
-                                    .parse(aJCas, token, lastIn);
-                            
-                            if (token.getMorph() == null) {
-                                token.setMorph(morph);
-                            }
-                        }
-                            
-                        switch (mode) {
-                        case FIRST:
-                            // Go to next token after reading first analysis
-                            skip = true;
-                            break;
-                        case ALL:
-                            // We record all analyses
-                            break;
+
+                        // We need to continue the inner loop because we still need to consume
+                        // the flush marker.
+                        continue analysisLoop;
+                    }
+
+                    // Analysis line
+                    if (!skip) {
+                        MorphologicalFeatures morph = featuresParser.parse(aJCas, token, line);
+
+                        if (token.getMorph() == null) {
+                            token.setMorph(morph);
                         }
                     }
-                }
 
-                lastOut.setLength(0);
+                    switch (mode) {
+                    case FIRST:
+                        // Go to next token after reading first analysis
+                        skip = true;
+                        break;
+                    case ALL:
+                        // We record all analyses
+                        break;
+                    }
+                }
             }
-
-            success = true;
         }
-        catch (IOException e) {
-            throw new AnalysisEngineProcessException(e);
-        }
-        finally {
-            if (!success) {
-                getLogger().error("Sent before error: [" + lastOut + "]");
-                getLogger().error("Last response before error: [" + lastIn + "]");
-            }
-            if (proc != null) {
-                proc.destroy();
+    }
+
+    /**
+     * Get the pool of SFST processes for the given model. If the model has changed, the
+     * processes for the previous model are stopped.
+     */
+    private ExternalProcessPool getPool(File aModel, String aEncoding)
+        throws IOException
+    {
+        if (pool == null || !aModel.equals(poolModel) || !aEncoding.equals(poolEncoding)) {
+            if (pool != null) {
+                pool.close();
             }
+
+            File executable = runtimeProvider.getFile("fst-infl2");
+            pool = new ExternalProcessPool(asList(executable.getAbsolutePath(), "-s", "-q",
+                    aModel.getAbsolutePath()), aEncoding, new FlushTokenProtocol());
+            pool.setSize(numProcesses);
+            pool.setTimeout(timeout);
+            poolModel = aModel;
+            poolEncoding = aEncoding;
         }
+        return pool;
     }
 
     @Override
     public void destroy()
     {
+        if (pool != null) {
+            pool.close();
+            pool = null;
+        }
         runtimeProvider.uninstall();
         super.destroy();
     }
+
+    /**
+     * Sends each token followed by a {@link #FLUSH_TOKEN flush token} which cannot be analyzed
+     * and thus marks the end of the analyses for the token. The response ends once a flush token
+     * has been read for every token. Echoed input lines are part of the response.
+     */
+    private static class FlushTokenProtocol
+        implements ExternalProcessPool.Protocol
+    {
+        @Override
+        public void writeRequest(Writer aOut, List<String> aRequest)
+            throws IOException
+        {
+            for (String token : aRequest) {
+                aOut.write(token);
+                aOut.write('\n');
+                aOut.write(FLUSH_TOKEN);
+                aOut.write('\n');
+            }
+        }
+
+        @Override
+        public List<String> readResponse(BufferedReader aIn, List<String> aRequest)
+            throws IOException
+        {
+            List<String> response = new ArrayList<>();
+            int flushed = 0;
+            while (flushed < aRequest.size()) {
+                String line = ExternalProcessPool.readLine(aIn);
+                if (!line.startsWith(">") && line.contains(FLUSH_TOKEN)) {
+                    flushed++;
+                }
+                response.add(line);
+            }
+            return response;
+        }
+    }
 }
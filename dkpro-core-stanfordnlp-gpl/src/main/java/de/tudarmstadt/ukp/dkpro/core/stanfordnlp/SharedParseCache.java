@@ -0,0 +1,114 @@
+/**
+ * Copyright 2017
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses/.
+ */
+package de.tudarmstadt.ukp.dkpro.core.stanfordnlp;
+
+import java.util.Map;
+import java.util.function.Function;
+
+import org.apache.uima.fit.component.Resource_ImplBase;
+import org.apache.uima.fit.descriptor.ConfigurationParameter;
+import org.apache.uima.resource.ResourceInitializationException;
+import org.apache.uima.resource.ResourceSpecifier;
+
+import de.tudarmstadt.ukp.dkpro.core.api.resources.LruCache;
+import de.tudarmstadt.ukp.dkpro.core.stanfordnlp.util.ParseCacheKey;
+import edu.stanford.nlp.trees.Tree;
+
+/**
+ * Cache for parse trees which can be shared by several parsers, e.g. by all instances of a
+ * {@link StanfordParser} in a multi-threaded pipeline. Boilerplate sentences like copyright notices
+ * or bylines recur many times in web and news corpora, but need to be parsed only once. The cache
+ * is keyed by the model and the words and tags of a sentence, so it can be shared by parsers using
+ * different models. It is thread-safe and evicts the least recently used parses once it is full.
+ * <p>
+ * The cached trees are independent of the position of the sentence. They are mapped to the tokens
+ * of each occurrence when the annotations are created.
+ */
+public class SharedParseCache
+    extends Resource_ImplBase
+{
+    /**
+     * The maximum number of parses kept in the cache.
+     */
+    public static final String PARAM_CACHE_SIZE = "cacheSize";
+    @ConfigurationParameter(name = PARAM_CACHE_SIZE, mandatory = true, defaultValue = "10000")
+    private int cacheSize;
+
+    private LruCache<ParseCacheKey, Tree> cache;
+
+    @Override
+    public boolean initialize(ResourceSpecifier aSpecifier, Map aAdditionalParams)
+        throws ResourceInitializationException
+    {
+        if (!super.initialize(aSpecifier, aAdditionalParams)) {
+            return false;
+        }
+
+        cache = new LruCache<>(cacheSize);
+        return true;
+    }
+
+    /**
+     * Get the parse for a sentence, computing and caching it if it is not in the cache yet. The
+     * result may be shared and must not be modified.
+     *
+     * @param aKey
+     *            the sentence.
+     * @param aFunction
+     *            the function parsing the sentence.
+     * @return the parse.
+     */
+    public Tree get(ParseCacheKey aKey, Function<ParseCacheKey, Tree> aFunction)
+    {
+        return cache.computeIfAbsent(aKey, aFunction);
+    }
+
+    /**
+     * @return the number of sentences for which the parse was found in the cache.
+     */
+    public long getHitCount()
+    {
+        return cache.getHitCount();
+    }
+
+    /**
+     * @return the number of sentences which had to be parsed.
+     */
+    public long getMissCount()
+    {
+        return cache.getMissCount();
+    }
+
+    /**
+     * @return the fraction of lookups answered from the cache.
+     */
+    public double getHitRate()
+    {
+        long lookups = getHitCount() + getMissCount();
+        return lookups > 0 ? (double) getHitCount() / lookups : 0.0;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "SharedParseCache [size=" + cache.size() + ", maxSize=" + cache.getMaxSize()
+                + ", hits=" + getHitCount() + ", misses=" + getMissCount() + ", hitRate="
+                + String.format("%.3f", getHitRate()) + "]";
+    }
+}
@@ -32,6 +32,14 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import java.util.zip.GZIPInputStream;
 
 import org.apache.commons.lang.StringUtils;
@@ -42,6 +50,7 @@ import org.apache.uima.cas.FSIterator;
 import org.apache.uima.cas.Type;
 import org.apache.uima.fit.component.JCasAnnotator_ImplBase;
 import org.apache.uima.fit.descriptor.ConfigurationParameter;
+import org.apache.uima.fit.descriptor.ExternalResource;
 import org.apache.uima.fit.descriptor.TypeCapability;
 import org.apache.uima.fit.util.JCasUtil;
 import org.apache.uima.jcas.JCas;
@@ -52,7 +61,7 @@ import org.apache.uima.util.Level;
 import de.tudarmstadt.ukp.dkpro.core.api.lexmorph.type.pos.POS;
 import de.tudarmstadt.ukp.dkpro.core.api.metadata.SingletonTagset;
 import de.tudarmstadt.ukp.dkpro.core.api.parameter.ComponentParameters;
-import de.tudarmstadt.ukp.dkpro.core.api.resources.CasConfigurableProviderBase;
+import de.tudarmstadt.ukp.dkpro.core.api.resources.LruCache;
 import de.tudarmstadt.ukp.dkpro.core.api.resources.MappingProvider;
 import de.tudarmstadt.ukp.dkpro.core.api.resources.MappingProviderFactory;
 import de.tudarmstadt.ukp.dkpro.core.api.resources.ModelProviderBase;
@@ -63,6 +72,7 @@ import de.tudarmstadt.ukp.dkpro.core.api.syntax.type.dependency.Dependency;
 import de.tudarmstadt.ukp.dkpro.core.api.syntax.type.dependency.DependencyFlavor;
 import de.tudarmstadt.ukp.dkpro.core.api.syntax.type.dependency.ROOT;
 import de.tudarmstadt.ukp.dkpro.core.stanfordnlp.util.CoreNlpUtils;
+import de.tudarmstadt.ukp.dkpro.core.stanfordnlp.util.ParseCacheKey;
 import de.tudarmstadt.ukp.dkpro.core.stanfordnlp.util.StanfordAnnotator;
 import de.tudarmstadt.ukp.dkpro.core.stanfordnlp.util.TreeWithTokens;
 import edu.stanford.nlp.ling.CoreLabel;
@@ -322,9 +332,54 @@ public class StanfordParser
     @ConfigurationParameter(name = PARAM_KEEP_PUNCTUATION, mandatory = true, defaultValue = "false")
     private boolean keepPunctuation;
 
-    private CasConfigurableProviderBase<ParserGrammar> modelProvider;
+    /**
+     * Number of threads used to parse the sentences of a document concurrently. Each thread uses
+     * its own {@link ParserQuery} on the shared grammar. The annotations are still created in
+     * sentence order on the calling thread. See {@link ComponentParameters#computeNumThreads(int)}
+     * for the interpretation of zero and negative values.
+     * <p>
+     * Default: {@code 1} (parse on the calling thread)
+     */
+    public static final String PARAM_NUM_THREADS = ComponentParameters.PARAM_NUM_THREADS;
+    @ConfigurationParameter(name = PARAM_NUM_THREADS, mandatory = true, defaultValue = "1")
+    private int numThreads;
+
+    /**
+     * Time in milliseconds after which the parsing of a single sentence is aborted. Sentences which
+     * could not be parsed in time are skipped like sentences exceeding
+     * {@link #PARAM_MAX_SENTENCE_LENGTH}. Each sentence is given at least this amount of time, but
+     * may get more when it is parsed while the previous sentences are still being waited for.
+     * <p>
+     * Default: {@code 0} (no timeout)
+     */
+    public static final String PARAM_SENTENCE_TIMEOUT = "sentenceTimeout";
+    @ConfigurationParameter(name = PARAM_SENTENCE_TIMEOUT, mandatory = true, defaultValue = "0")
+    private int sentenceTimeout;
+
+    /**
+     * This external resource caches the parses of sentences, so that sentences which occur many
+     * times, e.g. boilerplate text, are only parsed once. It can be shared by several parsers. If
+     * it is not set, each parser uses its own cache of size {@link #PARAM_PARSE_CACHE_SIZE}.
+     */
+    public static final String PARAM_PARSE_CACHE = "parseCache";
+    @ExternalResource(key = PARAM_PARSE_CACHE, mandatory = false)
+    private SharedParseCache sharedParseCache;
+
+    /**
+     * The maximum number of parses cached by this parser if no shared cache is set. The least
+     * recently used parses are evicted first.
+     * <p>
+     * Default: {@code 0} (no caching)
+     */
+    public static final String PARAM_PARSE_CACHE_SIZE = "parseCacheSize";
+    @ConfigurationParameter(name = PARAM_PARSE_CACHE_SIZE, mandatory = true, defaultValue = "0")
+    private int parseCacheSize;
+
+    private StanfordParserModelProvider modelProvider;
     private MappingProvider posMappingProvider;
     private MappingProvider constituentMappingProvider;
+    private ExecutorService executor;
+    private LruCache<ParseCacheKey, Tree> parseCache;
 
     @Override
     public void initialize(UimaContext context)
@@ -352,6 +407,23 @@ public class StanfordParser
         
         constituentMappingProvider = MappingProviderFactory.createConstituentMappingProvider(
                 constituentMappingLocation, language, modelProvider);
+
+        if (sharedParseCache == null && parseCacheSize > 0) {
+            parseCache = new LruCache<>(parseCacheSize);
+        }
+
+        // Without a timeout, a single thread parses on the calling thread and needs no executor
+        int threads = ComponentParameters.computeNumThreads(numThreads);
+        if (threads > 1 || sentenceTimeout > 0) {
+            getLogger().info("Parsing with " + threads + " threads");
+            AtomicInteger threadCount = new AtomicInteger();
+            executor = Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable,
+                        getClass().getSimpleName() + "-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
     }
 
     /**
@@ -380,7 +452,7 @@ public class StanfordParser
                 .iterator();
 
         // Iterator each Sentence or whichever construct to parse
-
+        List<ParserInput> inputs = new ArrayList<>();
         while (typeToParseIterator.hasNext()) {
             Annotation currAnnotationToParse = typeToParseIterator.next();
             
@@ -398,58 +470,166 @@ public class StanfordParser
             }
 
             getContext().getLogger().log(FINE, tokenizedSentence.toString());
-            ParserGrammar parser = modelProvider.getResource();
             
-            Tree parseTree;
-            try {
-                if (tokenizedSentence.size() > maxTokens) {
-                    continue;
+            if (tokenizedSentence.size() > maxTokens) {
+                continue;
+            }
+            
+            if (ptb3Escaping) {
+                tokenizedSentence = CoreNlpUtils.applyPtbEscaping(tokenizedSentence, quoteBegin,
+                        quoteEnd);
+            }
+            
+            inputs.add(new ParserInput(currAnnotationToParse, tokens, tokenizedSentence));
+        }
+
+        ParserGrammar parser = modelProvider.getResource();
+        String modelId = modelProvider.getModelId();
+        
+        if (executor == null) {
+            for (ParserInput input : inputs) {
+                Tree parseTree;
+                try {
+                    parseTree = parse(parser, modelId, input.words);
                 }
-                
-                if (ptb3Escaping) {
-                    tokenizedSentence = CoreNlpUtils.applyPtbEscaping(tokenizedSentence,
-                            quoteBegin, quoteEnd);
+                catch (Exception e) {
+                    throw new AnalysisEngineProcessException(e);
                 }
-
-                // Get parse
-                ParserQuery query = parser.parserQuery();
-                query.parse(tokenizedSentence);
-                parseTree = query.getBestParse();
-            }
-            catch (Exception e) {
-                throw new AnalysisEngineProcessException(e);
+                createAnnotations(parser, input, parseTree);
             }
+            return;
+        }
+        
+        // Submit all sentences at once, but create the annotations in sentence order as the
+        // parses become available
+        List<Future<Tree>> parses = new ArrayList<>();
+        for (ParserInput input : inputs) {
+            parses.add(executor.submit(() -> parse(parser, modelId, input.words)));
+        }
 
-            // Create new StanfordAnnotator object
-            StanfordAnnotator sfAnnotator = null;
-            try {
-                sfAnnotator = new StanfordAnnotator(new TreeWithTokens(parseTree, tokens));
-                sfAnnotator.setPosMappingProvider(posMappingProvider);
-                sfAnnotator.setConstituentMappingProvider(constituentMappingProvider);
+        try {
+            for (int i = 0; i < inputs.size(); i++) {
+                ParserInput input = inputs.get(i);
+                Future<Tree> future = parses.get(i);
+                Tree parseTree;
+                try {
+                    if (sentenceTimeout > 0) {
+                        parseTree = future.get(sentenceTimeout, TimeUnit.MILLISECONDS);
+                    }
+                    else {
+                        parseTree = future.get();
+                    }
+                }
+                catch (TimeoutException e) {
+                    future.cancel(true);
+                    getLogger().warn("Parsing timed out after " + sentenceTimeout + "ms, skipping ["
+                            + input.annotation.getCoveredText() + "]");
+                    continue;
+                }
+                catch (ExecutionException e) {
+                    throw new AnalysisEngineProcessException(e.getCause());
+                }
+                createAnnotations(parser, input, parseTree);
             }
-            catch (Exception e) {
-                getLogger().error(
-                        "Unable to parse [" + currAnnotationToParse.getCoveredText() + "]");
-                throw new AnalysisEngineProcessException(e);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AnalysisEngineProcessException(e);
+        }
+        finally {
+            // Do not keep parsing the rest of the document if something went wrong
+            for (Future<Tree> future : parses) {
+                future.cancel(true);
             }
+        }
+    }
 
-            // Create Penn bracketed structure annotations
-            if (writePennTree) {
-                sfAnnotator.createPennTreeAnnotation(currAnnotationToParse.getBegin(),
-                        currAnnotationToParse.getEnd());
-            }
+    private Tree parse(ParserGrammar aParser, String aModelId, List<HasWord> aWords)
+    {
+        if (sharedParseCache == null && parseCache == null) {
+            return parse(aParser, aWords);
+        }
+        
+        // The cache keeps its own copy of the tree, because creating the annotations modifies it
+        ParseCacheKey key = new ParseCacheKey(aModelId, aWords);
+        Function<ParseCacheKey, Tree> parseFunction = k -> parse(aParser, aWords).deepCopy();
+        Tree cachedTree;
+        if (sharedParseCache != null) {
+            cachedTree = sharedParseCache.get(key, parseFunction);
+        }
+        else {
+            cachedTree = parseCache.computeIfAbsent(key, parseFunction);
+        }
+        return cachedTree.deepCopy();
+    }
 
-            // Create dependency annotations
-            if (writeDependency) {
-                doCreateDependencyTags(parser, sfAnnotator, parseTree, tokens);
-            }
+    private Tree parse(ParserGrammar aParser, List<HasWord> aWords)
+    {
+        // Each query has its own parsing state, so queries can run concurrently on one grammar
+        ParserQuery query = aParser.parserQuery();
+        query.parse(aWords);
+        return query.getBestParse();
+    }
 
-            // Create constituent annotations
-            if (writeConstituent) {
-                sfAnnotator.createConstituentAnnotationFromTree(parser.getTLPParams()
-                        .treebankLanguagePack(), writePos);
-            }
+    private void createAnnotations(ParserGrammar aParser, ParserInput aInput, Tree aParseTree)
+        throws AnalysisEngineProcessException
+    {
+        Annotation currAnnotationToParse = aInput.annotation;
+        
+        // Create new StanfordAnnotator object
+        StanfordAnnotator sfAnnotator = null;
+        try {
+            sfAnnotator = new StanfordAnnotator(new TreeWithTokens(aParseTree, aInput.tokens));
+            sfAnnotator.setPosMappingProvider(posMappingProvider);
+            sfAnnotator.setConstituentMappingProvider(constituentMappingProvider);
+        }
+        catch (Exception e) {
+            getLogger().error(
+                    "Unable to parse [" + currAnnotationToParse.getCoveredText() + "]");
+            throw new AnalysisEngineProcessException(e);
+        }
+
+        // Create Penn bracketed structure annotations
+        if (writePennTree) {
+            sfAnnotator.createPennTreeAnnotation(currAnnotationToParse.getBegin(),
+                    currAnnotationToParse.getEnd());
+        }
+
+        // Create dependency annotations
+        if (writeDependency) {
+            doCreateDependencyTags(aParser, sfAnnotator, aParseTree, aInput.tokens);
+        }
+
+        // Create constituent annotations
+        if (writeConstituent) {
+            sfAnnotator.createConstituentAnnotationFromTree(aParser.getTLPParams()
+                    .treebankLanguagePack(), writePos);
+        }
+    }
+
+    @Override
+    public void collectionProcessComplete()
+        throws AnalysisEngineProcessException
+    {
+        if (sharedParseCache != null) {
+            getLogger().info(sharedParseCache.toString());
+        }
+        else if (parseCache != null) {
+            getLogger().info("Parse cache: hits=" + parseCache.getHitCount() + ", misses="
+                    + parseCache.getMissCount());
         }
+        super.collectionProcessComplete();
+    }
+
+    @Override
+    public void destroy()
+    {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+        
+        super.destroy();
     }
 
     protected void doCreateDependencyTags(ParserGrammar aParser, StanfordAnnotator sfAnnotator, Tree parseTree,
@@ -539,6 +719,24 @@ public class StanfordParser
         return l;
     }
 
+    /**
+     * A sentence prepared for parsing. The words are extracted on the calling thread so that the
+     * parser threads do not need to access the CAS.
+     */
+    private static class ParserInput
+    {
+        final Annotation annotation;
+        final List<Token> tokens;
+        final List<HasWord> words;
+
+        ParserInput(Annotation aAnnotation, List<Token> aTokens, List<HasWord> aWords)
+        {
+            annotation = aAnnotation;
+            tokens = aTokens;
+            words = aWords;
+        }
+    }
+
     private class StanfordParserModelProvider
         extends ModelProviderBase<ParserGrammar>
     {
@@ -554,6 +752,15 @@ public class StanfordParser
             setOverride(VARIANT, variant);
         }
 
+        /**
+         * Identifies the model and the settings affecting the parse, to tell apart the parses of
+         * different models in a shared parse cache.
+         */
+        String getModelId()
+        {
+            return getLastModelLocation() + "?maxItems=" + maxItems;
+        }
+
         @Override
         protected ParserGrammar produceResource(URL aUrl)
             throws IOException
@@ -0,0 +1,91 @@
+/**
+ * Copyright 2017
+ * Ubiquitous Knowledge Processing (UKP) Lab
+ * Technische Universität Darmstadt
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses/.
+ */
+package de.tudarmstadt.ukp.dkpro.core.stanfordnlp.util;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import edu.stanford.nlp.ling.HasTag;
+import edu.stanford.nlp.ling.HasWord;
+
+/**
+ * Key for caching the parse of a sentence. Two keys are equal if they refer to the same model and
+ * the parser input consists of the same words with the same tags, regardless of where the sentence
+ * occurs. The hash code is computed once when the key is created.
+ */
+public final class ParseCacheKey
+{
+    private final String model;
+    private final String[] words;
+    private final String[] tags;
+    private final int hash;
+
+    /**
+     * @param aModel
+     *            identifies the model and any settings affecting the parse.
+     * @param aWords
+     *            the words passed to the parser. The tags are taken into account if the words
+     *            implement {@link HasTag}.
+     */
+    public ParseCacheKey(String aModel, List<? extends HasWord> aWords)
+    {
+        model = aModel;
+        words = new String[aWords.size()];
+        tags = new String[aWords.size()];
+        for (int i = 0; i < words.length; i++) {
+            HasWord word = aWords.get(i);
+            words[i] = word.word();
+            if (word instanceof HasTag) {
+                tags[i] = ((HasTag) word).tag();
+            }
+        }
+
+        int h = Objects.hashCode(model);
+        h = 31 * h + Arrays.hashCode(words);
+        h = 31 * h + Arrays.hashCode(tags);
+        hash = h;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object aOther)
+    {
+        if (this == aOther) {
+            return true;
+        }
+        if (!(aOther instanceof ParseCacheKey)) {
+            return false;
+        }
+        ParseCacheKey other = (ParseCacheKey) aOther;
+        return hash == other.hash && Objects.equals(model, other.model)
+                && Arrays.equals(words, other.words) && Arrays.equals(tags, other.tags);
+    }
+
+    @Override
+    public String toString()
+    {
+        return "ParseCacheKey [model=" + model + ", words=" + Arrays.toString(words) + "]";
+    }
+}
@@ -18,10 +18,13 @@
  */
 package de.tudarmstadt.ukp.dkpro.core.stanfordnlp;
 
+import static java.util.Arrays.asList;
 import static org.apache.uima.fit.factory.AnalysisEngineFactory.createEngine;
 import static org.apache.uima.fit.factory.AnalysisEngineFactory.createEngineDescription;
+import static org.apache.uima.fit.factory.ExternalResourceFactory.createExternalResourceDescription;
 import static org.apache.uima.fit.util.JCasUtil.select;
 import static org.apache.uima.fit.util.JCasUtil.selectSingle;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
@@ -1098,6 +1101,124 @@ public class StanfordParserTest
                 pennOriginal.equals(pennFromRecreatedTree));
     }
 
+    @Test
+    public void testEnglishFactoredMultiThreaded()
+        throws Exception
+    {
+        String text = "We need a very complicated example sentence , which contains as many "
+                + "constituents and dependencies as possible .\n"
+                + "This is a test .\n"
+                + "The quick brown fox jumps over the lazy dog .\n"
+                + "Parsing sentences in parallel should not change the result .";
+
+        JCas serial = runTest("en", "factored", text);
+        JCas parallel = runTest("en", "factored", text,
+                StanfordParser.PARAM_NUM_THREADS, 2,
+                StanfordParser.PARAM_SENTENCE_TIMEOUT, 60000);
+
+        List<String> expected = new ArrayList<String>();
+        for (PennTree tree : select(serial, PennTree.class)) {
+            expected.add(tree.getPennTree());
+        }
+        AssertAnnotations.assertPennTree(expected.toArray(new String[expected.size()]),
+                select(parallel, PennTree.class));
+
+        assertEquals(dependencies(serial), dependencies(parallel));
+    }
+
+    @Test
+    public void testEnglishFactoredSentenceTimeout()
+        throws Exception
+    {
+        AssumeResource.assumeResource(StanfordParser.class, "parser", "en", "factored");
+
+        // With a single worker thread, a parse which is not aborted when it times out keeps the
+        // following sentences from being parsed in time
+        AnalysisEngine parser = createEngine(StanfordParser.class,
+                StanfordParser.PARAM_VARIANT, "factored",
+                StanfordParser.PARAM_WRITE_PENN_TREE, true,
+                StanfordParser.PARAM_NUM_THREADS, 1,
+                StanfordParser.PARAM_SENTENCE_TIMEOUT, 500);
+
+        // Warm up the parser, so that the short sentences below are parsed well within the timeout
+        TestRunner.runTest(parser, "en", "This is a test .");
+
+        // Parsing this sentence takes much longer than the timeout
+        StringBuilder longSentence = new StringBuilder();
+        for (int i = 0; i < 4; i++) {
+            if (i > 0) {
+                longSentence.append(", and ");
+            }
+            longSentence.append("the committee that met in the old town hall on Monday "
+                    + "discussed the new budget ");
+        }
+        longSentence.append(".");
+
+        String text = longSentence + "\n"
+                + "This is a test .\n"
+                + "The quick brown fox jumps over the lazy dog .";
+
+        JCas jcas = TestRunner.runTest(parser, "en", text);
+
+        // The long sentence is skipped and the sentences after it are still parsed
+        List<String> parsed = new ArrayList<String>();
+        for (PennTree tree : select(jcas, PennTree.class)) {
+            parsed.add(tree.getCoveredText());
+        }
+        assertEquals(asList("This is a test .", "The quick brown fox jumps over the lazy dog ."),
+                parsed);
+    }
+
+    @Test
+    public void testEnglishFactoredParseCache()
+        throws Exception
+    {
+        String text = "All rights reserved .\n"
+                + "This is a test .\n"
+                + "All rights reserved .\n"
+                + "This is a test .\n"
+                + "All rights reserved .";
+
+        JCas uncached = runTest("en", "factored", text);
+
+        AnalysisEngine parser = createEngine(StanfordParser.class,
+                StanfordParser.PARAM_VARIANT, "factored",
+                StanfordParser.PARAM_WRITE_CONSTITUENT, true,
+                StanfordParser.PARAM_WRITE_DEPENDENCY, true,
+                StanfordParser.PARAM_WRITE_PENN_TREE, true,
+                StanfordParser.PARAM_WRITE_POS, true,
+                StanfordParser.PARAM_PARSE_CACHE,
+                createExternalResourceDescription(SharedParseCache.class));
+        JCas cached = TestRunner.runTest(parser, "en", text);
+
+        // Each of the two distinct sentences is parsed once, the repetitions come from the cache
+        SharedParseCache cache = (SharedParseCache) parser.getUimaContext().getResourceObject(
+                StanfordParser.PARAM_PARSE_CACHE);
+        assertEquals(2, cache.getMissCount());
+        assertEquals(3, cache.getHitCount());
+
+        // Cached parses are replayed at the offsets of each repetition
+        List<String> expected = new ArrayList<String>();
+        for (PennTree tree : select(uncached, PennTree.class)) {
+            expected.add(tree.getPennTree());
+        }
+        AssertAnnotations.assertPennTree(expected.toArray(new String[expected.size()]),
+                select(cached, PennTree.class));
+
+        assertEquals(dependencies(uncached), dependencies(cached));
+    }
+
+    private static List<String> dependencies(JCas aJCas)
+    {
+        List<String> dependencies = new ArrayList<String>();
+        for (Dependency dep : select(aJCas, Dependency.class)) {
+            dependencies.add(String.format("%s %d,%d -> %d,%d", dep.getDependencyType(),
+                    dep.getDependent().getBegin(), dep.getDependent().getEnd(),
+                    dep.getGovernor().getBegin(), dep.getGovernor().getEnd()));
+        }
+        return dependencies;
+    }
+
     @Test
     public void testModelSharing()
         throws Exception